@@ -19,11 +19,13 @@ package io.zeebe.broker.clustering.base.gossip;
 
 import static org.agrona.BitUtil.SIZE_OF_BYTE;
 import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 import java.nio.ByteOrder;
 import java.util.Set;
 
 import io.zeebe.broker.clustering.base.topology.NodeInfo;
+import io.zeebe.broker.clustering.base.topology.NodeLoadVector;
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
 import io.zeebe.broker.clustering.base.topology.Topology;
 import io.zeebe.broker.clustering.base.topology.TopologyManagerImpl;
@@ -156,4 +158,61 @@ public final class GossipCustomEventEncoding
             topologyManager.updatePartition(partition, topicBuffer, replicationFactor, member, raftState);
         }
     }
+
+    public static int writeLoad(NodeLoadVector load, MutableDirectBuffer writeBuffer, int offset)
+    {
+        writeBuffer.putInt(offset, load.getCpuUtilization(), ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_INT;
+
+        writeBuffer.putLong(offset, load.getSnapshotBytes(), ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_LONG;
+
+        final int partitionCount = load.getPartitionCount();
+        writeBuffer.putInt(offset, partitionCount, ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_INT;
+
+        for (int i = 0; i < partitionCount; i++)
+        {
+            writeBuffer.putInt(offset, load.getPartitionId(i), ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_INT;
+
+            writeBuffer.putLong(offset, load.getCommandRate(i), ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_LONG;
+
+            writeBuffer.putLong(offset, load.getByteRate(i), ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_LONG;
+        }
+
+        return offset;
+    }
+
+    public static NodeLoadVector readLoad(DirectBuffer buffer, int offset)
+    {
+        final int cpuUtilization = buffer.getInt(offset, ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_INT;
+
+        final long snapshotBytes = buffer.getLong(offset, ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_LONG;
+
+        final int partitionCount = buffer.getInt(offset, ByteOrder.LITTLE_ENDIAN);
+        offset += SIZE_OF_INT;
+
+        final int[] partitionIds = new int[partitionCount];
+        final long[] commandRates = new long[partitionCount];
+        final long[] byteRates = new long[partitionCount];
+
+        for (int i = 0; i < partitionCount; i++)
+        {
+            partitionIds[i] = buffer.getInt(offset, ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_INT;
+
+            commandRates[i] = buffer.getLong(offset, ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_LONG;
+
+            byteRates[i] = buffer.getLong(offset, ByteOrder.LITTLE_ENDIAN);
+            offset += SIZE_OF_LONG;
+        }
+
+        return new NodeLoadVector(cpuUtilization, snapshotBytes, partitionIds, commandRates, byteRates);
+    }
 }
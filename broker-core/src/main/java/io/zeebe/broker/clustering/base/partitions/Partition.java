@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.clustering.base.partitions;
 
+import java.io.File;
+
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.spi.SnapshotStorage;
@@ -32,18 +34,26 @@ public class Partition implements Service<Partition>
 
     private final Injector<SnapshotStorage> snapshotStorageInjector = new Injector<>();
 
+    private final PartitionLoadMeter loadMeter = new PartitionLoadMeter();
+
     private final PartitionInfo info;
 
     private final RaftState state;
 
+    private final File dataDirectory;
+
+    private final File snapshotsDirectory;
+
     private LogStream logStream;
 
     private SnapshotStorage snapshotStorage;
 
-    public Partition(PartitionInfo partitionInfo, RaftState state)
+    public Partition(PartitionInfo partitionInfo, RaftState state, File dataDirectory, File snapshotsDirectory)
     {
         this.info = partitionInfo;
         this.state = state;
+        this.dataDirectory = dataDirectory;
+        this.snapshotsDirectory = snapshotsDirectory;
     }
 
     @Override
@@ -69,6 +79,22 @@ public class Partition implements Service<Partition>
         return state;
     }
 
+    /**
+     * @return the root folder of the partition, for data which is local to the broker (e.g. caches)
+     */
+    public File getDataDirectory()
+    {
+        return dataDirectory;
+    }
+
+    /**
+     * @return the folder of the partition's snapshots
+     */
+    public File getSnapshotsDirectory()
+    {
+        return snapshotsDirectory;
+    }
+
     public LogStream getLogStream()
     {
         return logStream;
@@ -88,4 +114,9 @@ public class Partition implements Service<Partition>
     {
         return snapshotStorageInjector;
     }
+
+    public PartitionLoadMeter getLoadMeter()
+    {
+        return loadMeter;
+    }
 }
@@ -178,8 +178,47 @@ public class PartitionInstallService implements Service<Void>, RaftStateListener
     {
         if (raftState == RaftState.LEADER)
         {
+            removeFollowerPartition(raft);
             installLeaderPartition(raft);
         }
+        else if (raftState == RaftState.FOLLOWER)
+        {
+            installFollowerPartition(raft);
+        }
+        else
+        {
+            removeFollowerPartition(raft);
+        }
+    }
+
+    private void installFollowerPartition(Raft raft)
+    {
+        final ServiceName<Partition> partitionServiceName = followerPartitionServiceName(raft.getName());
+
+        if (!startContext.hasService(partitionServiceName))
+        {
+            LOG.debug("Installing follower partition service for {}", partitionInfo);
+
+            final Partition partition = new Partition(partitionInfo, RaftState.FOLLOWER, configuration.getPartitionDirectory(), configuration.getSnapshotsDirectory());
+
+            startContext.createService(partitionServiceName, partition)
+                .dependency(logStreamServiceName, partition.getLogStreamInjector())
+                .dependency(snapshotStorageServiceName, partition.getSnapshotStorageInjector())
+                .group(isInternalSystemPartition ? FOLLOWER_PARTITION_SYSTEM_GROUP_NAME : FOLLOWER_PARTITION_GROUP_NAME)
+                .install();
+        }
+    }
+
+    private void removeFollowerPartition(Raft raft)
+    {
+        final ServiceName<Partition> partitionServiceName = followerPartitionServiceName(raft.getName());
+
+        if (startContext.hasService(partitionServiceName))
+        {
+            LOG.debug("Removing follower partition service for {}", partitionInfo);
+
+            startContext.removeService(partitionServiceName);
+        }
     }
 
     private void installLeaderPartition(Raft raft)
@@ -195,7 +234,7 @@ public class PartitionInstallService implements Service<Void>, RaftStateListener
             {
                 LOG.debug("Installing partition service for {}. Replication factor reached, got {}/{}.", partitionInfo, raftMemberSize, replicationFactor);
 
-                final Partition partition = new Partition(partitionInfo, RaftState.LEADER);
+                final Partition partition = new Partition(partitionInfo, RaftState.LEADER, configuration.getPartitionDirectory(), configuration.getSnapshotsDirectory());
 
                 startContext.createService(partitionServiceName, partition)
                     .dependency(leaderInitialEventCommittedServiceName(raft.getName(), raft.getTerm()))
@@ -0,0 +1,85 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.base.partitions;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the commands which are written to the log of a partition and derives
+ * their rates on every sample.
+ *
+ * <p>The counters are written by the client API; {@link #sample(long)} and the
+ * rates must only be accessed by one sampling actor.
+ */
+public class PartitionLoadMeter
+{
+    private final AtomicLong commandCount = new AtomicLong();
+    private final AtomicLong byteCount = new AtomicLong();
+
+    private long sampledCommandCount;
+    private long sampledByteCount;
+    private long sampleTime = -1;
+
+    private long commandRate;
+    private long byteRate;
+
+    public void onCommandsWritten(int commands, int bytes)
+    {
+        commandCount.addAndGet(commands);
+        byteCount.addAndGet(bytes);
+    }
+
+    /**
+     * Updates the rates to the commands written since the previous sample.
+     *
+     * @param now the current time in milliseconds
+     */
+    public void sample(long now)
+    {
+        final long currentCommandCount = commandCount.get();
+        final long currentByteCount = byteCount.get();
+
+        if (sampleTime >= 0 && now > sampleTime)
+        {
+            final long elapsedMillis = now - sampleTime;
+
+            commandRate = (currentCommandCount - sampledCommandCount) * 1000 / elapsedMillis;
+            byteRate = (currentByteCount - sampledByteCount) * 1000 / elapsedMillis;
+        }
+
+        sampledCommandCount = currentCommandCount;
+        sampledByteCount = currentByteCount;
+        sampleTime = now;
+    }
+
+    /**
+     * @return the commands per second at the last sample
+     */
+    public long getCommandRate()
+    {
+        return commandRate;
+    }
+
+    /**
+     * @return the written bytes per second at the last sample
+     */
+    public long getByteRate()
+    {
+        return byteRate;
+    }
+}
@@ -286,4 +286,12 @@ public class RaftPersistentConfiguration implements RaftPersistentStorage
     {
         return snapshotsDirectory;
     }
+
+    /**
+     * @return the root folder of the partition, which contains the metadata file, the log and the snapshots
+     */
+    public File getPartitionDirectory()
+    {
+        return file.getAbsoluteFile().getParentFile();
+    }
 }
@@ -31,6 +31,8 @@ public class NodeInfo
     private final Set<PartitionInfo> leaders = new HashSet<>();
     private final Set<PartitionInfo> followers = new HashSet<>();
 
+    private volatile NodeLoadVector load = NodeLoadVector.EMPTY;
+
     public NodeInfo(final SocketAddress clientApiAddress,
         final SocketAddress managementApiAddress,
         final SocketAddress replicationApiAddress)
@@ -85,6 +87,19 @@ public class NodeInfo
         return followers.remove(follower);
     }
 
+    /**
+     * @return the last load which is reported by the node
+     */
+    public NodeLoadVector getLoad()
+    {
+        return load;
+    }
+
+    public void setLoad(final NodeLoadVector load)
+    {
+        this.load = load;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,113 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.base.topology;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Collection;
+
+import io.zeebe.broker.clustering.base.partitions.Partition;
+import io.zeebe.broker.clustering.base.partitions.PartitionLoadMeter;
+
+/**
+ * Samples the load of the local node from its partitions and the operating system.
+ *
+ * <p>The sampler runs on the actor of the topology manager, so it only reads
+ * counters and file metadata and doesn't open any files.
+ */
+public class NodeLoadSampler
+{
+    private final OperatingSystemMXBean operatingSystem = ManagementFactory.getOperatingSystemMXBean();
+
+    /**
+     * @param partitions the partitions of the local node, at most one per partition id
+     * @param now the current time in milliseconds
+     */
+    public NodeLoadVector sample(Collection<Partition> partitions, long now)
+    {
+        final int partitionCount = partitions.size();
+
+        final int[] partitionIds = new int[partitionCount];
+        final long[] commandRates = new long[partitionCount];
+        final long[] byteRates = new long[partitionCount];
+        long snapshotBytes = 0;
+
+        int index = 0;
+        for (Partition partition : partitions)
+        {
+            final PartitionLoadMeter loadMeter = partition.getLoadMeter();
+            loadMeter.sample(now);
+
+            partitionIds[index] = partition.getInfo().getPartitionId();
+            commandRates[index] = loadMeter.getCommandRate();
+            byteRates[index] = loadMeter.getByteRate();
+            snapshotBytes += getSnapshotBytes(partition);
+
+            index++;
+        }
+
+        return new NodeLoadVector(getCpuUtilization(), snapshotBytes, partitionIds, commandRates, byteRates);
+    }
+
+    /**
+     * The recent CPU load of the broker's process over all processors, which
+     * is the closest to the utilization of the actor threads that is available
+     * without the scheduler exposing it. Unlike the system load average, it
+     * doesn't include other processes of the host, is bounded by 1 and is
+     * available on all platforms of the HotSpot based JVMs.
+     */
+    private int getCpuUtilization()
+    {
+        if (operatingSystem instanceof com.sun.management.OperatingSystemMXBean)
+        {
+            final double processCpuLoad = ((com.sun.management.OperatingSystemMXBean) operatingSystem).getProcessCpuLoad();
+
+            if (processCpuLoad >= 0)
+            {
+                return (int) (processCpuLoad * 1000);
+            }
+        }
+
+        // not available on this JVM or not sampled yet
+        return NodeLoadVector.UNKNOWN_CPU_UTILIZATION;
+    }
+
+    /**
+     * @return the size of the files in the snapshot folder of the partition,
+     *         read from the file system metadata
+     */
+    private static long getSnapshotBytes(Partition partition)
+    {
+        final File[] files = partition.getSnapshotsDirectory().listFiles();
+        long bytes = 0;
+
+        if (files != null)
+        {
+            for (final File file : files)
+            {
+                if (file.isFile())
+                {
+                    bytes += file.length();
+                }
+            }
+        }
+
+        return bytes;
+    }
+}
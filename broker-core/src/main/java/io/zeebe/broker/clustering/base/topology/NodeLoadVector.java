@@ -0,0 +1,109 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.base.topology;
+
+import java.util.Arrays;
+
+/**
+ * Load of a node as it is gossiped to the other nodes: the command and byte
+ * rates of its partitions, the size of their snapshots and the utilization of
+ * the processors of the node.
+ *
+ * <p>Immutable, so that it can be handed to other actors.
+ */
+public final class NodeLoadVector
+{
+    public static final int UNKNOWN_CPU_UTILIZATION = -1;
+
+    public static final NodeLoadVector EMPTY = new NodeLoadVector(UNKNOWN_CPU_UTILIZATION, 0, new int[0], new long[0], new long[0]);
+
+    private final int cpuUtilization;
+    private final long snapshotBytes;
+
+    private final int[] partitionIds;
+    private final long[] commandRates;
+    private final long[] byteRates;
+
+    /**
+     * @param cpuUtilization the utilization of the processors in permille or {@link #UNKNOWN_CPU_UTILIZATION}
+     * @param snapshotBytes the size of the snapshots of all partitions
+     * @param partitionIds the partitions of the node
+     * @param commandRates the commands per second, by partition index
+     * @param byteRates the bytes per second written to the log, by partition index
+     */
+    public NodeLoadVector(int cpuUtilization, long snapshotBytes, int[] partitionIds, long[] commandRates, long[] byteRates)
+    {
+        if (partitionIds.length != commandRates.length || partitionIds.length != byteRates.length)
+        {
+            throw new IllegalArgumentException("Expected rates for every partition");
+        }
+
+        this.cpuUtilization = cpuUtilization;
+        this.snapshotBytes = snapshotBytes;
+        this.partitionIds = partitionIds;
+        this.commandRates = commandRates;
+        this.byteRates = byteRates;
+    }
+
+    public int getCpuUtilization()
+    {
+        return cpuUtilization;
+    }
+
+    public long getSnapshotBytes()
+    {
+        return snapshotBytes;
+    }
+
+    public int getPartitionCount()
+    {
+        return partitionIds.length;
+    }
+
+    public int getPartitionId(int index)
+    {
+        return partitionIds[index];
+    }
+
+    public long getCommandRate(int index)
+    {
+        return commandRates[index];
+    }
+
+    public long getByteRate(int index)
+    {
+        return byteRates[index];
+    }
+
+    public long getTotalCommandRate()
+    {
+        return Arrays.stream(commandRates).sum();
+    }
+
+    public long getTotalByteRate()
+    {
+        return Arrays.stream(byteRates).sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("NodeLoadVector{cpuUtilization=%d, snapshotBytes=%d, partitionIds=%s, commandRates=%s, byteRates=%s}",
+            cpuUtilization, snapshotBytes, Arrays.toString(partitionIds), Arrays.toString(commandRates), Arrays.toString(byteRates));
+    }
+}
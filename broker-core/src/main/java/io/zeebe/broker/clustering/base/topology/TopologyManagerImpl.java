@@ -19,11 +19,13 @@ package io.zeebe.broker.clustering.base.topology;
 
 import static io.zeebe.broker.clustering.base.gossip.GossipCustomEventEncoding.*;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
 import io.zeebe.broker.Loggers;
+import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.gossip.Gossip;
 import io.zeebe.gossip.GossipCustomEventListener;
 import io.zeebe.gossip.GossipMembershipListener;
@@ -37,10 +39,12 @@ import io.zeebe.transport.SocketAddress;
 import io.zeebe.util.LogUtil;
 import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.ExpandableArrayBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Int2ObjectHashMap;
 import org.slf4j.Logger;
 
 public class TopologyManagerImpl extends Actor implements TopologyManager, RaftStateListener
@@ -49,12 +53,20 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
 
     public static final DirectBuffer CONTACT_POINTS_EVENT_TYPE = BufferUtil.wrapString("contact_points");
     public static final DirectBuffer PARTITIONS_EVENT_TYPE = BufferUtil.wrapString("partitions");
+    public static final DirectBuffer LOAD_EVENT_TYPE = BufferUtil.wrapString("load");
+
+    public static final Duration LOAD_PUBLISH_INTERVAL = Duration.ofSeconds(5);
 
     private final MembershipListener membershipListner = new MembershipListener();
     private final ContactPointsChangeListener contactPointsChangeListener = new ContactPointsChangeListener();
     private final PartitionChangeListener partitionChangeListener = new PartitionChangeListener();
     private final KnownContactPointsSyncHandler localContactPointsSycHandler = new KnownContactPointsSyncHandler();
     private final KnownPartitionsSyncHandler knownPartitionsSyncHandler = new KnownPartitionsSyncHandler();
+    private final LoadChangeListener loadChangeListener = new LoadChangeListener();
+    private final KnownLoadsSyncHandler knownLoadsSyncHandler = new KnownLoadsSyncHandler();
+
+    private final Int2ObjectHashMap<Partition> localPartitions = new Int2ObjectHashMap<>();
+    private final NodeLoadSampler loadSampler = new NodeLoadSampler();
 
     private final Topology topology;
     private final Gossip gossip;
@@ -81,13 +93,22 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
 
         gossip.addCustomEventListener(CONTACT_POINTS_EVENT_TYPE, contactPointsChangeListener);
         gossip.addCustomEventListener(PARTITIONS_EVENT_TYPE, partitionChangeListener);
+        gossip.addCustomEventListener(LOAD_EVENT_TYPE, loadChangeListener);
 
         // publishing should be done before registering sync handler, since
         // we can only handle sync requests if we published the custom event type before
         publishLocalContactPoints();
+        publishLocalLoad();
 
         gossip.registerSyncRequestHandler(CONTACT_POINTS_EVENT_TYPE, localContactPointsSycHandler);
         gossip.registerSyncRequestHandler(PARTITIONS_EVENT_TYPE, knownPartitionsSyncHandler);
+        gossip.registerSyncRequestHandler(LOAD_EVENT_TYPE, knownLoadsSyncHandler);
+    }
+
+    @Override
+    protected void onActorStarted()
+    {
+        actor.runAtFixedRate(LOAD_PUBLISH_INTERVAL, this::publishLocalLoad);
     }
 
     @Override
@@ -95,6 +116,7 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
     {
         gossip.removeCustomEventListener(partitionChangeListener);
         gossip.removeCustomEventListener(contactPointsChangeListener);
+        gossip.removeCustomEventListener(loadChangeListener);
 
         // remove gossip sync handlers?
     }
@@ -109,6 +131,25 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
         });
     }
 
+    public void onPartitionInstalled(Partition partition)
+    {
+        actor.run(() -> localPartitions.put(partition.getInfo().getPartitionId(), partition));
+    }
+
+    public void onPartitionRemoved(Partition partition)
+    {
+        actor.run(() ->
+        {
+            final int partitionId = partition.getInfo().getPartitionId();
+
+            // the partition may be installed in its new raft state already
+            if (localPartitions.get(partitionId) == partition)
+            {
+                localPartitions.remove(partitionId);
+            }
+        });
+    }
+
     public void updatePartition(int partitionId, DirectBuffer topicBuffer, int replicationFactor, NodeInfo member, RaftState raftState)
     {
         final PartitionInfo updatedPartition = topology.updatePartition(partitionId,
@@ -227,6 +268,34 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
         }
     }
 
+    private class LoadChangeListener implements GossipCustomEventListener
+    {
+        @Override
+        public void onEvent(SocketAddress sender, DirectBuffer payload)
+        {
+            final SocketAddress senderCopy = new SocketAddress(sender);
+            final DirectBuffer payloadCopy = BufferUtil.cloneBuffer(payload);
+
+            actor.run(() ->
+            {
+                final NodeInfo member = topology.getMemberByManagementApi(senderCopy);
+
+                if (member != null)
+                {
+                    final NodeLoadVector load = readLoad(payloadCopy, 0);
+                    member.setLoad(load);
+                    notifyMemberLoadUpdated(member, load);
+
+                    LOG.trace("Received load event for member {}: {}", senderCopy, load);
+                }
+                else
+                {
+                    LOG.trace("Received load event for unknown member {}", senderCopy);
+                }
+            });
+        }
+    }
+
     private class KnownContactPointsSyncHandler implements GossipSyncRequestHandler
     {
         private final ExpandableArrayBuffer writeBuffer = new ExpandableArrayBuffer();
@@ -271,6 +340,28 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
         }
     }
 
+    private class KnownLoadsSyncHandler implements GossipSyncRequestHandler
+    {
+        private final ExpandableArrayBuffer writeBuffer = new ExpandableArrayBuffer();
+
+        @Override
+        public ActorFuture<Void> onSyncRequest(GossipSyncRequest request)
+        {
+            return actor.call(() ->
+            {
+                LOG.trace("Got load sync request.");
+
+                for (NodeInfo member : topology.getMembers())
+                {
+                    final int length = writeLoad(member.getLoad(), writeBuffer, 0);
+                    request.addPayload(member.getManagementApiAddress(), writeBuffer, 0, length);
+                }
+
+                LOG.trace("Send load sync response.");
+            });
+        }
+    }
+
     private void publishLocalContactPoints()
     {
         final MutableDirectBuffer eventBuffer = new ExpandableArrayBuffer();
@@ -287,6 +378,20 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
         gossip.publishEvent(PARTITIONS_EVENT_TYPE, eventBuffer, 0, length);
     }
 
+    private void publishLocalLoad()
+    {
+        final NodeInfo local = topology.getLocal();
+
+        final NodeLoadVector load = loadSampler.sample(localPartitions.values(), ActorClock.currentTimeMillis());
+        local.setLoad(load);
+        notifyMemberLoadUpdated(local, load);
+
+        final MutableDirectBuffer eventBuffer = new ExpandableArrayBuffer();
+        final int length = writeLoad(load, eventBuffer, 0);
+
+        gossip.publishEvent(LOAD_EVENT_TYPE, eventBuffer, 0, length);
+    }
+
     public ActorFuture<Void> close()
     {
         return actor.close();
@@ -373,6 +478,14 @@ public class TopologyManagerImpl extends Actor implements TopologyManager, RaftS
         }
     }
 
+    private void notifyMemberLoadUpdated(NodeInfo memberInfo, NodeLoadVector load)
+    {
+        for (TopologyMemberListener listener : topologyMemberListers)
+        {
+            LogUtil.catchAndLog(LOG, () -> listener.onMemberLoadUpdated(memberInfo, load));
+        }
+    }
+
     private void notifyPartitionUpdated(PartitionInfo partitionInfo, NodeInfo member)
     {
         for (TopologyPartitionListener listener : topologyPartitionListers)
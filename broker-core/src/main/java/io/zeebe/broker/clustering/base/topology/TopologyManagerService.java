@@ -19,6 +19,7 @@ package io.zeebe.broker.clustering.base.topology;
 
 import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.LOCAL_NODE;
 
+import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.system.configuration.NetworkCfg;
 import io.zeebe.gossip.Gossip;
 import io.zeebe.raft.Raft;
@@ -36,6 +37,11 @@ public class TopologyManagerService implements Service<TopologyManager>
         .onRemove((name, raft) -> topologyManager.onRaftRemoved(raft))
         .build();
 
+    private final ServiceGroupReference<Partition> partitionsReference = ServiceGroupReference.<Partition>create()
+        .onAdd((name, partition) -> topologyManager.onPartitionInstalled(partition))
+        .onRemove((name, partition) -> topologyManager.onPartitionRemoved(partition))
+        .build();
+
     private final NodeInfo localMember;
 
     public TopologyManagerService(NetworkCfg cfg)
@@ -77,6 +83,11 @@ public class TopologyManagerService implements Service<TopologyManager>
         return raftReference;
     }
 
+    public ServiceGroupReference<Partition> getPartitionsReference()
+    {
+        return partitionsReference;
+    }
+
     public Injector<Gossip> getGossipInjector()
     {
         return gossipInjector;
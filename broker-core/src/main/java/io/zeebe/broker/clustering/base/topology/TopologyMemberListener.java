@@ -22,4 +22,9 @@ public interface TopologyMemberListener
     void onMemberAdded(NodeInfo memberInfo, Topology topology);
 
     void onMemberRemoved(NodeInfo memberInfo, Topology topology);
+
+    default void onMemberLoadUpdated(NodeInfo memberInfo, NodeLoadVector load)
+    {
+        // ignore by default
+    }
 }
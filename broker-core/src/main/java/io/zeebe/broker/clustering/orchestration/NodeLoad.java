@@ -18,6 +18,7 @@
 package io.zeebe.broker.clustering.orchestration;
 
 import io.zeebe.broker.clustering.base.topology.NodeInfo;
+import io.zeebe.broker.clustering.base.topology.NodeLoadVector;
 import io.zeebe.broker.clustering.base.topology.PartitionInfo;
 
 import java.util.HashSet;
@@ -31,11 +32,14 @@ public class NodeLoad
 
     private Set<PartitionInfo> pendings;
 
+    private NodeLoadVector loadVector;
+
     public NodeLoad(final NodeInfo nodeInfo)
     {
         this.nodeInfo = nodeInfo;
         this.load = new HashSet<>();
         this.pendings = new HashSet<>();
+        this.loadVector = nodeInfo.getLoad();
     }
 
     public NodeInfo getNodeInfo()
@@ -68,6 +72,16 @@ public class NodeLoad
         return pendings.remove(partitionInfo);
     }
 
+    public NodeLoadVector getLoadVector()
+    {
+        return loadVector;
+    }
+
+    public void setLoadVector(final NodeLoadVector loadVector)
+    {
+        this.loadVector = loadVector;
+    }
+
     public boolean doesNotHave(PartitionInfo forPartitionInfo)
     {
         return !load.contains(forPartitionInfo) && !pendings.contains(forPartitionInfo);
@@ -79,6 +93,7 @@ public class NodeLoad
         return "NodeLoad{" +
             "nodeInfo=" + nodeInfo +
             ", load=" + load +
+            ", loadVector=" + loadVector +
             '}';
     }
 
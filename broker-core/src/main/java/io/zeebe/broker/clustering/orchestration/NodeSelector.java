@@ -37,6 +37,12 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
     private static final Logger LOG = Loggers.CLUSTERING_LOGGER;
     public static final Duration NODE_PENDING_TIMEOUT = Duration.ofSeconds(30);
 
+    /**
+     * CPU utilization in permille from which a node doesn't get new partitions
+     * as long as there are other nodes.
+     */
+    public static final int SATURATED_CPU_UTILIZATION = 900;
+
     private final Injector<TopologyManager> topologyManagerInjector = new Injector<>();
 
     private final List<NodeLoad> loads = new ArrayList<>();
@@ -69,7 +75,7 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
         {
             LOG.debug("Add node {} to current state.", memberInfo);
             loads.add(new NodeLoad(memberInfo));
-            loads.sort(this::loadComparator);
+            loads.sort(NodeSelector::loadComparator);
         });
     }
 
@@ -81,7 +87,24 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
         {
             LOG.debug("Remove node {} from current state.", memberInfo);
             loads.remove(new NodeLoad(memberInfo));
-            loads.sort(this::loadComparator);
+            loads.sort(NodeSelector::loadComparator);
+        });
+    }
+
+    @Override
+    public void onMemberLoadUpdated(final NodeInfo memberInfo, final NodeLoadVector load)
+    {
+        actor.run(() ->
+        {
+            final Optional<NodeLoad> nodeOptional = loads.stream()
+                .filter(node -> node.getNodeInfo().equals(memberInfo))
+                .findFirst();
+
+            if (nodeOptional.isPresent())
+            {
+                nodeOptional.get().setLoadVector(load);
+                loads.sort(NodeSelector::loadComparator);
+            }
         });
     }
 
@@ -101,7 +124,7 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
                 if (added)
                 {
                     nodeLoad.removePending(partitionInfo);
-                    loads.sort(this::loadComparator);
+                    loads.sort(NodeSelector::loadComparator);
                     LOG.debug("Increased load of node {} by partition {}", member, partitionInfo);
                 }
             }
@@ -119,14 +142,14 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
         {
             final Optional<NodeLoad> nextOptional = loads.stream()
                                                          .filter(nodeLoad -> nodeLoad.doesNotHave(forPartitionInfo))
-                                                         .min(this::loadComparator);
+                                                         .min(NodeSelector::loadComparator);
 
             if (nextOptional.isPresent())
             {
                 final NodeLoad nextNode = nextOptional.get();
                 actor.runDelayed(NODE_PENDING_TIMEOUT, () -> nextNode.removePending(forPartitionInfo));
                 nextNode.addPendingPartiton(forPartitionInfo);
-                loads.sort(this::loadComparator);
+                loads.sort(NodeSelector::loadComparator);
                 nextAddressFuture.complete(nextNode.getNodeInfo());
             }
             else
@@ -143,10 +166,47 @@ public class NodeSelector extends Actor implements Service<NodeSelector>, Topolo
         return topologyManagerInjector;
     }
 
-    private int loadComparator(final NodeLoad load1, final NodeLoad load2)
+    /**
+     * Saturated nodes rank last. Otherwise, the nodes are ranked by their
+     * partitions and, on equal partitions, by the gossiped load of them, so
+     * that idle partitions are preferred to busy ones.
+     */
+    static int loadComparator(final NodeLoad load1, final NodeLoad load2)
     {
+        final int saturated = Boolean.compare(isSaturated(load1), isSaturated(load2));
+        if (saturated != 0)
+        {
+            return saturated;
+        }
+
         final int nodeLoad1 = load1.getLoad().size() + load1.getPendings().size();
         final int nodeLoad2 = load2.getLoad().size() + load2.getPendings().size();
-        return Integer.compare(nodeLoad1, nodeLoad2);
+        final int partitions = Integer.compare(nodeLoad1, nodeLoad2);
+        if (partitions != 0)
+        {
+            return partitions;
+        }
+
+        final NodeLoadVector loadVector1 = load1.getLoadVector();
+        final NodeLoadVector loadVector2 = load2.getLoadVector();
+
+        final int commandRate = Long.compare(loadVector1.getTotalCommandRate(), loadVector2.getTotalCommandRate());
+        if (commandRate != 0)
+        {
+            return commandRate;
+        }
+
+        final int byteRate = Long.compare(loadVector1.getTotalByteRate(), loadVector2.getTotalByteRate());
+        if (byteRate != 0)
+        {
+            return byteRate;
+        }
+
+        return Long.compare(loadVector1.getSnapshotBytes(), loadVector2.getSnapshotBytes());
+    }
+
+    private static boolean isSaturated(final NodeLoad load)
+    {
+        return load.getLoadVector().getCpuUtilization() >= SATURATED_CPU_UTILIZATION;
     }
 }
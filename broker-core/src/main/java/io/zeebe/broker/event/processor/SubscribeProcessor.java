@@ -141,6 +141,7 @@ public class SubscribeProcessor implements EventProcessor
                 resumePosition,
                 subscriptionName,
                 subscriberEvent.getBufferSize(),
+                new TopicSubscriptionRecordFilter(subscriberEvent),
                 manager.getEventWriterFactory().get());
 
             final ActorFuture<StreamProcessorService> future = manager.openPushProcessorAsync(processor);
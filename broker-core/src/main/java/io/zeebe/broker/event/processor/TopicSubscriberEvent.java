@@ -19,6 +19,7 @@ package io.zeebe.broker.event.processor;
 
 import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.msgpack.property.*;
+import io.zeebe.msgpack.value.ValueArray;
 import org.agrona.DirectBuffer;
 
 public class TopicSubscriberEvent extends UnpackedObject
@@ -31,13 +32,17 @@ public class TopicSubscriberEvent extends UnpackedObject
     // true if startPosition should override any previously acknowledged position
     protected BooleanProperty forceStartProp = new BooleanProperty("forceStart", false);
 
+    // a record is pushed if it matches any of the filters; all records are pushed if there is none
+    protected ArrayProperty<TopicSubscriberFilter> filtersProp = new ArrayProperty<>("filters", new TopicSubscriberFilter());
+
     public TopicSubscriberEvent()
     {
         this
             .declareProperty(startPositionProp)
             .declareProperty(nameProp)
             .declareProperty(bufferSizeProp)
-            .declareProperty(forceStartProp);
+            .declareProperty(forceStartProp)
+            .declareProperty(filtersProp);
     }
 
     public TopicSubscriberEvent setStartPosition(long startPosition)
@@ -84,4 +89,9 @@ public class TopicSubscriberEvent extends UnpackedObject
         return forceStartProp.getValue();
     }
 
+    public ValueArray<TopicSubscriberFilter> filters()
+    {
+        return filtersProp;
+    }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.msgpack.property.ArrayProperty;
+import io.zeebe.msgpack.property.IntegerProperty;
+import io.zeebe.msgpack.property.StringProperty;
+import io.zeebe.msgpack.value.IntegerValue;
+import io.zeebe.msgpack.value.ValueArray;
+
+/**
+ * Selects records which are pushed to a topic subscription. Properties
+ * which are not set match any record.
+ */
+public class TopicSubscriberFilter extends UnpackedObject
+{
+    public static final int ANY = -1;
+
+    protected IntegerProperty valueTypeProp = new IntegerProperty("valueType", ANY);
+    protected IntegerProperty recordTypeProp = new IntegerProperty("recordType", ANY);
+    protected ArrayProperty<IntegerValue> intentsProp = new ArrayProperty<>("intents", new IntegerValue());
+    protected StringProperty bpmnProcessIdProp = new StringProperty("bpmnProcessId", "");
+    protected StringProperty jobTypeProp = new StringProperty("jobType", "");
+
+    public TopicSubscriberFilter()
+    {
+        this
+            .declareProperty(valueTypeProp)
+            .declareProperty(recordTypeProp)
+            .declareProperty(intentsProp)
+            .declareProperty(bpmnProcessIdProp)
+            .declareProperty(jobTypeProp);
+    }
+
+    public int getValueType()
+    {
+        return valueTypeProp.getValue();
+    }
+
+    public TopicSubscriberFilter setValueType(int valueType)
+    {
+        this.valueTypeProp.setValue(valueType);
+        return this;
+    }
+
+    public int getRecordType()
+    {
+        return recordTypeProp.getValue();
+    }
+
+    public TopicSubscriberFilter setRecordType(int recordType)
+    {
+        this.recordTypeProp.setValue(recordType);
+        return this;
+    }
+
+    public ValueArray<IntegerValue> getIntents()
+    {
+        return intentsProp;
+    }
+
+    public DirectBuffer getBpmnProcessId()
+    {
+        return bpmnProcessIdProp.getValue();
+    }
+
+    public TopicSubscriberFilter setBpmnProcessId(String bpmnProcessId)
+    {
+        this.bpmnProcessIdProp.setValue(bpmnProcessId);
+        return this;
+    }
+
+    public DirectBuffer getJobType()
+    {
+        return jobTypeProp.getValue();
+    }
+
+    public TopicSubscriberFilter setJobType(String jobType)
+    {
+        this.jobTypeProp.setValue(jobType);
+        return this;
+    }
+}
@@ -265,7 +265,7 @@ public class TopicSubscriptionManagementProcessor implements StreamProcessor
                 .processor(processor)
                 .processorId(StreamProcessorIds.TOPIC_SUBSCRIPTION_PUSH_PROCESSOR_ID)
                 .processorName(pushProcessorName(processor))
-                .eventFilter(TopicSubscriptionPushProcessor.eventFilter())
+                .eventFilter(TopicSubscriptionPushProcessor.eventFilter().and(processor.getRecordFilter()))
                 .additionalDependencies(partitionServiceName)
                 .readOnly(true)
                 .build();
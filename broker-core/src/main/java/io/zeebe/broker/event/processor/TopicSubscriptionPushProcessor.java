@@ -52,6 +52,7 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
 
     protected final SnapshotSupport snapshotSupport = new NoopSnapshotSupport();
     protected final SubscribedRecordWriter channelWriter;
+    protected final TopicSubscriptionRecordFilter recordFilter;
 
     protected LongRingBuffer pendingEvents;
     private StreamProcessorContext context;
@@ -62,9 +63,11 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
             long startPosition,
             DirectBuffer name,
             int bufferSize,
+            TopicSubscriptionRecordFilter recordFilter,
             SubscribedRecordWriter channelWriter)
     {
         this.channelWriter = channelWriter;
+        this.recordFilter = recordFilter;
         this.clientStreamId = clientStreamId;
         this.subscriberKey = subscriberKey;
         this.startPosition = startPosition;
@@ -140,6 +143,12 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
     {
         event.readMetadata(metadata);
 
+        // records which don't match on the metadata are already skipped by the event filter
+        if (!recordFilter.applies(metadata, event.getValueBuffer(), event.getValueOffset(), event.getValueLength()))
+        {
+            return true;
+        }
+
         final boolean success = channelWriter
             .partitionId(logStreamPartitionId)
             .valueType(metadata.getValueType())
@@ -218,6 +227,11 @@ public class TopicSubscriptionPushProcessor implements StreamProcessor, EventPro
         };
     }
 
+    public TopicSubscriptionRecordFilter getRecordFilter()
+    {
+        return recordFilter;
+    }
+
     public DirectBuffer getName()
     {
         return name;
@@ -0,0 +1,274 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.event.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.broker.logstreams.processor.MetadataFilter;
+import io.zeebe.msgpack.spec.MsgPackReader;
+import io.zeebe.msgpack.value.IntegerValue;
+import io.zeebe.protocol.clientapi.ValueType;
+import io.zeebe.protocol.impl.RecordMetadata;
+
+/**
+ * The filters of a topic subscription, compiled to be evaluated for each record.
+ * <p>
+ * Value types, record types and intents are matched on the metadata, so that
+ * the stream processor skips the records which don't match without reading
+ * their value. Only if a matching filter also requires a bpmn process id or
+ * job type, then the value is scanned for this property (without decoding
+ * the whole record). A job record carries the bpmn process id in its headers.
+ */
+public class TopicSubscriptionRecordFilter implements MetadataFilter
+{
+    private static final DirectBuffer BPMN_PROCESS_ID_KEY = wrapString("bpmnProcessId");
+    private static final DirectBuffer JOB_TYPE_KEY = wrapString("type");
+    private static final DirectBuffer JOB_HEADERS_KEY = wrapString("headers");
+
+    private final Entry[] entries;
+    private final boolean hasValueFilters;
+
+    private final MsgPackReader reader = new MsgPackReader();
+    private final UnsafeBuffer valueView = new UnsafeBuffer(0, 0);
+
+    public TopicSubscriptionRecordFilter(TopicSubscriberEvent subscriberEvent)
+    {
+        final List<Entry> entries = new ArrayList<>();
+        boolean hasValueFilters = false;
+
+        for (TopicSubscriberFilter filter : subscriberEvent.filters())
+        {
+            final Entry entry = new Entry(filter);
+            hasValueFilters |= entry.hasValueFilter();
+            entries.add(entry);
+        }
+
+        this.entries = entries.toArray(new Entry[entries.size()]);
+        this.hasValueFilters = hasValueFilters;
+    }
+
+    public boolean isEmpty()
+    {
+        return entries.length == 0;
+    }
+
+    @Override
+    public boolean applies(RecordMetadata metadata)
+    {
+        if (entries.length == 0)
+        {
+            return true;
+        }
+
+        for (int i = 0; i < entries.length; i++)
+        {
+            if (entries[i].appliesTo(metadata))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * @return true if the record matches a filter, including its bpmn process id or job type
+     */
+    public boolean applies(RecordMetadata metadata, DirectBuffer value, int offset, int length)
+    {
+        if (!hasValueFilters)
+        {
+            return applies(metadata);
+        }
+
+        valueView.wrap(value, offset, length);
+
+        for (int i = 0; i < entries.length; i++)
+        {
+            final Entry entry = entries[i];
+
+            if (entry.appliesTo(metadata) && entry.appliesToValue(metadata.getValueType()))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean hasStringProperty(DirectBuffer key, DirectBuffer expectedValue)
+    {
+        reader.wrap(valueView, 0, valueView.capacity());
+
+        return seekProperty(key) && hasStringValue(expectedValue);
+    }
+
+    private boolean hasNestedStringProperty(DirectBuffer objectKey, DirectBuffer key, DirectBuffer expectedValue)
+    {
+        reader.wrap(valueView, 0, valueView.capacity());
+
+        return seekProperty(objectKey) && seekProperty(key) && hasStringValue(expectedValue);
+    }
+
+    /**
+     * Reads the map at the current offset up to the value of the given key.
+     *
+     * @return false if the map doesn't contain the key
+     */
+    private boolean seekProperty(DirectBuffer key)
+    {
+        final int size = reader.readMapHeader();
+        for (int i = 0; i < size; i++)
+        {
+            final int keyLength = reader.readStringLength();
+            final int keyOffset = reader.getOffset();
+            reader.skipBytes(keyLength);
+
+            if (contentsEqual(keyOffset, keyLength, key))
+            {
+                return true;
+            }
+
+            reader.skipValue();
+        }
+
+        return false;
+    }
+
+    private boolean hasStringValue(DirectBuffer expectedValue)
+    {
+        final int valueLength = reader.readStringLength();
+        return contentsEqual(reader.getOffset(), valueLength, expectedValue);
+    }
+
+    private boolean contentsEqual(int offset, int length, DirectBuffer expected)
+    {
+        if (length != expected.capacity())
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (valueView.getByte(offset + i) != expected.getByte(i))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private class Entry
+    {
+        private final int valueType;
+        private final int recordType;
+        private final short[] intents;
+        private final DirectBuffer bpmnProcessId;
+        private final DirectBuffer jobType;
+
+        Entry(TopicSubscriberFilter filter)
+        {
+            this.valueType = filter.getValueType();
+            this.recordType = filter.getRecordType();
+
+            final List<Short> intents = new ArrayList<>();
+            for (IntegerValue intent : filter.getIntents())
+            {
+                intents.add((short) intent.getValue());
+            }
+
+            this.intents = new short[intents.size()];
+            for (int i = 0; i < this.intents.length; i++)
+            {
+                this.intents[i] = intents.get(i);
+            }
+
+            this.bpmnProcessId = filter.getBpmnProcessId().capacity() > 0 ? cloneBuffer(filter.getBpmnProcessId()) : null;
+            this.jobType = filter.getJobType().capacity() > 0 ? cloneBuffer(filter.getJobType()) : null;
+        }
+
+        boolean hasValueFilter()
+        {
+            return bpmnProcessId != null || jobType != null;
+        }
+
+        boolean appliesTo(RecordMetadata metadata)
+        {
+            if (valueType != TopicSubscriberFilter.ANY && metadata.getValueType().value() != valueType)
+            {
+                return false;
+            }
+
+            if (recordType != TopicSubscriberFilter.ANY && metadata.getRecordType().value() != recordType)
+            {
+                return false;
+            }
+
+            if (intents.length == 0)
+            {
+                return true;
+            }
+
+            final short intent = metadata.getIntent().value();
+            for (int i = 0; i < intents.length; i++)
+            {
+                if (intents[i] == intent)
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        boolean appliesToValue(ValueType recordValueType)
+        {
+            if (bpmnProcessId != null && !hasBpmnProcessId(recordValueType))
+            {
+                return false;
+            }
+
+            if (jobType != null && (recordValueType != ValueType.JOB || !hasStringProperty(JOB_TYPE_KEY, jobType)))
+            {
+                return false;
+            }
+
+            return true;
+        }
+
+        private boolean hasBpmnProcessId(ValueType recordValueType)
+        {
+            if (recordValueType == ValueType.JOB)
+            {
+                return hasNestedStringProperty(JOB_HEADERS_KEY, BPMN_PROCESS_ID_KEY, bpmnProcessId);
+            }
+            else
+            {
+                return hasStringProperty(BPMN_PROCESS_ID_KEY, bpmnProcessId);
+            }
+        }
+    }
+}
@@ -18,7 +18,6 @@
 package io.zeebe.broker.job;
 
 import static io.zeebe.broker.logstreams.processor.StreamProcessorIds.JOB_ACTIVATE_STREAM_PROCESSOR_ID;
-import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -29,26 +28,24 @@ import io.zeebe.broker.job.processor.ActivateJobStreamProcessor;
 import io.zeebe.broker.job.processor.JobSubscription;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
-import io.zeebe.logstreams.impl.service.LogStreamServiceNames;
 import io.zeebe.logstreams.impl.service.StreamProcessorService;
 import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.servicecontainer.ServiceContainer;
 import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.transport.*;
 import io.zeebe.util.allocation.HeapBufferAllocator;
-import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.collection.CompactList;
 import io.zeebe.util.sched.Actor;
 import io.zeebe.util.sched.channel.ChannelSubscription;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
-import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 
 public class JobSubscriptionManager extends Actor implements TransportListener
 {
     protected static final String NAME = "jobqueue.subscription.manager";
+    protected static final String STREAM_PROCESSOR_NAME = "job-activate";
     public static final int NUM_CONCURRENT_REQUESTS = 1_024;
 
     protected final StreamProcessorServiceFactory streamProcessorServiceFactory;
@@ -113,7 +110,6 @@ public class JobSubscriptionManager extends Actor implements TransportListener
         final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
         actor.call(() ->
         {
-            final DirectBuffer jobType = subscription.getJobType();
             final int partitionId = subscription.getPartitionId();
 
             final PartitionBucket partitionBucket = logStreamBuckets.get(partitionId);
@@ -126,72 +122,69 @@ public class JobSubscriptionManager extends Actor implements TransportListener
             final long subscriptionId = nextSubscriptionId++;
             subscription.setSubscriberKey(subscriptionId);
 
-            final ActivateJobStreamProcessor streamProcessor = partitionBucket.getStreamProcessorByJobType(jobType);
-            if (streamProcessor != null)
-            {
-                streamProcessorBySubscriptionId.put(subscriptionId, streamProcessor);
+            final ActorFuture<StreamProcessorService> processorFuture = openStreamProcessor(partitionBucket);
 
-                final ActorFuture<Void> addFuture = streamProcessor.addSubscription(subscription);
-                actor.runOnCompletion(addFuture, (aVoid, throwable) ->
-                {
-                    if (throwable == null)
-                    {
-                        future.complete(null);
-                    }
-                    else
-                    {
-                        future.completeExceptionally(throwable);
-                    }
-                });
-            }
-            else
+            actor.runOnCompletion(processorFuture, (service, t) ->
             {
-                final ActivateJobStreamProcessor processor = new ActivateJobStreamProcessor(jobType);
-
-                final ActorFuture<StreamProcessorService> processorFuture = createStreamProcessorService(processor, partitionBucket, jobType);
-
-                actor.runOnCompletion(processorFuture, (service, t) ->
+                if (t == null)
                 {
-                    if (t == null)
-                    {
-                        streamProcessorBySubscriptionId.put(subscriptionId, processor);
+                    final ActivateJobStreamProcessor processor = partitionBucket.getStreamProcessor();
+                    streamProcessorBySubscriptionId.put(subscriptionId, processor);
 
-                        partitionBucket.addStreamProcessor(processor);
-                        final ActorFuture<Void> addFuture = processor.addSubscription(subscription);
-                        actor.runOnCompletion(addFuture, ((aVoid, throwable) ->
-                        {
-                            if (throwable == null)
-                            {
-                                future.complete(null);
-                            }
-                            else
-                            {
-                                future.completeExceptionally(throwable);
-                            }
-                        }));
-                    }
-                    else
+                    final ActorFuture<Void> addFuture = processor.addSubscription(subscription);
+                    actor.runOnCompletion(addFuture, ((aVoid, throwable) ->
                     {
-                        future.completeExceptionally(t);
-                    }
-                });
-            }
+                        if (throwable == null)
+                        {
+                            future.complete(null);
+                        }
+                        else
+                        {
+                            streamProcessorBySubscriptionId.remove(subscriptionId);
+                            future.completeExceptionally(throwable);
+                        }
+                    }));
+                }
+                else
+                {
+                    future.completeExceptionally(t);
+                }
+            });
         });
 
         return future;
     }
 
+    /**
+     * Opens the job activation stream processor of the partition, if it is not
+     * open yet. The processor handles all job types of the partition and stays
+     * open until the partition is removed.
+     */
+    protected ActorFuture<StreamProcessorService> openStreamProcessor(final PartitionBucket partitionBucket)
+    {
+        ActorFuture<StreamProcessorService> processorFuture = partitionBucket.getStreamProcessorFuture();
+
+        if (processorFuture == null || (processorFuture.isDone() && processorFuture.isCompletedExceptionally()))
+        {
+            final ActivateJobStreamProcessor processor = new ActivateJobStreamProcessor();
+            processorFuture = createStreamProcessorService(processor, partitionBucket);
+
+            partitionBucket.setStreamProcessor(processor, processorFuture);
+        }
+
+        return processorFuture;
+    }
+
     protected ActorFuture<StreamProcessorService> createStreamProcessorService(
             final ActivateJobStreamProcessor factory,
-            final PartitionBucket partitionBucket,
-            final DirectBuffer jobType)
+            final PartitionBucket partitionBucket)
     {
         final TypedStreamEnvironment env = new TypedStreamEnvironment(partitionBucket.getLogStream(), transport.getOutput());
 
         return streamProcessorServiceFactory.createService(partitionBucket.getPartition(), partitionBucket.getPartitionServiceName())
             .processor(factory.createStreamProcessor(env))
             .processorId(JOB_ACTIVATE_STREAM_PROCESSOR_ID)
-            .processorName(streamProcessorName(jobType))
+            .processorName(STREAM_PROCESSOR_NAME)
             .build();
     }
 
@@ -203,30 +196,12 @@ public class JobSubscriptionManager extends Actor implements TransportListener
             final ActivateJobStreamProcessor streamProcessor = streamProcessorBySubscriptionId.remove(subscriptionId);
             if (streamProcessor != null)
             {
-                final ActorFuture<Boolean> removeFuture = streamProcessor.removeSubscription(subscriptionId);
-                actor.runOnCompletion(removeFuture, (hasSubscriptions, throwable) ->
+                final ActorFuture<Void> removeFuture = streamProcessor.removeSubscription(subscriptionId);
+                actor.runOnCompletion(removeFuture, (aVoid, throwable) ->
                 {
                     if (throwable == null)
                     {
-                        if (!hasSubscriptions)
-                        {
-                            final ActorFuture<Void> removeProcessorFuture = removeStreamProcessorService(streamProcessor);
-                            actor.runOnCompletion(removeProcessorFuture, (b, t) ->
-                            {
-                                if (t == null)
-                                {
-                                    future.complete(null);
-                                }
-                                else
-                                {
-                                    future.completeExceptionally(t);
-                                }
-                            });
-                        }
-                        else
-                        {
-                            future.complete(null);
-                        }
+                        future.complete(null);
                     }
                     else
                     {
@@ -242,18 +217,6 @@ public class JobSubscriptionManager extends Actor implements TransportListener
         return future;
     }
 
-    protected ActorFuture<Void> removeStreamProcessorService(final ActivateJobStreamProcessor streamProcessor)
-    {
-        final PartitionBucket partitionBucket = logStreamBuckets.get(streamProcessor.getLogStreamPartitionId());
-
-        partitionBucket.removeStreamProcessor(streamProcessor);
-
-        final String logName = partitionBucket.getLogStreamName();
-        final DirectBuffer jobType = streamProcessor.getSubscriptedJobType();
-
-        return serviceContext.removeService(LogStreamServiceNames.streamProcessorService(logName, streamProcessorName(jobType)));
-    }
-
     public boolean increaseSubscriptionCreditsAsync(CreditsRequest request)
     {
         return request.writeTo(creditRequestBuffer);
@@ -334,7 +297,11 @@ public class JobSubscriptionManager extends Actor implements TransportListener
     {
         actor.call(() ->
         {
-            logStreamBuckets.put(leaderPartition.getInfo().getPartitionId(), new PartitionBucket(leaderPartition, partitionServiceName));
+            final PartitionBucket partitionBucket = new PartitionBucket(leaderPartition, partitionServiceName);
+            logStreamBuckets.put(leaderPartition.getInfo().getPartitionId(), partitionBucket);
+
+            // keep track of the activatable jobs before the first subscription is opened
+            openStreamProcessor(partitionBucket);
         });
     }
 
@@ -365,43 +332,32 @@ public class JobSubscriptionManager extends Actor implements TransportListener
     {
         actor.call(() ->
         {
-            final Iterator<ActivateJobStreamProcessor> processorIt = streamProcessorBySubscriptionId.values().iterator();
-            while (processorIt.hasNext())
+            for (PartitionBucket partitionBucket : logStreamBuckets.values())
             {
-                final ActivateJobStreamProcessor processor = processorIt.next();
-                final ActorFuture<Boolean> closeFuture = processor.onClientChannelCloseAsync(channelId);
-
-                actor.runOnCompletion(closeFuture, (hasSubscriptions, throwable) ->
+                final ActivateJobStreamProcessor processor = partitionBucket.getStreamProcessor();
+                if (processor != null && partitionBucket.getStreamProcessorFuture().isDone())
                 {
-                    if (throwable == null)
-                    {
+                    final ActorFuture<Void> closeFuture = processor.onClientChannelCloseAsync(channelId);
 
-                        if (!hasSubscriptions)
+                    actor.runOnCompletion(closeFuture, (aVoid, throwable) ->
+                    {
+                        if (throwable != null)
                         {
-                            removeStreamProcessorService(processor);
+                            Loggers.SYSTEM_LOGGER.debug("Problem on closing job activating stream processor.", throwable);
                         }
-                    }
-                    else
-                    {
-                        Loggers.SYSTEM_LOGGER.debug("Problem on closing job activating stream processor.", throwable);
-                    }
-                });
+                    });
+                }
             }
         });
     }
 
-    private static String streamProcessorName(final DirectBuffer jobType)
-    {
-        return String.format("job-activate.%s", bufferAsString(jobType));
-    }
-
-
     static class PartitionBucket
     {
         protected final Partition partition;
         protected final ServiceName<Partition> partitionServiceName;
 
-        protected List<ActivateJobStreamProcessor> streamProcessors = new ArrayList<>();
+        protected ActivateJobStreamProcessor streamProcessor;
+        protected ActorFuture<StreamProcessorService> streamProcessorFuture;
 
         PartitionBucket(Partition partition, ServiceName<Partition> partitionServiceName)
         {
@@ -429,36 +385,20 @@ public class JobSubscriptionManager extends Actor implements TransportListener
             return partitionServiceName;
         }
 
-        public ActivateJobStreamProcessor getStreamProcessorByJobType(DirectBuffer jobType)
+        public ActivateJobStreamProcessor getStreamProcessor()
         {
-            ActivateJobStreamProcessor streamProcessorForType = null;
-
-            final int size = streamProcessors.size();
-            int current = 0;
-
-            while (current < size && streamProcessorForType == null)
-            {
-                final ActivateJobStreamProcessor streamProcessor = streamProcessors.get(current);
-
-                if (BufferUtil.equals(jobType, streamProcessor.getSubscriptedJobType()))
-                {
-                    streamProcessorForType = streamProcessor;
-                }
-
-                current += 1;
-            }
-
-            return streamProcessorForType;
+            return streamProcessor;
         }
 
-        public void addStreamProcessor(ActivateJobStreamProcessor streamProcessor)
+        public ActorFuture<StreamProcessorService> getStreamProcessorFuture()
         {
-            streamProcessors.add(streamProcessor);
+            return streamProcessorFuture;
         }
 
-        public void removeStreamProcessor(ActivateJobStreamProcessor streamProcessor)
+        public void setStreamProcessor(ActivateJobStreamProcessor streamProcessor, ActorFuture<StreamProcessorService> streamProcessorFuture)
         {
-            streamProcessors.remove(streamProcessor);
+            this.streamProcessor = streamProcessor;
+            this.streamProcessorFuture = streamProcessorFuture;
         }
     }
 
@@ -0,0 +1,406 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.map;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.LongConsumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
+import io.zeebe.util.buffer.BufferUtil;
+
+/**
+ * Jobs which can be activated but are not yet handed out to a subscription,
+ * grouped by <b>job type</b> in the order they became activatable.
+ *
+ * <li> job key -> position of the event which made the job activatable
+ * <li> job type -> queue of job keys
+ *
+ * <p>Removing a job only removes its position; the queues skip removed keys
+ * lazily when they are polled. A key is in at most one queue entry, so a job
+ * which is added again before its stale entry is polled keeps that entry.
+ *
+ * <p>Jobs for which an activate command was written are moved out of the
+ * queue with {@link #markActivating(DirectBuffer, long)} until their follow-up
+ * event or the rejection of the command removes them. They are still part of
+ * the snapshot, so that an activate command which never gets committed is
+ * retried after recovery.
+ */
+public class ActivatableJobs implements ComposableSnapshotSupport
+{
+    private static final long MISSING = -1L;
+
+    private final Long2LongHashMap positionByKey = new Long2LongHashMap(MISSING);
+    private final Map<DirectBuffer, KeyQueue> queuesByType = new HashMap<>();
+    private final Long2ObjectHashMap<KeyQueue> activatingJobs = new Long2ObjectHashMap<>();
+    private final Long2ObjectHashMap<KeyQueue> enqueuedKeys = new Long2ObjectHashMap<>();
+
+    public void add(DirectBuffer jobType, long key, long position)
+    {
+        final long previousPosition = positionByKey.put(key, position);
+
+        if ((previousPosition == MISSING || activatingJobs.remove(key) != null) && !enqueuedKeys.containsKey(key))
+        {
+            final KeyQueue queue = getOrCreateQueue(jobType);
+            queue.add(key);
+            enqueuedKeys.put(key, queue);
+        }
+    }
+
+    public void remove(long key)
+    {
+        positionByKey.remove(key);
+        activatingJobs.remove(key);
+    }
+
+    /**
+     * Removes the job if an activate command was written for it, e.g. when the
+     * command is rejected. The job is queued again when it becomes activatable
+     * by a later event.
+     *
+     * @return true if the job was activating
+     */
+    public boolean removeActivating(long key)
+    {
+        if (activatingJobs.remove(key) != null)
+        {
+            positionByKey.remove(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the key of the next activatable job of the given type, or <code>-1</code> if there is none
+     */
+    public long peekKey(DirectBuffer jobType)
+    {
+        final KeyQueue queue = queuesByType.get(jobType);
+        if (queue == null)
+        {
+            return MISSING;
+        }
+
+        while (!queue.isEmpty())
+        {
+            final long key = queue.peek();
+            if (isQueued(key))
+            {
+                return key;
+            }
+
+            poll(queue);
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Copies the keys of the next activatable jobs of the given type into the
+     * given array, without removing them.
+     *
+     * @return the number of keys copied
+     */
+    public int peekKeys(DirectBuffer jobType, long[] keys)
+    {
+        final KeyQueue queue = queuesByType.get(jobType);
+        if (queue == null || peekKey(jobType) == MISSING)
+        {
+            return 0;
+        }
+
+        int count = 0;
+
+        for (int i = 0; i < queue.size() && count < keys.length; i++)
+        {
+            final long key = queue.get(i);
+
+            if (isQueued(key))
+            {
+                keys[count] = key;
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Removes the job returned by {@link #peekKey(DirectBuffer)} from the queue
+     * of its type. It stays part of the index until it is removed by
+     * {@link #remove(long)}.
+     */
+    public void markActivating(DirectBuffer jobType, long key)
+    {
+        final KeyQueue queue = queuesByType.get(jobType);
+
+        if (peekKey(jobType) != key)
+        {
+            throw new IllegalStateException("job is not the next activatable job of its type");
+        }
+
+        poll(queue);
+        activatingJobs.put(key, queue);
+    }
+
+    private void poll(KeyQueue queue)
+    {
+        enqueuedKeys.remove(queue.peek());
+        queue.poll();
+    }
+
+    public boolean hasJobs(DirectBuffer jobType)
+    {
+        return peekKey(jobType) != MISSING;
+    }
+
+    /**
+     * @return the position of the event which made the job activatable, or <code>-1</code> if the job is not activatable
+     */
+    public long getPosition(long key)
+    {
+        return positionByKey.get(key);
+    }
+
+    /**
+     * @return the number of activatable jobs, including jobs that are activating
+     */
+    public int size()
+    {
+        return positionByKey.size();
+    }
+
+    public int activatingCount()
+    {
+        return activatingJobs.size();
+    }
+
+    private boolean isQueued(long key)
+    {
+        return positionByKey.get(key) != MISSING && !activatingJobs.containsKey(key);
+    }
+
+    private KeyQueue getOrCreateQueue(DirectBuffer jobType)
+    {
+        KeyQueue queue = queuesByType.get(jobType);
+        if (queue == null)
+        {
+            queue = new KeyQueue();
+            queuesByType.put(BufferUtil.cloneBuffer(jobType), queue);
+        }
+        return queue;
+    }
+
+    /**
+     * Visits the queued and activating jobs of the given type.
+     */
+    private void forEachJob(KeyQueue queue, LongConsumer consumer)
+    {
+        queue.forEach(key ->
+        {
+            if (isQueued(key))
+            {
+                consumer.accept(key);
+            }
+        });
+
+        activatingJobs.forEach((key, activatingQueue) ->
+        {
+            if (activatingQueue == queue)
+            {
+                consumer.accept(key);
+            }
+        });
+    }
+
+    @Override
+    public long writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+
+        out.writeInt(queuesByType.size());
+
+        for (Entry<DirectBuffer, KeyQueue> entry : queuesByType.entrySet())
+        {
+            final DirectBuffer jobType = entry.getKey();
+            final KeyQueue queue = entry.getValue();
+
+            final byte[] typeBytes = new byte[jobType.capacity()];
+            jobType.getBytes(0, typeBytes);
+
+            out.writeInt(typeBytes.length);
+            out.write(typeBytes);
+
+            out.writeInt(countJobs(queue));
+
+            forEachJob(queue, key ->
+            {
+                try
+                {
+                    out.writeLong(key);
+                    out.writeLong(positionByKey.get(key));
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        out.flush();
+
+        return snapshotSize();
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        reset();
+
+        final DataInputStream in = new DataInputStream(inputStream);
+        final int typeCount = in.readInt();
+
+        for (int i = 0; i < typeCount; i++)
+        {
+            final byte[] typeBytes = new byte[in.readInt()];
+            in.readFully(typeBytes);
+
+            final DirectBuffer jobType = new UnsafeBuffer(typeBytes);
+            final int jobCount = in.readInt();
+
+            for (int j = 0; j < jobCount; j++)
+            {
+                final long key = in.readLong();
+                final long position = in.readLong();
+
+                add(jobType, key, position);
+            }
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        positionByKey.clear();
+        queuesByType.clear();
+        activatingJobs.clear();
+        enqueuedKeys.clear();
+    }
+
+    @Override
+    public long snapshotSize()
+    {
+        long size = SIZE_OF_INT;
+
+        for (Entry<DirectBuffer, KeyQueue> entry : queuesByType.entrySet())
+        {
+            final DirectBuffer jobType = entry.getKey();
+
+            size += SIZE_OF_INT + jobType.capacity() + SIZE_OF_INT;
+            size += (long) countJobs(entry.getValue()) * (SIZE_OF_LONG + SIZE_OF_LONG);
+        }
+
+        return size;
+    }
+
+    private int countJobs(KeyQueue queue)
+    {
+        final int[] count = new int[1];
+        forEachJob(queue, key -> count[0]++);
+        return count[0];
+    }
+
+    private static class KeyQueue
+    {
+        private long[] keys = new long[16];
+        private int head = 0;
+        private int size = 0;
+
+        void add(long key)
+        {
+            if (size == keys.length)
+            {
+                final long[] newKeys = new long[keys.length * 2];
+                for (int i = 0; i < size; i++)
+                {
+                    newKeys[i] = keys[(head + i) % keys.length];
+                }
+
+                keys = newKeys;
+                head = 0;
+            }
+
+            keys[(head + size) % keys.length] = key;
+            size++;
+        }
+
+        long peek()
+        {
+            return keys[head];
+        }
+
+        void poll()
+        {
+            head = (head + 1) % keys.length;
+            size--;
+
+            if (size == 0)
+            {
+                head = 0;
+            }
+        }
+
+        boolean isEmpty()
+        {
+            return size == 0;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        long get(int index)
+        {
+            return keys[(head + index) % keys.length];
+        }
+
+        void forEach(LongConsumer consumer)
+        {
+            for (int i = 0; i < size; i++)
+            {
+                consumer.accept(get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.map;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+import org.agrona.collections.Long2LongHashMap;
+
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
+
+/**
+ * Orders activated jobs by <b>deadline</b> (ties broken by job key), so that
+ * the jobs which are due can be found without looking at all activated jobs.
+ *
+ * <p>Implemented as an indexed binary min-heap on primitive arrays: insert,
+ * update and remove by key are O(log n), looking at the next deadline is O(1).
+ *
+ * <p>Jobs for which a time out command was written are moved out of the heap
+ * with {@link #markTimingOut()} until their follow-up event removes them. They
+ * are still part of the snapshot, so that a time out command which never
+ * gets committed is retried after recovery.
+ */
+public class JobDeadlineIndex implements ComposableSnapshotSupport
+{
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long MISSING = -1L;
+
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int size = 0;
+
+    private final Long2LongHashMap slotByKey = new Long2LongHashMap(MISSING);
+    private final Long2LongHashMap timingOut = new Long2LongHashMap(MISSING);
+
+    /**
+     * Adds the job or updates its deadline if it is already indexed.
+     */
+    public void put(long key, long deadline)
+    {
+        timingOut.remove(key);
+
+        final long slot = slotByKey.get(key);
+        if (slot != MISSING)
+        {
+            final int index = (int) slot;
+            final long previousDeadline = deadlines[index];
+            deadlines[index] = deadline;
+
+            if (deadline < previousDeadline)
+            {
+                siftUp(index);
+            }
+            else
+            {
+                siftDown(index);
+            }
+        }
+        else
+        {
+            ensureCapacity(size + 1);
+
+            final int index = size;
+            size++;
+
+            deadlines[index] = deadline;
+            keys[index] = key;
+            slotByKey.put(key, index);
+
+            siftUp(index);
+        }
+    }
+
+    public void remove(long key)
+    {
+        timingOut.remove(key);
+
+        final long slot = slotByKey.remove(key);
+        if (slot != MISSING)
+        {
+            removeAt((int) slot);
+        }
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of jobs waiting for their deadline, excluding jobs that are timing out
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    public int timingOutCount()
+    {
+        return timingOut.size();
+    }
+
+    /**
+     * @return true if the earliest deadline is less than or equal to the given timestamp
+     */
+    public boolean hasDueJob(long now)
+    {
+        return size > 0 && deadlines[0] <= now;
+    }
+
+    public long peekKey()
+    {
+        ensureNotEmpty();
+        return keys[0];
+    }
+
+    public long peekDeadline()
+    {
+        ensureNotEmpty();
+        return deadlines[0];
+    }
+
+    /**
+     * Moves the job with the earliest deadline out of the heap. It stays part
+     * of the index until it is removed by {@link #remove(long)}.
+     */
+    public void markTimingOut()
+    {
+        ensureNotEmpty();
+
+        final long key = keys[0];
+        final long deadline = deadlines[0];
+
+        slotByKey.remove(key);
+        removeAt(0);
+
+        timingOut.put(key, deadline);
+    }
+
+    private void removeAt(int index)
+    {
+        final int last = size - 1;
+        size--;
+
+        if (index != last)
+        {
+            deadlines[index] = deadlines[last];
+            keys[index] = keys[last];
+            slotByKey.put(keys[index], index);
+
+            siftDown(index);
+            siftUp(index);
+        }
+    }
+
+    private void siftUp(int index)
+    {
+        final long deadline = deadlines[index];
+        final long key = keys[index];
+
+        while (index > 0)
+        {
+            final int parent = (index - 1) >>> 1;
+
+            if (!isBefore(deadline, key, deadlines[parent], keys[parent]))
+            {
+                break;
+            }
+
+            moveTo(parent, index);
+            index = parent;
+        }
+
+        deadlines[index] = deadline;
+        keys[index] = key;
+        slotByKey.put(key, index);
+    }
+
+    private void siftDown(int index)
+    {
+        final long deadline = deadlines[index];
+        final long key = keys[index];
+        final int half = size >>> 1;
+
+        while (index < half)
+        {
+            int child = (index << 1) + 1;
+            final int right = child + 1;
+
+            if (right < size && isBefore(deadlines[right], keys[right], deadlines[child], keys[child]))
+            {
+                child = right;
+            }
+
+            if (!isBefore(deadlines[child], keys[child], deadline, key))
+            {
+                break;
+            }
+
+            moveTo(child, index);
+            index = child;
+        }
+
+        deadlines[index] = deadline;
+        keys[index] = key;
+        slotByKey.put(key, index);
+    }
+
+    private void moveTo(int from, int to)
+    {
+        deadlines[to] = deadlines[from];
+        keys[to] = keys[from];
+        slotByKey.put(keys[to], to);
+    }
+
+    private static boolean isBefore(long deadline, long key, long otherDeadline, long otherKey)
+    {
+        return deadline < otherDeadline || (deadline == otherDeadline && key < otherKey);
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (capacity > deadlines.length)
+        {
+            final int newCapacity = Math.max(capacity, deadlines.length << 1);
+            deadlines = Arrays.copyOf(deadlines, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+        }
+    }
+
+    private void ensureNotEmpty()
+    {
+        if (size == 0)
+        {
+            throw new IllegalStateException("index is empty");
+        }
+    }
+
+    @Override
+    public long writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+
+        out.writeInt(size + timingOut.size());
+
+        for (int i = 0; i < size; i++)
+        {
+            out.writeLong(keys[i]);
+            out.writeLong(deadlines[i]);
+        }
+
+        timingOut.longForEach((key, deadline) ->
+        {
+            try
+            {
+                out.writeLong(key);
+                out.writeLong(deadline);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        out.flush();
+
+        return snapshotSize();
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        reset();
+
+        final DataInputStream in = new DataInputStream(inputStream);
+        final int count = in.readInt();
+
+        ensureCapacity(count);
+
+        for (int i = 0; i < count; i++)
+        {
+            final long key = in.readLong();
+            final long deadline = in.readLong();
+
+            put(key, deadline);
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        size = 0;
+        slotByKey.clear();
+        timingOut.clear();
+    }
+
+    @Override
+    public long snapshotSize()
+    {
+        return SIZE_OF_INT + (long) (size + timingOut.size()) * (SIZE_OF_LONG + SIZE_OF_LONG);
+    }
+}
@@ -19,55 +19,77 @@ package io.zeebe.broker.job.processor;
 
 import static io.zeebe.util.EnsureUtil.*;
 
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
 import io.zeebe.broker.job.CreditsRequest;
 import io.zeebe.broker.job.CreditsRequestBuffer;
 import io.zeebe.broker.job.JobSubscriptionManager;
 import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.job.map.ActivatableJobs;
 import io.zeebe.broker.job.processor.JobSubscriptions.SubscriptionIterator;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.logstreams.processor.StreamProcessorContext;
 import io.zeebe.protocol.clientapi.ValueType;
 import io.zeebe.protocol.impl.RecordMetadata;
 import io.zeebe.protocol.intent.JobIntent;
-import io.zeebe.util.buffer.BufferUtil;
 import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.channel.ChannelSubscription;
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
 
-public class ActivateJobStreamProcessor implements TypedRecordProcessor<JobRecord>, StreamProcessorLifecycleAware
+/**
+ * Activates the jobs of all types on one partition. The subscriptions are
+ * indexed by job type, so that every job event is read only once, regardless of
+ * the number of subscribed job types.
+ *
+ * <p>Jobs which can't be handed out immediately (no subscription or no credits)
+ * are remembered and activated as soon as a subscription with credits is
+ * available. The activatable jobs are part of the snapshot, so that a new
+ * subscription gets the pending jobs of its type without reprocessing the log.
+ */
+public class ActivateJobStreamProcessor implements StreamProcessorLifecycleAware
 {
+    public static final int MAX_ACTIVATION_BATCH_SIZE = 64;
+    private static final int MAX_BATCH_LENGTH = 32 * 1024;
+
+    /**
+     * Request id of an ACTIVATE command of a batch which is followed by
+     * another ACTIVATE command of the same batch. The commands are not
+     * requested by a client, so the request id is free to carry this.
+     */
+    static final long FOLLOWED_BY_ACTIVATION = Long.MAX_VALUE;
+
     protected final CreditsRequestBuffer creditsBuffer = new CreditsRequestBuffer(JobSubscriptionManager.NUM_CONCURRENT_REQUESTS);
 
-    private final JobSubscriptions subscriptions = new JobSubscriptions(8);
-    private final SubscriptionIterator jobDistributionIterator;
-    private final SubscriptionIterator managementIterator;
+    private final Map<DirectBuffer, JobSubscriptions> subscriptionsByType = new HashMap<>();
+    private final Long2ObjectHashMap<JobSubscriptions> subscriptionsByKey = new Long2ObjectHashMap<>();
+
+    private final ActivatableJobs activatableJobs = new ActivatableJobs();
+    private final long[] batchKeys = new long[MAX_ACTIVATION_BATCH_SIZE];
 
-    private final DirectBuffer subscribedJobType;
     private int partitionId;
     private ActorControl actor;
     private StreamProcessorContext context;
+    private TypedStreamReader reader;
+    private TypedStreamWriter writer;
 
-    private JobSubscription selectedSubscriber;
     private ChannelSubscription creditsSubscription;
+    private boolean isActivationScheduled;
 
-    public ActivateJobStreamProcessor(DirectBuffer jobType)
-    {
-        this.subscribedJobType = jobType;
-        this.jobDistributionIterator = subscriptions.iterator();
-        this.managementIterator = subscriptions.iterator();
-    }
-
-    public DirectBuffer getSubscriptedJobType()
+    public int getLogStreamPartitionId()
     {
-        return subscribedJobType;
+        return partitionId;
     }
 
-    public int getLogStreamPartitionId()
+    ActivatableJobs getActivatableJobs()
     {
-        return partitionId;
+        return activatableJobs;
     }
 
     @Override
@@ -75,10 +97,10 @@ public class ActivateJobStreamProcessor implements TypedRecordProcessor<JobRecor
     {
         this.context = streamProcessor.getStreamProcessorContext();
         this.actor = context.getActorControl();
-        creditsSubscription = actor.consume(creditsBuffer, this::consumeCreditsRequest);
+        this.reader = streamProcessor.getEnvironment().buildStreamReader();
+        this.writer = streamProcessor.getEnvironment().buildStreamWriter();
 
-        // activate the processor while adding the first subscription
-        context.suspendController();
+        creditsSubscription = actor.consume(creditsBuffer, this::consumeCreditsRequest);
     }
 
     @Override
@@ -89,17 +111,46 @@ public class ActivateJobStreamProcessor implements TypedRecordProcessor<JobRecor
             creditsSubscription.cancel();
             creditsSubscription = null;
         }
+
+        reader.close();
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment env)
     {
         this.partitionId = env.getStream().getPartitionId();
 
+        final ActivatableJobProcessor activatableJobProcessor = new ActivatableJobProcessor();
+
+        final TypedRecordProcessor<JobRecord> unregisterJob = new TypedRecordProcessor<JobRecord>()
+        {
+            @Override
+            public void processRecord(TypedRecord<JobRecord> event)
+            {
+                activatableJobs.remove(event.getKey());
+            }
+        };
+
+        final TypedRecordProcessor<JobRecord> rejectedActivation = new TypedRecordProcessor<JobRecord>()
+        {
+            @Override
+            public void processRecord(TypedRecord<JobRecord> command)
+            {
+                // the job is not activatable anymore - it is queued again by its next activatable event
+                activatableJobs.removeActivating(command.getKey());
+            }
+        };
+
         return env.newStreamProcessor()
-                .onEvent(ValueType.JOB, JobIntent.CREATED, this)
-                .onEvent(ValueType.JOB, JobIntent.TIMED_OUT, this)
-                .onEvent(ValueType.JOB, JobIntent.FAILED, this)
-                .onEvent(ValueType.JOB, JobIntent.RETRIES_UPDATED, this)
+                .onEvent(ValueType.JOB, JobIntent.CREATED, activatableJobProcessor)
+                .onEvent(ValueType.JOB, JobIntent.TIMED_OUT, activatableJobProcessor)
+                .onEvent(ValueType.JOB, JobIntent.FAILED, activatableJobProcessor)
+                .onEvent(ValueType.JOB, JobIntent.RETRIES_UPDATED, activatableJobProcessor)
+                .onEvent(ValueType.JOB, JobIntent.ACTIVATED, unregisterJob)
+                .onEvent(ValueType.JOB, JobIntent.COMPLETED, unregisterJob)
+                .onEvent(ValueType.JOB, JobIntent.CANCELED, unregisterJob)
+                .onRejection(ValueType.JOB, JobIntent.ACTIVATE, rejectedActivation)
+                .withListener(this)
+                .withStateResource(activatableJobs)
                 .build();
     }
 
@@ -114,65 +165,89 @@ public class ActivateJobStreamProcessor implements TypedRecordProcessor<JobRecor
             ensureLessThanOrEqual("length of worker", subscription.getWorker().capacity(), JobSubscription.WORKER_MAX_LENGTH);
             ensureGreaterThan("timeout", subscription.getTimeout(), 0);
             ensureGreaterThan("subscription credits", subscription.getCredits(), 0);
+            ensureGreaterThan("activation batch size", subscription.getActivationBatchSize(), 0);
+            ensureLessThanOrEqual("activation batch size", subscription.getActivationBatchSize(), MAX_ACTIVATION_BATCH_SIZE);
         }
         catch (Exception e)
         {
             return CompletableActorFuture.completedExceptionally(e);
         }
 
-        if (!BufferUtil.equals(subscription.getJobType(), subscribedJobType))
-        {
-            final String errorMessage = String.format("Subscription job type is not equal to '%s'.", BufferUtil.bufferAsString(subscribedJobType));
-            throw new RuntimeException(errorMessage);
-        }
-
         return actor.call(() ->
         {
-            subscriptions.addSubscription(subscription);
+            final DirectBuffer jobType = subscription.getJobType();
 
-            context.resumeController();
+            JobSubscriptions typeSubscriptions = subscriptionsByType.get(jobType);
+            if (typeSubscriptions == null)
+            {
+                typeSubscriptions = new JobSubscriptions(8);
+                typeSubscriptions.setDistribution(subscription.getDistribution());
+
+                subscriptionsByType.put(jobType, typeSubscriptions);
+            }
+            else if (typeSubscriptions.getDistribution() != subscription.getDistribution())
+            {
+                final String errorMessage = String.format("Job distribution '%s' does not match the distribution '%s' of the existing subscriptions.",
+                        subscription.getDistribution(), typeSubscriptions.getDistribution());
+                throw new RuntimeException(errorMessage);
+            }
+
+            typeSubscriptions.addSubscription(subscription);
+            subscriptionsByKey.put(subscription.getSubscriberKey(), typeSubscriptions);
+
+            scheduleActivation();
         });
     }
 
-    public ActorFuture<Boolean> removeSubscription(long subscriberKey)
+    public ActorFuture<Void> removeSubscription(long subscriberKey)
     {
         return actor.call(() ->
         {
-            subscriptions.removeSubscription(subscriberKey);
-            final boolean isSuspended = subscriptions.isEmpty();
-            if (isSuspended)
+            final JobSubscriptions typeSubscriptions = subscriptionsByKey.remove(subscriberKey);
+            if (typeSubscriptions != null)
             {
-                context.suspendController();
+                typeSubscriptions.removeSubscription(subscriberKey);
+                removeIfEmpty(typeSubscriptions);
             }
-
-            return !isSuspended;
         });
     }
 
-    public ActorFuture<Boolean> onClientChannelCloseAsync(int channelId)
+    public ActorFuture<Void> onClientChannelCloseAsync(int channelId)
     {
         return actor.call(() ->
         {
-            managementIterator.reset();
-
-            while (managementIterator.hasNext())
+            final Iterator<JobSubscriptions> typeIterator = subscriptionsByType.values().iterator();
+            while (typeIterator.hasNext())
             {
-                final JobSubscription subscription = managementIterator.next();
-                if (subscription.getStreamId() == channelId)
+                final JobSubscriptions typeSubscriptions = typeIterator.next();
+                final SubscriptionIterator subscriptionIterator = typeSubscriptions.iterator();
+
+                while (subscriptionIterator.hasNext())
                 {
-                    managementIterator.remove();
+                    final JobSubscription subscription = subscriptionIterator.next();
+                    if (subscription.getStreamId() == channelId)
+                    {
+                        subscriptionsByKey.remove(subscription.getSubscriberKey());
+                        subscriptionIterator.remove();
+                    }
                 }
-            }
 
-            final boolean isSuspended = subscriptions.isEmpty();
-            if (isSuspended)
-            {
-                context.suspendController();
+                if (typeSubscriptions.isEmpty())
+                {
+                    typeIterator.remove();
+                }
             }
-            return !isSuspended;
         });
     }
 
+    private void removeIfEmpty(JobSubscriptions typeSubscriptions)
+    {
+        if (typeSubscriptions.isEmpty())
+        {
+            subscriptionsByType.values().remove(typeSubscriptions);
+        }
+    }
+
     private void consumeCreditsRequest()
     {
         final CreditsRequest creditsRequest = new CreditsRequest();
@@ -193,95 +268,237 @@ public class ActivateJobStreamProcessor implements TypedRecordProcessor<JobRecor
         final long subscriberKey = request.getSubscriberKey();
         final int credits = request.getCredits();
 
-        subscriptions.addCredits(subscriberKey, credits);
+        final JobSubscriptions typeSubscriptions = subscriptionsByKey.get(subscriberKey);
+        if (typeSubscriptions != null)
+        {
+            typeSubscriptions.addCredits(subscriberKey, credits);
 
-        context.resumeController();
+            scheduleActivation();
+        }
     }
 
-    protected JobSubscription getNextAvailableSubscription()
+    private void scheduleActivation()
     {
-        JobSubscription nextSubscription = null;
+        if (!isActivationScheduled)
+        {
+            isActivationScheduled = true;
+            actor.runUntilDone(this::activatePendingJobs);
+        }
+    }
 
-        if (subscriptions.getTotalCredits() > 0)
+    /**
+     * Hands out the remembered jobs of all subscribed job types. Yields if the
+     * log stream writer is back pressured.
+     */
+    private void activatePendingJobs()
+    {
+        for (Entry<DirectBuffer, JobSubscriptions> entry : subscriptionsByType.entrySet())
         {
+            final boolean success = activatePendingJobs(entry.getKey(), entry.getValue());
+            if (!success)
+            {
+                actor.yield();
+                return;
+            }
+        }
 
-            final int subscriptionSize = subscriptions.size();
-            int seenSubscriptions = 0;
+        isActivationScheduled = false;
+        actor.done();
+    }
 
-            while (seenSubscriptions < subscriptionSize && nextSubscription == null)
+    private boolean activatePendingJobs(DirectBuffer jobType, JobSubscriptions typeSubscriptions)
+    {
+        while (activatableJobs.hasJobs(jobType))
+        {
+            final JobSubscription subscriber = typeSubscriptions.nextAvailableSubscription();
+            if (subscriber == null)
             {
-                if (!jobDistributionIterator.hasNext())
-                {
-                    jobDistributionIterator.reset();
-                }
+                break;
+            }
 
-                final JobSubscription subscription = jobDistributionIterator.next();
-                if (subscription.getCredits() > 0)
-                {
-                    nextSubscription = subscription;
-                }
+            final boolean success = subscriber.getActivationBatchSize() > 1
+                    ? activateBatch(jobType, typeSubscriptions, subscriber)
+                    : activateSingle(jobType, typeSubscriptions, subscriber);
 
-                seenSubscriptions += 1;
+            if (!success)
+            {
+                return false;
             }
         }
-        return nextSubscription;
+
+        return true;
     }
 
-    @Override
-    public void processRecord(TypedRecord<JobRecord> event)
+    private boolean activateSingle(DirectBuffer jobType, JobSubscriptions typeSubscriptions, JobSubscription subscriber)
+    {
+        final long key = activatableJobs.peekKey(jobType);
+        final JobRecord job = readJob(key, subscriber);
+
+        final long position = writer.writeFollowUpCommand(key, JobIntent.ACTIVATE, job, m -> assignToSubscriber(m, subscriber));
+        if (position < 0)
+        {
+            return false;
+        }
+
+        activatableJobs.markActivating(jobType, key);
+        typeSubscriptions.addCredits(subscriber.getSubscriberKey(), -1);
+
+        return true;
+    }
+
+    /**
+     * Appends the ACTIVATE commands of up to {@link JobSubscription#getActivationBatchSize()}
+     * jobs for the subscriber as one batch, so that they are written with one
+     * log append and can be pushed with one message.
+     */
+    private boolean activateBatch(DirectBuffer jobType, JobSubscriptions typeSubscriptions, JobSubscription subscriber)
     {
-        selectedSubscriber = null;
+        final int maxJobs = Math.min(subscriber.getActivationBatchSize(), subscriber.getCredits());
+        final int jobCount = activatableJobs.peekKeys(jobType, batchKeys);
 
-        final JobRecord jobEvent = event.getValue();
-        final boolean handlesJobType = BufferUtil.equals(jobEvent.getType(), subscribedJobType);
+        final int batchLimit = Math.min(jobCount, maxJobs);
 
-        if (handlesJobType && jobEvent.getRetries() > 0)
+        final TypedBatchWriter batchWriter = writer.newBatch();
+        int batchSize = 0;
+        int batchLength = 0;
+
+        while (batchSize < batchLimit && batchLength < MAX_BATCH_LENGTH)
         {
-            selectedSubscriber = getNextAvailableSubscription();
-            if (selectedSubscriber != null)
+            final long key = batchKeys[batchSize];
+            final JobRecord job = readJob(key, subscriber);
+
+            batchSize++;
+            batchLength += job.getLength();
+
+            final boolean isLastOfBatch = batchSize == batchLimit || batchLength >= MAX_BATCH_LENGTH;
+
+            batchWriter.addFollowUpCommand(key, JobIntent.ACTIVATE, job, m ->
             {
-                final long deadline = ActorClock.currentTimeMillis() + selectedSubscriber.getTimeout();
+                assignToSubscriber(m, subscriber);
 
-                jobEvent
-                    .setDeadline(deadline)
-                    .setWorker(selectedSubscriber.getWorker());
-            }
+                if (!isLastOfBatch)
+                {
+                    m.requestId(FOLLOWED_BY_ACTIVATION);
+                }
+            });
         }
-    }
 
-    @Override
-    public long writeRecord(TypedRecord<JobRecord> event, TypedStreamWriter writer)
-    {
-        long position = 0;
+        final long position = batchWriter.write();
+        if (position < 0)
+        {
+            return false;
+        }
 
-        if (selectedSubscriber != null)
+        for (int i = 0; i < batchSize; i++)
         {
-            position = writer.writeFollowUpCommand(
-                event.getKey(),
-                JobIntent.ACTIVATE,
-                event.getValue(),
-                this::assignToSelectedSubscriber);
+            activatableJobs.markActivating(jobType, batchKeys[i]);
         }
-        return position;
+        typeSubscriptions.addCredits(subscriber.getSubscriberKey(), -batchSize);
+
+        return true;
     }
 
-    private void assignToSelectedSubscriber(RecordMetadata metadata)
+    private JobRecord readJob(long key, JobSubscription subscriber)
     {
-        metadata.subscriberKey(selectedSubscriber.getSubscriberKey());
-        metadata.requestStreamId(selectedSubscriber.getStreamId());
+        final long eventPosition = activatableJobs.getPosition(key);
+        final TypedRecord<JobRecord> event = reader.readValue(eventPosition, JobRecord.class);
+
+        final JobRecord job = event.getValue();
+        job
+            .setDeadline(ActorClock.currentTimeMillis() + subscriber.getTimeout())
+            .setWorker(subscriber.getWorker());
+
+        return job;
     }
 
-    @Override
-    public void updateState(TypedRecord<JobRecord> event)
+    private class ActivatableJobProcessor implements TypedRecordProcessor<JobRecord>
     {
-        if (selectedSubscriber != null)
+        private JobSubscriptions selectedSubscriptions;
+        private JobSubscription selectedSubscriber;
+
+        @Override
+        public void processRecord(TypedRecord<JobRecord> event)
         {
-            subscriptions.addCredits(selectedSubscriber.getSubscriberKey(), -1);
+            selectedSubscriptions = null;
+            selectedSubscriber = null;
 
-            if (subscriptions.getTotalCredits() <= 0)
+            final JobRecord jobEvent = event.getValue();
+
+            if (jobEvent.getRetries() > 0)
             {
-                context.suspendController();
+                final DirectBuffer jobType = jobEvent.getType();
+                final JobSubscriptions typeSubscriptions = subscriptionsByType.get(jobType);
+
+                // jobs which wait for activation go first, batching subscriptions activate from the queue only
+                if (typeSubscriptions != null && !typeSubscriptions.hasBatchingSubscriptions() && !activatableJobs.hasJobs(jobType))
+                {
+                    selectedSubscriber = typeSubscriptions.nextAvailableSubscription();
+                }
+
+                if (selectedSubscriber != null)
+                {
+                    final long deadline = ActorClock.currentTimeMillis() + selectedSubscriber.getTimeout();
+
+                    jobEvent
+                        .setDeadline(deadline)
+                        .setWorker(selectedSubscriber.getWorker());
+
+                    selectedSubscriptions = typeSubscriptions;
+                }
+                else
+                {
+                    activatableJobs.add(jobType, event.getKey(), event.getPosition());
+
+                    if (typeSubscriptions != null && typeSubscriptions.getTotalCredits() > 0)
+                    {
+                        scheduleActivation();
+                    }
+                }
+            }
+            else
+            {
+                activatableJobs.remove(event.getKey());
             }
         }
+
+        @Override
+        public long writeRecord(TypedRecord<JobRecord> event, TypedStreamWriter writer)
+        {
+            long position = 0;
+
+            if (selectedSubscriber != null)
+            {
+                position = writer.writeFollowUpCommand(
+                    event.getKey(),
+                    JobIntent.ACTIVATE,
+                    event.getValue(),
+                    m -> assignToSubscriber(m, selectedSubscriber));
+            }
+            return position;
+        }
+
+        @Override
+        public void updateState(TypedRecord<JobRecord> event)
+        {
+            if (selectedSubscriber != null)
+            {
+                selectedSubscriptions.addCredits(selectedSubscriber.getSubscriberKey(), -1);
+            }
+        }
+    }
+
+    /**
+     * @return true if the ACTIVATE command is followed by another ACTIVATE
+     *         command of the same batch, i.e. for the same subscriber
+     */
+    public static boolean isFollowedByActivation(RecordMetadata metadata)
+    {
+        return metadata.getRequestId() == FOLLOWED_BY_ACTIVATION;
+    }
+
+    private static void assignToSubscriber(RecordMetadata metadata, JobSubscription subscriber)
+    {
+        metadata.subscriberKey(subscriber.getSubscriberKey());
+        metadata.requestStreamId(subscriber.getStreamId());
     }
 }
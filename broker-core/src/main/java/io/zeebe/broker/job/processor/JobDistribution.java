@@ -0,0 +1,61 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import java.util.function.Supplier;
+
+/**
+ * The way jobs of one type are distributed between the subscriptions on a partition.
+ * It is chosen by the first subscription that is opened for the job type.
+ */
+public enum JobDistribution
+{
+    /**
+     * Hands out the jobs in turn to all subscriptions with credits.
+     */
+    ROUND_ROBIN(RoundRobinDistribution::new),
+
+    /**
+     * Hands out as many jobs in a row to a subscription as its weight (default
+     * 1), so that workers get jobs in proportion to their weights.
+     */
+    WEIGHTED_ROUND_ROBIN(WeightedRoundRobinDistribution::new),
+
+    /**
+     * Hands out the next job to the subscription with the most credits left.
+     */
+    MOST_CREDITS(MostCreditsDistribution::new),
+
+    /**
+     * Hands out jobs to subscriptions of the same client stream as long as
+     * they have credits, before moving on to the next client stream.
+     */
+    LOCALITY(LocalityDistribution::new);
+
+    private final Supplier<JobDistributionStrategy> strategyFactory;
+
+    JobDistribution(Supplier<JobDistributionStrategy> strategyFactory)
+    {
+        this.strategyFactory = strategyFactory;
+    }
+
+    public JobDistributionStrategy newStrategy()
+    {
+        return strategyFactory.get();
+    }
+}
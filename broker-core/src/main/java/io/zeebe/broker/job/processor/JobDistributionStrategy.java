@@ -0,0 +1,50 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+/**
+ * Selects the subscription which gets the next job. A strategy only knows the
+ * subscriptions which have credits, so that the selection does not depend on
+ * the number of subscriptions without credits.
+ */
+public interface JobDistributionStrategy
+{
+    /**
+     * The subscription has credits now.
+     */
+    void add(JobSubscription subscription);
+
+    /**
+     * The subscription has no credits anymore or is removed.
+     */
+    void remove(JobSubscription subscription);
+
+    /**
+     * The credits of the subscription changed but it has still credits.
+     */
+    default void onCreditsChanged(JobSubscription subscription)
+    {
+    }
+
+    /**
+     * @return the subscription which gets the next job, or <code>null</code> if no subscription has credits
+     */
+    JobSubscription next();
+
+    boolean isEmpty();
+}
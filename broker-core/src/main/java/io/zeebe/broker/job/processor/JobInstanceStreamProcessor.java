@@ -32,6 +32,7 @@ import io.zeebe.broker.logstreams.processor.TypedResponseWriter;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
+import io.zeebe.broker.transport.clientapi.SubscribedRecordBatchWriter;
 import io.zeebe.broker.transport.clientapi.SubscribedRecordWriter;
 import io.zeebe.protocol.clientapi.RecordType;
 import io.zeebe.protocol.clientapi.SubscriptionType;
@@ -47,7 +48,14 @@ public class JobInstanceStreamProcessor
     protected static final short STATE_FAILED = 3;
     protected static final short STATE_TIMED_OUT = 4;
 
+    /**
+     * Limits for pushing activated jobs of one subscriber with one message
+     */
+    protected static final int MAX_PUSH_BATCH_SIZE = ActivateJobStreamProcessor.MAX_ACTIVATION_BATCH_SIZE;
+    protected static final int MAX_PUSH_BATCH_LENGTH = 64 * 1024;
+
     protected SubscribedRecordWriter subscribedEventWriter;
+    protected SubscribedRecordBatchWriter pushBatchWriter;
     protected final JobSubscriptionManager jobSubscriptionManager;
     protected final CreditsRequest creditsRequest = new CreditsRequest();
 
@@ -65,6 +73,7 @@ public class JobInstanceStreamProcessor
     {
         this.logStreamPartitionId = environment.getStream().getPartitionId();
         this.subscribedEventWriter = new SubscribedRecordWriter(environment.getOutput());
+        this.pushBatchWriter = new SubscribedRecordBatchWriter(environment.getOutput());
 
         return environment.newStreamProcessor()
             .onCommand(ValueType.JOB, JobIntent.CREATE, new CreateJobProcessor())
@@ -111,12 +120,20 @@ public class JobInstanceStreamProcessor
     private class ActivateJobProcessor implements TypedRecordProcessor<JobRecord>
     {
         protected boolean canActivate;
+        protected boolean isAddedToPushBatch;
         protected final CreditsRequest creditsRequest = new CreditsRequest();
 
+        @Override
+        public void onClose()
+        {
+            pushBatchWriter.reset();
+        }
+
         @Override
         public void processRecord(TypedRecord<JobRecord> command)
         {
             canActivate = false;
+            isAddedToPushBatch = false;
 
             final short state = jobIndex.wrapJobInstanceKey(command.getKey()).getState();
 
@@ -133,33 +150,86 @@ public class JobInstanceStreamProcessor
 
             if (canActivate)
             {
-                final RecordMetadata metadata = command.getMetadata();
-
-                success = subscribedEventWriter
-                        .recordType(RecordType.EVENT)
-                        .intent(JobIntent.ACTIVATED)
-                        .partitionId(logStreamPartitionId)
-                        .position(command.getPosition())
-                        .key(command.getKey())
-                        .timestamp(command.getTimestamp())
-                        .subscriberKey(metadata.getSubscriberKey())
-                        .subscriptionType(SubscriptionType.JOB_SUBSCRIPTION)
-                        .valueType(ValueType.JOB)
-                        .valueWriter(command.getValue())
-                        .tryWriteMessage(metadata.getRequestStreamId());
+                success = pushActivatedJob(command);
             }
             else
             {
-                final long subscriptionId = command.getMetadata().getSubscriberKey();
+                // the next command can't belong to the pending push batch anymore
+                success = pushBatchWriter.tryWriteMessage();
+
+                if (success)
+                {
+                    final long subscriptionId = command.getMetadata().getSubscriberKey();
 
-                creditsRequest.setSubscriberKey(subscriptionId);
-                creditsRequest.setCredits(1);
-                success = jobSubscriptionManager.increaseSubscriptionCreditsAsync(creditsRequest);
+                    creditsRequest.setSubscriberKey(subscriptionId);
+                    creditsRequest.setCredits(1);
+                    success = jobSubscriptionManager.increaseSubscriptionCreditsAsync(creditsRequest);
+                }
             }
 
             return success;
         }
 
+        /**
+         * Pushes the activated job to the subscriber. If the ACTIVATE command
+         * is followed by another one of the same batch (see
+         * {@link ActivateJobStreamProcessor#isFollowedByActivation(RecordMetadata)}),
+         * the job is collected and pushed together with the next jobs of the
+         * batch in one message. Jobs which are not activated in batches are
+         * pushed one per message.
+         */
+        protected boolean pushActivatedJob(TypedRecord<JobRecord> command)
+        {
+            final RecordMetadata metadata = command.getMetadata();
+            final int requestStreamId = metadata.getRequestStreamId();
+            final long subscriberKey = metadata.getSubscriberKey();
+            final boolean isFollowedByActivation = ActivateJobStreamProcessor.isFollowedByActivation(metadata);
+
+            if (!isAddedToPushBatch)
+            {
+                writeActivatedJob(command);
+
+                final boolean exceedsBatch = pushBatchWriter.getRecordCount() >= MAX_PUSH_BATCH_SIZE
+                        || pushBatchWriter.getLength() + subscribedEventWriter.getLength() > MAX_PUSH_BATCH_LENGTH;
+
+                if (!pushBatchWriter.canAdd(requestStreamId, subscriberKey) || exceedsBatch)
+                {
+                    if (!pushBatchWriter.tryWriteMessage())
+                    {
+                        return false;
+                    }
+                }
+
+                if (pushBatchWriter.isEmpty() && !isFollowedByActivation)
+                {
+                    // nothing to collect
+                    return subscribedEventWriter.tryWriteMessage(requestStreamId);
+                }
+
+                pushBatchWriter.add(subscribedEventWriter, requestStreamId, subscriberKey);
+                isAddedToPushBatch = true;
+            }
+
+            return isFollowedByActivation || pushBatchWriter.tryWriteMessage();
+        }
+
+        protected void writeActivatedJob(TypedRecord<JobRecord> command)
+        {
+            final RecordMetadata metadata = command.getMetadata();
+
+            subscribedEventWriter
+                .recordType(RecordType.EVENT)
+                .intent(JobIntent.ACTIVATED)
+                .partitionId(logStreamPartitionId)
+                .position(command.getPosition())
+                .key(command.getKey())
+                .timestamp(command.getTimestamp())
+                .subscriberKey(metadata.getSubscriberKey())
+                .subscriptionType(SubscriptionType.JOB_SUBSCRIPTION)
+                .valueType(ValueType.JOB)
+                .valueWriter(command.getValue());
+        }
+
         @Override
         public long writeRecord(TypedRecord<JobRecord> command, TypedStreamWriter writer)
         {
@@ -38,6 +38,15 @@ public class JobSubscription
 
     private int credits;
 
+    private JobDistribution distribution = JobDistribution.ROUND_ROBIN;
+    private int weight = 1;
+    private int activationBatchSize = 1;
+
+    /**
+     * position of the subscription in the data structure of the distribution strategy
+     */
+    private int distributionIndex = -1;
+
     public JobSubscription(int partitionId, DirectBuffer jobType, long timeout, DirectBuffer worker, int streamId)
     {
         this.partitionId = partitionId;
@@ -92,4 +101,47 @@ public class JobSubscription
         return partitionId;
     }
 
+    public JobDistribution getDistribution()
+    {
+        return distribution;
+    }
+
+    public void setDistribution(JobDistribution distribution)
+    {
+        this.distribution = distribution;
+    }
+
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    public void setWeight(int weight)
+    {
+        this.weight = weight;
+    }
+
+    /**
+     * @return the max number of jobs which are activated for this subscription at once
+     */
+    public int getActivationBatchSize()
+    {
+        return activationBatchSize;
+    }
+
+    public void setActivationBatchSize(int activationBatchSize)
+    {
+        this.activationBatchSize = activationBatchSize;
+    }
+
+    int getDistributionIndex()
+    {
+        return distributionIndex;
+    }
+
+    void setDistributionIndex(int distributionIndex)
+    {
+        this.distributionIndex = distributionIndex;
+    }
+
 }
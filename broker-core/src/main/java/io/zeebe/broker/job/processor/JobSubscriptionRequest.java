@@ -32,13 +32,22 @@ public class JobSubscriptionRequest extends UnpackedObject
 
     protected IntegerProperty creditsProp = new IntegerProperty("credits", -1);
 
+    protected EnumProperty<JobDistribution> distributionProp = new EnumProperty<>("distribution", JobDistribution.class, JobDistribution.ROUND_ROBIN);
+
+    protected IntegerProperty activationBatchSizeProp = new IntegerProperty("activationBatchSize", 1);
+
+    protected IntegerProperty weightProp = new IntegerProperty("weight", 1);
+
     public JobSubscriptionRequest()
     {
         this.declareProperty(subscriberKeyProp)
             .declareProperty(jobTypeProp)
             .declareProperty(timeoutProp)
             .declareProperty(workerProp)
-            .declareProperty(creditsProp);
+            .declareProperty(creditsProp)
+            .declareProperty(distributionProp)
+            .declareProperty(activationBatchSizeProp)
+            .declareProperty(weightProp);
     }
 
     public JobSubscriptionRequest setSubscriberKey(long subscriberKey)
@@ -96,4 +105,37 @@ public class JobSubscriptionRequest extends UnpackedObject
         return workerProp.getValue();
     }
 
+    public JobDistribution getDistribution()
+    {
+        return distributionProp.getValue();
+    }
+
+    public JobSubscriptionRequest setDistribution(JobDistribution distribution)
+    {
+        this.distributionProp.setValue(distribution);
+        return this;
+    }
+
+    public int getActivationBatchSize()
+    {
+        return activationBatchSizeProp.getValue();
+    }
+
+    public JobSubscriptionRequest setActivationBatchSize(int activationBatchSize)
+    {
+        this.activationBatchSizeProp.setValue(activationBatchSize);
+        return this;
+    }
+
+    public int getWeight()
+    {
+        return weightProp.getValue();
+    }
+
+    public JobSubscriptionRequest setWeight(int weight)
+    {
+        this.weightProp.setValue(weight);
+        return this;
+    }
+
 }
@@ -28,10 +28,34 @@ public class JobSubscriptions implements Iterable<JobSubscription>
     protected JobSubscription[] subscriptions;
     protected Long2LongHashMap lookupTable = new Long2LongHashMap(-1);
     protected int totalCredits = 0;
+    protected int batchingSubscriptions = 0;
+
+    protected JobDistribution distribution;
+    protected JobDistributionStrategy distributionStrategy;
 
     public JobSubscriptions(int initialCapacity)
     {
         this.subscriptions = new JobSubscription[initialCapacity];
+        setDistribution(JobDistribution.ROUND_ROBIN);
+    }
+
+    /**
+     * Can only be changed while there are no subscriptions.
+     */
+    public void setDistribution(JobDistribution distribution)
+    {
+        if (!isEmpty())
+        {
+            throw new IllegalStateException("Cannot change the job distribution while there are subscriptions");
+        }
+
+        this.distribution = distribution;
+        this.distributionStrategy = distribution.newStrategy();
+    }
+
+    public JobDistribution getDistribution()
+    {
+        return distribution;
     }
 
     public void addSubscription(JobSubscription subscription)
@@ -56,6 +80,16 @@ public class JobSubscriptions implements Iterable<JobSubscription>
         subscriptions[insertIndex] = subscription;
         lookupTable.put(subscription.getSubscriberKey(), insertIndex);
         totalCredits += subscription.getCredits();
+
+        if (subscription.getActivationBatchSize() > 1)
+        {
+            batchingSubscriptions++;
+        }
+
+        if (subscription.getCredits() > 0)
+        {
+            distributionStrategy.add(subscription);
+        }
     }
 
     public void removeSubscription(long subscriberKey)
@@ -75,6 +109,16 @@ public class JobSubscriptions implements Iterable<JobSubscription>
             subscriptions[index] = null;
             lookupTable.remove(currentValue.getSubscriberKey());
             totalCredits -= currentValue.getCredits();
+
+            if (currentValue.getActivationBatchSize() > 1)
+            {
+                batchingSubscriptions--;
+            }
+
+            if (currentValue.getCredits() > 0)
+            {
+                distributionStrategy.remove(currentValue);
+            }
         }
     }
 
@@ -96,11 +140,45 @@ public class JobSubscriptions implements Iterable<JobSubscription>
         if (idx >= 0)
         {
             final JobSubscription subscription = subscriptions[(int) idx];
-            subscription.setCredits(subscription.getCredits() + credits);
+
+            final int previousCredits = subscription.getCredits();
+            final int newCredits = previousCredits + credits;
+
+            subscription.setCredits(newCredits);
             totalCredits += credits;
+
+            if (previousCredits <= 0 && newCredits > 0)
+            {
+                distributionStrategy.add(subscription);
+            }
+            else if (previousCredits > 0 && newCredits <= 0)
+            {
+                distributionStrategy.remove(subscription);
+            }
+            else if (newCredits > 0)
+            {
+                distributionStrategy.onCreditsChanged(subscription);
+            }
         }
     }
 
+    /**
+     * @return the subscription which gets the next job according to the distribution,
+     *         or <code>null</code> if no subscription has credits
+     */
+    public JobSubscription nextAvailableSubscription()
+    {
+        return distributionStrategy.next();
+    }
+
+    /**
+     * @return true if at least one subscription activates its jobs in batches
+     */
+    public boolean hasBatchingSubscriptions()
+    {
+        return batchingSubscriptions > 0;
+    }
+
     public int getTotalCredits()
     {
         return totalCredits;
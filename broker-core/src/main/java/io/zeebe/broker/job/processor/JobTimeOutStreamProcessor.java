@@ -19,14 +19,15 @@ package io.zeebe.broker.job.processor;
 
 import static org.agrona.BitUtil.SIZE_OF_LONG;
 
-import java.util.Iterator;
-
 import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.UnsafeBuffer;
 
 import io.zeebe.broker.job.JobQueueManagerService;
 import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.job.map.JobDeadlineIndex;
 import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
+import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.processor.TypedRecordProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
@@ -34,7 +35,6 @@ import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamReader;
 import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.map.Long2BytesZbMap;
-import io.zeebe.map.iterator.Long2BytesZbMapEntry;
 import io.zeebe.protocol.clientapi.ValueType;
 import io.zeebe.protocol.intent.JobIntent;
 import io.zeebe.util.sched.ScheduledTimer;
@@ -42,22 +42,73 @@ import io.zeebe.util.sched.clock.ActorClock;
 
 public class JobTimeOutStreamProcessor implements StreamProcessorLifecycleAware
 {
-    protected static final int MAP_VALUE_MAX_LENGTH = SIZE_OF_LONG + SIZE_OF_LONG;
+    /**
+     * Activated jobs whose encoded record is not larger than this are kept
+     * in memory, so that they can be timed out without reading the log.
+     */
+    protected static final int INLINE_RECORD_MAX_LENGTH = 256;
+
+    /**
+     * Upper bound of the heap memory of the kept records. When it is reached,
+     * further jobs are read from the log on time out.
+     */
+    protected static final long INLINE_RECORDS_DEFAULT_CAPACITY = 16 * 1024 * 1024;
+
+    protected static final int MAX_BATCH_SIZE = 32;
+    protected static final int MAX_BATCH_LENGTH = 32 * 1024;
+
+    private static final int POSITION_OFFSET = 0;
+    private static final int DEADLINE_OFFSET = POSITION_OFFSET + SIZE_OF_LONG;
+
+    protected static final int MAP_VALUE_MAX_LENGTH = DEADLINE_OFFSET + SIZE_OF_LONG;
 
     protected Long2BytesZbMap expirationMap = new Long2BytesZbMap(MAP_VALUE_MAX_LENGTH);
 
+    protected JobDeadlineIndex deadlineIndex = new JobDeadlineIndex();
+
+    /**
+     * Small job records by key. The map values have a fixed size, so the
+     * records are kept apart from them. They are not part of the snapshot:
+     * after recovery, the jobs are read from the log by position.
+     */
+    protected final Long2ObjectHashMap<byte[]> inlineRecords = new Long2ObjectHashMap<>();
+    private final long inlineRecordsCapacity;
+    private long inlineRecordsBytes = 0;
+
     private UnsafeBuffer mapAccessBuffer = new UnsafeBuffer(new byte[MAP_VALUE_MAX_LENGTH]);
+    private final UnsafeBuffer inlineRecordBuffer = new UnsafeBuffer(0, 0);
+    private final JobRecord inlineRecord = new JobRecord();
+
+    private final long[] batchKeys = new long[MAX_BATCH_SIZE];
+    private final long[] batchDeadlines = new long[MAX_BATCH_SIZE];
 
     private ScheduledTimer timer;
     private TypedStreamWriter writer;
     private TypedStreamReader reader;
 
+    public JobTimeOutStreamProcessor()
+    {
+        this(INLINE_RECORDS_DEFAULT_CAPACITY);
+    }
+
+    JobTimeOutStreamProcessor(long inlineRecordsCapacity)
+    {
+        this.inlineRecordsCapacity = inlineRecordsCapacity;
+    }
+
     @Override
     public void onOpen(TypedStreamProcessor streamProcessor)
     {
-        timer = streamProcessor.getActor().runAtFixedRate(JobQueueManagerService.TIME_OUT_INTERVAL, this::timeOutJobs);
-        this.writer = streamProcessor.getEnvironment().buildStreamWriter();
-        this.reader = streamProcessor.getEnvironment().buildStreamReader();
+        final TypedStreamEnvironment environment = streamProcessor.getEnvironment();
+        open(environment.buildStreamWriter(), environment.buildStreamReader());
+
+        timer = streamProcessor.getActor().runAtFixedRate(JobQueueManagerService.TIME_OUT_INTERVAL, () -> timeOutJobs(ActorClock.currentTimeMillis()));
+    }
+
+    void open(TypedStreamWriter writer, TypedStreamReader reader)
+    {
+        this.writer = writer;
+        this.reader = reader;
     }
 
     @Override
@@ -69,43 +120,130 @@ public class JobTimeOutStreamProcessor implements StreamProcessorLifecycleAware
             timer = null;
         }
 
-        // TODO: check all locations where we need to close readers
         this.reader.close();
     }
 
-    private void timeOutJobs()
+    void timeOutJobs(long now)
     {
-        final Iterator<Long2BytesZbMapEntry> iterator = expirationMap.iterator();
-
-        while (iterator.hasNext())
+        // only due jobs are visited; jobs of a batch are put back into the index
+        // if the batch can't be written, so we continue from there after backpressure
+        while (deadlineIndex.hasDueJob(now))
         {
-            final Long2BytesZbMapEntry entry = iterator.next();
-
-            final DirectBuffer value = entry.getValue();
+            final TypedBatchWriter batchWriter = writer.newBatch();
 
-            final long eventPosition = value.getLong(0);
-            final long deadline = value.getLong(SIZE_OF_LONG);
+            int batchSize = 0;
+            int batchLength = 0;
 
-            if (isExpired(deadline))
+            while (batchSize < MAX_BATCH_SIZE && batchLength < MAX_BATCH_LENGTH && deadlineIndex.hasDueJob(now))
             {
-                // TODO: would be nicer to have a consumable channel for timed-out timers
-                //   that we can stop consuming/yield on backpressure
+                final long key = deadlineIndex.peekKey();
+                final long deadline = deadlineIndex.peekDeadline();
+
+                deadlineIndex.markTimingOut();
+
+                final JobRecord job = lookupJob(key);
+                if (job != null)
+                {
+                    batchWriter.addFollowUpCommand(key, JobIntent.TIME_OUT, job);
+
+                    batchKeys[batchSize] = key;
+                    batchDeadlines[batchSize] = deadline;
+                    batchSize++;
 
-                final TypedRecord<JobRecord> event = reader.readValue(eventPosition, JobRecord.class);
-                final long position = writer.writeFollowUpCommand(event.getKey(), JobIntent.TIME_OUT, event.getValue());
+                    batchLength += job.getLength();
+                }
+                else
+                {
+                    deadlineIndex.remove(key);
+                }
+            }
+
+            if (batchSize > 0)
+            {
+                final long position = batchWriter.write();
                 final boolean success = position >= 0;
 
                 if (!success)
                 {
+                    for (int i = 0; i < batchSize; i++)
+                    {
+                        deadlineIndex.put(batchKeys[i], batchDeadlines[i]);
+                    }
                     return;
                 }
             }
         }
     }
 
-    private boolean isExpired(long deadline)
+    private JobRecord lookupJob(long key)
     {
-        return deadline <= ActorClock.currentTimeMillis();
+        final DirectBuffer value = expirationMap.get(key);
+        if (value == null)
+        {
+            return null;
+        }
+
+        final byte[] record = inlineRecords.get(key);
+        if (record != null)
+        {
+            inlineRecordBuffer.wrap(record);
+
+            inlineRecord.reset();
+            inlineRecord.wrap(inlineRecordBuffer, 0, record.length);
+
+            return inlineRecord;
+        }
+        else
+        {
+            final long eventPosition = value.getLong(POSITION_OFFSET);
+            final TypedRecord<JobRecord> event = reader.readValue(eventPosition, JobRecord.class);
+
+            return event.getValue();
+        }
+    }
+
+    void registerJob(long key, long position, JobRecord job)
+    {
+        final long deadline = job.getDeadline();
+
+        mapAccessBuffer.putLong(POSITION_OFFSET, position);
+        mapAccessBuffer.putLong(DEADLINE_OFFSET, deadline);
+
+        expirationMap.put(key, mapAccessBuffer);
+        deadlineIndex.put(key, deadline);
+
+        removeInlineRecord(key);
+
+        final int recordLength = job.getLength();
+        if (recordLength <= INLINE_RECORD_MAX_LENGTH && inlineRecordsBytes + recordLength <= inlineRecordsCapacity)
+        {
+            final byte[] record = new byte[recordLength];
+            job.write(new UnsafeBuffer(record), 0);
+
+            inlineRecords.put(key, record);
+            inlineRecordsBytes += recordLength;
+        }
+    }
+
+    void unregisterJob(long key)
+    {
+        expirationMap.remove(key);
+        deadlineIndex.remove(key);
+        removeInlineRecord(key);
+    }
+
+    private void removeInlineRecord(long key)
+    {
+        final byte[] record = inlineRecords.remove(key);
+        if (record != null)
+        {
+            inlineRecordsBytes -= record.length;
+        }
+    }
+
+    long getInlineRecordsBytes()
+    {
+        return inlineRecordsBytes;
     }
 
     public TypedStreamProcessor createStreamProcessor(TypedStreamEnvironment environment)
@@ -115,12 +253,7 @@ public class JobTimeOutStreamProcessor implements StreamProcessorLifecycleAware
             @Override
             public void updateState(TypedRecord<JobRecord> event)
             {
-                final long deadline = event.getValue().getDeadline();
-
-                mapAccessBuffer.putLong(0, event.getPosition());
-                mapAccessBuffer.putLong(SIZE_OF_LONG, deadline);
-
-                expirationMap.put(event.getKey(), mapAccessBuffer);
+                registerJob(event.getKey(), event.getPosition(), event.getValue());
             }
         };
 
@@ -129,7 +262,7 @@ public class JobTimeOutStreamProcessor implements StreamProcessorLifecycleAware
             @Override
             public void updateState(TypedRecord<JobRecord> event)
             {
-                expirationMap.remove(event.getKey());
+                unregisterJob(event.getKey());
             }
         };
 
@@ -140,6 +273,7 @@ public class JobTimeOutStreamProcessor implements StreamProcessorLifecycleAware
             .onEvent(ValueType.JOB, JobIntent.FAILED, unregisterJob)
             .withListener(this)
             .withStateResource(expirationMap)
+            .withStateResource(deadlineIndex)
             .build();
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import org.agrona.collections.ArrayUtil;
+import org.agrona.collections.Int2ObjectHashMap;
+
+/**
+ * Groups the subscriptions by client stream. Jobs go round-robin to the
+ * subscriptions of one stream until none of them has credits left, then the
+ * next stream with credits is selected.
+ */
+public class LocalityDistribution implements JobDistributionStrategy
+{
+    private final Int2ObjectHashMap<StreamGroup> groupsByStream = new Int2ObjectHashMap<>();
+
+    private StreamGroup[] availableGroups = new StreamGroup[8];
+    private int availableGroupCount = 0;
+    private int cursor = 0;
+
+    private StreamGroup currentGroup;
+
+    @Override
+    public void add(JobSubscription subscription)
+    {
+        final int streamId = subscription.getStreamId();
+
+        StreamGroup group = groupsByStream.get(streamId);
+        if (group == null)
+        {
+            group = new StreamGroup();
+            groupsByStream.put(streamId, group);
+        }
+
+        final boolean wasEmpty = group.isEmpty();
+        group.add(subscription);
+
+        if (wasEmpty)
+        {
+            addGroup(group);
+        }
+    }
+
+    @Override
+    public void remove(JobSubscription subscription)
+    {
+        final StreamGroup group = groupsByStream.get(subscription.getStreamId());
+        if (group == null)
+        {
+            return;
+        }
+
+        group.remove(subscription);
+
+        if (group.isEmpty())
+        {
+            removeGroup(group);
+            groupsByStream.remove(subscription.getStreamId());
+
+            if (group == currentGroup)
+            {
+                currentGroup = null;
+            }
+        }
+    }
+
+    @Override
+    public JobSubscription next()
+    {
+        if (currentGroup == null || currentGroup.isEmpty())
+        {
+            if (availableGroupCount == 0)
+            {
+                return null;
+            }
+
+            if (cursor >= availableGroupCount)
+            {
+                cursor = 0;
+            }
+
+            currentGroup = availableGroups[cursor++];
+        }
+
+        return currentGroup.next();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return availableGroupCount == 0;
+    }
+
+    private void addGroup(StreamGroup group)
+    {
+        if (availableGroupCount == availableGroups.length)
+        {
+            availableGroups = ArrayUtil.ensureCapacity(availableGroups, availableGroupCount * 2);
+        }
+
+        availableGroups[availableGroupCount] = group;
+        group.groupIndex = availableGroupCount;
+        availableGroupCount++;
+    }
+
+    private void removeGroup(StreamGroup group)
+    {
+        final int index = group.groupIndex;
+        final int last = availableGroupCount - 1;
+
+        if (index != last)
+        {
+            availableGroups[index] = availableGroups[last];
+            availableGroups[index].groupIndex = index;
+        }
+
+        availableGroups[last] = null;
+        group.groupIndex = -1;
+        availableGroupCount--;
+
+        if (cursor > index)
+        {
+            cursor--;
+        }
+    }
+
+    private static class StreamGroup extends RoundRobinDistribution
+    {
+        private int groupIndex = -1;
+    }
+}
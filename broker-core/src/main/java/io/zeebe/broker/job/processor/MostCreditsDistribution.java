@@ -0,0 +1,146 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import org.agrona.collections.ArrayUtil;
+
+/**
+ * Max-heap of the subscriptions ordered by their credits.
+ */
+public class MostCreditsDistribution implements JobDistributionStrategy
+{
+    private JobSubscription[] heap = new JobSubscription[8];
+    private int size = 0;
+
+    @Override
+    public void add(JobSubscription subscription)
+    {
+        if (size == heap.length)
+        {
+            heap = ArrayUtil.ensureCapacity(heap, size * 2);
+        }
+
+        heap[size] = subscription;
+        subscription.setDistributionIndex(size);
+        size++;
+
+        siftUp(size - 1);
+    }
+
+    @Override
+    public void remove(JobSubscription subscription)
+    {
+        final int index = subscription.getDistributionIndex();
+        if (index < 0 || index >= size || heap[index] != subscription)
+        {
+            return;
+        }
+
+        final int last = size - 1;
+        if (index != last)
+        {
+            heap[index] = heap[last];
+            heap[index].setDistributionIndex(index);
+        }
+
+        heap[last] = null;
+        subscription.setDistributionIndex(-1);
+        size--;
+
+        if (index < size)
+        {
+            siftDown(index);
+            siftUp(index);
+        }
+    }
+
+    @Override
+    public void onCreditsChanged(JobSubscription subscription)
+    {
+        final int index = subscription.getDistributionIndex();
+        if (index >= 0 && index < size && heap[index] == subscription)
+        {
+            siftDown(index);
+            siftUp(index);
+        }
+    }
+
+    @Override
+    public JobSubscription next()
+    {
+        return size > 0 ? heap[0] : null;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    private void siftUp(int index)
+    {
+        while (index > 0)
+        {
+            final int parent = (index - 1) >>> 1;
+            if (heap[parent].getCredits() >= heap[index].getCredits())
+            {
+                break;
+            }
+
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index)
+    {
+        while (true)
+        {
+            final int left = (index << 1) + 1;
+            final int right = left + 1;
+            int largest = index;
+
+            if (left < size && heap[left].getCredits() > heap[largest].getCredits())
+            {
+                largest = left;
+            }
+            if (right < size && heap[right].getCredits() > heap[largest].getCredits())
+            {
+                largest = right;
+            }
+
+            if (largest == index)
+            {
+                break;
+            }
+
+            swap(index, largest);
+            index = largest;
+        }
+    }
+
+    private void swap(int i, int j)
+    {
+        final JobSubscription tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+
+        heap[i].setDistributionIndex(i);
+        heap[j].setDistributionIndex(j);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import org.agrona.collections.ArrayUtil;
+
+public class RoundRobinDistribution implements JobDistributionStrategy
+{
+    protected JobSubscription[] available = new JobSubscription[8];
+    protected int size = 0;
+    protected int cursor = 0;
+
+    @Override
+    public void add(JobSubscription subscription)
+    {
+        if (size == available.length)
+        {
+            available = ArrayUtil.ensureCapacity(available, size * 2);
+        }
+
+        available[size] = subscription;
+        subscription.setDistributionIndex(size);
+        size++;
+    }
+
+    @Override
+    public void remove(JobSubscription subscription)
+    {
+        final int index = subscription.getDistributionIndex();
+        if (index < 0 || index >= size || available[index] != subscription)
+        {
+            return;
+        }
+
+        final int last = size - 1;
+        if (index != last)
+        {
+            available[index] = available[last];
+            available[index].setDistributionIndex(index);
+        }
+
+        available[last] = null;
+        subscription.setDistributionIndex(-1);
+        size--;
+
+        if (cursor > index)
+        {
+            cursor--;
+        }
+    }
+
+    @Override
+    public JobSubscription next()
+    {
+        if (size == 0)
+        {
+            return null;
+        }
+
+        if (cursor >= size)
+        {
+            cursor = 0;
+        }
+
+        return available[cursor++];
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+public class WeightedRoundRobinDistribution extends RoundRobinDistribution
+{
+    private JobSubscription current;
+    private int remainingTurns = 0;
+
+    @Override
+    public void remove(JobSubscription subscription)
+    {
+        super.remove(subscription);
+
+        if (subscription == current)
+        {
+            current = null;
+            remainingTurns = 0;
+        }
+    }
+
+    @Override
+    public JobSubscription next()
+    {
+        if (current == null || remainingTurns <= 0)
+        {
+            current = super.next();
+            remainingTurns = current != null ? Math.max(current.getWeight(), 1) : 0;
+        }
+
+        if (current != null)
+        {
+            remainingTurns--;
+        }
+
+        return current;
+    }
+}
@@ -33,6 +33,8 @@ public class StreamProcessorIds
 
     public static final int DEPLOYMENT_PROCESSOR_ID = 60;
 
+    public static final int DEPLOYMENT_REPLICA_PROCESSOR_ID = 61;
+
     public static final int WORKFLOW_INSTANCE_PROCESSOR_ID = 70;
 
     public static final int INCIDENT_PROCESSOR_ID = 80;
@@ -31,6 +31,7 @@ public interface TypedBatchWriter
 
     TypedBatchWriter addNewCommand(Intent intent, UnpackedObject value);
     TypedBatchWriter addFollowUpCommand(long key, Intent intent, UnpackedObject value);
+    TypedBatchWriter addFollowUpCommand(long key, Intent intent, UnpackedObject value, Consumer<RecordMetadata> metadata);
 
     TypedBatchWriter addNewEvent(Intent intent, UnpackedObject value);
     TypedBatchWriter addFollowUpEvent(long key, Intent intent, UnpackedObject value);
@@ -178,6 +178,12 @@ public class TypedStreamWriterImpl implements TypedStreamWriter, TypedBatchWrite
         return addRecord(key, RecordType.COMMAND, intent, value, noop);
     }
 
+    @Override
+    public TypedBatchWriter addFollowUpCommand(long key, Intent intent, UnpackedObject value, Consumer<RecordMetadata> metadata)
+    {
+        return addRecord(key, RecordType.COMMAND, intent, value, metadata);
+    }
+
     @Override
     public TypedBatchWriter addNewEvent(Intent intent, UnpackedObject value)
     {
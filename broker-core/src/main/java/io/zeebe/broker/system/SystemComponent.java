@@ -18,6 +18,7 @@
 package io.zeebe.broker.system;
 
 import static io.zeebe.broker.transport.TransportServiceNames.*;
+import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.FOLLOWER_PARTITION_SYSTEM_GROUP_NAME;
 import static io.zeebe.broker.clustering.base.ClusterBaseLayerServiceNames.LEADER_PARTITION_SYSTEM_GROUP_NAME;
 import static io.zeebe.broker.logstreams.LogStreamServiceNames.STREAM_PROCESSOR_SERVICE_FACTORY;
 import static io.zeebe.broker.system.SystemServiceNames.*;
@@ -44,13 +45,15 @@ public class SystemComponent implements Component
             .dependency(bufferingServerTransport(MANAGEMENT_API_SERVER_NAME), requestHandlerService.getManagementApiServerTransportInjector())
             .install();
 
-        final DeploymentManager deploymentManagerService = new DeploymentManager();
+        final DeploymentManager deploymentManagerService = new DeploymentManager(context.getBrokerConfiguration().getData(),
+            context.getBrokerConfiguration().getThreads());
         serviceContainer.createService(DEPLOYMENT_MANAGER_SERVICE, deploymentManagerService)
             .dependency(DEPLOYMENT_MANAGER_REQUEST_HANDLER, deploymentManagerService.getRequestHandlerServiceInjector())
             .dependency(STREAM_PROCESSOR_SERVICE_FACTORY, deploymentManagerService.getStreamProcessorServiceFactoryInjector())
             .dependency(serverTransport(CLIENT_API_SERVER_NAME), deploymentManagerService.getClientApiTransportInjector())
             .dependency(TransportServiceNames.CONTROL_MESSAGE_HANDLER_MANAGER, deploymentManagerService.getControlMessageHandlerManagerServiceInjector())
             .groupReference(LEADER_PARTITION_SYSTEM_GROUP_NAME, deploymentManagerService.getPartitionsGroupReference())
+            .groupReference(FOLLOWER_PARTITION_SYSTEM_GROUP_NAME, deploymentManagerService.getFollowerPartitionsGroupReference())
             .install();
     }
 }
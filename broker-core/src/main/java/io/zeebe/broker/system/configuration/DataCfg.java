@@ -23,6 +23,14 @@ public class DataCfg implements ConfigurationEntry
 
     private String defaultLogSegmentSize = "512M";
 
+    private String payloadCacheMemorySize = "16M";
+
+    private String payloadCacheMaxSpillSize = "256M";
+
+    private String deploymentResourceCacheSize = "32M";
+
+    private boolean deploymentResourceCacheCompression = true;
+
     @Override
     public void init(BrokerCfg globalConfig, String brokerBase)
     {
@@ -51,4 +59,44 @@ public class DataCfg implements ConfigurationEntry
     {
         this.defaultLogSegmentSize = defaultLogSegmentSize;
     }
+
+    public String getPayloadCacheMemorySize()
+    {
+        return payloadCacheMemorySize;
+    }
+
+    public void setPayloadCacheMemorySize(String payloadCacheMemorySize)
+    {
+        this.payloadCacheMemorySize = payloadCacheMemorySize;
+    }
+
+    public String getPayloadCacheMaxSpillSize()
+    {
+        return payloadCacheMaxSpillSize;
+    }
+
+    public void setPayloadCacheMaxSpillSize(String payloadCacheMaxSpillSize)
+    {
+        this.payloadCacheMaxSpillSize = payloadCacheMaxSpillSize;
+    }
+
+    public String getDeploymentResourceCacheSize()
+    {
+        return deploymentResourceCacheSize;
+    }
+
+    public void setDeploymentResourceCacheSize(String deploymentResourceCacheSize)
+    {
+        this.deploymentResourceCacheSize = deploymentResourceCacheSize;
+    }
+
+    public boolean isDeploymentResourceCacheCompression()
+    {
+        return deploymentResourceCacheCompression;
+    }
+
+    public void setDeploymentResourceCacheCompression(boolean deploymentResourceCacheCompression)
+    {
+        this.deploymentResourceCacheCompression = deploymentResourceCacheCompression;
+    }
 }
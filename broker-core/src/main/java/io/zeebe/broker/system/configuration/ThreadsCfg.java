@@ -21,6 +21,7 @@ public class ThreadsCfg implements ConfigurationEntry
 {
     private int cpuThreadCount = 2;
     private int ioThreadCount = 2;
+    private int deploymentValidationThreadCount = 2;
 
     public int getCpuThreadCount()
     {
@@ -41,4 +42,14 @@ public class ThreadsCfg implements ConfigurationEntry
     {
         this.ioThreadCount = ioThreads;
     }
+
+    public int getDeploymentValidationThreadCount()
+    {
+        return deploymentValidationThreadCount;
+    }
+
+    public void setDeploymentValidationThreadCount(int deploymentValidationThreads)
+    {
+        this.deploymentValidationThreadCount = deploymentValidationThreads;
+    }
 }
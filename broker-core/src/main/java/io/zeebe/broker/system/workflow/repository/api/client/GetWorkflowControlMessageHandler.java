@@ -51,11 +51,14 @@ public class GetWorkflowControlMessageHandler extends AbstractControlMessageHand
     @Override
     public void handle(ActorControl actor, int partitionId, DirectBuffer buffer, RecordMetadata metadata)
     {
+        final int requestStreamId = metadata.getRequestStreamId();
+        final long requestId = metadata.getRequestId();
+
         final WorkflowRepositoryService repository = workflowRepositroyServiceRef.get();
 
         if (repository == null)
         {
-            sendErrorResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), ErrorCode.PARTITION_NOT_FOUND, "Workflow request must address the leader of the system partition %d", Protocol.SYSTEM_PARTITION);
+            sendErrorResponse(actor, requestStreamId, requestId, ErrorCode.PARTITION_NOT_FOUND, "Workflow request must address the leader of the system partition %d", Protocol.SYSTEM_PARTITION);
         }
         else
         {
@@ -95,7 +98,7 @@ public class GetWorkflowControlMessageHandler extends AbstractControlMessageHand
             {
                 if (err != null)
                 {
-                    sendErrorResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), err.getMessage());
+                    sendErrorResponse(actor, requestStreamId, requestId, err.getMessage());
                 }
                 else
                 {
@@ -111,11 +114,11 @@ public class GetWorkflowControlMessageHandler extends AbstractControlMessageHand
                             .setVersion(workflow.getVersion())
                             .setBpmnProcessId(BufferUtil.wrapString(workflow.getBpmnProcessId()));
 
-                        sendResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), controlResponse);
+                        sendResponse(actor, requestStreamId, requestId, controlResponse);
                     }
                     else
                     {
-                        sendErrorResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), ErrorCode.NOT_FOUND, errorMessage);
+                        sendErrorResponse(actor, requestStreamId, requestId, ErrorCode.NOT_FOUND, errorMessage);
                     }
                 }
             });
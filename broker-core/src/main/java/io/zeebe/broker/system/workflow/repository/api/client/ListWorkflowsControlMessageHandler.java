@@ -52,11 +52,14 @@ public class ListWorkflowsControlMessageHandler extends AbstractControlMessageHa
     @Override
     public void handle(ActorControl actor, int partitionId, DirectBuffer buffer, RecordMetadata metadata)
     {
+        final int requestStreamId = metadata.getRequestStreamId();
+        final long requestId = metadata.getRequestId();
+
         final WorkflowRepositoryService repository = workflowRepositoryServiceRef.get();
 
         if (repository == null)
         {
-            sendErrorResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), ErrorCode.PARTITION_NOT_FOUND, "Workflow request must address the leader of the system partition %d", Protocol.SYSTEM_PARTITION);
+            sendErrorResponse(actor, requestStreamId, requestId, ErrorCode.PARTITION_NOT_FOUND, "Workflow request must address the leader of the system partition %d", Protocol.SYSTEM_PARTITION);
         }
         else
         {
@@ -81,7 +84,7 @@ public class ListWorkflowsControlMessageHandler extends AbstractControlMessageHa
             {
                 if (err != null)
                 {
-                    sendErrorResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), err.getMessage());
+                    sendErrorResponse(actor, requestStreamId, requestId, err.getMessage());
                 }
                 else
                 {
@@ -95,7 +98,7 @@ public class ListWorkflowsControlMessageHandler extends AbstractControlMessageHa
                             .setWorkflowKey(workflow.getKey())
                             .setVersion(workflow.getVersion()));
 
-                    sendResponse(actor, metadata.getRequestStreamId(), metadata.getRequestId(), response);
+                    sendResponse(actor, requestStreamId, requestId, response);
                 }
             });
         }
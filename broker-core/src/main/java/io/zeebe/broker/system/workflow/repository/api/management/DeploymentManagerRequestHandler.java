@@ -151,4 +151,13 @@ public class DeploymentManagerRequestHandler extends Actor implements Service<De
     {
         fetchWorkflowHandlerRef.set(fetchWorkflowRequestHandler);
     }
+
+    /**
+     * Removes the handler if it is still the current one. The handler of a
+     * partition which became leader may already have replaced it.
+     */
+    public void removeFetchWorkflowRequestHandler(FetchWorkflowRequestHandler fetchWorkflowRequestHandler)
+    {
+        fetchWorkflowHandlerRef.compareAndSet(fetchWorkflowRequestHandler, null);
+    }
 }
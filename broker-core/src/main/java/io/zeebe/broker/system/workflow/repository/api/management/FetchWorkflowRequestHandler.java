@@ -27,15 +27,31 @@ import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.future.ActorFuture;
 import org.agrona.DirectBuffer;
 
+/**
+ * Serves workflows from the index of the system partition. On the leader, a
+ * workflow which is not found is answered with an empty response.
+ *
+ * <p>On a follower, the index may lag behind the leader. It only serves
+ * workflows by key or by version, which don't change once they are deployed,
+ * and answers a miss with a {@link NotLeaderResponse}, so that the requester
+ * retries at the leader.
+ */
 public class FetchWorkflowRequestHandler
 {
     private final FetchWorkflowRequest fetchWorkflowRequest = new FetchWorkflowRequest();
 
     private final WorkflowRepositoryService workflowRepositoryService;
+    private final boolean isReplica;
 
     public FetchWorkflowRequestHandler(WorkflowRepositoryService workflowRepositoryService)
+    {
+        this(workflowRepositoryService, false);
+    }
+
+    public FetchWorkflowRequestHandler(WorkflowRepositoryService workflowRepositoryService, boolean isReplica)
     {
         this.workflowRepositoryService = workflowRepositoryService;
+        this.isReplica = isReplica;
     }
 
     public void onFetchWorkflow(DirectBuffer buffer, int offset, int length, ServerOutput output, RemoteAddress remoteAddress, long requestId, ActorControl actor)
@@ -56,6 +72,12 @@ public class FetchWorkflowRequestHandler
 
             if (version == FetchWorkflowRequestDecoder.versionMaxValue())
             {
+                if (isReplica)
+                {
+                    sendNotLeaderResponse(output, remoteAddress, requestId, actor);
+                    return;
+                }
+
                 future = workflowRepositoryService.getLatestWorkflowByBpmnProcessId(topicName, bpmnProcessId);
             }
             else
@@ -70,6 +92,12 @@ public class FetchWorkflowRequestHandler
 
         actor.runOnCompletion(future, (workflowAndResource, err) ->
         {
+            if (isReplica && workflowAndResource == null)
+            {
+                sendNotLeaderResponse(output, remoteAddress, requestId, actor);
+                return;
+            }
+
             final FetchWorkflowResponse fetchWorkflowResponse = new FetchWorkflowResponse();
 
             if (workflowAndResource != null)
@@ -87,17 +115,32 @@ public class FetchWorkflowRequestHandler
                 .requestId(requestId)
                 .remoteAddress(remoteAddress);
 
-            actor.runUntilDone(() ->
+            sendResponse(output, serverResponse, actor);
+        });
+    }
+
+    private void sendNotLeaderResponse(ServerOutput output, RemoteAddress remoteAddress, long requestId, ActorControl actor)
+    {
+        final ServerResponse serverResponse = new ServerResponse()
+            .writer(new NotLeaderResponse())
+            .requestId(requestId)
+            .remoteAddress(remoteAddress);
+
+        sendResponse(output, serverResponse, actor);
+    }
+
+    private void sendResponse(ServerOutput output, ServerResponse serverResponse, ActorControl actor)
+    {
+        actor.runUntilDone(() ->
+        {
+            if (output.sendResponse(serverResponse))
             {
-                if (output.sendResponse(serverResponse))
-                {
-                    actor.done();
-                }
-                else
-                {
-                    actor.yield();
-                }
-            });
+                actor.done();
+            }
+            else
+            {
+                actor.yield();
+            }
         });
     }
 }
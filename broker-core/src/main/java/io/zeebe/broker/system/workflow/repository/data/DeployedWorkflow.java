@@ -33,12 +33,14 @@ public class DeployedWorkflow extends UnpackedObject
     private final StringProperty bpmnProcessIdProp = new StringProperty(PROP_WORKFLOW_BPMN_PROCESS_ID);
     private final IntegerProperty versionProp = new IntegerProperty(PROP_WORKFLOW_VERSION);
     private final LongProperty keyProp = new LongProperty(PROP_WORKFLOW_KEY);
+    private final StringProperty resourceNameProp = new StringProperty("resourceName", "");
 
     public DeployedWorkflow()
     {
         this.declareProperty(bpmnProcessIdProp)
             .declareProperty(versionProp)
-            .declareProperty(keyProp);
+            .declareProperty(keyProp)
+            .declareProperty(resourceNameProp);
     }
 
     public DirectBuffer getBpmnProcessId()
@@ -79,4 +81,14 @@ public class DeployedWorkflow extends UnpackedObject
         return this;
     }
 
+    public DirectBuffer getResourceName()
+    {
+        return resourceNameProp.getValue();
+    }
+
+    public DeployedWorkflow setResourceName(DirectBuffer resourceName)
+    {
+        this.resourceNameProp.setValue(resourceName);
+        return this;
+    }
 }
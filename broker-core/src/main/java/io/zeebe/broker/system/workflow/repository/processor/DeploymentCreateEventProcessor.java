@@ -18,50 +18,107 @@
 package io.zeebe.broker.system.workflow.repository.processor;
 
 import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
-import static io.zeebe.util.buffer.BufferUtil.wrapString;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.util.Iterator;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.broker.system.workflow.repository.data.*;
 import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex;
-import io.zeebe.model.bpmn.BpmnModelApi;
-import io.zeebe.model.bpmn.ValidationResult;
-import io.zeebe.model.bpmn.instance.Workflow;
-import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.logstreams.processor.EventLifecycleContext;
 import io.zeebe.protocol.intent.DeploymentIntent;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 
+/**
+ * Validates the resources of a deployment in parallel on the given executor,
+ * so that parsing large resources doesn't block the actor of the system
+ * partition. Only the keys and versions of the deployed workflows are
+ * assigned on the stream processor, in the order of the resources.
+ *
+ * <p>If the executor rejects a validation (e.g. because it is shut down while
+ * the broker stops), the resource is validated on the stream processor.
+ */
 public class DeploymentCreateEventProcessor implements TypedRecordProcessor<DeploymentRecord>
 {
-    private final BpmnModelApi bpmn = new BpmnModelApi();
+    private final DeploymentResourceValidator validator = new DeploymentResourceValidator();
 
     private final WorkflowRepositoryIndex index;
+    private final Executor validationExecutor;
+
+    private ActorControl actor;
 
     private boolean accepted;
 
-    public DeploymentCreateEventProcessor(WorkflowRepositoryIndex index)
+    public DeploymentCreateEventProcessor(WorkflowRepositoryIndex index, Executor validationExecutor)
     {
         this.index = index;
+        this.validationExecutor = validationExecutor;
+    }
+
+    @Override
+    public void onOpen(TypedStreamProcessor streamProcessor)
+    {
+        this.actor = streamProcessor.getActor();
     }
 
     @Override
-    public void processRecord(TypedRecord<DeploymentRecord> event)
+    public void processRecord(TypedRecord<DeploymentRecord> event, EventLifecycleContext ctx)
     {
+        accepted = false;
+
         final DeploymentRecord deploymentEvent = event.getValue();
         final String topicName = bufferAsString(deploymentEvent.getTopicName());
 
-        if (topicExists(topicName))
+        if (!topicExists(topicName))
         {
-            accepted = readAndValidateWorkflows(deploymentEvent, topicName);
+            deploymentEvent.setErrorMessage("No topic found with name " + topicName);
+        }
+        else if (deploymentEvent.resources().iterator().hasNext())
+        {
+            final List<CompletableFuture<ValidatedResource>> validations = validateResources(deploymentEvent);
+
+            final ActorFuture<Void> onValidated = new CompletableActorFuture<>();
+            final ActorFuture<Void> onCompleted = new CompletableActorFuture<>();
+
+            ctx.async(onCompleted);
+
+            CompletableFuture.allOf(validations.toArray(new CompletableFuture[validations.size()]))
+                .whenComplete((v, failure) ->
+                {
+                    if (failure != null)
+                    {
+                        onValidated.completeExceptionally(failure);
+                    }
+                    else
+                    {
+                        onValidated.complete(null);
+                    }
+                });
+
+            actor.runOnCompletion(onValidated, (v, err) ->
+            {
+                if (err != null)
+                {
+                    onCompleted.completeExceptionally(new RuntimeException("Could not validate deployment", err));
+                }
+                else
+                {
+                    accepted = addWorkflows(deploymentEvent, topicName, validations);
+
+                    onCompleted.complete(null);
+                }
+            });
         }
         else
         {
-            deploymentEvent.setErrorMessage("No topic found with name " + topicName);
-            accepted = false;
+            deploymentEvent.setErrorMessage("Deployment doesn't contain a resource to deploy.");
         }
     }
 
@@ -90,111 +147,92 @@ public class DeploymentCreateEventProcessor implements TypedRecordProcessor<Depl
         return index.checkTopicExists(topicName);
     }
 
-    private boolean readAndValidateWorkflows(final DeploymentRecord deploymentEvent, String topicName)
+    private List<CompletableFuture<ValidatedResource>> validateResources(DeploymentRecord deploymentEvent)
     {
-        final StringBuilder validationErrors = new StringBuilder();
+        final List<CompletableFuture<ValidatedResource>> validations = new ArrayList<>();
 
-        boolean success = true;
+        for (DeploymentResource deploymentResource : deploymentEvent.resources())
+        {
+            // copy the resource, the record must not be accessed by other threads
+            final String resourceName = bufferAsString(deploymentResource.getResourceName());
+            final ResourceType resourceType = deploymentResource.getResourceType();
+            final DirectBuffer resource = BufferUtil.cloneBuffer(deploymentResource.getResource());
 
-        final Iterator<DeploymentResource> resourceIterator = deploymentEvent.resources().iterator();
+            validations.add(validateResource(resourceName, resourceType, resource));
+        }
 
-        if (!resourceIterator.hasNext())
-        {
-            validationErrors.append("Deployment doesn't contain a resource to deploy.");
+        return validations;
+    }
+
+    private CompletableFuture<ValidatedResource> validateResource(String resourceName, ResourceType resourceType, DirectBuffer resource)
+    {
+        final Supplier<ValidatedResource> validation = () -> validator.validate(resourceName, resourceType, resource);
 
-            success = false;
+        try
+        {
+            return CompletableFuture.supplyAsync(validation, validationExecutor);
         }
-        else
+        catch (RejectedExecutionException e)
         {
-            // TODO: only one resource is supported; turn resources into a property
-
-            final DeploymentResource deploymentResource = resourceIterator.next();
+            // validate on the calling thread
+            return CompletableFuture.supplyAsync(validation, Runnable::run);
+        }
+    }
 
-            try
-            {
-                final WorkflowDefinition definition = readWorkflowDefinition(deploymentResource);
-                final ValidationResult validationResult = bpmn.validate(definition);
+    private boolean addWorkflows(DeploymentRecord deploymentEvent, String topicName, List<CompletableFuture<ValidatedResource>> validations)
+    {
+        final StringBuilder validationErrors = new StringBuilder();
+        final Set<DirectBuffer> bpmnProcessIds = new HashSet<>();
 
-                final boolean isValid = !validationResult.hasErrors();
+        boolean success = true;
 
-                if (isValid)
-                {
-                    for (Workflow workflow : definition.getWorkflows())
-                    {
-                        if (workflow.isExecutable())
-                        {
-                            final String bpmnProcessId = BufferUtil.bufferAsString(workflow.getBpmnProcessId());
-
-                            final long key = index.getNextKey();
-                            final int version = index.getNextVersion(topicName, bpmnProcessId);
-
-                            deploymentEvent.deployedWorkflows().add()
-                                .setBpmnProcessId(workflow.getBpmnProcessId())
-                                .setVersion(version)
-                                .setKey(key);
-                        }
-                    }
+        for (CompletableFuture<ValidatedResource> validation : validations)
+        {
+            final ValidatedResource validatedResource = validation.join();
 
-                    transformWorkflowResource(deploymentResource, definition);
-                }
+            validationErrors.append(validatedResource.getMessage());
+            success &= validatedResource.isValid();
 
-                if (validationResult.hasErrors() || validationResult.hasWarnings())
+            for (DirectBuffer bpmnProcessId : validatedResource.getExecutableProcessIds())
+            {
+                if (!bpmnProcessIds.add(bpmnProcessId))
                 {
-                    validationErrors.append(String.format("Resource '%s':\n", bufferAsString(deploymentResource.getResourceName())));
-                    validationErrors.append(validationResult.format());
-
-                    success = !validationResult.hasErrors();
+                    validationErrors.append(String.format("Duplicated process id '%s' in resources.\n", bufferAsString(bpmnProcessId)));
+                    success = false;
                 }
             }
-            catch (Exception e)
-            {
-                validationErrors.append(String.format("Failed to deploy resource '%s':\n", bufferAsString(deploymentResource.getResourceName())));
-                validationErrors.append(generateErrorMessage(e));
-
-                success = false;
-            }
         }
 
-        deploymentEvent.setErrorMessage(validationErrors.toString());
-
-        return success;
-    }
-
-    private WorkflowDefinition readWorkflowDefinition(DeploymentResource deploymentResource)
-    {
-        final DirectBuffer resource = deploymentResource.getResource();
-
-        switch (deploymentResource.getResourceType())
+        if (success)
         {
-            case BPMN_XML:
-                return bpmn.readFromXmlBuffer(resource);
+            final Iterator<CompletableFuture<ValidatedResource>> validationIterator = validations.iterator();
 
-            case YAML_WORKFLOW:
-                return bpmn.readFromYamlBuffer(resource);
-
-            default:
-                return bpmn.readFromXmlBuffer(resource);
-        }
-    }
+            for (DeploymentResource deploymentResource : deploymentEvent.resources())
+            {
+                final ValidatedResource validatedResource = validationIterator.next().join();
 
-    private boolean transformWorkflowResource(final DeploymentResource deploymentResource, final WorkflowDefinition definition)
-    {
-        if (deploymentResource.getResourceType() != ResourceType.BPMN_XML)
-        {
-            final DirectBuffer bpmnXml = wrapString(bpmn.convertToString(definition));
-            deploymentResource.setResource(bpmnXml);
+                for (DirectBuffer bpmnProcessId : validatedResource.getExecutableProcessIds())
+                {
+                    final long key = index.getNextKey();
+                    final int version = index.getNextVersion(topicName, bufferAsString(bpmnProcessId));
+
+                    deploymentEvent.deployedWorkflows().add()
+                        .setBpmnProcessId(bpmnProcessId)
+                        .setVersion(version)
+                        .setKey(key)
+                        .setResourceName(deploymentResource.getResourceName());
+                }
 
-            return true;
+                final DirectBuffer transformedResource = validatedResource.getTransformedResource();
+                if (transformedResource != null)
+                {
+                    deploymentResource.setResource(transformedResource);
+                }
+            }
         }
-        return false;
-    }
 
-    private String generateErrorMessage(final Exception e)
-    {
-        final StringWriter stacktraceWriter = new StringWriter();
-
-        e.printStackTrace(new PrintWriter(stacktraceWriter));
+        deploymentEvent.setErrorMessage(validationErrors.toString());
 
-        return stacktraceWriter.toString();
+        return success;
     }
 }
@@ -0,0 +1,110 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.workflow.repository.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import io.zeebe.broker.system.workflow.repository.data.ResourceType;
+import io.zeebe.model.bpmn.BpmnModelApi;
+import io.zeebe.model.bpmn.ValidationResult;
+import io.zeebe.model.bpmn.instance.Workflow;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.util.buffer.BufferUtil;
+import org.agrona.DirectBuffer;
+
+/**
+ * Parses, validates and transforms deployment resources. It doesn't touch
+ * the state of the repository, so that the resources of a deployment can be
+ * validated in parallel and off the stream processor.
+ *
+ * <p>Thread-safe; every thread uses its own {@link BpmnModelApi}.
+ */
+public class DeploymentResourceValidator
+{
+    private final ThreadLocal<BpmnModelApi> bpmn = ThreadLocal.withInitial(BpmnModelApi::new);
+
+    public ValidatedResource validate(String resourceName, ResourceType resourceType, DirectBuffer resource)
+    {
+        final ValidatedResource validatedResource = new ValidatedResource();
+        final BpmnModelApi bpmn = this.bpmn.get();
+
+        try
+        {
+            final WorkflowDefinition definition = readWorkflowDefinition(bpmn, resourceType, resource);
+            final ValidationResult validationResult = bpmn.validate(definition);
+
+            if (!validationResult.hasErrors())
+            {
+                for (Workflow workflow : definition.getWorkflows())
+                {
+                    if (workflow.isExecutable())
+                    {
+                        validatedResource.getExecutableProcessIds().add(BufferUtil.cloneBuffer(workflow.getBpmnProcessId()));
+                    }
+                }
+
+                if (resourceType != ResourceType.BPMN_XML)
+                {
+                    validatedResource.setTransformedResource(wrapString(bpmn.convertToString(definition)));
+                }
+            }
+
+            if (validationResult.hasErrors() || validationResult.hasWarnings())
+            {
+                validatedResource
+                    .setValid(!validationResult.hasErrors())
+                    .setMessage(String.format("Resource '%s':\n", resourceName) + validationResult.format());
+            }
+        }
+        catch (Exception e)
+        {
+            validatedResource
+                .setValid(false)
+                .setMessage(String.format("Failed to deploy resource '%s':\n", resourceName) + generateErrorMessage(e));
+        }
+
+        return validatedResource;
+    }
+
+    private WorkflowDefinition readWorkflowDefinition(BpmnModelApi bpmn, ResourceType resourceType, DirectBuffer resource)
+    {
+        switch (resourceType)
+        {
+            case BPMN_XML:
+                return bpmn.readFromXmlBuffer(resource);
+
+            case YAML_WORKFLOW:
+                return bpmn.readFromYamlBuffer(resource);
+
+            default:
+                return bpmn.readFromXmlBuffer(resource);
+        }
+    }
+
+    private String generateErrorMessage(final Exception e)
+    {
+        final StringWriter stacktraceWriter = new StringWriter();
+
+        e.printStackTrace(new PrintWriter(stacktraceWriter));
+
+        return stacktraceWriter.toString();
+    }
+}
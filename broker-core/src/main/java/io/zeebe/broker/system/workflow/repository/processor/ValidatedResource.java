@@ -0,0 +1,83 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.workflow.repository.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Outcome of parsing and validating one deployment resource.
+ */
+public class ValidatedResource
+{
+    private final List<DirectBuffer> executableProcessIds = new ArrayList<>();
+
+    private boolean isValid = true;
+    private String message = "";
+    private DirectBuffer transformedResource;
+
+    public boolean isValid()
+    {
+        return isValid;
+    }
+
+    public ValidatedResource setValid(boolean isValid)
+    {
+        this.isValid = isValid;
+        return this;
+    }
+
+    /**
+     * @return the validation errors and warnings, or an empty string
+     */
+    public String getMessage()
+    {
+        return message;
+    }
+
+    public ValidatedResource setMessage(String message)
+    {
+        this.message = message;
+        return this;
+    }
+
+    /**
+     * @return the bpmn process ids of the executable workflows in the resource
+     */
+    public List<DirectBuffer> getExecutableProcessIds()
+    {
+        return executableProcessIds;
+    }
+
+    /**
+     * @return the resource as BPMN XML if it had to be transformed (e.g. from
+     *         YAML), otherwise null
+     */
+    public DirectBuffer getTransformedResource()
+    {
+        return transformedResource;
+    }
+
+    public ValidatedResource setTransformedResource(DirectBuffer transformedResource)
+    {
+        this.transformedResource = transformedResource;
+        return this;
+    }
+}
@@ -17,313 +17,580 @@
  */
 package io.zeebe.broker.system.workflow.repository.processor.state;
 
+import static org.agrona.BitUtil.SIZE_OF_BYTE;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.stream.Collectors;
 
-import io.zeebe.broker.logstreams.processor.JsonSnapshotSupport;
-import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex.WorkflowRepositoryIndexData;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.agrona.ExpandableDirectByteBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
 
-public class WorkflowRepositoryIndex extends JsonSnapshotSupport<WorkflowRepositoryIndexData>
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
+
+/**
+ * Indexes the deployed workflows by key and by topic, bpmn process id and version.
+ *
+ * <p>All changes are appended to an off-heap log of binary entries, which is the
+ * body of the snapshot. Writing a snapshot only copies the bytes of the log and
+ * recovering replays the entries into the primitive maps, without any
+ * serialization framework. Since workflows are never removed, the log only
+ * grows by the entries since the last snapshot.
+ *
+ * <p>Entry layout: <code>type (byte)</code>, followed by
+ * <ul>
+ * <li>topic added: <code>topic name</code>
+ * <li>version generated: <code>version (int), topic name, bpmn process id</code>
+ * <li>workflow added: <code>key (long), version (int), event position (long), topic name, bpmn process id</code>
+ * </ul>
+ * Strings are written with an int length prefix.
+ *
+ * <p>Snapshots written by previous versions contain the index as JSON. They are
+ * detected by their first byte and converted into entries of the log on
+ * recovery, so that the next snapshot is written in the binary format.
+ *
+ * <p>The metadata of a workflow is decoded from the log on its first lookup and
+ * cached by key afterwards. Since deployed workflows are immutable, the cached
+ * instance is shared by all lookups and must not be modified by callers.
+ */
+public class WorkflowRepositoryIndex implements ComposableSnapshotSupport
 {
+    private static final int SNAPSHOT_FORMAT_VERSION = 1;
+    private static final int SNAPSHOT_HEADER_LENGTH = SIZE_OF_INT + SIZE_OF_LONG + SIZE_OF_INT;
+
+    private static final byte TOPIC_ADDED = 1;
+    private static final byte VERSION_GENERATED = 2;
+    private static final byte WORKFLOW_ADDED = 3;
+
+    private static final long MISSING = -1L;
+
+    private final ExpandableDirectByteBuffer log = new ExpandableDirectByteBuffer();
+    private int logLength;
+
+    private final byte[] copyBuffer = new byte[4 * 1024];
+
+    private long lastGeneratedKey;
+
+    /**
+     * workflow key => offset of the workflow's entry in the log
+     */
+    private final Long2LongHashMap workflowEntryOffsets = new Long2LongHashMap(MISSING);
+
+    /**
+     * workflow key => metadata decoded from the log
+     */
+    private final Long2ObjectHashMap<WorkflowMetadata> workflows = new Long2ObjectHashMap<>();
+
+    private final Map<String, Map<String, WorkflowVersions>> topics = new HashMap<>();
+
     public WorkflowRepositoryIndex()
     {
-        super(WorkflowRepositoryIndexData.class);
+        reset();
     }
 
-    public static class WorkflowRepositoryIndexData
+    public boolean checkTopicExists(String topicName)
     {
-        private long lastGeneratedKey = 0;
+        return topics.containsKey(topicName);
+    }
 
-        private Map<Long, WorkflowMetadata> workflows = new HashMap<>();
+    public long getNextKey()
+    {
+        lastGeneratedKey++;
+        return lastGeneratedKey;
+    }
 
-        private Map<String, WorkflowsByTopic> topics = new HashMap<>();
+    public int getNextVersion(String topicName, String bpmnProcessId)
+    {
+        final int nextVersion = getOrCreateVersions(topicName, bpmnProcessId).lastGeneratedVersion + 1;
 
-        public Map<Long, WorkflowMetadata> getWorkflows()
-        {
-            return workflows;
-        }
+        addGeneratedVersion(topicName, bpmnProcessId, nextVersion);
 
-        public void setWorkflows(Map<Long, WorkflowMetadata> workflows)
-        {
-            this.workflows = workflows;
-        }
+        return nextVersion;
+    }
 
-        public Map<String, WorkflowsByTopic> getTopics()
-        {
-            return topics;
-        }
+    private void addGeneratedVersion(String topicName, String bpmnProcessId, int version)
+    {
+        int offset = beginEntry(VERSION_GENERATED);
+        log.putInt(offset, version);
+        offset += SIZE_OF_INT;
+        offset += log.putStringUtf8(offset, topicName);
+        offset += log.putStringUtf8(offset, bpmnProcessId);
+        logLength = offset;
+
+        applyVersionGenerated(topicName, bpmnProcessId, version);
+    }
 
-        public void setTopics(Map<String, WorkflowsByTopic> topics)
-        {
-            this.topics = topics;
-        }
+    public void add(WorkflowMetadata workflow)
+    {
+        final int entryOffset = beginEntry(WORKFLOW_ADDED);
+
+        int offset = entryOffset;
+        log.putLong(offset, workflow.getKey());
+        offset += SIZE_OF_LONG;
+        log.putInt(offset, workflow.getVersion());
+        offset += SIZE_OF_INT;
+        log.putLong(offset, workflow.getEventPosition());
+        offset += SIZE_OF_LONG;
+        offset += log.putStringUtf8(offset, workflow.getTopicName());
+        offset += log.putStringUtf8(offset, workflow.getBpmnProcessId());
+        logLength = offset;
+
+        applyWorkflowAdded(entryOffset, workflow.getKey(), workflow.getVersion(), workflow.getTopicName(), workflow.getBpmnProcessId());
+    }
 
-        public long getLastGeneratedKey()
+    public void addTopic(String topicName)
+    {
+        if (topics.containsKey(topicName))
         {
-            return lastGeneratedKey;
+            final String errorMessage = String.format("Cannot add topic with name '%s' - already exists in Index. This is unexpected state.", topicName);
+            throw new RuntimeException(errorMessage);
         }
-
-        public void setLastGeneratedKey(long lastKey)
+        else
         {
-            this.lastGeneratedKey = lastKey;
+            final int offset = beginEntry(TOPIC_ADDED);
+            logLength = offset + log.putStringUtf8(offset, topicName);
+
+            topics.put(topicName, new HashMap<>());
         }
     }
 
-    public static class WorkflowsByTopic
+    public WorkflowMetadata getWorkflowByKey(long key)
     {
-        private Map<String, WorkflowsByBpmnProcessId> bpmnProcessIds = new HashMap<>();
+        WorkflowMetadata workflow = workflows.get(key);
 
-        public Map<String, WorkflowsByBpmnProcessId> getBpmnProcessIds()
+        if (workflow == null)
         {
-            return bpmnProcessIds;
-        }
+            final long entryOffset = workflowEntryOffsets.get(key);
 
-        public void setBpmnProcessIds(Map<String, WorkflowsByBpmnProcessId> bpmnProcessIds)
-        {
-            this.bpmnProcessIds = bpmnProcessIds;
+            if (entryOffset != MISSING)
+            {
+                workflow = readWorkflow((int) entryOffset);
+                workflows.put(key, workflow);
+            }
         }
+
+        return workflow;
     }
 
-    public static class WorkflowsByBpmnProcessId
+    public WorkflowMetadata getLatestWorkflowByBpmnProcessId(String topicName, String bpmnProcessId)
     {
-        private int lastGeneratedVersion = 0;
-
-        private TreeMap<Integer, Long> versions = new TreeMap<>();
+        final WorkflowVersions versions = getVersions(topicName, bpmnProcessId);
 
-        public int getLastGeneratedVersion()
+        if (versions != null && versions.latestVersion > 0)
         {
-            return lastGeneratedVersion;
+            return getWorkflowByKey(versions.getKey(versions.latestVersion));
         }
 
-        public void setLastGeneratedVersion(int latestVersion)
-        {
-            this.lastGeneratedVersion = latestVersion;
-        }
+        return null;
+    }
 
-        public TreeMap<Integer, Long> getVersions()
-        {
-            return versions;
-        }
+    public WorkflowMetadata getWorkflowByBpmnProcessIdAndVersion(String topicName, String bpmnProcessId, int version)
+    {
+        final WorkflowVersions versions = getVersions(topicName, bpmnProcessId);
 
-        public void setVersions(TreeMap<Integer, Long> versions)
+        if (versions != null)
         {
-            this.versions = versions;
+            final long key = versions.getKey(version);
+
+            if (key != MISSING)
+            {
+                return getWorkflowByKey(key);
+            }
         }
+
+        return null;
     }
 
-    public static class WorkflowMetadata
+    public List<WorkflowMetadata> getWorkflowsByTopic(String topicName)
     {
-        private long key;
-        private int version;
-        private String bpmnProcessId;
-        private String topicName;
-        private long eventPosition;
+        final List<WorkflowMetadata> workflows = new ArrayList<>();
 
-        public long getKey()
+        final Map<String, WorkflowVersions> byBpmnProcessId = topics.get(topicName);
+        if (byBpmnProcessId != null)
         {
-            return key;
+            for (WorkflowVersions versions : byBpmnProcessId.values())
+            {
+                collectWorkflows(versions, workflows);
+            }
         }
 
-        public WorkflowMetadata setKey(long key)
-        {
-            this.key = key;
-            return this;
-        }
+        return workflows;
+    }
 
-        public int getVersion()
-        {
-            return version;
-        }
+    public List<WorkflowMetadata> getWorkflowsByTopicAndBpmnProcessId(String topicName, String bpmnProcessId)
+    {
+        final List<WorkflowMetadata> workflows = new ArrayList<>();
 
-        public WorkflowMetadata setVersion(int version)
+        final WorkflowVersions versions = getVersions(topicName, bpmnProcessId);
+        if (versions != null)
         {
-            this.version = version;
-            return this;
+            collectWorkflows(versions, workflows);
         }
 
-        public String getBpmnProcessId()
-        {
-            return bpmnProcessId;
-        }
+        return workflows;
+    }
 
-        public WorkflowMetadata setBpmnProcessId(String bpmnProcessId)
+    private void collectWorkflows(WorkflowVersions versions, List<WorkflowMetadata> workflows)
+    {
+        for (int version = 1; version <= versions.latestVersion; version++)
         {
-            this.bpmnProcessId = bpmnProcessId;
-            return this;
-        }
+            final long key = versions.getKey(version);
 
-        public String getTopicName()
-        {
-            return topicName;
+            if (key != MISSING)
+            {
+                workflows.add(getWorkflowByKey(key));
+            }
         }
+    }
 
-        public WorkflowMetadata setTopicName(String topicName)
-        {
-            this.topicName = topicName;
-            return this;
-        }
+    private WorkflowVersions getVersions(String topicName, String bpmnProcessId)
+    {
+        final Map<String, WorkflowVersions> byBpmnProcessId = topics.get(topicName);
 
-        public long getEventPosition()
+        if (byBpmnProcessId != null)
         {
-            return eventPosition;
+            return byBpmnProcessId.get(bpmnProcessId);
         }
-
-        public WorkflowMetadata setEventPosition(long eventPosition)
+        else
         {
-            this.eventPosition = eventPosition;
-            return this;
+            return null;
         }
     }
 
-    public boolean checkTopicExists(String topicName)
+    private WorkflowVersions getOrCreateVersions(String topicName, String bpmnProcessId)
     {
-        return getData().getTopics().containsKey(topicName);
+        return topics.get(topicName)
+            .computeIfAbsent(bpmnProcessId, (id) -> new WorkflowVersions());
     }
 
-    public long getNextKey()
+    private void applyVersionGenerated(String topicName, String bpmnProcessId, int version)
     {
-        final WorkflowRepositoryIndexData data = getData();
-
-        final long nextKey = data.getLastGeneratedKey() + 1;
-
-        data.setLastGeneratedKey(nextKey);
+        getOrCreateVersions(topicName, bpmnProcessId).lastGeneratedVersion = version;
+    }
 
-        return nextKey;
+    private void applyWorkflowAdded(int entryOffset, long key, int version, String topicName, String bpmnProcessId)
+    {
+        workflowEntryOffsets.put(key, entryOffset);
+        getOrCreateVersions(topicName, bpmnProcessId).putKey(version, key);
     }
 
-    public int getNextVersion(String topicName, String bpmnProcessId)
+    private WorkflowMetadata readWorkflow(int offset)
     {
-        final WorkflowsByBpmnProcessId byBpmnProcessId = getData().getTopics()
-            .get(topicName)
-            .getBpmnProcessIds()
-            .computeIfAbsent(bpmnProcessId, (id) -> new WorkflowsByBpmnProcessId());
+        final WorkflowMetadata workflow = new WorkflowMetadata();
 
-        final int nextVersion = byBpmnProcessId.getLastGeneratedVersion() + 1;
+        workflow.setKey(log.getLong(offset));
+        offset += SIZE_OF_LONG;
+        workflow.setVersion(log.getInt(offset));
+        offset += SIZE_OF_INT;
+        workflow.setEventPosition(log.getLong(offset));
+        offset += SIZE_OF_LONG;
 
-        byBpmnProcessId.setLastGeneratedVersion(nextVersion);
+        final String topicName = log.getStringUtf8(offset);
+        offset += SIZE_OF_INT + log.getInt(offset);
+        workflow.setTopicName(topicName);
+        workflow.setBpmnProcessId(log.getStringUtf8(offset));
 
-        return nextVersion;
+        return workflow;
     }
 
-    public void add(WorkflowMetadata workflow)
+    /**
+     * Appends the type of a new entry. The log length must be set to the end of
+     * the entry once its body is written.
+     *
+     * @return the offset of the entry's body
+     */
+    private int beginEntry(byte type)
     {
-        final WorkflowRepositoryIndexData data = getData();
+        log.putByte(logLength, type);
+        return logLength + SIZE_OF_BYTE;
+    }
 
-        data.getWorkflows()
-            .put(workflow.getKey(), workflow);
+    private void replayLog()
+    {
+        int offset = 0;
 
-        final WorkflowsByBpmnProcessId byBpmnProcessId = getData().getTopics()
-                .get(workflow.getTopicName())
-                .getBpmnProcessIds()
-                .computeIfAbsent(workflow.getBpmnProcessId(), (id) -> new WorkflowsByBpmnProcessId());
+        while (offset < logLength)
+        {
+            final byte type = log.getByte(offset);
+            offset += SIZE_OF_BYTE;
 
-        byBpmnProcessId.getVersions()
-            .put(workflow.getVersion(), workflow.getKey());
+            switch (type)
+            {
+                case TOPIC_ADDED:
+                {
+                    final String topicName = log.getStringUtf8(offset);
+                    offset += SIZE_OF_INT + log.getInt(offset);
+
+                    topics.put(topicName, new HashMap<>());
+                    break;
+                }
+                case VERSION_GENERATED:
+                {
+                    final int version = log.getInt(offset);
+                    offset += SIZE_OF_INT;
+                    final String topicName = log.getStringUtf8(offset);
+                    offset += SIZE_OF_INT + log.getInt(offset);
+                    final String bpmnProcessId = log.getStringUtf8(offset);
+                    offset += SIZE_OF_INT + log.getInt(offset);
+
+                    applyVersionGenerated(topicName, bpmnProcessId, version);
+                    break;
+                }
+                case WORKFLOW_ADDED:
+                {
+                    final int entryOffset = offset;
+                    final long key = log.getLong(offset);
+                    offset += SIZE_OF_LONG;
+                    final int version = log.getInt(offset);
+                    offset += SIZE_OF_INT + SIZE_OF_LONG;
+                    final String topicName = log.getStringUtf8(offset);
+                    offset += SIZE_OF_INT + log.getInt(offset);
+                    final String bpmnProcessId = log.getStringUtf8(offset);
+                    offset += SIZE_OF_INT + log.getInt(offset);
+
+                    applyWorkflowAdded(entryOffset, key, version, topicName, bpmnProcessId);
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Unknown entry type " + type + " at offset " + (offset - SIZE_OF_BYTE));
+            }
+        }
     }
 
-    private WorkflowsByBpmnProcessId getWorkflowsByTopicNameAndBpmnProcessId(String topicName, String bpmnProcessId)
+    @Override
+    public long writeSnapshot(OutputStream outputStream) throws Exception
     {
-        final WorkflowsByTopic byTopic = getData().getTopics().get(topicName);
+        final DataOutputStream out = new DataOutputStream(outputStream);
 
-        if (byTopic != null)
+        out.writeInt(SNAPSHOT_FORMAT_VERSION);
+        out.writeLong(lastGeneratedKey);
+        out.writeInt(logLength);
+
+        for (int offset = 0; offset < logLength; offset += copyBuffer.length)
         {
-            final WorkflowsByBpmnProcessId workflowsByBpmnProcessId = byTopic.getBpmnProcessIds().get(bpmnProcessId);
+            final int length = Math.min(copyBuffer.length, logLength - offset);
 
-            if (workflowsByBpmnProcessId != null)
-            {
-                return workflowsByBpmnProcessId;
-            }
+            log.getBytes(offset, copyBuffer, 0, length);
+            out.write(copyBuffer, 0, length);
         }
 
-        return null;
+        out.flush();
+
+        return snapshotSize();
     }
 
-    public void addTopic(String topicName)
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
     {
-        final Map<String, WorkflowsByTopic> topics = getData().getTopics();
+        reset();
 
-        if (topics.containsKey(topicName))
+        final PushbackInputStream pushbackStream = new PushbackInputStream(inputStream);
+        final int firstByte = pushbackStream.read();
+
+        if (firstByte >= 0)
         {
-            final String errorMessage = String.format("Cannot add topic with name '%s' - already exists in Index. This is unexpected state.", topicName);
-            throw new RuntimeException(errorMessage);
+            pushbackStream.unread(firstByte);
         }
-        else
+
+        if (firstByte == '{')
         {
-            topics.put(topicName, new WorkflowsByTopic());
+            recoverFromLegacyJsonSnapshot(pushbackStream);
+            return;
         }
-    }
 
-    public WorkflowMetadata getWorkflowByKey(long key)
-    {
-        return getData()
-            .getWorkflows()
-            .get(key);
+        final DataInputStream in = new DataInputStream(pushbackStream);
+
+        final int formatVersion = in.readInt();
+        if (formatVersion != SNAPSHOT_FORMAT_VERSION)
+        {
+            throw new IllegalStateException("Cannot recover from snapshot of format version " + formatVersion);
+        }
+
+        lastGeneratedKey = in.readLong();
+        final int length = in.readInt();
+
+        for (int offset = 0; offset < length; offset += copyBuffer.length)
+        {
+            final int chunkLength = Math.min(copyBuffer.length, length - offset);
+
+            in.readFully(copyBuffer, 0, chunkLength);
+            log.putBytes(offset, copyBuffer, 0, chunkLength);
+        }
+
+        logLength = length;
+
+        replayLog();
     }
 
-    public WorkflowMetadata getLatestWorkflowByBpmnProcessId(String topicName, String bpmnProcessId)
+    /**
+     * Converts a snapshot of the previous JSON format into entries of the log.
+     */
+    private void recoverFromLegacyJsonSnapshot(InputStream inputStream) throws Exception
     {
-        final WorkflowsByBpmnProcessId byBpmnProcessId = getWorkflowsByTopicNameAndBpmnProcessId(topicName, bpmnProcessId);
+        final JsonNode snapshot = new ObjectMapper().readTree(inputStream);
+        final JsonNode workflowsByKey = snapshot.path("workflows");
 
-        if (byBpmnProcessId != null)
+        final Iterator<Entry<String, JsonNode>> topicIterator = snapshot.path("topics").fields();
+        while (topicIterator.hasNext())
         {
-            final Entry<Integer, Long> latestVersion = byBpmnProcessId.getVersions().lastEntry();
+            final Entry<String, JsonNode> topic = topicIterator.next();
+            final String topicName = topic.getKey();
+
+            addTopic(topicName);
 
-            if (latestVersion != null)
+            final Iterator<Entry<String, JsonNode>> bpmnProcessIdIterator = topic.getValue().path("bpmnProcessIds").fields();
+            while (bpmnProcessIdIterator.hasNext())
             {
-                return getData().getWorkflows()
-                    .get(latestVersion.getValue());
+                final Entry<String, JsonNode> bpmnProcessId = bpmnProcessIdIterator.next();
+                final JsonNode versions = bpmnProcessId.getValue();
+
+                addGeneratedVersion(topicName, bpmnProcessId.getKey(), versions.path("lastGeneratedVersion").asInt());
+
+                for (JsonNode key : versions.path("versions"))
+                {
+                    final JsonNode workflow = workflowsByKey.path(key.asText());
+
+                    add(new WorkflowMetadata()
+                        .setKey(workflow.path("key").asLong())
+                        .setVersion(workflow.path("version").asInt())
+                        .setEventPosition(workflow.path("eventPosition").asLong())
+                        .setTopicName(workflow.path("topicName").asText())
+                        .setBpmnProcessId(workflow.path("bpmnProcessId").asText()));
+                }
             }
         }
 
-        return null;
+        lastGeneratedKey = snapshot.path("lastGeneratedKey").asLong();
     }
 
-    public WorkflowMetadata getWorkflowByBpmnProcessIdAndVersion(String topicName, String bpmnProcessId, int version)
+    @Override
+    public void reset()
     {
-        final WorkflowsByBpmnProcessId byBpmnProcessId = getWorkflowsByTopicNameAndBpmnProcessId(topicName, bpmnProcessId);
+        logLength = 0;
+        lastGeneratedKey = 0;
 
-        if (byBpmnProcessId != null)
+        workflowEntryOffsets.clear();
+        workflows.clear();
+        topics.clear();
+    }
+
+    @Override
+    public long snapshotSize()
+    {
+        return SNAPSHOT_HEADER_LENGTH + logLength;
+    }
+
+    /**
+     * The keys of the workflows of one bpmn process id, indexed by version.
+     */
+    private static class WorkflowVersions
+    {
+        private int lastGeneratedVersion = 0;
+        private int latestVersion = 0;
+
+        private long[] keys = new long[4];
+
+        WorkflowVersions()
         {
-            final Long key = byBpmnProcessId.getVersions().get(version);
+            Arrays.fill(keys, MISSING);
+        }
 
-            if (key != null)
+        void putKey(int version, long key)
+        {
+            if (version >= keys.length)
             {
-                return getData().getWorkflows()
-                    .get(key);
+                final int previousLength = keys.length;
+                keys = Arrays.copyOf(keys, Math.max(version + 1, previousLength << 1));
+                Arrays.fill(keys, previousLength, keys.length, MISSING);
             }
+
+            keys[version] = key;
+            latestVersion = Math.max(latestVersion, version);
         }
 
-        return null;
+        long getKey(int version)
+        {
+            if (version > 0 && version < keys.length)
+            {
+                return keys[version];
+            }
+            else
+            {
+                return MISSING;
+            }
+        }
     }
 
-    public List<WorkflowMetadata> getWorkflowsByTopic(String topicName)
+    public static class WorkflowMetadata
     {
-        final WorkflowRepositoryIndexData data = getData();
-
-        return data.getTopics()
-            .getOrDefault(topicName, new WorkflowsByTopic())
-            .getBpmnProcessIds()
-            .values()
-            .stream()
-            .map((byProcessId) -> byProcessId.getVersions().values())
-            .flatMap((keys) -> keys.stream())
-            .map((key) -> data.getWorkflows().get(key))
-            .collect(Collectors.toList());
-    }
+        private long key;
+        private int version;
+        private String bpmnProcessId;
+        private String topicName;
+        private long eventPosition;
 
-    public List<WorkflowMetadata> getWorkflowsByTopicAndBpmnProcessId(String topicName, String bpmnProcessId)
-    {
-        final WorkflowRepositoryIndexData data = getData();
-
-        return data.getTopics()
-            .getOrDefault(topicName, new WorkflowsByTopic())
-            .getBpmnProcessIds()
-            .getOrDefault(bpmnProcessId, new WorkflowsByBpmnProcessId())
-            .getVersions()
-            .values()
-            .stream()
-            .map((key) -> data.getWorkflows().get(key))
-            .collect(Collectors.toList());
+        public long getKey()
+        {
+            return key;
+        }
+
+        public WorkflowMetadata setKey(long key)
+        {
+            this.key = key;
+            return this;
+        }
+
+        public int getVersion()
+        {
+            return version;
+        }
+
+        public WorkflowMetadata setVersion(int version)
+        {
+            this.version = version;
+            return this;
+        }
+
+        public String getBpmnProcessId()
+        {
+            return bpmnProcessId;
+        }
+
+        public WorkflowMetadata setBpmnProcessId(String bpmnProcessId)
+        {
+            this.bpmnProcessId = bpmnProcessId;
+            return this;
+        }
+
+        public String getTopicName()
+        {
+            return topicName;
+        }
+
+        public WorkflowMetadata setTopicName(String topicName)
+        {
+            this.topicName = topicName;
+            return this;
+        }
+
+        public long getEventPosition()
+        {
+            return eventPosition;
+        }
+
+        public WorkflowMetadata setEventPosition(long eventPosition)
+        {
+            this.eventPosition = eventPosition;
+            return this;
+        }
     }
 }
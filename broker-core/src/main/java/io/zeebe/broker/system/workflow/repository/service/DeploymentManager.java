@@ -17,9 +17,15 @@
  */
 package io.zeebe.broker.system.workflow.repository.service;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.zeebe.broker.clustering.base.partitions.Partition;
 import io.zeebe.broker.logstreams.processor.*;
 import io.zeebe.broker.system.SystemServiceNames;
+import io.zeebe.broker.system.configuration.DataCfg;
+import io.zeebe.broker.system.configuration.ThreadsCfg;
 import io.zeebe.broker.system.workflow.repository.api.client.GetWorkflowControlMessageHandler;
 import io.zeebe.broker.system.workflow.repository.api.client.ListWorkflowsControlMessageHandler;
 import io.zeebe.broker.system.workflow.repository.api.management.DeploymentManagerRequestHandler;
@@ -34,6 +40,7 @@ import io.zeebe.protocol.intent.DeploymentIntent;
 import io.zeebe.protocol.intent.TopicIntent;
 import io.zeebe.servicecontainer.*;
 import io.zeebe.transport.ServerTransport;
+import io.zeebe.util.ByteValue;
 
 public class DeploymentManager implements Service<DeploymentManager>
 {
@@ -41,6 +48,10 @@ public class DeploymentManager implements Service<DeploymentManager>
         .onAdd((name, partition) -> installServices(partition, name))
         .build();
 
+    private final ServiceGroupReference<Partition> followerPartitionsGroupReference = ServiceGroupReference.<Partition>create()
+        .onAdd((name, partition) -> installReplicaServices(partition, name))
+        .build();
+
     private final Injector<StreamProcessorServiceFactory> streamProcessorServiceFactoryInjector = new Injector<>();
     private final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
     private final Injector<DeploymentManagerRequestHandler> requestHandlerServiceInjector = new Injector<>();
@@ -53,9 +64,26 @@ public class DeploymentManager implements Service<DeploymentManager>
 
     private ServiceStartContext startContext;
 
+    private ExecutorService validationExecutor;
+
     private GetWorkflowControlMessageHandler getWorkflowMessageHandler;
     private ListWorkflowsControlMessageHandler listWorkflowsControlMessageHandler;
 
+    private final long resourceCacheCapacity;
+    private final boolean resourceCacheCompression;
+
+    /**
+     * Threads which parse and validate the resources of deployments
+     */
+    private final int validationThreadCount;
+
+    public DeploymentManager(DataCfg dataCfg, ThreadsCfg threadsCfg)
+    {
+        this.resourceCacheCapacity = new ByteValue(dataCfg.getDeploymentResourceCacheSize()).toBytes();
+        this.resourceCacheCompression = dataCfg.isDeploymentResourceCacheCompression();
+        this.validationThreadCount = Math.max(1, threadsCfg.getDeploymentValidationThreadCount());
+    }
+
     @Override
     public void start(ServiceStartContext startContext)
     {
@@ -64,6 +92,14 @@ public class DeploymentManager implements Service<DeploymentManager>
         this.streamProcessorServiceFactory = streamProcessorServiceFactoryInjector.getValue();
         this.requestHandlerService = requestHandlerServiceInjector.getValue();
 
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.validationExecutor = Executors.newFixedThreadPool(validationThreadCount, runnable ->
+        {
+            final Thread thread = new Thread(runnable, "deployment-validation-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
         getWorkflowMessageHandler = new GetWorkflowControlMessageHandler(clientApiTransport.getOutput());
         listWorkflowsControlMessageHandler = new ListWorkflowsControlMessageHandler(clientApiTransport.getOutput());
 
@@ -79,7 +115,7 @@ public class DeploymentManager implements Service<DeploymentManager>
         final WorkflowRepositoryIndex repositoryIndex = new WorkflowRepositoryIndex();
 
         final TypedStreamProcessor streamProcessor = streamEnvironment.newStreamProcessor()
-            .onCommand(ValueType.DEPLOYMENT, DeploymentIntent.CREATE, new DeploymentCreateEventProcessor(repositoryIndex))
+            .onCommand(ValueType.DEPLOYMENT, DeploymentIntent.CREATE, new DeploymentCreateEventProcessor(repositoryIndex, validationExecutor))
             .onEvent(ValueType.DEPLOYMENT, DeploymentIntent.CREATED, new DeploymentCreatedEventProcessor(repositoryIndex))
             .onRejection(ValueType.DEPLOYMENT, DeploymentIntent.CREATE, new DeploymentRejectedEventProcessor())
             .onEvent(ValueType.TOPIC, TopicIntent.CREATING, new DeploymentTopicCreatingEventProcessor(repositoryIndex))
@@ -87,6 +123,8 @@ public class DeploymentManager implements Service<DeploymentManager>
             .withListener(new StreamProcessorLifecycleAware()
             {
                 private BufferedLogStreamReader reader;
+                private DeploymentResourceCache cache;
+                private FetchWorkflowRequestHandler requestHandler;
 
                 @Override
                 public void onOpen(TypedStreamProcessor streamProcessor)
@@ -96,7 +134,9 @@ public class DeploymentManager implements Service<DeploymentManager>
                     reader = new BufferedLogStreamReader();
                     reader.wrap(ctx.getLogStream());
 
-                    final DeploymentResourceCache cache = new DeploymentResourceCache(reader);
+                    cache = new DeploymentResourceCache(reader,
+                        new DeploymentResourceStore(resourceCacheCapacity, resourceCacheCompression),
+                        ctx.getActorScheduler().getMetricsManager());
 
                     final WorkflowRepositoryService workflowRepositoryService = new WorkflowRepositoryService(ctx.getActorControl(),
                         repositoryIndex,
@@ -106,7 +146,7 @@ public class DeploymentManager implements Service<DeploymentManager>
                         .dependency(partitionServiceName)
                         .install();
 
-                    final FetchWorkflowRequestHandler requestHandler = new FetchWorkflowRequestHandler(workflowRepositoryService);
+                    requestHandler = new FetchWorkflowRequestHandler(workflowRepositoryService);
                     requestHandlerService.setFetchWorkflowRequestHandler(requestHandler);
 
                     getWorkflowMessageHandler.setWorkflowRepositoryService(workflowRepositoryService);
@@ -116,10 +156,11 @@ public class DeploymentManager implements Service<DeploymentManager>
                 @Override
                 public void onClose()
                 {
-                    requestHandlerService.setFetchWorkflowRequestHandler(null);
+                    requestHandlerService.removeFetchWorkflowRequestHandler(requestHandler);
                     getWorkflowMessageHandler.setWorkflowRepositoryService(null);
                     listWorkflowsControlMessageHandler.setWorkflowRepositoryService(null);
 
+                    cache.close();
                     reader.close();
                 }
             })
@@ -132,6 +173,74 @@ public class DeploymentManager implements Service<DeploymentManager>
             .build();
     }
 
+    /**
+     * Maintains a read-only copy of the workflow repository on a follower of
+     * the system partition, so that the followers can serve fetch workflow
+     * requests too.
+     */
+    private void installReplicaServices(final Partition partition, ServiceName<Partition> partitionServiceName)
+    {
+        final TypedStreamEnvironment streamEnvironment = new TypedStreamEnvironment(partition.getLogStream(), clientApiTransport.getOutput());
+
+        final WorkflowRepositoryIndex repositoryIndex = new WorkflowRepositoryIndex();
+
+        final TypedStreamProcessor streamProcessor = streamEnvironment.newStreamProcessor()
+            .onEvent(ValueType.DEPLOYMENT, DeploymentIntent.CREATED, new DeploymentReplicaEventProcessor(repositoryIndex))
+            .onEvent(ValueType.TOPIC, TopicIntent.CREATING, new DeploymentTopicCreatingEventProcessor(repositoryIndex))
+            .withStateResource(repositoryIndex)
+            .withListener(new StreamProcessorLifecycleAware()
+            {
+                private BufferedLogStreamReader reader;
+                private DeploymentResourceCache cache;
+                private FetchWorkflowRequestHandler requestHandler;
+
+                @Override
+                public void onOpen(TypedStreamProcessor streamProcessor)
+                {
+                    final StreamProcessorContext ctx = streamProcessor.getStreamProcessorContext();
+
+                    reader = new BufferedLogStreamReader();
+                    reader.wrap(ctx.getLogStream());
+
+                    cache = new DeploymentResourceCache(reader,
+                        new DeploymentResourceStore(resourceCacheCapacity, resourceCacheCompression),
+                        ctx.getActorScheduler().getMetricsManager());
+
+                    final WorkflowRepositoryService workflowRepositoryService = new WorkflowRepositoryService(ctx.getActorControl(),
+                        repositoryIndex,
+                        cache);
+
+                    requestHandler = new FetchWorkflowRequestHandler(workflowRepositoryService, true);
+                    requestHandlerService.setFetchWorkflowRequestHandler(requestHandler);
+                }
+
+                @Override
+                public void onClose()
+                {
+                    requestHandlerService.removeFetchWorkflowRequestHandler(requestHandler);
+
+                    cache.close();
+                    reader.close();
+                }
+            })
+            .build();
+
+        streamProcessorServiceFactory.createService(partition, partitionServiceName)
+            .processor(streamProcessor)
+            .processorId(StreamProcessorIds.DEPLOYMENT_REPLICA_PROCESSOR_ID)
+            .processorName("deployment-replica")
+            .readOnly(true)
+            .build();
+    }
+
+    @Override
+    public void stop(ServiceStopContext stopContext)
+    {
+        // running validations are completed, so that no deployment waits forever;
+        // a deployment which is processed afterwards is validated on the stream processor
+        validationExecutor.shutdown();
+    }
+
     @Override
     public DeploymentManager get()
     {
@@ -143,6 +252,11 @@ public class DeploymentManager implements Service<DeploymentManager>
         return partitionsGroupReference;
     }
 
+    public ServiceGroupReference<Partition> getFollowerPartitionsGroupReference()
+    {
+        return followerPartitionsGroupReference;
+    }
+
     public Injector<StreamProcessorServiceFactory> getStreamProcessorServiceFactoryInjector()
     {
         return streamProcessorServiceFactoryInjector;
@@ -21,53 +21,127 @@ import java.util.Iterator;
 
 import io.zeebe.broker.system.workflow.repository.data.DeployedWorkflow;
 import io.zeebe.broker.system.workflow.repository.data.DeploymentRecord;
+import io.zeebe.broker.system.workflow.repository.data.DeploymentResource;
 import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex.WorkflowMetadata;
 import io.zeebe.logstreams.log.BufferedLogStreamReader;
 import io.zeebe.logstreams.log.LoggedEvent;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
 import org.agrona.DirectBuffer;
-import org.agrona.collections.Long2ObjectHashMap;
 
 /**
- * Cached deployment resource buffers
+ * Cached deployment resource buffers. The cache is bounded by a
+ * {@link DeploymentResourceStore}; a resource which is not in the store (e.g.
+ * because it was evicted) is read again from the deployment event in the log.
  */
-public class DeploymentResourceCache
+public class DeploymentResourceCache implements AutoCloseable
 {
-    private Long2ObjectHashMap<DirectBuffer> resourceCache = new Long2ObjectHashMap<>();
+    private final DeploymentResourceStore store;
 
     private final BufferedLogStreamReader reader;
 
     private final DeploymentRecord deploymentEvent = new DeploymentRecord();
 
-    public DeploymentResourceCache(final BufferedLogStreamReader reader)
+    private final Metric hits;
+    private final Metric misses;
+    private final Metric residentBytes;
+
+    public DeploymentResourceCache(final BufferedLogStreamReader reader,
+            final DeploymentResourceStore store,
+            final MetricsManager metricsManager)
     {
         this.reader = reader;
+        this.store = store;
+
+        hits = newRequestMetric(metricsManager, "hit");
+        misses = newRequestMetric(metricsManager, "miss");
+
+        residentBytes = metricsManager.newMetric("deployment_resource_cache_resident_bytes")
+            .type("gauge")
+            .create();
+    }
+
+    private static Metric newRequestMetric(MetricsManager metricsManager, String type)
+    {
+        return metricsManager.newMetric("deployment_resource_cache_requests_count")
+            .type("counter")
+            .label("type", type)
+            .create();
     }
 
     public DirectBuffer getResource(WorkflowMetadata workflow)
     {
-        return resourceCache.computeIfAbsent(workflow.getKey(), (key) ->
+        final long key = workflow.getKey();
+
+        DirectBuffer resource = store.get(key);
+
+        if (resource != null)
         {
-            if (reader.seek(workflow.getEventPosition()))
+            hits.incrementOrdered();
+        }
+        else
+        {
+            misses.incrementOrdered();
+
+            resource = lookupResource(workflow);
+
+            if (resource != null)
             {
-                final LoggedEvent event = reader.next();
+                store.put(key, resource);
+                residentBytes.setOrdered(store.residentBytes());
+            }
+        }
 
-                event.readValue(deploymentEvent);
+        return resource;
+    }
 
-                final Iterator<DeployedWorkflow> deployedWorkflowsIterator = deploymentEvent.deployedWorkflows().iterator();
+    private DirectBuffer lookupResource(WorkflowMetadata workflow)
+    {
+        if (reader.seek(workflow.getEventPosition()))
+        {
+            final LoggedEvent event = reader.next();
 
-                while (deployedWorkflowsIterator.hasNext())
-                {
-                    final DeployedWorkflow deployedWorkflow = deployedWorkflowsIterator.next();
+            event.readValue(deploymentEvent);
 
-                    if (deployedWorkflow.getKey() == key)
-                    {
-                        return BufferUtil.cloneBuffer(deploymentEvent.resources().iterator().next().getResource());
-                    }
+            final Iterator<DeployedWorkflow> deployedWorkflowsIterator = deploymentEvent.deployedWorkflows().iterator();
+
+            while (deployedWorkflowsIterator.hasNext())
+            {
+                final DeployedWorkflow deployedWorkflow = deployedWorkflowsIterator.next();
+
+                if (deployedWorkflow.getKey() == workflow.getKey())
+                {
+                    return BufferUtil.cloneBuffer(findResource(deployedWorkflow.getResourceName()));
                 }
             }
+        }
+
+        return null;
+    }
+
+    private DirectBuffer findResource(DirectBuffer resourceName)
+    {
+        final Iterator<DeploymentResource> resourceIterator = deploymentEvent.resources().iterator();
+
+        DeploymentResource resource = resourceIterator.next();
+
+        // deployments without resource name contain only one resource
+        while (resourceName.capacity() > 0 && !BufferUtil.equals(resourceName, resource.getResourceName()) && resourceIterator.hasNext())
+        {
+            resource = resourceIterator.next();
+        }
+
+        return resource.getResource();
+    }
+
+    @Override
+    public void close()
+    {
+        store.close();
 
-            return null;
-        });
+        hits.close();
+        misses.close();
+        residentBytes.close();
     }
 }
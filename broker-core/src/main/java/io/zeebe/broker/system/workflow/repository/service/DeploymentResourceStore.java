@@ -0,0 +1,301 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.workflow.repository.service;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Store of deployment resources by workflow key which is bounded by the
+ * number of bytes of the stored resources.
+ *
+ * <p>When a resource doesn't fit, the least recently used resources are
+ * evicted. A resource which is larger than the capacity is not stored at all.
+ *
+ * <p>Optionally, the resources are kept deflated. This trades an inflate on
+ * every hit for a multiple of resources in the same capacity (BPMN XML is
+ * well compressible).
+ *
+ * <p>Not thread-safe.
+ */
+public class DeploymentResourceStore
+{
+    /**
+     * Estimated heap overhead of an entry (entry object, byte array header,
+     * map slot), so that many tiny resources can't exceed the capacity.
+     */
+    static final int ENTRY_OVERHEAD = 64;
+
+    private final long capacity;
+    private final boolean compress;
+
+    private final Long2ObjectHashMap<Entry> entries = new Long2ObjectHashMap<>();
+
+    /**
+     * Most recently used entry; the entries form a doubly linked list to the
+     * least recently used one.
+     */
+    private Entry head;
+    private Entry tail;
+
+    private long residentBytes = 0;
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final Inflater inflater = new Inflater();
+    private byte[] scratch = new byte[4 * 1024];
+
+    public DeploymentResourceStore(long capacity, boolean compress)
+    {
+        this.capacity = capacity;
+        this.compress = compress;
+    }
+
+    /**
+     * @return the resource or null if it is not stored; the buffer is not
+     *         modified by the store afterwards
+     */
+    public DirectBuffer get(long key)
+    {
+        final Entry entry = entries.get(key);
+
+        if (entry != null)
+        {
+            unlink(entry);
+            linkFirst(entry);
+
+            final byte[] resource = entry.isCompressed ? inflate(entry) : entry.data;
+
+            return new UnsafeBuffer(resource);
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Stores the resource, replacing the previous one, and evicts the least
+     * recently used resources if it doesn't fit otherwise.
+     */
+    public void put(long key, DirectBuffer resource)
+    {
+        remove(key);
+
+        final int length = resource.capacity();
+
+        byte[] data = new byte[length];
+        resource.getBytes(0, data);
+
+        boolean isCompressed = false;
+
+        if (compress)
+        {
+            final byte[] deflated = deflate(data);
+
+            if (deflated.length < length)
+            {
+                data = deflated;
+                isCompressed = true;
+            }
+        }
+
+        final long entrySize = sizeOf(data);
+
+        if (entrySize > capacity)
+        {
+            return;
+        }
+
+        while (residentBytes + entrySize > capacity)
+        {
+            remove(tail.key);
+        }
+
+        final Entry entry = new Entry(key, data, length, isCompressed);
+
+        entries.put(key, entry);
+        linkFirst(entry);
+
+        residentBytes += entrySize;
+    }
+
+    public void remove(long key)
+    {
+        final Entry entry = entries.remove(key);
+
+        if (entry != null)
+        {
+            unlink(entry);
+            residentBytes -= sizeOf(entry.data);
+        }
+    }
+
+    public void clear()
+    {
+        entries.clear();
+        head = null;
+        tail = null;
+        residentBytes = 0;
+    }
+
+    /**
+     * Clears the store and releases the native memory of the deflater and
+     * inflater. The store must not be used afterwards.
+     */
+    public void close()
+    {
+        clear();
+
+        deflater.end();
+        inflater.end();
+    }
+
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return the accounted bytes of the stored resources, including the overhead per entry
+     */
+    public long residentBytes()
+    {
+        return residentBytes;
+    }
+
+    private static long sizeOf(byte[] data)
+    {
+        return ENTRY_OVERHEAD + data.length;
+    }
+
+    private void linkFirst(Entry entry)
+    {
+        entry.previous = null;
+        entry.next = head;
+
+        if (head != null)
+        {
+            head.previous = entry;
+        }
+        else
+        {
+            tail = entry;
+        }
+
+        head = entry;
+    }
+
+    private void unlink(Entry entry)
+    {
+        if (entry.previous != null)
+        {
+            entry.previous.next = entry.next;
+        }
+        else
+        {
+            head = entry.next;
+        }
+
+        if (entry.next != null)
+        {
+            entry.next.previous = entry.previous;
+        }
+        else
+        {
+            tail = entry.previous;
+        }
+
+        entry.previous = null;
+        entry.next = null;
+    }
+
+    private byte[] deflate(byte[] data)
+    {
+        deflater.reset();
+        deflater.setInput(data);
+        deflater.finish();
+
+        int length = 0;
+        while (!deflater.finished())
+        {
+            if (length == scratch.length)
+            {
+                scratch = Arrays.copyOf(scratch, scratch.length << 1);
+            }
+
+            length += deflater.deflate(scratch, length, scratch.length - length);
+        }
+
+        return Arrays.copyOf(scratch, length);
+    }
+
+    private byte[] inflate(Entry entry)
+    {
+        final byte[] resource = new byte[entry.length];
+
+        inflater.reset();
+        inflater.setInput(entry.data);
+
+        try
+        {
+            int length = 0;
+            while (length < resource.length && !inflater.finished())
+            {
+                final int inflated = inflater.inflate(resource, length, resource.length - length);
+
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                {
+                    throw new DataFormatException("unexpected end of deflated data");
+                }
+
+                length += inflated;
+            }
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalStateException("Failed to inflate deployment resource of workflow with key " + entry.key, e);
+        }
+
+        return resource;
+    }
+
+    private static final class Entry
+    {
+        private final long key;
+        private final byte[] data;
+        private final int length;
+        private final boolean isCompressed;
+
+        private Entry previous;
+        private Entry next;
+
+        Entry(long key, byte[] data, int length, boolean isCompressed)
+        {
+            this.key = key;
+            this.data = data;
+            this.length = length;
+            this.isCompressed = isCompressed;
+        }
+    }
+}
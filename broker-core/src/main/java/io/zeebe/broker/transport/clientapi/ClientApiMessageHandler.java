@@ -17,12 +17,22 @@
  */
 package io.zeebe.broker.transport.clientapi;
 
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_ACTIVITY_ID;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_BPMN_PROCESS_ID;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_INSTANCE_KEY;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_KEY;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_PAYLOAD;
+import static io.zeebe.broker.workflow.data.WorkflowInstanceRecord.PROP_WORKFLOW_VERSION;
+import static io.zeebe.dispatcher.impl.log.DataFrameDescriptor.alignedFramedLength;
+import static io.zeebe.logstreams.impl.LogEntryDescriptor.headerLength;
+
 import java.util.EnumMap;
 import java.util.function.Consumer;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.collections.IntArrayList;
 import org.agrona.concurrent.ManyToOneConcurrentLinkedQueue;
 
 import io.zeebe.broker.clustering.base.partitions.Partition;
@@ -35,9 +45,12 @@ import io.zeebe.broker.transport.controlmessage.ControlMessageRequestHeaderDescr
 import io.zeebe.broker.workflow.data.WorkflowInstanceRecord;
 import io.zeebe.dispatcher.ClaimedFragment;
 import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.logstreams.log.LogStream;
+import io.zeebe.logstreams.log.LogStreamBatchWriter;
+import io.zeebe.logstreams.log.LogStreamBatchWriter.LogEntryBuilder;
+import io.zeebe.logstreams.log.LogStreamBatchWriterImpl;
 import io.zeebe.logstreams.log.LogStreamWriter;
 import io.zeebe.logstreams.log.LogStreamWriterImpl;
-import io.zeebe.msgpack.UnpackedObject;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.protocol.clientapi.ControlMessageRequestDecoder;
 import io.zeebe.protocol.clientapi.ErrorCode;
@@ -45,14 +58,19 @@ import io.zeebe.protocol.clientapi.ExecuteCommandRequestDecoder;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
 import io.zeebe.protocol.clientapi.RecordType;
 import io.zeebe.protocol.clientapi.ValueType;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchRequestDecoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchRequestDecoder.CommandsDecoder;
 import io.zeebe.protocol.impl.RecordMetadata;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.transport.ServerMessageHandler;
 import io.zeebe.transport.ServerOutput;
 import io.zeebe.transport.ServerRequestHandler;
+import io.zeebe.util.sched.clock.ActorClock;
 
 public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequestHandler
 {
+    public static final int MAX_COMMAND_BATCH_SIZE = 1024;
+
     protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     protected final ExecuteCommandRequestDecoder executeCommandRequestDecoder = new ExecuteCommandRequestDecoder();
     protected final ControlMessageRequestHeaderDescriptor controlMessageRequestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
@@ -61,30 +79,84 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
     protected final Consumer<Runnable> cmdConsumer = (c) -> c.run();
 
     protected final Int2ObjectHashMap<Partition> leaderPartitions = new Int2ObjectHashMap<>();
+    protected final Int2ObjectHashMap<CommandAdmissionController> admissionControllers = new Int2ObjectHashMap<>();
+    /**
+     * Error code of the response to a command which is not written because the
+     * partition is overloaded. The client sends the command again after a
+     * growing delay. The client api has no dedicated error code for this yet;
+     * REQUEST_TIMEOUT is otherwise not sent by the broker.
+     */
+    public static final ErrorCode BACKPRESSURE_ERROR_CODE = ErrorCode.REQUEST_TIMEOUT;
+
     protected final RecordMetadata eventMetadata = new RecordMetadata();
     protected final LogStreamWriter logStreamWriter = new LogStreamWriterImpl();
 
+    protected final ExecuteCommandBatchRequestDecoder executeCommandBatchRequestDecoder = new ExecuteCommandBatchRequestDecoder();
+    protected final RecordMetadata batchCommandMetadata = new RecordMetadata();
+    protected final LogStreamBatchWriter logStreamBatchWriter = new LogStreamBatchWriterImpl();
+    protected final CommandBatchResponseWriter batchResponseWriter = new CommandBatchResponseWriter();
+    protected final IntArrayList batchFragmentLengths = new IntArrayList();
+
     protected final ErrorResponseWriter errorResponseWriter = new ErrorResponseWriter();
     protected final Dispatcher controlMessageDispatcher;
     protected final ClaimedFragment claimedControlMessageFragment = new ClaimedFragment();
 
-    protected final EnumMap<ValueType, UnpackedObject> recordsByType = new EnumMap<>(ValueType.class);
+    protected final EnumMap<ValueType, CommandValidator> validatorsByType = new EnumMap<>(ValueType.class);
 
     public ClientApiMessageHandler(final Dispatcher controlMessageDispatcher)
     {
         this.controlMessageDispatcher = controlMessageDispatcher;
 
-        initEventTypeMap();
+        initCommandValidators();
+    }
+
+    private void initCommandValidators()
+    {
+        // commands which are sent with a high rate are validated without reading them into a record
+        validatorsByType.put(ValueType.JOB, newJobValidator());
+        validatorsByType.put(ValueType.WORKFLOW_INSTANCE, newWorkflowInstanceValidator());
+
+        validatorsByType.put(ValueType.DEPLOYMENT, new RecordCommandValidator(new DeploymentRecord()));
+        validatorsByType.put(ValueType.SUBSCRIBER, new RecordCommandValidator(new TopicSubscriberEvent()));
+        validatorsByType.put(ValueType.SUBSCRIPTION, new RecordCommandValidator(new TopicSubscriptionEvent()));
+        validatorsByType.put(ValueType.TOPIC, new RecordCommandValidator(new TopicRecord()));
+    }
+
+    /**
+     * Must match the properties of {@link JobRecord}.
+     */
+    public static MsgPackStructureValidator newJobValidator()
+    {
+        final MsgPackStructureValidator headersValidator = new MsgPackStructureValidator()
+            .string(PROP_WORKFLOW_BPMN_PROCESS_ID)
+            .integer("workflowDefinitionVersion")
+            .longInteger("workflowKey")
+            .longInteger(PROP_WORKFLOW_INSTANCE_KEY)
+            .string(PROP_WORKFLOW_ACTIVITY_ID)
+            .longInteger("activityInstanceKey");
+
+        return new MsgPackStructureValidator()
+            .longInteger("deadline")
+            .string("worker")
+            .integer("retries")
+            .requiredString("type")
+            .object("headers", headersValidator)
+            .packed("customHeaders")
+            .binary("payload");
     }
 
-    private void initEventTypeMap()
+    /**
+     * Must match the properties of {@link WorkflowInstanceRecord}.
+     */
+    public static MsgPackStructureValidator newWorkflowInstanceValidator()
     {
-        recordsByType.put(ValueType.DEPLOYMENT, new DeploymentRecord());
-        recordsByType.put(ValueType.JOB, new JobRecord());
-        recordsByType.put(ValueType.WORKFLOW_INSTANCE, new WorkflowInstanceRecord());
-        recordsByType.put(ValueType.SUBSCRIBER, new TopicSubscriberEvent());
-        recordsByType.put(ValueType.SUBSCRIPTION, new TopicSubscriptionEvent());
-        recordsByType.put(ValueType.TOPIC, new TopicRecord());
+        return new MsgPackStructureValidator()
+            .string(PROP_WORKFLOW_BPMN_PROCESS_ID)
+            .integer(PROP_WORKFLOW_VERSION)
+            .longInteger(PROP_WORKFLOW_KEY)
+            .longInteger(PROP_WORKFLOW_INSTANCE_KEY)
+            .string(PROP_WORKFLOW_ACTIVITY_ID)
+            .binary(PROP_WORKFLOW_PAYLOAD);
     }
 
     private boolean handleExecuteCommandRequest(
@@ -113,9 +185,10 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
         final ValueType eventType = executeCommandRequestDecoder.valueType();
         final short intent = executeCommandRequestDecoder.intent();
-        final UnpackedObject event = recordsByType.get(eventType);
+        final CommandValidator validator = validatorsByType.get(eventType);
+        final CommandAdmissionController admissionController = admissionControllers.get(partitionId);
 
-        if (event == null)
+        if (validator == null)
         {
             return errorResponseWriter
                     .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
@@ -126,18 +199,22 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
         final int eventOffset = executeCommandRequestDecoder.limit() + ExecuteCommandRequestDecoder.valueHeaderLength();
         final int eventLength = executeCommandRequestDecoder.valueLength();
 
-        event.reset();
-
-        try
+        // verify that the event / command is valid
+        if (!validator.validate(buffer, eventOffset, eventLength))
         {
-            // verify that the event / command is valid
-            event.wrap(buffer, eventOffset, eventLength);
+            return errorResponseWriter
+                    .errorCode(ErrorCode.INVALID_MESSAGE)
+                    .errorMessage("Cannot deserialize command: '%s'.", validator.getErrorMessage())
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
-        catch (Throwable t)
+
+        final long now = ActorClock.currentTimeMillis();
+
+        if (!admissionController.tryAdmit(now))
         {
             return errorResponseWriter
-                    .errorCode(ErrorCode.INVALID_MESSAGE)
-                    .errorMessage("Cannot deserialize command: '%s'.", concatErrorMessages(t))
+                    .errorCode(BACKPRESSURE_ERROR_CODE)
+                    .errorMessage("Cannot execute command. Partition with id '%d' is overloaded (%d commands in flight).", partitionId, admissionController.getInFlight())
                     .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
 
@@ -161,24 +238,191 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
                 .value(buffer, eventOffset, eventLength)
                 .tryWrite();
 
-        return eventPosition >= 0;
+        if (eventPosition < 0)
+        {
+            return errorResponseWriter
+                    .errorCode(BACKPRESSURE_ERROR_CODE)
+                    .errorMessage("Cannot execute command. Log of partition with id '%d' does not accept more commands.", partitionId)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
+
+        admissionController.onWritten(eventPosition, now);
+        partition.getLoadMeter().onCommandsWritten(1, eventLength);
+
+        return true;
     }
 
-    private String concatErrorMessages(Throwable t)
+    /**
+     * Writes all commands of the batch with one append. The commands carry no
+     * request metadata, so the responses of the stream processors don't reach
+     * the client. Instead, the batch is acknowledged when it is written. The
+     * response contains the key of each command. A command without key gets its
+     * position as key, which is the key of the record that it creates.
+     *
+     * <p>The batch messages are not part of the client api schema but of
+     * command-batch-schema.xml (module zeebe-command-batch-protocol).
+     */
+    private boolean handleExecuteCommandBatchRequest(
+            final ServerOutput output,
+            final RemoteAddress requestAddress,
+            final long requestId,
+            final int protocolVersion,
+            final DirectBuffer buffer,
+            final int messageOffset,
+            final int messageLength)
     {
-        final StringBuilder sb = new StringBuilder();
+        final ExecuteCommandBatchRequestDecoder batchDecoder = executeCommandBatchRequestDecoder;
+        batchDecoder.wrap(buffer, messageOffset + messageHeaderDecoder.encodedLength(), messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
+
+        final int partitionId = batchDecoder.partitionId();
+        final Partition partition = leaderPartitions.get(partitionId);
+
+        if (partition == null)
+        {
+            return errorResponseWriter
+                .errorCode(ErrorCode.PARTITION_NOT_FOUND)
+                .errorMessage("Cannot execute command batch. Partition with id '%d' not found", partitionId)
+                .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
+
+        final CommandsDecoder commandsDecoder = batchDecoder.commands();
+        final int commandCount = commandsDecoder.count();
+
+        if (commandCount == 0 || commandCount > MAX_COMMAND_BATCH_SIZE)
+        {
+            return errorResponseWriter
+                    .errorCode(ErrorCode.INVALID_MESSAGE)
+                    .errorMessage("Cannot execute command batch. Expected between 1 and %d commands but got %d.", MAX_COMMAND_BATCH_SIZE, commandCount)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
+
+        final CommandAdmissionController admissionController = admissionControllers.get(partitionId);
+        final long now = ActorClock.currentTimeMillis();
+
+        if (!admissionController.tryAdmit(now, commandCount))
+        {
+            return errorResponseWriter
+                    .errorCode(BACKPRESSURE_ERROR_CODE)
+                    .errorMessage("Cannot execute command batch. Partition with id '%d' is overloaded (%d commands in flight).", partitionId, admissionController.getInFlight())
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+        }
+
+        logStreamBatchWriter.wrap(partition.getLogStream());
+        batchResponseWriter.reset();
+        batchFragmentLengths.clear();
+
+        int index = 0;
+        int valueBytes = 0;
+        while (commandsDecoder.hasNext())
+        {
+            commandsDecoder.next();
+
+            final long key = commandsDecoder.key();
+            final ValueType valueType = ValueType.get(commandsDecoder.valueType());
+            final short intent = commandsDecoder.intent();
 
-        sb.append(t.getMessage());
+            final int valueOffset = batchDecoder.limit() + CommandsDecoder.valueHeaderLength();
+            final int valueLength = commandsDecoder.valueLength();
+            batchDecoder.limit(valueOffset + valueLength);
 
-        while (t.getCause() != null)
+            final CommandValidator validator = validatorsByType.get(valueType);
+            final String errorMessage;
+
+            if (validator == null)
+            {
+                errorMessage = String.format("Invalid event type '%s'", valueType.name());
+            }
+            else if (!validator.validate(buffer, valueOffset, valueLength))
+            {
+                errorMessage = validator.getErrorMessage();
+            }
+            else
+            {
+                errorMessage = null;
+            }
+
+            if (errorMessage != null)
+            {
+                logStreamBatchWriter.reset();
+                batchResponseWriter.reset();
+
+                return errorResponseWriter
+                        .errorCode(ErrorCode.INVALID_MESSAGE)
+                        .errorMessage("Cannot execute command batch. Command %d is invalid: '%s'.", index, errorMessage)
+                        .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
+            }
+
+            batchCommandMetadata.reset();
+            batchCommandMetadata.protocolVersion(protocolVersion);
+            batchCommandMetadata.recordType(RecordType.COMMAND);
+            batchCommandMetadata.intent(intent);
+            batchCommandMetadata.valueType(valueType);
+
+            final LogEntryBuilder logEntryBuilder = logStreamBatchWriter.event();
+
+            if (key != CommandsDecoder.keyNullValue())
+            {
+                logEntryBuilder.key(key);
+                batchResponseWriter.addKey(key);
+            }
+            else
+            {
+                logEntryBuilder.positionAsKey();
+                batchResponseWriter.addKey(-1L);
+            }
+
+            logEntryBuilder
+                .metadataWriter(batchCommandMetadata)
+                .value(buffer, valueOffset, valueLength)
+                .done();
+
+            batchFragmentLengths.addInt(alignedFramedLength(headerLength(batchCommandMetadata.getLength()) + valueLength));
+
+            valueBytes += valueLength;
+            index++;
+        }
+
+        final long batchPosition = logStreamBatchWriter.tryWrite();
+
+        if (batchPosition < 0)
         {
-            t = t.getCause();
+            batchResponseWriter.reset();
 
-            sb.append("; ");
-            sb.append(t.getMessage());
+            return errorResponseWriter
+                    .errorCode(BACKPRESSURE_ERROR_CODE)
+                    .errorMessage("Cannot execute command batch. Log of partition with id '%d' does not accept more commands.", partitionId)
+                    .tryWriteResponseOrLogFailure(output, requestAddress.getStreamId(), requestId);
         }
 
-        return sb.toString();
+        admissionController.onWritten(batchPosition, commandCount, now);
+        partition.getLoadMeter().onCommandsWritten(commandCount, valueBytes);
+
+        assignPositionsAsKeys(batchPosition);
+
+        // the batch is written, so the request must not be retried if the response can't be sent
+        batchResponseWriter
+            .partitionId(partitionId)
+            .position(batchPosition)
+            .tryWriteResponse(output, requestAddress.getStreamId(), requestId);
+
+        return true;
+    }
+
+    /**
+     * Like for a single command, the position of a command is the position at
+     * the end of its fragment and the batch writer returns the position of the
+     * last command. So the position of a command is the position of the next
+     * command minus the length of the next command's fragment.
+     */
+    private void assignPositionsAsKeys(final long lastPosition)
+    {
+        long position = lastPosition;
+
+        for (int i = batchFragmentLengths.size() - 1; i >= 0; i--)
+        {
+            batchResponseWriter.positionAsKey(i, position);
+            position -= batchFragmentLengths.getInt(i);
+        }
     }
 
     private boolean handleControlMessageRequest(
@@ -220,12 +464,25 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
 
     public void addPartition(final Partition partition)
     {
-        cmdQueue.add(() -> leaderPartitions.put(partition.getInfo().getPartitionId(), partition));
+        cmdQueue.add(() ->
+        {
+            final int partitionId = partition.getInfo().getPartitionId();
+            final LogStream logStream = partition.getLogStream();
+
+            leaderPartitions.put(partitionId, partition);
+            admissionControllers.put(partitionId, new CommandAdmissionController(logStream::getCommitPosition));
+        });
     }
 
     public void removePartition(final Partition partition)
     {
-        cmdQueue.add(() -> leaderPartitions.remove(partition.getInfo().getPartitionId()));
+        cmdQueue.add(() ->
+        {
+            final int partitionId = partition.getInfo().getPartitionId();
+
+            leaderPartitions.remove(partitionId);
+            admissionControllers.remove(partitionId);
+        });
     }
 
     @Override
@@ -239,15 +496,39 @@ public class ClientApiMessageHandler implements ServerMessageHandler, ServerRequ
         final int templateId = messageHeaderDecoder.templateId();
         final int clientVersion = messageHeaderDecoder.version();
 
+        final boolean isBatch = messageHeaderDecoder.schemaId() == ExecuteCommandBatchRequestDecoder.SCHEMA_ID;
+        final int brokerVersion = isBatch ? ExecuteCommandBatchRequestDecoder.SCHEMA_VERSION : Protocol.PROTOCOL_VERSION;
 
-        if (clientVersion > Protocol.PROTOCOL_VERSION)
+        if (clientVersion > brokerVersion)
         {
             return errorResponseWriter
                 .errorCode(ErrorCode.INVALID_CLIENT_VERSION)
-                .errorMessage("Client has newer version than broker (%d > %d)", clientVersion, Protocol.PROTOCOL_VERSION)
+                .errorMessage("Client has newer version than broker (%d > %d)", clientVersion, brokerVersion)
                 .tryWriteResponse(output, remoteAddress.getStreamId(), requestId);
         }
 
+        if (isBatch)
+        {
+            if (templateId == ExecuteCommandBatchRequestDecoder.TEMPLATE_ID)
+            {
+                return handleExecuteCommandBatchRequest(
+                        output,
+                        remoteAddress,
+                        requestId,
+                        Protocol.PROTOCOL_VERSION,
+                        buffer,
+                        offset,
+                        length);
+            }
+            else
+            {
+                return errorResponseWriter
+                        .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
+                        .errorMessage("Cannot handle message. Template id '%d' is not supported.", templateId)
+                        .tryWriteResponse(output, remoteAddress.getStreamId(), requestId);
+            }
+        }
+
         eventMetadata.reset();
         eventMetadata.protocolVersion(clientVersion);
         eventMetadata.requestId(requestId);
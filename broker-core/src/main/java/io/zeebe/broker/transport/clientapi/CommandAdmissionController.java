@@ -0,0 +1,192 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the number of commands of a partition which are written to the log
+ * but not yet committed, so that an overloaded partition rejects commands
+ * early instead of letting the client run into a request timeout.
+ *
+ * <p>The limit adapts to the observed latency between writing and committing
+ * a command (AIMD): it grows by one when a full window of commands completes
+ * within the latency target and shrinks by a quarter when a command takes
+ * longer. The limit is decreased at most once per target interval, so that a
+ * single slow batch does not collapse it.
+ *
+ * <p>The commit position is only checked when a command is admitted, so the
+ * time at which a command is committed is not known exactly. A command which
+ * is found committed is assumed to be committed right after the previous
+ * check, so that idle time between requests doesn't count as latency.
+ *
+ * <p>A batch of commands which is written with one append is tracked as one
+ * entry but counts with all of its commands.
+ *
+ * <p>Not thread-safe, must be used by the thread which writes the commands.
+ */
+public class CommandAdmissionController
+{
+    public static final int MIN_LIMIT = 16;
+    public static final int MAX_LIMIT = 8192;
+    public static final int INITIAL_LIMIT = 1024;
+
+    public static final long DEFAULT_LATENCY_TARGET_MS = 250;
+
+    private final LongSupplier commitPosition;
+    private final long latencyTargetMs;
+
+    // entries in the order they are written, positions are ascending
+    private final long[] positions = new long[MAX_LIMIT];
+    private final long[] writeTimes = new long[MAX_LIMIT];
+    private final int[] commandCounts = new int[MAX_LIMIT];
+    private int head = 0;
+    private int entries = 0;
+    private int inFlight = 0;
+
+    private int limit = INITIAL_LIMIT;
+    private int completedInWindow = 0;
+    private long nextDecreaseTime = 0;
+
+    // the time of the previous check of the commit position
+    private long lastCommitCheckTime = 0;
+
+    public CommandAdmissionController(LongSupplier commitPosition)
+    {
+        this(commitPosition, DEFAULT_LATENCY_TARGET_MS);
+    }
+
+    public CommandAdmissionController(LongSupplier commitPosition, long latencyTargetMs)
+    {
+        this.commitPosition = commitPosition;
+        this.latencyTargetMs = latencyTargetMs;
+    }
+
+    /**
+     * @return true if a new command can be written, false if the partition is overloaded
+     */
+    public boolean tryAdmit(long now)
+    {
+        return tryAdmit(now, 1);
+    }
+
+    /**
+     * @param commandCount the number of commands which are written with one append
+     * @return true if the commands can be written, false if the partition is overloaded
+     */
+    public boolean tryAdmit(long now, int commandCount)
+    {
+        completeCommitted(now);
+
+        if (entries > 0 && now - writeTimes[head] > latencyTargetMs)
+        {
+            // the oldest command is still not committed
+            decreaseLimit(now);
+        }
+
+        // a batch which is larger than the limit is only admitted if nothing else is in flight
+        return inFlight == 0 || inFlight + commandCount <= limit;
+    }
+
+    /**
+     * Must be called for each command that was written after it was admitted.
+     */
+    public void onWritten(long position, long now)
+    {
+        onWritten(position, 1, now);
+    }
+
+    /**
+     * Must be called for each batch of commands that was written after it was admitted.
+     *
+     * @param position the position of the last command of the batch
+     */
+    public void onWritten(long position, int commandCount, long now)
+    {
+        final int index = (head + entries) % MAX_LIMIT;
+        positions[index] = position;
+        writeTimes[index] = now;
+        commandCounts[index] = commandCount;
+        entries++;
+        inFlight += commandCount;
+    }
+
+    private void completeCommitted(long now)
+    {
+        if (entries == 0)
+        {
+            lastCommitCheckTime = now;
+            return;
+        }
+
+        final long committed = commitPosition.getAsLong();
+
+        while (entries > 0 && positions[head] <= committed)
+        {
+            // the command was not committed yet at the previous check, if it was written before
+            final long latency = Math.max(0, lastCommitCheckTime - writeTimes[head]);
+            final int commandCount = commandCounts[head];
+
+            head = (head + 1) % MAX_LIMIT;
+            entries--;
+            inFlight -= commandCount;
+
+            if (latency > latencyTargetMs)
+            {
+                decreaseLimit(now);
+            }
+            else
+            {
+                increaseLimit(commandCount);
+            }
+        }
+
+        lastCommitCheckTime = now;
+    }
+
+    private void increaseLimit(int completedCommands)
+    {
+        completedInWindow += completedCommands;
+
+        if (completedInWindow >= limit)
+        {
+            completedInWindow = 0;
+            limit = Math.min(MAX_LIMIT, limit + 1);
+        }
+    }
+
+    private void decreaseLimit(long now)
+    {
+        if (now >= nextDecreaseTime)
+        {
+            limit = Math.max(MIN_LIMIT, limit - (limit >> 2));
+            completedInWindow = 0;
+            nextDecreaseTime = now + latencyTargetMs;
+        }
+    }
+
+    public int getLimit()
+    {
+        return limit;
+    }
+
+    public int getInFlight()
+    {
+        return inFlight;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.util.Arrays;
+
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseEncoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseEncoder.CommandsEncoder;
+import io.zeebe.protocol.clientapi.batch.MessageHeaderEncoder;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.ServerResponse;
+import io.zeebe.util.buffer.BufferWriter;
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Acknowledges a batch of commands which is written to the log. The response
+ * contains the position of the batch and the key of each command. A command
+ * without key gets its position as key when it is written.
+ */
+public class CommandBatchResponseWriter implements BufferWriter
+{
+    protected final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
+    protected final ExecuteCommandBatchResponseEncoder responseEncoder = new ExecuteCommandBatchResponseEncoder();
+    protected final ServerResponse response = new ServerResponse();
+
+    protected int partitionId;
+    protected long position;
+
+    protected long[] keys = new long[64];
+    protected int keyCount = 0;
+
+    public CommandBatchResponseWriter partitionId(int partitionId)
+    {
+        this.partitionId = partitionId;
+        return this;
+    }
+
+    public CommandBatchResponseWriter position(long position)
+    {
+        this.position = position;
+        return this;
+    }
+
+    /**
+     * @param key the key of the next command or a negative value if its position is the key
+     */
+    public CommandBatchResponseWriter addKey(long key)
+    {
+        if (keyCount == keys.length)
+        {
+            keys = Arrays.copyOf(keys, keys.length << 1);
+        }
+
+        keys[keyCount] = key;
+        keyCount++;
+
+        return this;
+    }
+
+    /**
+     * Sets the key of the command with the given index to its position, if the
+     * command has no key.
+     */
+    public CommandBatchResponseWriter positionAsKey(int index, long position)
+    {
+        if (keys[index] < 0)
+        {
+            keys[index] = position;
+        }
+
+        return this;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return MessageHeaderEncoder.ENCODED_LENGTH +
+                ExecuteCommandBatchResponseEncoder.BLOCK_LENGTH +
+                CommandsEncoder.sbeHeaderSize() +
+                keyCount * CommandsEncoder.sbeBlockLength();
+    }
+
+    @Override
+    public void write(MutableDirectBuffer buffer, int offset)
+    {
+        messageHeaderEncoder.wrap(buffer, offset)
+            .blockLength(responseEncoder.sbeBlockLength())
+            .templateId(responseEncoder.sbeTemplateId())
+            .schemaId(responseEncoder.sbeSchemaId())
+            .version(responseEncoder.sbeSchemaVersion());
+
+        offset += messageHeaderEncoder.encodedLength();
+
+        responseEncoder.wrap(buffer, offset)
+            .partitionId(partitionId)
+            .position(position);
+
+        final CommandsEncoder commandsEncoder = responseEncoder.commandsCount(keyCount);
+
+        for (int i = 0; i < keyCount; i++)
+        {
+            commandsEncoder.next()
+                .key(keys[i]);
+        }
+    }
+
+    public boolean tryWriteResponse(ServerOutput output, int streamId, long requestId)
+    {
+        try
+        {
+            response.reset()
+                .remoteStreamId(streamId)
+                .writer(this)
+                .requestId(requestId);
+
+            return output.sendResponse(response);
+        }
+        finally
+        {
+            reset();
+        }
+    }
+
+    public void reset()
+    {
+        partitionId = -1;
+        position = -1;
+        keyCount = 0;
+    }
+}
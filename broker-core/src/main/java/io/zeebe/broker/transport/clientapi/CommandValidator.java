@@ -0,0 +1,36 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Checks the value of a command before it is written to the log stream.
+ */
+public interface CommandValidator
+{
+    /**
+     * @return true, if the value can be read by the stream processors
+     */
+    boolean validate(DirectBuffer buffer, int offset, int length);
+
+    /**
+     * @return the reason why the last validated value is invalid
+     */
+    String getErrorMessage();
+}
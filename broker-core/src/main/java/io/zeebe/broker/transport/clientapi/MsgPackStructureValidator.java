@@ -0,0 +1,684 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Validates a message pack document in one pass without reading it into a
+ * record. It checks that the document is well-formed, that the declared
+ * properties have a value of the expected type and that the required
+ * properties are present. Properties which are not declared are skipped, as
+ * the records do.
+ *
+ * <p>
+ * Validating doesn't allocate memory, unless the document is invalid and the
+ * error message is requested.
+ */
+public class MsgPackStructureValidator implements CommandValidator
+{
+    private static final ByteOrder BYTE_ORDER = ByteOrder.BIG_ENDIAN;
+
+    private static final int MAX_DEPTH = 32;
+    private static final int MAX_PROPERTIES = Long.SIZE;
+
+    private static final String UNEXPECTED_END = "Unexpected end of message pack document";
+    private static final String INVALID_FORMAT = "Invalid message pack format at offset %s";
+    private static final String MAX_DEPTH_EXCEEDED = "Message pack document is nested deeper than " + MAX_DEPTH;
+    private static final String NOT_A_MAP = "Expected a message pack map";
+    private static final String INVALID_KEY = "Expected a string as property name";
+    private static final String INVALID_TYPE = "Property '%s' has an invalid type";
+    private static final String OUT_OF_RANGE = "Property '%s' is out of the integer range";
+    private static final String MISSING_PROPERTY = "Property '%s' has no valid value";
+
+    private enum PropertyType
+    {
+        STRING, INTEGER, LONG, BOOLEAN, BINARY, OBJECT, PACKED
+    }
+
+    private String[] names = new String[0];
+    private byte[][] nameBytes = new byte[0][];
+    private PropertyType[] types = new PropertyType[0];
+    private MsgPackStructureValidator[] objectValidators = new MsgPackStructureValidator[0];
+    private long requiredProperties = 0;
+
+    private String error;
+    private Object errorArgument;
+
+    // result of reading a header or an integer
+    private int valueOffset;
+    private long value;
+
+    public MsgPackStructureValidator requiredString(String name)
+    {
+        return declare(name, PropertyType.STRING, null, true);
+    }
+
+    public MsgPackStructureValidator string(String name)
+    {
+        return declare(name, PropertyType.STRING, null, false);
+    }
+
+    public MsgPackStructureValidator integer(String name)
+    {
+        return declare(name, PropertyType.INTEGER, null, false);
+    }
+
+    public MsgPackStructureValidator longInteger(String name)
+    {
+        return declare(name, PropertyType.LONG, null, false);
+    }
+
+    public MsgPackStructureValidator bool(String name)
+    {
+        return declare(name, PropertyType.BOOLEAN, null, false);
+    }
+
+    public MsgPackStructureValidator binary(String name)
+    {
+        return declare(name, PropertyType.BINARY, null, false);
+    }
+
+    /**
+     * Declares a property which can have any valid message pack value.
+     */
+    public MsgPackStructureValidator packed(String name)
+    {
+        return declare(name, PropertyType.PACKED, null, false);
+    }
+
+    public MsgPackStructureValidator object(String name, MsgPackStructureValidator objectValidator)
+    {
+        return declare(name, PropertyType.OBJECT, objectValidator, false);
+    }
+
+    private MsgPackStructureValidator declare(String name, PropertyType type, MsgPackStructureValidator objectValidator, boolean isRequired)
+    {
+        final int index = names.length;
+        if (index == MAX_PROPERTIES)
+        {
+            throw new IllegalStateException("Cannot declare more than " + MAX_PROPERTIES + " properties");
+        }
+
+        names = Arrays.copyOf(names, index + 1);
+        nameBytes = Arrays.copyOf(nameBytes, index + 1);
+        types = Arrays.copyOf(types, index + 1);
+        objectValidators = Arrays.copyOf(objectValidators, index + 1);
+
+        names[index] = name;
+        nameBytes[index] = name.getBytes(StandardCharsets.UTF_8);
+        types[index] = type;
+        objectValidators[index] = objectValidator;
+
+        if (isRequired)
+        {
+            requiredProperties |= 1L << index;
+        }
+
+        return this;
+    }
+
+    /**
+     * @return the names of the declared properties, in the order of declaration
+     */
+    List<String> getPropertyNames()
+    {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+
+    /**
+     * @return the validator of the declared object property, or <code>null</code> if there is none
+     */
+    MsgPackStructureValidator getObjectValidator(String name)
+    {
+        final int index = Arrays.asList(names).indexOf(name);
+        return index >= 0 ? objectValidators[index] : null;
+    }
+
+    @Override
+    public boolean validate(DirectBuffer buffer, int offset, int length)
+    {
+        error = null;
+        errorArgument = null;
+
+        return readObject(buffer, offset, offset + length) >= 0;
+    }
+
+    @Override
+    public String getErrorMessage()
+    {
+        if (error == null)
+        {
+            return null;
+        }
+        else if (errorArgument == null)
+        {
+            return error;
+        }
+        else
+        {
+            return String.format(error, errorArgument);
+        }
+    }
+
+    /**
+     * @return the end offset of the object or -1 if it is invalid
+     */
+    private int readObject(DirectBuffer buffer, int offset, int limit)
+    {
+        offset = readMapHeader(buffer, offset, limit);
+        if (offset < 0)
+        {
+            return -1;
+        }
+
+        final long size = value;
+        long presentProperties = 0;
+
+        for (long i = 0; i < size; i++)
+        {
+            offset = readStringHeader(buffer, offset, limit);
+            if (offset < 0)
+            {
+                return error == UNEXPECTED_END ? -1 : fail(INVALID_KEY, null);
+            }
+
+            final int property = indexOf(buffer, valueOffset, (int) value);
+            offset = valueOffset + (int) value;
+
+            if (property >= 0)
+            {
+                offset = readProperty(property, buffer, offset, limit);
+                presentProperties |= 1L << property;
+            }
+            else
+            {
+                offset = skipValue(buffer, offset, limit, 0);
+            }
+
+            if (offset < 0)
+            {
+                return -1;
+            }
+        }
+
+        final long missingProperties = requiredProperties & ~presentProperties;
+        if (missingProperties != 0)
+        {
+            return fail(MISSING_PROPERTY, names[Long.numberOfTrailingZeros(missingProperties)]);
+        }
+
+        return offset;
+    }
+
+    private int readProperty(int property, DirectBuffer buffer, int offset, int limit)
+    {
+        final String name = names[property];
+
+        switch (types[property])
+        {
+            case STRING:
+                offset = readStringHeader(buffer, offset, limit);
+                return offset < 0 ? failOnInvalidType(name) : offset + (int) value;
+
+            case BINARY:
+                offset = readBinaryHeader(buffer, offset, limit);
+                return offset < 0 ? failOnInvalidType(name) : offset + (int) value;
+
+            case INTEGER:
+                offset = readInteger(buffer, offset, limit);
+                if (offset >= 0 && (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE))
+                {
+                    return fail(OUT_OF_RANGE, name);
+                }
+                return offset < 0 ? failOnInvalidType(name) : offset;
+
+            case LONG:
+                offset = readInteger(buffer, offset, limit);
+                return offset < 0 ? failOnInvalidType(name) : offset;
+
+            case BOOLEAN:
+                if (offset >= limit)
+                {
+                    return fail(UNEXPECTED_END, null);
+                }
+                final int format = buffer.getByte(offset) & 0xff;
+                return format == 0xc2 || format == 0xc3 ? offset + 1 : fail(INVALID_TYPE, name);
+
+            case OBJECT:
+                final MsgPackStructureValidator objectValidator = objectValidators[property];
+                final int end = objectValidator.readObject(buffer, offset, limit);
+                if (end < 0)
+                {
+                    return objectValidator.error == NOT_A_MAP ?
+                            fail(INVALID_TYPE, name) :
+                            fail(objectValidator.error, objectValidator.errorArgument);
+                }
+                return end;
+
+            case PACKED:
+            default:
+                return skipValue(buffer, offset, limit, 0);
+        }
+    }
+
+    private int failOnInvalidType(String name)
+    {
+        if (error == UNEXPECTED_END)
+        {
+            // keep the reason if the document is truncated
+            return -1;
+        }
+        else if (error == OUT_OF_RANGE)
+        {
+            return fail(OUT_OF_RANGE, name);
+        }
+        else
+        {
+            return fail(INVALID_TYPE, name);
+        }
+    }
+
+    private int indexOf(DirectBuffer buffer, int offset, int length)
+    {
+        for (int p = 0; p < nameBytes.length; p++)
+        {
+            final byte[] name = nameBytes[p];
+
+            if (name.length == length && equals(name, buffer, offset))
+            {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean equals(byte[] name, DirectBuffer buffer, int offset)
+    {
+        for (int i = 0; i < name.length; i++)
+        {
+            if (name[i] != buffer.getByte(offset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the header of a map and sets the number of entries as value.
+     */
+    private int readMapHeader(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset >= limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int format = buffer.getByte(offset) & 0xff;
+
+        if ((format & 0xf0) == 0x80)
+        {
+            value = format & 0x0f;
+            return offset + 1;
+        }
+        else if (format == 0xde)
+        {
+            return readLength16(buffer, offset, limit);
+        }
+        else if (format == 0xdf)
+        {
+            return readLength32(buffer, offset, limit);
+        }
+        else
+        {
+            return fail(NOT_A_MAP, null);
+        }
+    }
+
+    /**
+     * Reads the header of a string and sets the offset and the length of the
+     * string as value.
+     */
+    private int readStringHeader(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset >= limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int format = buffer.getByte(offset) & 0xff;
+
+        if ((format & 0xe0) == 0xa0)
+        {
+            value = format & 0x1f;
+            offset += 1;
+        }
+        else if (format == 0xd9)
+        {
+            offset = readLength8(buffer, offset, limit);
+        }
+        else if (format == 0xda)
+        {
+            offset = readLength16(buffer, offset, limit);
+        }
+        else if (format == 0xdb)
+        {
+            offset = readLength32(buffer, offset, limit);
+        }
+        else
+        {
+            return fail(INVALID_FORMAT, offset);
+        }
+
+        return checkPayload(offset, limit);
+    }
+
+    private int readBinaryHeader(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset >= limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int format = buffer.getByte(offset) & 0xff;
+
+        switch (format)
+        {
+            case 0xc4:
+                offset = readLength8(buffer, offset, limit);
+                break;
+            case 0xc5:
+                offset = readLength16(buffer, offset, limit);
+                break;
+            case 0xc6:
+                offset = readLength32(buffer, offset, limit);
+                break;
+            default:
+                return fail(INVALID_FORMAT, offset);
+        }
+
+        return checkPayload(offset, limit);
+    }
+
+    private int checkPayload(int offset, int limit)
+    {
+        if (offset < 0)
+        {
+            return -1;
+        }
+        else if (offset + value > limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+        else
+        {
+            valueOffset = offset;
+            return offset;
+        }
+    }
+
+    /**
+     * Reads an integer and sets it as value.
+     */
+    private int readInteger(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset >= limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int format = buffer.getByte(offset) & 0xff;
+
+        if (format <= 0x7f || format >= 0xe0)
+        {
+            value = (byte) format;
+            return offset + 1;
+        }
+
+        final int length;
+        switch (format)
+        {
+            case 0xcc:
+            case 0xd0:
+                length = 1;
+                break;
+            case 0xcd:
+            case 0xd1:
+                length = 2;
+                break;
+            case 0xce:
+            case 0xd2:
+                length = 4;
+                break;
+            case 0xcf:
+            case 0xd3:
+                length = 8;
+                break;
+            default:
+                return fail(INVALID_FORMAT, offset);
+        }
+
+        if (offset + 1 + length > limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int valueOffset = offset + 1;
+        switch (format)
+        {
+            case 0xcc:
+                value = buffer.getByte(valueOffset) & 0xff;
+                break;
+            case 0xcd:
+                value = buffer.getShort(valueOffset, BYTE_ORDER) & 0xffff;
+                break;
+            case 0xce:
+                value = buffer.getInt(valueOffset, BYTE_ORDER) & 0xffff_ffffL;
+                break;
+            case 0xcf:
+                value = buffer.getLong(valueOffset, BYTE_ORDER);
+                if (value < 0)
+                {
+                    // larger than a long
+                    return fail(OUT_OF_RANGE, null);
+                }
+                break;
+            case 0xd0:
+                value = buffer.getByte(valueOffset);
+                break;
+            case 0xd1:
+                value = buffer.getShort(valueOffset, BYTE_ORDER);
+                break;
+            case 0xd2:
+                value = buffer.getInt(valueOffset, BYTE_ORDER);
+                break;
+            default:
+                value = buffer.getLong(valueOffset, BYTE_ORDER);
+                break;
+        }
+
+        return valueOffset + length;
+    }
+
+    private int readLength8(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset + 2 > limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+        value = buffer.getByte(offset + 1) & 0xff;
+        return offset + 2;
+    }
+
+    private int readLength16(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset + 3 > limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+        value = buffer.getShort(offset + 1, BYTE_ORDER) & 0xffff;
+        return offset + 3;
+    }
+
+    private int readLength32(DirectBuffer buffer, int offset, int limit)
+    {
+        if (offset + 5 > limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+        value = buffer.getInt(offset + 1, BYTE_ORDER) & 0xffff_ffffL;
+        return offset + 5;
+    }
+
+    /**
+     * @return the end offset of the value or -1 if it is not well-formed
+     */
+    private int skipValue(DirectBuffer buffer, int offset, int limit, int depth)
+    {
+        if (offset >= limit)
+        {
+            return fail(UNEXPECTED_END, null);
+        }
+
+        final int format = buffer.getByte(offset) & 0xff;
+
+        if (format <= 0x7f || format >= 0xe0)
+        {
+            // fixint
+            return offset + 1;
+        }
+        else if (format <= 0x8f)
+        {
+            return skipValues(buffer, offset + 1, limit, 2L * (format & 0x0f), depth);
+        }
+        else if (format <= 0x9f)
+        {
+            return skipValues(buffer, offset + 1, limit, format & 0x0f, depth);
+        }
+        else if (format <= 0xbf)
+        {
+            return skipBytes(offset + 1, format & 0x1f, limit);
+        }
+
+        switch (format)
+        {
+            case 0xc0: // nil
+            case 0xc2: // false
+            case 0xc3: // true
+                return offset + 1;
+
+            case 0xc4: // bin 8
+            case 0xd9: // str 8
+                offset = readLength8(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value, limit);
+            case 0xc5: // bin 16
+            case 0xda: // str 16
+                offset = readLength16(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value, limit);
+            case 0xc6: // bin 32
+            case 0xdb: // str 32
+                offset = readLength32(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value, limit);
+
+            case 0xc7: // ext 8
+                offset = readLength8(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value + 1, limit);
+            case 0xc8: // ext 16
+                offset = readLength16(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value + 1, limit);
+            case 0xc9: // ext 32
+                offset = readLength32(buffer, offset, limit);
+                return offset < 0 ? -1 : skipBytes(offset, value + 1, limit);
+
+            case 0xcc: // uint 8
+            case 0xd0: // int 8
+                return skipBytes(offset + 1, 1, limit);
+            case 0xcd: // uint 16
+            case 0xd1: // int 16
+                return skipBytes(offset + 1, 2, limit);
+            case 0xca: // float 32
+            case 0xce: // uint 32
+            case 0xd2: // int 32
+                return skipBytes(offset + 1, 4, limit);
+            case 0xcb: // float 64
+            case 0xcf: // uint 64
+            case 0xd3: // int 64
+                return skipBytes(offset + 1, 8, limit);
+
+            case 0xd4: // fixext 1
+                return skipBytes(offset + 1, 2, limit);
+            case 0xd5: // fixext 2
+                return skipBytes(offset + 1, 3, limit);
+            case 0xd6: // fixext 4
+                return skipBytes(offset + 1, 5, limit);
+            case 0xd7: // fixext 8
+                return skipBytes(offset + 1, 9, limit);
+            case 0xd8: // fixext 16
+                return skipBytes(offset + 1, 17, limit);
+
+            case 0xdc: // array 16
+                offset = readLength16(buffer, offset, limit);
+                return offset < 0 ? -1 : skipValues(buffer, offset, limit, value, depth);
+            case 0xdd: // array 32
+                offset = readLength32(buffer, offset, limit);
+                return offset < 0 ? -1 : skipValues(buffer, offset, limit, value, depth);
+            case 0xde: // map 16
+                offset = readLength16(buffer, offset, limit);
+                return offset < 0 ? -1 : skipValues(buffer, offset, limit, 2 * value, depth);
+            case 0xdf: // map 32
+                offset = readLength32(buffer, offset, limit);
+                return offset < 0 ? -1 : skipValues(buffer, offset, limit, 2 * value, depth);
+
+            default: // 0xc1 is never used
+                return fail(INVALID_FORMAT, offset);
+        }
+    }
+
+    private int skipValues(DirectBuffer buffer, int offset, int limit, long count, int depth)
+    {
+        if (depth >= MAX_DEPTH)
+        {
+            return fail(MAX_DEPTH_EXCEEDED, null);
+        }
+
+        for (long i = 0; i < count && offset >= 0; i++)
+        {
+            offset = skipValue(buffer, offset, limit, depth + 1);
+        }
+        return offset;
+    }
+
+    private int skipBytes(int offset, long length, int limit)
+    {
+        return offset + length > limit ? fail(UNEXPECTED_END, null) : offset + (int) length;
+    }
+
+    private int fail(String error, Object errorArgument)
+    {
+        this.error = error;
+        this.errorArgument = errorArgument;
+        return -1;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.msgpack.UnpackedObject;
+
+/**
+ * Validates a command by reading it into the record, which is what the
+ * stream processors do.
+ */
+public class RecordCommandValidator implements CommandValidator
+{
+    private final UnpackedObject record;
+
+    private String errorMessage;
+
+    public RecordCommandValidator(UnpackedObject record)
+    {
+        this.record = record;
+    }
+
+    @Override
+    public boolean validate(DirectBuffer buffer, int offset, int length)
+    {
+        record.reset();
+
+        try
+        {
+            record.wrap(buffer, offset, length);
+            return true;
+        }
+        catch (Throwable t)
+        {
+            errorMessage = concatErrorMessages(t);
+            return false;
+        }
+    }
+
+    @Override
+    public String getErrorMessage()
+    {
+        return errorMessage;
+    }
+
+    private static String concatErrorMessages(Throwable t)
+    {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append(t.getMessage());
+
+        while (t.getCause() != null)
+        {
+            t = t.getCause();
+
+            sb.append("; ");
+            sb.append(t.getMessage());
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.transport.TransportMessage;
+import io.zeebe.util.buffer.BufferWriter;
+
+/**
+ * Collects subscribed records of one subscriber and pushes them as one
+ * message. The message is a sequence of subscribed record frames, each with
+ * its own message header, i.e. a receiver reads it by decoding one subscribed
+ * record after the other until the end of the message.
+ */
+public class SubscribedRecordBatchWriter implements BufferWriter
+{
+    protected final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+
+    protected int length = 0;
+    protected int recordCount = 0;
+    protected int remoteStreamId = -1;
+    protected long subscriberKey = -1;
+
+    protected final ServerOutput output;
+    protected final TransportMessage message = new TransportMessage();
+
+    public SubscribedRecordBatchWriter(final ServerOutput output)
+    {
+        this.output = output;
+    }
+
+    public boolean isEmpty()
+    {
+        return recordCount == 0;
+    }
+
+    public int getRecordCount()
+    {
+        return recordCount;
+    }
+
+    /**
+     * @return true if the batch is empty or contains records of the given subscriber
+     */
+    public boolean canAdd(final int remoteStreamId, final long subscriberKey)
+    {
+        return isEmpty() || (this.remoteStreamId == remoteStreamId && this.subscriberKey == subscriberKey);
+    }
+
+    /**
+     * Appends the record which is currently set on the given writer and resets the writer.
+     */
+    public SubscribedRecordBatchWriter add(final SubscribedRecordWriter record, final int remoteStreamId, final long subscriberKey)
+    {
+        if (!canAdd(remoteStreamId, subscriberKey))
+        {
+            throw new IllegalStateException("Cannot add a record of another subscriber to the batch");
+        }
+
+        try
+        {
+            record.write(buffer, length);
+            length += record.getLength();
+        }
+        finally
+        {
+            record.reset();
+        }
+
+        this.remoteStreamId = remoteStreamId;
+        this.subscriberKey = subscriberKey;
+        recordCount++;
+
+        return this;
+    }
+
+    @Override
+    public int getLength()
+    {
+        return length;
+    }
+
+    @Override
+    public void write(final MutableDirectBuffer buffer, final int offset)
+    {
+        buffer.putBytes(offset, this.buffer, 0, length);
+    }
+
+    /**
+     * Sends the collected records. The batch is only reset if the message was
+     * sent successfully.
+     *
+     * @return true if the batch is empty or was sent
+     */
+    public boolean tryWriteMessage()
+    {
+        if (isEmpty())
+        {
+            return true;
+        }
+
+        message.reset()
+            .remoteStreamId(remoteStreamId)
+            .writer(this);
+
+        final boolean success = output.sendMessage(message);
+        if (success)
+        {
+            reset();
+        }
+
+        return success;
+    }
+
+    public void reset()
+    {
+        length = 0;
+        recordCount = 0;
+        remoteStreamId = -1;
+        subscriberKey = -1;
+    }
+}
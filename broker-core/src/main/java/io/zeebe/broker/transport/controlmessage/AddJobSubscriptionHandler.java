@@ -57,6 +57,9 @@ public class AddJobSubscriptionHandler extends AbstractControlMessageHandler
         final JobSubscription jobSubscription = new JobSubscription(partitionId, request.getJobType(),
                 request.getTimeout(), request.getWorker(), requestStreamId);
         jobSubscription.setCredits(request.getCredits());
+        jobSubscription.setWeight(request.getWeight());
+        jobSubscription.setDistribution(request.getDistribution());
+        jobSubscription.setActivationBatchSize(request.getActivationBatchSize());
 
         final ActorFuture<Void> future = manager.addSubscription(jobSubscription);
 
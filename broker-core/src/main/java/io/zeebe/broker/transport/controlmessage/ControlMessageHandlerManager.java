@@ -19,39 +19,49 @@ package io.zeebe.broker.transport.controlmessage;
 
 import static io.zeebe.broker.services.DispatcherSubscriptionNames.TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION;
 
-import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.BooleanSupplier;
 
 import io.zeebe.broker.Loggers;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
 import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.dispatcher.FragmentHandler;
 import io.zeebe.dispatcher.Subscription;
 import io.zeebe.protocol.clientapi.ControlMessageRequestDecoder;
 import io.zeebe.protocol.clientapi.ControlMessageType;
-import io.zeebe.protocol.clientapi.ErrorCode;
 import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
-import io.zeebe.protocol.impl.RecordMetadata;
 import io.zeebe.transport.ServerOutput;
-import io.zeebe.transport.ServerResponse;
+import io.zeebe.util.metrics.MetricsManager;
 import io.zeebe.util.sched.Actor;
-import io.zeebe.util.sched.ActorControl;
 import io.zeebe.util.sched.ActorScheduler;
 import io.zeebe.util.sched.future.ActorFuture;
 import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
-import org.agrona.concurrent.UnsafeBuffer;
 import org.slf4j.Logger;
 
+/**
+ * Polls the control messages from the dispatcher and hands them over to
+ * {@link ControlMessageWorker}s. Each message type is assigned to one worker
+ * when its handler is registered (round robin), so that a slow handler does
+ * not delay the messages of the types handled by the other workers.
+ *
+ * <p>A message for a worker whose queue is full is rejected with the
+ * backpressure error code instead of holding back the dispatcher
+ * subscription, so that the other workers still get their messages. The
+ * client sends the message again after a delay.
+ */
 public class ControlMessageHandlerManager extends Actor implements FragmentHandler
 {
     public static final Logger LOG = Loggers.TRANSPORT_LOGGER;
 
     protected static final String NAME = "control.message.handler";
 
+    public static final int DEFAULT_WORKER_COUNT = 4;
+    protected static final int POLL_LIMIT = 64;
+
     protected final ActorScheduler actorScheduler;
     private ControlMessageType lastRequestMessageType;
 
@@ -59,29 +69,50 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
     protected final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     protected final ControlMessageRequestDecoder requestDecoder = new ControlMessageRequestDecoder();
 
-    protected final UnsafeBuffer requestBuffer = new UnsafeBuffer(new byte[1024 * 32]);
-
     protected final Dispatcher controlMessageDispatcher;
+    protected final ErrorResponseWriter errorResponseWriter;
 
-    protected final Int2ObjectHashMap<ControlMessageHandler> handlersByTypeId = new Int2ObjectHashMap<>();
+    protected final ControlMessageWorker[] workers;
+    protected final Int2ObjectHashMap<ControlMessageWorker> workersByTypeId = new Int2ObjectHashMap<>();
+    private int nextWorker = 0;
 
-    protected final ErrorResponseWriter errorResponseWriter;
-    protected final RecordMetadata eventMetada = new RecordMetadata();
-    protected final ServerResponse response = new ServerResponse();
+    protected final EnumMap<ControlMessageType, ControlMessageTypeMetrics> metricsByType = new EnumMap<>(ControlMessageType.class);
 
     public ControlMessageHandlerManager(
             ServerOutput output,
             Dispatcher controlMessageDispatcher,
             ActorScheduler actorScheduler,
             List<ControlMessageHandler> handlers)
+    {
+        this(output, controlMessageDispatcher, actorScheduler, handlers, DEFAULT_WORKER_COUNT);
+    }
+
+    public ControlMessageHandlerManager(
+            ServerOutput output,
+            Dispatcher controlMessageDispatcher,
+            ActorScheduler actorScheduler,
+            List<ControlMessageHandler> handlers,
+            int workerCount)
     {
         this.actorScheduler = actorScheduler;
         this.controlMessageDispatcher = controlMessageDispatcher;
         this.errorResponseWriter = new ErrorResponseWriter(output);
 
+        this.workers = new ControlMessageWorker[workerCount];
+        for (int i = 0; i < workerCount; i++)
+        {
+            workers[i] = new ControlMessageWorker(NAME + ".worker-" + i, output);
+        }
+
+        final MetricsManager metricsManager = actorScheduler.getMetricsManager();
+        for (ControlMessageType messageType : ControlMessageType.values())
+        {
+            metricsByType.put(messageType, new ControlMessageTypeMetrics(metricsManager, messageType));
+        }
+
         for (ControlMessageHandler handler : handlers)
         {
-            addHandler(handler);
+            assignWorker(handler.getMessageType()).addHandler(handler);
         }
     }
 
@@ -94,6 +125,11 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
     @Override
     protected void onActorStarted()
     {
+        for (ControlMessageWorker worker : workers)
+        {
+            actorScheduler.submitActor(worker);
+        }
+
         final ActorFuture<Subscription> subscriptionAsync = controlMessageDispatcher.openSubscriptionAsync(TRANSPORT_CONTROL_MESSAGE_HANDLER_SUBSCRIPTION);
 
         actor.runOnCompletion(subscriptionAsync, (sub, throwable) ->
@@ -102,7 +138,7 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
             {
                 actor.consume(sub, () ->
                 {
-                    if (sub.poll(this, 1) == 0)
+                    if (sub.poll(this, POLL_LIMIT) == 0)
                     {
                         actor.yield();
                     }
@@ -142,12 +178,19 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
     protected void onActorClosed()
     {
         super.onActorClosed();
+
+        metricsByType.values().forEach(ControlMessageTypeMetrics::close);
     }
 
     @Override
     protected void onActorClosing()
     {
         super.onActorClosing();
+
+        for (ControlMessageWorker worker : workers)
+        {
+            worker.closeAsync();
+        }
     }
 
     @Override
@@ -168,15 +211,29 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
         }
     }
 
-    private void addHandler(final ControlMessageHandler handler)
+    private ControlMessageWorker assignWorker(final ControlMessageType messageType)
     {
-        final ControlMessageType messageType = handler.getMessageType();
-        handlersByTypeId.put(messageType.value(), handler);
+        ControlMessageWorker worker = workersByTypeId.get(messageType.value());
+
+        if (worker == null)
+        {
+            worker = workers[nextWorker];
+            nextWorker = (nextWorker + 1) % workers.length;
+
+            workersByTypeId.put(messageType.value(), worker);
+        }
+
+        return worker;
     }
 
     public void registerHandler(final ControlMessageHandler handler)
     {
-        actor.call(() -> addHandler(handler));
+        actor.call(() -> assignWorker(handler.getMessageType()).registerHandler(handler));
+    }
+
+    ControlMessageTypeMetrics getMetrics(ControlMessageType messageType)
+    {
+        return metricsByType.get(messageType);
     }
 
     @Override
@@ -184,15 +241,12 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
     {
         requestHeaderDescriptor.wrap(buffer, offset);
 
-        eventMetada.reset();
-
-        eventMetada
-            .requestId(requestHeaderDescriptor.requestId())
-            .requestStreamId(requestHeaderDescriptor.streamId());
+        final int requestStreamId = requestHeaderDescriptor.streamId();
+        final long requestId = requestHeaderDescriptor.requestId();
 
         offset += ControlMessageRequestHeaderDescriptor.headerLength();
 
-        messageHeaderDecoder.wrap(requestBuffer, 0);
+        messageHeaderDecoder.wrap(buffer, offset);
         offset += messageHeaderDecoder.encodedLength();
 
         requestDecoder.wrap(buffer, offset, requestDecoder.sbeBlockLength(), requestDecoder.sbeSchemaVersion());
@@ -200,61 +254,40 @@ public class ControlMessageHandlerManager extends Actor implements FragmentHandl
         final ControlMessageType messageType = requestDecoder.messageType();
         lastRequestMessageType(messageType);
 
-        final int partitionId = requestDecoder.partitionId();
-
-        ensureBufferCapacity(requestDecoder.dataLength());
-        requestDecoder.getData(requestBuffer, 0, requestDecoder.dataLength());
-
-        final ControlMessageHandler handler = handlersByTypeId.get(messageType.value());
-        if (handler != null)
+        // messages of an unknown type are rejected by the first worker
+        ControlMessageWorker worker = workersByTypeId.get(messageType.value());
+        if (worker == null)
         {
-            handler.handle(actor, partitionId, requestBuffer, eventMetada);
-        }
-        else
-        {
-            sendResponse(actor, () ->
-            {
-                return errorResponseWriter
-                    .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
-                    .errorMessage("Cannot handle control message with type '%s'.", getLastRequestMessageType().name())
-                    .tryWriteResponseOrLogFailure(eventMetada.getRequestStreamId(), eventMetada.getRequestId());
-            });
+            worker = workers[0];
         }
 
-        return FragmentHandler.CONSUME_FRAGMENT_RESULT;
-    }
+        final PendingControlMessage message = worker.claimMessage();
 
-    private void sendResponse(ActorControl actor, BooleanSupplier supplier)
-    {
-        actor.runUntilDone(() ->
+        if (message == null)
         {
-            final boolean success = supplier.getAsBoolean();
+            errorResponseWriter
+                .errorCode(ClientApiMessageHandler.BACKPRESSURE_ERROR_CODE)
+                .errorMessage("Cannot handle control message with type '%s'. Too many messages of this type are pending.", messageType.name())
+                .tryWriteResponseOrLogFailure(requestStreamId, requestId);
 
-            if (success)
-            {
-                actor.done();
-            }
-            else
-            {
-                actor.yield();
-            }
-        });
-    }
+            return FragmentHandler.CONSUME_FRAGMENT_RESULT;
+        }
 
-    protected void ensureBufferCapacity(int length)
-    {
-        byte[] raw = requestBuffer.byteArray();
+        message.messageType = messageType;
+        message.partitionId = requestDecoder.partitionId();
+        message.requestStreamId = requestStreamId;
+        message.requestId = requestId;
 
-        if (length <= raw.length)
-        {
-            Arrays.fill(raw, (byte) 0);
-        }
-        else
-        {
-            raw = new byte[length];
-        }
+        // copy only the used bytes
+        final int dataLength = requestDecoder.dataLength();
+        requestDecoder.getData(message.wrapData(dataLength), 0, dataLength);
 
-        requestBuffer.wrap(raw, 0, length);
+        message.metrics = metricsByType.get(messageType);
+        message.enqueueTimeNanos = System.nanoTime();
+
+        worker.submit(message);
+
+        return FragmentHandler.CONSUME_FRAGMENT_RESULT;
     }
 
     public void lastRequestMessageType(ControlMessageType messageType)
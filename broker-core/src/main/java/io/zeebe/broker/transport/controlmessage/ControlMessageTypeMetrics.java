@@ -0,0 +1,97 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
+
+/**
+ * Queue depth and handling latency of one {@link ControlMessageType}. The
+ * queue depth is updated by the manager and the worker, the latency only by
+ * the worker which handles the type.
+ */
+class ControlMessageTypeMetrics
+{
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    private final Metric queueDepthMetric;
+    private final Metric latencyMetric;
+    private final Metric requestsMetric;
+
+    // exponentially weighted moving average
+    private long averageLatencyMicros = 0;
+
+    ControlMessageTypeMetrics(MetricsManager metricsManager, ControlMessageType messageType)
+    {
+        final String type = messageType.name();
+
+        queueDepthMetric = metricsManager.newMetric("control_message_queue_depth")
+            .type("gauge")
+            .label("type", type)
+            .create();
+
+        latencyMetric = metricsManager.newMetric("control_message_handling_latency_micros")
+            .type("gauge")
+            .label("type", type)
+            .create();
+
+        requestsMetric = metricsManager.newMetric("control_message_requests_count")
+            .type("counter")
+            .label("type", type)
+            .create();
+    }
+
+    void onEnqueued()
+    {
+        queueDepthMetric.setOrdered(queueDepth.incrementAndGet());
+    }
+
+    /**
+     * @param latencyNanos the time from polling the message until its handler returned
+     */
+    void onHandled(long latencyNanos)
+    {
+        queueDepthMetric.setOrdered(queueDepth.decrementAndGet());
+        requestsMetric.incrementOrdered();
+
+        final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        averageLatencyMicros += (latencyMicros - averageLatencyMicros) >> 3;
+        latencyMetric.setOrdered(averageLatencyMicros);
+    }
+
+    int getQueueDepth()
+    {
+        return queueDepth.get();
+    }
+
+    long getAverageLatencyMicros()
+    {
+        return averageLatencyMicros;
+    }
+
+    void close()
+    {
+        queueDepthMetric.close();
+        latencyMetric.close();
+        requestsMetric.close();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import io.zeebe.broker.transport.clientapi.ErrorResponseWriter;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorCode;
+import io.zeebe.protocol.impl.RecordMetadata;
+import io.zeebe.transport.ServerOutput;
+import io.zeebe.util.sched.Actor;
+import io.zeebe.util.sched.future.ActorFuture;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
+
+/**
+ * Handles the control messages of the types which are assigned to it. A
+ * handler is only invoked by the worker it is registered on, so it does not
+ * need to be thread-safe.
+ *
+ * <p>Messages are handed over by the {@link ControlMessageHandlerManager}
+ * through a bounded queue. Each message is handled in its own actor job, so
+ * that the response jobs of a handler run before the next message is handled.
+ * The message objects are pooled and returned to the manager after they are
+ * handled; a handler which responds asynchronously must copy the request.
+ */
+public class ControlMessageWorker extends Actor
+{
+    public static final int QUEUE_CAPACITY = 128;
+
+    private final String name;
+
+    private final OneToOneConcurrentArrayQueue<PendingControlMessage> pendingMessages = new OneToOneConcurrentArrayQueue<>(QUEUE_CAPACITY);
+    private final OneToOneConcurrentArrayQueue<PendingControlMessage> freeMessages = new OneToOneConcurrentArrayQueue<>(QUEUE_CAPACITY);
+
+    private final Runnable nextMessageHandler = this::handleNextMessage;
+
+    private final Int2ObjectHashMap<ControlMessageHandler> handlersByTypeId = new Int2ObjectHashMap<>();
+
+    private final RecordMetadata metadata = new RecordMetadata();
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public ControlMessageWorker(String name, ServerOutput output)
+    {
+        this.name = name;
+        this.errorResponseWriter = new ErrorResponseWriter(output);
+
+        for (int i = 0; i < QUEUE_CAPACITY; i++)
+        {
+            freeMessages.offer(new PendingControlMessage());
+        }
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    public ActorFuture<Void> closeAsync()
+    {
+        return actor.close();
+    }
+
+    /**
+     * Must be called before the worker is started or from within the worker.
+     */
+    void addHandler(ControlMessageHandler handler)
+    {
+        final ControlMessageType messageType = handler.getMessageType();
+        handlersByTypeId.put(messageType.value(), handler);
+    }
+
+    void registerHandler(ControlMessageHandler handler)
+    {
+        actor.call(() -> addHandler(handler));
+    }
+
+    /**
+     * Must only be called by the manager. Returns null if the worker is saturated.
+     */
+    PendingControlMessage claimMessage()
+    {
+        return freeMessages.poll();
+    }
+
+    /**
+     * Must only be called by the manager with a message which is claimed from this worker.
+     */
+    void submit(PendingControlMessage message)
+    {
+        message.metrics.onEnqueued();
+
+        pendingMessages.offer(message);
+
+        actor.call(nextMessageHandler);
+    }
+
+    private void handleNextMessage()
+    {
+        final PendingControlMessage message = pendingMessages.poll();
+
+        try
+        {
+            handleMessage(message);
+        }
+        finally
+        {
+            freeMessages.offer(message);
+        }
+    }
+
+    private void handleMessage(PendingControlMessage message)
+    {
+        metadata.reset();
+        metadata
+            .requestId(message.requestId)
+            .requestStreamId(message.requestStreamId);
+
+        final ControlMessageType messageType = message.messageType;
+        final ControlMessageHandler handler = handlersByTypeId.get(messageType.value());
+
+        if (handler != null)
+        {
+            handler.handle(actor, message.partitionId, message.getData(), metadata);
+        }
+        else
+        {
+            final int requestStreamId = message.requestStreamId;
+            final long requestId = message.requestId;
+
+            actor.runUntilDone(() ->
+            {
+                final boolean success = errorResponseWriter
+                    .errorCode(ErrorCode.MESSAGE_NOT_SUPPORTED)
+                    .errorMessage("Cannot handle control message with type '%s'.", messageType.name())
+                    .tryWriteResponseOrLogFailure(requestStreamId, requestId);
+
+                if (success)
+                {
+                    actor.done();
+                }
+                else
+                {
+                    actor.yield();
+                }
+            });
+        }
+
+        message.metrics.onHandled(System.nanoTime() - message.enqueueTimeNanos);
+    }
+}
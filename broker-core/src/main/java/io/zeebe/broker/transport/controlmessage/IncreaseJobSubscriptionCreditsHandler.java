@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.transport.controlmessage;
 
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
 import io.zeebe.broker.job.CreditsRequest;
 import io.zeebe.broker.job.JobSubscriptionManager;
 import io.zeebe.broker.job.processor.JobSubscriptionRequest;
@@ -29,7 +31,6 @@ import org.agrona.DirectBuffer;
 public class IncreaseJobSubscriptionCreditsHandler extends AbstractControlMessageHandler
 {
 
-    protected final JobSubscriptionRequest subscription = new JobSubscriptionRequest();
     protected final CreditsRequest creditsRequest = new CreditsRequest();
 
     protected final JobSubscriptionManager manager;
@@ -51,8 +52,8 @@ public class IncreaseJobSubscriptionCreditsHandler extends AbstractControlMessag
     {
         final long requestId = eventMetadata.getRequestId();
         final int requestStreamId = eventMetadata.getRequestStreamId();
-        subscription.reset();
-        subscription.wrap(buffer);
+        final JobSubscriptionRequest subscription = new JobSubscriptionRequest();
+        subscription.wrap(cloneBuffer(buffer));
 
         if (subscription.getCredits() <= 0)
         {
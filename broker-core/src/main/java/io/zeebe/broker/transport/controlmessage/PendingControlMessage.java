@@ -0,0 +1,61 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * A control message which is copied from the dispatcher and waits to be
+ * handled by a {@link ControlMessageWorker}. Instances are pooled per worker.
+ */
+class PendingControlMessage
+{
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final UnsafeBuffer data = new UnsafeBuffer(new byte[INITIAL_CAPACITY]);
+
+    ControlMessageType messageType;
+    int partitionId;
+    int requestStreamId;
+    long requestId;
+    long enqueueTimeNanos;
+    ControlMessageTypeMetrics metrics;
+
+    /**
+     * @return a buffer which can hold the given number of bytes and is wrapped to exactly this length
+     */
+    UnsafeBuffer wrapData(int length)
+    {
+        byte[] raw = data.byteArray();
+
+        if (length > raw.length)
+        {
+            raw = new byte[Math.max(length, raw.length << 1)];
+        }
+
+        data.wrap(raw, 0, length);
+        return data;
+    }
+
+    DirectBuffer getData()
+    {
+        return data;
+    }
+}
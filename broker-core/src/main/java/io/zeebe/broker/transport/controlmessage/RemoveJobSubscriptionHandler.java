@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.transport.controlmessage;
 
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+
 import io.zeebe.broker.job.JobSubscriptionManager;
 import io.zeebe.broker.job.processor.JobSubscriptionRequest;
 import io.zeebe.protocol.clientapi.ControlMessageType;
@@ -28,8 +30,6 @@ import org.agrona.DirectBuffer;
 
 public class RemoveJobSubscriptionHandler extends AbstractControlMessageHandler
 {
-    protected final JobSubscriptionRequest subscription = new JobSubscriptionRequest();
-
     protected final JobSubscriptionManager manager;
 
     public RemoveJobSubscriptionHandler(final ServerOutput output, final JobSubscriptionManager manager)
@@ -50,8 +50,8 @@ public class RemoveJobSubscriptionHandler extends AbstractControlMessageHandler
         final int requestStreamId = eventMetadata.getRequestStreamId();
         final long requestId = eventMetadata.getRequestId();
 
-        subscription.reset();
-        subscription.wrap(buffer);
+        final JobSubscriptionRequest subscription = new JobSubscriptionRequest();
+        subscription.wrap(cloneBuffer(buffer));
 
         final long subscriberKey = subscription.getSubscriberKey();
         final ActorFuture<Void> future = manager.removeSubscription(subscriberKey);
@@ -34,7 +34,7 @@ public class WorkflowComponent implements Component
     {
         final ServiceContainer serviceContainer = context.getServiceContainer();
 
-        final WorkflowStreamProcessingManagerService workflowQueueManagerService = new WorkflowStreamProcessingManagerService();
+        final WorkflowStreamProcessingManagerService workflowQueueManagerService = new WorkflowStreamProcessingManagerService(context.getBrokerConfiguration().getData());
         serviceContainer.createService(WORKFLOW_QUEUE_MANAGER, workflowQueueManagerService)
             .dependency(serverTransport(CLIENT_API_SERVER_NAME), workflowQueueManagerService.getClientApiTransportInjector())
             .dependency(TOPOLOGY_MANAGER_SERVICE, workflowQueueManagerService.getTopologyManagerInjector())
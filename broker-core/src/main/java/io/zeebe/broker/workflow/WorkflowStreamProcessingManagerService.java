@@ -25,6 +25,7 @@ import io.zeebe.broker.clustering.base.topology.TopologyManager;
 import io.zeebe.broker.incident.processor.IncidentStreamProcessor;
 import io.zeebe.broker.logstreams.processor.StreamProcessorServiceFactory;
 import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.system.configuration.DataCfg;
 import io.zeebe.broker.workflow.processor.WorkflowInstanceStreamProcessor;
 import io.zeebe.servicecontainer.Injector;
 import io.zeebe.servicecontainer.Service;
@@ -33,14 +34,13 @@ import io.zeebe.servicecontainer.ServiceName;
 import io.zeebe.servicecontainer.ServiceStartContext;
 import io.zeebe.transport.ClientTransport;
 import io.zeebe.transport.ServerTransport;
+import io.zeebe.util.ByteValue;
 
 /**
  * Tracks leader partitions and installs the workflow instance stream processors
  */
 public class WorkflowStreamProcessingManagerService implements Service<WorkflowStreamProcessingManagerService>
 {
-    public static final int PAYLOAD_CACHE_SIZE = 64;
-
     protected static final String NAME = "workflow.queue.manager";
 
     private final Injector<ServerTransport> clientApiTransportInjector = new Injector<>();
@@ -58,6 +58,15 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
     private ServerTransport transport;
     private TopologyManager topologyManager;
 
+    private final int payloadCacheMemorySize;
+    private final long payloadCacheMaxSpillSize;
+
+    public WorkflowStreamProcessingManagerService(DataCfg dataCfg)
+    {
+        this.payloadCacheMemorySize = (int) new ByteValue(dataCfg.getPayloadCacheMemorySize()).toBytes();
+        this.payloadCacheMaxSpillSize = new ByteValue(dataCfg.getPayloadCacheMaxSpillSize()).toBytes();
+    }
+
     public void startStreamProcessors(ServiceName<Partition> partitionServiceName, Partition partition)
     {
         installWorkflowStreamProcessor(partition, partitionServiceName);
@@ -71,7 +80,9 @@ public class WorkflowStreamProcessingManagerService implements Service<WorkflowS
         final WorkflowInstanceStreamProcessor streamProcessor = new WorkflowInstanceStreamProcessor(
             managementApiClientInjector.getValue(),
             topologyManager,
-            PAYLOAD_CACHE_SIZE);
+            payloadCacheMemorySize,
+            payloadCacheMaxSpillSize,
+            partition.getDataDirectory().toPath());
         final TypedStreamEnvironment env = new TypedStreamEnvironment(partition.getLogStream(), transport.getOutput());
 
         streamProcessorServiceFactory.createService(partition, partitionServiceName)
@@ -23,6 +23,8 @@ public class DeployedWorkflow
 {
     private final Workflow workflow;
 
+    private final ExecutionPlan executionPlan;
+
     private final long key;
 
     private final int version;
@@ -32,6 +34,7 @@ public class DeployedWorkflow
     public DeployedWorkflow(Workflow workflow, long key, int version, long fetched)
     {
         this.workflow = workflow;
+        this.executionPlan = ExecutionPlan.compile(workflow);
         this.key = key;
         this.version = version;
         this.fetched = fetched;
@@ -42,6 +45,11 @@ public class DeployedWorkflow
         return workflow;
     }
 
+    public ExecutionPlan getExecutionPlan()
+    {
+        return executionPlan;
+    }
+
     public int getVersion()
     {
         return version;
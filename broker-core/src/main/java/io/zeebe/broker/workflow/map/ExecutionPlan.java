@@ -0,0 +1,435 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static io.zeebe.util.buffer.BufferUtil.cloneBuffer;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.model.bpmn.BpmnAspect;
+import io.zeebe.model.bpmn.instance.EndEvent;
+import io.zeebe.model.bpmn.instance.ExclusiveGateway;
+import io.zeebe.model.bpmn.instance.FlowElement;
+import io.zeebe.model.bpmn.instance.FlowNode;
+import io.zeebe.model.bpmn.instance.SequenceFlow;
+import io.zeebe.model.bpmn.instance.ServiceTask;
+import io.zeebe.model.bpmn.instance.Workflow;
+import io.zeebe.msgpack.el.CompiledJsonCondition;
+import io.zeebe.msgpack.mapping.Mapping;
+import io.zeebe.protocol.intent.WorkflowInstanceIntent;
+
+/**
+ * Flat representation of a workflow which is used to execute its instances.
+ * Every flow element which is reachable from the start event gets an index,
+ * the relations between the elements (outgoing flows, targets, conditions,
+ * mappings) are stored in arrays of that index.
+ *
+ * <p>
+ * The plan is compiled once when the workflow is added to the cache, so that
+ * processing a workflow instance event only has to resolve the id of the
+ * current element.
+ */
+public class ExecutionPlan
+{
+    public static final int NO_ELEMENT = -1;
+
+    private static final int[] NO_FLOWS = new int[0];
+    private static final Mapping[] NO_MAPPINGS = new Mapping[0];
+
+    private final Map<DirectBuffer, Integer> indexById;
+
+    private final FlowElement[] elements;
+    private final DirectBuffer[] ids;
+    private final BpmnAspect[] aspects;
+
+    // flow nodes
+    private final int[] outgoingFlow;
+    private final int[][] conditionalFlows;
+    private final int[] defaultFlow;
+    private final DirectBuffer[][] conditionProperties;
+    private final Mapping[][] inputMappings;
+    private final Mapping[][] outputMappings;
+
+    // sequence flows
+    private final int[] target;
+    private final WorkflowInstanceIntent[] targetIntent;
+    private final CompiledJsonCondition[] conditions;
+
+    private ExecutionPlan(List<FlowElement> elements)
+    {
+        final int size = elements.size();
+
+        this.indexById = new HashMap<>(size * 2);
+        this.elements = elements.toArray(new FlowElement[size]);
+        this.ids = new DirectBuffer[size];
+        this.aspects = new BpmnAspect[size];
+
+        this.outgoingFlow = new int[size];
+        this.conditionalFlows = new int[size][];
+        this.defaultFlow = new int[size];
+        this.conditionProperties = new DirectBuffer[size][];
+        this.inputMappings = new Mapping[size][];
+        this.outputMappings = new Mapping[size][];
+
+        this.target = new int[size];
+        this.targetIntent = new WorkflowInstanceIntent[size];
+        this.conditions = new CompiledJsonCondition[size];
+
+        Arrays.fill(outgoingFlow, NO_ELEMENT);
+        Arrays.fill(conditionalFlows, NO_FLOWS);
+        Arrays.fill(defaultFlow, NO_ELEMENT);
+        Arrays.fill(inputMappings, NO_MAPPINGS);
+        Arrays.fill(outputMappings, NO_MAPPINGS);
+        Arrays.fill(target, NO_ELEMENT);
+
+        for (int i = 0; i < size; i++)
+        {
+            final DirectBuffer id = cloneBuffer(this.elements[i].getIdAsBuffer());
+            ids[i] = id;
+            indexById.put(id, i);
+        }
+    }
+
+    public static ExecutionPlan compile(Workflow workflow)
+    {
+        final List<FlowElement> elements = new ArrayList<>();
+        final Deque<FlowNode> pendingNodes = new ArrayDeque<>();
+        final Set<FlowNode> visited = new HashSet<>();
+
+        final FlowNode startEvent = workflow.getInitialStartEvent();
+        pendingNodes.add(startEvent);
+        visited.add(startEvent);
+
+        // breadth first, so that the start event has the index 0
+        while (!pendingNodes.isEmpty())
+        {
+            final FlowNode node = pendingNodes.poll();
+            elements.add(node);
+
+            final List<SequenceFlow> flows = node.getOutgoingSequenceFlows();
+            for (int i = 0; i < flows.size(); i++)
+            {
+                final SequenceFlow flow = flows.get(i);
+                elements.add(flow);
+
+                final FlowNode targetNode = flow.getTargetNode();
+                if (visited.add(targetNode))
+                {
+                    pendingNodes.add(targetNode);
+                }
+            }
+        }
+
+        final ExecutionPlan plan = new ExecutionPlan(elements);
+
+        for (int i = 0; i < plan.elements.length; i++)
+        {
+            plan.link(i);
+        }
+
+        return plan;
+    }
+
+    private void link(int index)
+    {
+        final FlowElement element = elements[index];
+
+        aspects[index] = element.getBpmnAspect();
+
+        if (element instanceof SequenceFlow)
+        {
+            final SequenceFlow flow = (SequenceFlow) element;
+            final FlowNode targetNode = flow.getTargetNode();
+
+            target[index] = indexOf(targetNode.getIdAsBuffer());
+            targetIntent[index] = intentOf(targetNode);
+            conditions[index] = flow.getCondition();
+        }
+        else
+        {
+            final FlowNode node = (FlowNode) element;
+
+            final List<SequenceFlow> flows = node.getOutgoingSequenceFlows();
+            if (!flows.isEmpty())
+            {
+                outgoingFlow[index] = indexOf(flows.get(0).getIdAsBuffer());
+            }
+
+            if (node instanceof ExclusiveGateway)
+            {
+                final ExclusiveGateway gateway = (ExclusiveGateway) node;
+
+                final List<SequenceFlow> flowsWithConditions = gateway.getOutgoingSequenceFlowsWithConditions();
+
+                conditionalFlows[index] = indicesOf(flowsWithConditions);
+                conditionProperties[index] = collectConditionProperties(flowsWithConditions);
+
+                final SequenceFlow gatewayDefaultFlow = gateway.getDefaultFlow();
+                if (gatewayDefaultFlow != null)
+                {
+                    defaultFlow[index] = indexOf(gatewayDefaultFlow.getIdAsBuffer());
+                }
+            }
+            else if (node instanceof ServiceTask)
+            {
+                final ServiceTask serviceTask = (ServiceTask) node;
+
+                inputMappings[index] = serviceTask.getInputOutputMapping().getInputMappings();
+                outputMappings[index] = serviceTask.getInputOutputMapping().getOutputMappings();
+            }
+        }
+    }
+
+    private int[] indicesOf(List<SequenceFlow> flows)
+    {
+        final int[] indices = new int[flows.size()];
+        for (int i = 0; i < indices.length; i++)
+        {
+            indices[i] = indexOf(flows.get(i).getIdAsBuffer());
+        }
+        return indices;
+    }
+
+    /**
+     * @return the names of the top-level payload properties which are used in
+     *         the conditions, or <code>null</code> if a condition contains a
+     *         JSON path which doesn't start with a property name
+     */
+    private static DirectBuffer[] collectConditionProperties(List<SequenceFlow> flows)
+    {
+        final List<String> properties = new ArrayList<>();
+
+        for (int i = 0; i < flows.size(); i++)
+        {
+            final String expression = flows.get(i).getCondition().getExpression();
+
+            if (expression == null || !collectConditionProperties(expression, properties))
+            {
+                return null;
+            }
+        }
+
+        final DirectBuffer[] buffers = new DirectBuffer[properties.size()];
+        for (int i = 0; i < buffers.length; i++)
+        {
+            buffers[i] = wrapString(properties.get(i));
+        }
+        return buffers;
+    }
+
+    private static boolean collectConditionProperties(String expression, List<String> properties)
+    {
+        final int length = expression.length();
+        int i = 0;
+
+        while (i < length)
+        {
+            final char c = expression.charAt(i);
+
+            if (c == '"' || c == '\'')
+            {
+                // skip string literal
+                final int end = expression.indexOf(c, i + 1);
+                if (end < 0)
+                {
+                    return false;
+                }
+                i = end + 1;
+            }
+            else if (c == '$')
+            {
+                if (i + 1 >= length || expression.charAt(i + 1) != '.')
+                {
+                    // e.g. '$' or '$[0]'
+                    return false;
+                }
+
+                final int start = i + 2;
+                int end = start;
+                while (end < length && isPropertyNameChar(expression.charAt(end)))
+                {
+                    end++;
+                }
+
+                if (end == start || (end < length && !isPropertyNameEnd(expression.charAt(end))))
+                {
+                    // e.g. '$..foo', '$.*' or a property name with special characters
+                    return false;
+                }
+
+                final String property = expression.substring(start, end);
+                if (!properties.contains(property))
+                {
+                    properties.add(property);
+                }
+                i = end;
+            }
+            else
+            {
+                i++;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isPropertyNameChar(char c)
+    {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static boolean isPropertyNameEnd(char c)
+    {
+        return Character.isWhitespace(c) || c == '.' || c == '[' || c == ')'
+            || c == '=' || c == '!' || c == '<' || c == '>' || c == '&' || c == '|';
+    }
+
+    private static WorkflowInstanceIntent intentOf(FlowNode node)
+    {
+        if (node instanceof EndEvent)
+        {
+            return WorkflowInstanceIntent.END_EVENT_OCCURRED;
+        }
+        else if (node instanceof ServiceTask)
+        {
+            return WorkflowInstanceIntent.ACTIVITY_READY;
+        }
+        else if (node instanceof ExclusiveGateway)
+        {
+            return WorkflowInstanceIntent.GATEWAY_ACTIVATED;
+        }
+        else
+        {
+            // fails when the flow is taken
+            return null;
+        }
+    }
+
+    /**
+     * @return the index of the element with the given id, or {@link #NO_ELEMENT}
+     */
+    public int indexOf(DirectBuffer id)
+    {
+        final Integer index = indexById.get(id);
+        return index != null ? index : NO_ELEMENT;
+    }
+
+    public int size()
+    {
+        return elements.length;
+    }
+
+    public int getStartEvent()
+    {
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends FlowElement> T getElement(int index)
+    {
+        return (T) elements[index];
+    }
+
+    public DirectBuffer getId(int index)
+    {
+        return ids[index];
+    }
+
+    public BpmnAspect getAspect(int index)
+    {
+        return aspects[index];
+    }
+
+    /**
+     * @return the first outgoing sequence flow of the flow node, or {@link #NO_ELEMENT}
+     */
+    public int getOutgoingFlow(int index)
+    {
+        return outgoingFlow[index];
+    }
+
+    /**
+     * @return the outgoing sequence flows of the gateway which have a
+     *         condition, in the order in which they are evaluated
+     */
+    public int[] getConditionalFlows(int index)
+    {
+        return conditionalFlows[index];
+    }
+
+    /**
+     * @return the default flow of the gateway, or {@link #NO_ELEMENT}
+     */
+    public int getDefaultFlow(int index)
+    {
+        return defaultFlow[index];
+    }
+
+    /**
+     * @return the names of the top-level payload properties which are used in
+     *         the conditions of the gateway, or <code>null</code> if the
+     *         conditions may access any part of the payload
+     */
+    public DirectBuffer[] getConditionProperties(int index)
+    {
+        return conditionProperties[index];
+    }
+
+    public Mapping[] getInputMappings(int index)
+    {
+        return inputMappings[index];
+    }
+
+    public Mapping[] getOutputMappings(int index)
+    {
+        return outputMappings[index];
+    }
+
+    /**
+     * @return the target flow node of the sequence flow
+     */
+    public int getTarget(int index)
+    {
+        return target[index];
+    }
+
+    /**
+     * @return the intent of the event which is written when the sequence flow
+     *         is taken, or <code>null</code> if the target is not supported
+     */
+    public WorkflowInstanceIntent getTargetIntent(int index)
+    {
+        return targetIntent[index];
+    }
+
+    public CompiledJsonCondition getCondition(int index)
+    {
+        return conditions[index];
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.logstreams.spi.ComposableSnapshotSupport;
+
+/**
+ * The workflows which were fetched from the system topic, as they were
+ * received (key, version, BPMN process id and BPMN XML).
+ *
+ * <p>
+ * They are part of the snapshot of the partition, so that the
+ * {@link WorkflowCache} can be filled after a restart or a leader change
+ * without fetching every workflow again. A deployed workflow never changes,
+ * so it doesn't matter at which position it was fetched.
+ */
+public class FetchedWorkflows implements ComposableSnapshotSupport
+{
+    private final Long2ObjectHashMap<FetchedWorkflow> workflowsByKey = new Long2ObjectHashMap<>();
+
+    private boolean hasRecoveredWorkflows = false;
+
+    public void add(long key, int version, DirectBuffer bpmnProcessId, DirectBuffer bpmnXml)
+    {
+        if (!workflowsByKey.containsKey(key))
+        {
+            workflowsByKey.put(key, new FetchedWorkflow(key, version, toBytes(bpmnProcessId), toBytes(bpmnXml)));
+        }
+    }
+
+    public FetchedWorkflow get(long key)
+    {
+        return workflowsByKey.get(key);
+    }
+
+    public int size()
+    {
+        return workflowsByKey.size();
+    }
+
+    public void forEach(Consumer<FetchedWorkflow> consumer)
+    {
+        workflowsByKey.values().forEach(consumer);
+    }
+
+    /**
+     * @return true, if workflows were recovered from a snapshot since the
+     *         last call
+     */
+    public boolean pollRecoveredWorkflows()
+    {
+        final boolean recovered = hasRecoveredWorkflows;
+        hasRecoveredWorkflows = false;
+        return recovered;
+    }
+
+    private static byte[] toBytes(DirectBuffer buffer)
+    {
+        final byte[] bytes = new byte[buffer.capacity()];
+        buffer.getBytes(0, bytes);
+        return bytes;
+    }
+
+    @Override
+    public long writeSnapshot(OutputStream outputStream) throws Exception
+    {
+        final DataOutputStream out = new DataOutputStream(outputStream);
+
+        out.writeInt(workflowsByKey.size());
+
+        for (FetchedWorkflow workflow : workflowsByKey.values())
+        {
+            out.writeLong(workflow.key);
+            out.writeInt(workflow.version);
+
+            out.writeInt(workflow.bpmnProcessId.length);
+            out.write(workflow.bpmnProcessId);
+
+            out.writeInt(workflow.bpmnXml.length);
+            out.write(workflow.bpmnXml);
+        }
+
+        out.flush();
+
+        return snapshotSize();
+    }
+
+    @Override
+    public void recoverFromSnapshot(InputStream inputStream) throws Exception
+    {
+        reset();
+
+        final DataInputStream in = new DataInputStream(inputStream);
+        final int count = in.readInt();
+
+        for (int i = 0; i < count; i++)
+        {
+            final long key = in.readLong();
+            final int version = in.readInt();
+
+            final byte[] bpmnProcessId = new byte[in.readInt()];
+            in.readFully(bpmnProcessId);
+
+            final byte[] bpmnXml = new byte[in.readInt()];
+            in.readFully(bpmnXml);
+
+            workflowsByKey.put(key, new FetchedWorkflow(key, version, bpmnProcessId, bpmnXml));
+        }
+
+        hasRecoveredWorkflows = count > 0;
+    }
+
+    @Override
+    public void reset()
+    {
+        workflowsByKey.clear();
+        hasRecoveredWorkflows = false;
+    }
+
+    @Override
+    public long snapshotSize()
+    {
+        long size = SIZE_OF_INT;
+
+        for (FetchedWorkflow workflow : workflowsByKey.values())
+        {
+            size += SIZE_OF_LONG + SIZE_OF_INT
+                + SIZE_OF_INT + workflow.bpmnProcessId.length
+                + SIZE_OF_INT + workflow.bpmnXml.length;
+        }
+
+        return size;
+    }
+
+    public static class FetchedWorkflow
+    {
+        private final long key;
+        private final int version;
+        private final byte[] bpmnProcessId;
+        private final byte[] bpmnXml;
+
+        FetchedWorkflow(long key, int version, byte[] bpmnProcessId, byte[] bpmnXml)
+        {
+            this.key = key;
+            this.version = version;
+            this.bpmnProcessId = bpmnProcessId;
+            this.bpmnXml = bpmnXml;
+        }
+
+        public long getKey()
+        {
+            return key;
+        }
+
+        public int getVersion()
+        {
+            return version;
+        }
+
+        public DirectBuffer getBpmnProcessId()
+        {
+            return new UnsafeBuffer(bpmnProcessId);
+        }
+
+        public DirectBuffer getBpmnXml()
+        {
+            return new UnsafeBuffer(bpmnXml);
+        }
+    }
+}
@@ -17,6 +17,8 @@
  */
 package io.zeebe.broker.workflow.map;
 
+import java.nio.file.Path;
+
 import org.agrona.DirectBuffer;
 
 import io.zeebe.broker.logstreams.processor.StreamProcessorLifecycleAware;
@@ -24,40 +26,76 @@ import io.zeebe.broker.logstreams.processor.TypedRecord;
 import io.zeebe.broker.logstreams.processor.TypedStreamProcessor;
 import io.zeebe.broker.logstreams.processor.TypedStreamReader;
 import io.zeebe.broker.workflow.data.WorkflowInstanceRecord;
+import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.map.Long2LongZbMap;
-import io.zeebe.util.cache.ExpandableBufferCache;
+import io.zeebe.util.metrics.Metric;
+import io.zeebe.util.metrics.MetricsManager;
 
 /**
- * Cache of workflow instance payload. It contains an LRU cache of the payload
- * and an map which holds the position of the payload events.
+ * Cache of workflow instance payload. It contains a bounded {@link PayloadStore}
+ * (off-heap memory and a segment file) of the payload and a map which holds the
+ * position of the payload events.
+ *
+ * <p>
+ * When a payload is requested then it is returned from the store. If it is
+ * not present in the store (e.g. after recovery or if the segment file is full)
+ * then the payload event is seek in the log stream.
  *
  * <p>
- * When a payload is requested then the it is returned from the cache. If it is
- * not present in the cache then the payload event is seek in the log stream.
+ * Only the positions are part of the snapshot. The store is rebuilt lazily, so
+ * the size of the snapshot doesn't depend on the size of the payloads.
  */
 public class PayloadCache implements AutoCloseable, StreamProcessorLifecycleAware
 {
     private final Long2LongZbMap map;
 
-    private final ExpandableBufferCache cache;
+    private final PayloadStore store;
     private TypedStreamReader logStreamReader;
 
-    public PayloadCache(int cacheSize)
+    private Metric memoryHits;
+    private Metric spillHits;
+    private Metric misses;
+
+    public PayloadCache(int memoryCapacity, long maxSpillSize, Path spillDirectory)
     {
         this.map = new Long2LongZbMap();
-        this.cache = new ExpandableBufferCache(cacheSize, 1024, this::lookupPayload);
+        this.store = new PayloadStore(memoryCapacity, maxSpillSize, spillDirectory);
     }
 
     @Override
     public void onOpen(TypedStreamProcessor streamProcessor)
     {
         this.logStreamReader = streamProcessor.getEnvironment().buildStreamReader();
+
+        final MetricsManager metricsManager = streamProcessor.getStreamProcessorContext().getActorScheduler().getMetricsManager();
+        final LogStream logStream = streamProcessor.getEnvironment().getStream();
+        final String topicName = logStream.getTopicName().getStringWithoutLengthUtf8(0, logStream.getTopicName().capacity());
+        final String partitionId = Integer.toString(logStream.getPartitionId());
+
+        memoryHits = newRequestMetric(metricsManager, topicName, partitionId, "hit");
+        spillHits = newRequestMetric(metricsManager, topicName, partitionId, "spill-hit");
+        misses = newRequestMetric(metricsManager, topicName, partitionId, "miss");
+    }
+
+    private static Metric newRequestMetric(MetricsManager metricsManager, String topicName, String partitionId, String type)
+    {
+        return metricsManager.newMetric("workflow_payload_cache_requests_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", type)
+            .create();
     }
 
     @Override
     public void onClose()
     {
         this.logStreamReader.close();
+        this.store.clear();
+
+        memoryHits.close();
+        spillHits.close();
+        misses.close();
     }
 
     private DirectBuffer lookupPayload(long position)
@@ -66,6 +104,10 @@ public class PayloadCache implements AutoCloseable, StreamProcessorLifecycleAwar
         return record.getValue().getPayload();
     }
 
+    /**
+     * @return the payload of the workflow instance; the buffer is valid until
+     *         the cache is modified or accessed again
+     */
     public DirectBuffer getPayload(long workflowInstanceKey)
     {
         DirectBuffer payload = null;
@@ -74,7 +116,30 @@ public class PayloadCache implements AutoCloseable, StreamProcessorLifecycleAwar
 
         if (position > 0)
         {
-            payload = cache.get(position);
+            final boolean isInMemory = store.isInMemory(workflowInstanceKey);
+
+            payload = store.get(workflowInstanceKey);
+
+            if (payload != null)
+            {
+                final Metric hits = isInMemory ? memoryHits : spillHits;
+                hits.incrementOrdered();
+            }
+            else
+            {
+                misses.incrementOrdered();
+
+                final DirectBuffer loggedPayload = lookupPayload(position);
+
+                store.put(workflowInstanceKey, loggedPayload);
+                payload = store.get(workflowInstanceKey);
+
+                if (payload == null)
+                {
+                    // not even the segment file has space left
+                    payload = loggedPayload;
+                }
+            }
         }
         return payload == null ? WorkflowInstanceRecord.NO_PAYLOAD : payload;
     }
@@ -82,12 +147,13 @@ public class PayloadCache implements AutoCloseable, StreamProcessorLifecycleAwar
     public void addPayload(long workflowInstanceKey, long payloadEventPosition, DirectBuffer payload)
     {
         map.put(workflowInstanceKey, payloadEventPosition);
-        cache.put(payloadEventPosition, payload);
+        store.put(workflowInstanceKey, payload);
     }
 
     public void remove(long workflowInstanceKey)
     {
         map.remove(workflowInstanceKey, -1L);
+        store.remove(workflowInstanceKey);
     }
 
     public Long2LongZbMap getMap()
@@ -99,6 +165,7 @@ public class PayloadCache implements AutoCloseable, StreamProcessorLifecycleAwar
     public void close()
     {
         map.close();
+        store.close();
     }
 
 }
@@ -0,0 +1,519 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.UnsafeBuffer;
+
+/**
+ * Bounded store of payloads by workflow instance key.
+ *
+ * <p>The payloads are kept in an off-heap ring buffer. When the ring buffer is
+ * full, the least recently written or read payloads are evicted at its tail
+ * and spilled to a segment file. A payload which is read from the segment file
+ * or from the tail half of the ring buffer is written again at its head, so
+ * that frequently read payloads stay in memory.
+ *
+ * <p>The segment file is created in the given directory (i.e. the folder of the
+ * partition) and deleted when the store is closed. The segment files which are
+ * left over by a previous run are deleted when the store is created.
+ *
+ * <p>The segment file is compacted when it exceeds its max size. If the live
+ * payloads still don't fit, further evicted payloads are dropped; the caller
+ * has to find them elsewhere (i.e. in the log).
+ *
+ * <p>Entry layout in both the ring buffer and the segment file:
+ *
+ * <pre>
+ * +----------------------------+
+ * | length (int)               |
+ * +----------------------------+
+ * | workflow instance key      |
+ * +----------------------------+
+ * | payload                    |
+ * +----------------------------+
+ * </pre>
+ *
+ * A length of {@link #PADDING} in the ring buffer marks the unused end of the
+ * buffer before it wraps around. An end which is shorter than the header is
+ * always unused.
+ */
+public class PayloadStore implements AutoCloseable
+{
+    private static final int PADDING = -1;
+    private static final int HEADER_LENGTH = SIZE_OF_INT + SIZE_OF_LONG;
+    private static final long MISSING = -1L;
+
+    private static final String SPILL_FILE_PREFIX = "payloads-";
+    private static final String SPILL_FILE_SUFFIX = ".segment";
+
+    private final int memoryCapacity;
+    private final UnsafeBuffer memory;
+    private final Long2LongHashMap memoryIndex = new Long2LongHashMap(MISSING);
+
+    /**
+     * Absolute (ever increasing) positions of the ring buffer; the offset in
+     * the buffer is the position modulo the capacity.
+     */
+    private long head = 0;
+    private long tail = 0;
+
+    private final long maxSpillSize;
+    private final Path spillDirectory;
+    private final Long2LongHashMap spillIndex = new Long2LongHashMap(MISSING);
+    private Path spillFile;
+    private FileChannel spillChannel;
+    private long spillSize = 0;
+    private long spillLiveBytes = 0;
+
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_LENGTH);
+    private ByteBuffer ioBuffer = ByteBuffer.allocate(4 * 1024);
+    private final ExpandableArrayBuffer readBuffer = new ExpandableArrayBuffer();
+    private final UnsafeBuffer payloadView = new UnsafeBuffer(0, 0);
+
+    public PayloadStore(int memoryCapacity, long maxSpillSize, Path spillDirectory)
+    {
+        this.memoryCapacity = memoryCapacity;
+        this.memory = new UnsafeBuffer(ByteBuffer.allocateDirect(memoryCapacity));
+        this.maxSpillSize = maxSpillSize;
+        this.spillDirectory = spillDirectory;
+
+        deleteStaleSpillFiles();
+    }
+
+    /**
+     * Stores the payload of the workflow instance, replacing the previous one.
+     */
+    public void put(long key, DirectBuffer payload)
+    {
+        put(key, payload, 0, payload.capacity());
+    }
+
+    private void put(long key, DirectBuffer payload, int offset, int length)
+    {
+        remove(key);
+
+        final int entryLength = HEADER_LENGTH + length;
+
+        if (entryLength > memoryCapacity / 4)
+        {
+            // too large to be kept in memory
+            spill(key, payload, offset, length);
+            return;
+        }
+
+        int headOffset = (int) (head % memoryCapacity);
+
+        if (headOffset + entryLength > memoryCapacity)
+        {
+            final int paddingLength = memoryCapacity - headOffset;
+            ensureFreeSpace(paddingLength);
+
+            if (paddingLength >= HEADER_LENGTH)
+            {
+                memory.putInt(headOffset, PADDING);
+            }
+            head += paddingLength;
+            headOffset = 0;
+        }
+
+        ensureFreeSpace(entryLength);
+
+        memory.putInt(headOffset, length);
+        memory.putLong(headOffset + SIZE_OF_INT, key);
+        memory.putBytes(headOffset + HEADER_LENGTH, payload, offset, length);
+
+        memoryIndex.put(key, head);
+        head += entryLength;
+    }
+
+    /**
+     * @return a view of the payload which is valid until the store is modified,
+     *         or <code>null</code> if the payload is not stored
+     */
+    public DirectBuffer get(long key)
+    {
+        final long position = memoryIndex.get(key);
+        if (position != MISSING)
+        {
+            final int offset = (int) (position % memoryCapacity);
+            final int length = memory.getInt(offset);
+
+            if (head - position > memoryCapacity / 2)
+            {
+                // about to be evicted - move it to the head
+                readBuffer.putBytes(0, memory, offset + HEADER_LENGTH, length);
+                put(key, readBuffer, 0, length);
+
+                return get(key);
+            }
+
+            payloadView.wrap(memory, offset + HEADER_LENGTH, length);
+            return payloadView;
+        }
+
+        final long spillOffset = spillIndex.get(key);
+        if (spillOffset != MISSING)
+        {
+            final int length = readFromSpillFile(spillOffset);
+
+            if (HEADER_LENGTH + length <= memoryCapacity / 4)
+            {
+                put(key, readBuffer, 0, length);
+                return get(key);
+            }
+
+            payloadView.wrap(readBuffer, 0, length);
+            return payloadView;
+        }
+
+        return null;
+    }
+
+    public boolean isInMemory(long key)
+    {
+        return memoryIndex.get(key) != MISSING;
+    }
+
+    public boolean isSpilled(long key)
+    {
+        return spillIndex.get(key) != MISSING;
+    }
+
+    public void remove(long key)
+    {
+        memoryIndex.remove(key);
+
+        final long spillOffset = spillIndex.remove(key);
+        if (spillOffset != MISSING)
+        {
+            spillLiveBytes -= HEADER_LENGTH + readSpillLength(spillOffset);
+        }
+    }
+
+    public int size()
+    {
+        return memoryIndex.size() + spillIndex.size();
+    }
+
+    public long getSpillSize()
+    {
+        return spillSize;
+    }
+
+    public void clear()
+    {
+        memoryIndex.clear();
+        head = 0;
+        tail = 0;
+
+        spillIndex.clear();
+        spillSize = 0;
+        spillLiveBytes = 0;
+        truncateSpillFile();
+    }
+
+    private void ensureFreeSpace(int length)
+    {
+        while (memoryCapacity - (head - tail) < length)
+        {
+            evictTail();
+        }
+    }
+
+    private void evictTail()
+    {
+        final int offset = (int) (tail % memoryCapacity);
+        final int remaining = memoryCapacity - offset;
+
+        if (remaining < HEADER_LENGTH || memory.getInt(offset) == PADDING)
+        {
+            tail += remaining;
+        }
+        else
+        {
+            final int length = memory.getInt(offset);
+            final long key = memory.getLong(offset + SIZE_OF_INT);
+
+            if (memoryIndex.get(key) == tail)
+            {
+                memoryIndex.remove(key);
+                spill(key, memory, offset + HEADER_LENGTH, length);
+            }
+
+            tail += HEADER_LENGTH + length;
+        }
+    }
+
+    private void spill(long key, DirectBuffer payload, int offset, int length)
+    {
+        final int entryLength = HEADER_LENGTH + length;
+
+        if (spillSize + entryLength > maxSpillSize)
+        {
+            compactSpillFile();
+
+            if (spillSize + entryLength > maxSpillSize)
+            {
+                // drop the payload
+                return;
+            }
+        }
+
+        try
+        {
+            ensureSpillFileOpen();
+
+            final ByteBuffer entry = wrapEntry(key, length);
+            payload.getBytes(offset, entry.array(), HEADER_LENGTH, length);
+
+            writeFully(spillChannel, entry, spillSize);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to spill payload", e);
+        }
+
+        spillIndex.put(key, spillSize);
+        spillSize += entryLength;
+        spillLiveBytes += entryLength;
+    }
+
+    /**
+     * Rewrites the live entries of the segment file into a new file.
+     */
+    private void compactSpillFile()
+    {
+        if (spillChannel == null || spillLiveBytes == spillSize)
+        {
+            return;
+        }
+
+        try
+        {
+            final Path compactedFile = Files.createTempFile(spillDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            final FileChannel compactedChannel = FileChannel.open(compactedFile,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+            final Long2LongHashMap compactedIndex = new Long2LongHashMap(MISSING);
+            final long[] compactedSize = new long[1];
+
+            spillIndex.longForEach((key, spillOffset) ->
+            {
+                final int length = readSpillLength(spillOffset);
+                final ByteBuffer entry = wrapEntry(key, length);
+
+                try
+                {
+                    entry.position(HEADER_LENGTH);
+                    readFully(entry, spillOffset);
+
+                    entry.position(0);
+                    writeFully(compactedChannel, entry, compactedSize[0]);
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+
+                compactedIndex.put(key, compactedSize[0]);
+                compactedSize[0] += HEADER_LENGTH + length;
+            });
+
+            closeSpillFile();
+
+            spillFile = compactedFile;
+            spillChannel = compactedChannel;
+            spillSize = compactedSize[0];
+            spillLiveBytes = compactedSize[0];
+
+            spillIndex.clear();
+            compactedIndex.longForEach(spillIndex::put);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to compact payload segment file", e);
+        }
+    }
+
+    /**
+     * Reads the payload at the given offset of the segment file into the read buffer.
+     *
+     * @return the length of the payload
+     */
+    private int readFromSpillFile(long spillOffset)
+    {
+        final int length = readSpillLength(spillOffset);
+        final ByteBuffer entry = wrapEntry(MISSING, length);
+
+        try
+        {
+            entry.position(HEADER_LENGTH);
+            readFully(entry, spillOffset);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to read spilled payload", e);
+        }
+
+        readBuffer.putBytes(0, entry.array(), HEADER_LENGTH, length);
+        return length;
+    }
+
+    /**
+     * @return the reusable I/O buffer, containing the header of an entry with the given payload length
+     */
+    private ByteBuffer wrapEntry(long key, int length)
+    {
+        final int entryLength = HEADER_LENGTH + length;
+
+        if (ioBuffer.capacity() < entryLength)
+        {
+            ioBuffer = ByteBuffer.allocate(Math.max(entryLength, ioBuffer.capacity() * 2));
+        }
+
+        ioBuffer.clear();
+        ioBuffer.putInt(0, length);
+        ioBuffer.putLong(SIZE_OF_INT, key);
+        ioBuffer.limit(entryLength);
+
+        return ioBuffer;
+    }
+
+    private int readSpillLength(long spillOffset)
+    {
+        headerBuffer.clear();
+        try
+        {
+            readFully(headerBuffer, spillOffset);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to read spilled payload", e);
+        }
+        return headerBuffer.getInt(0);
+    }
+
+    /**
+     * Reads from the segment file until the buffer is full. The given file
+     * position corresponds to the index 0 of the buffer.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            final int read = spillChannel.read(buffer, position + buffer.position());
+            if (read < 0)
+            {
+                throw new IOException("Unexpected end of payload segment file");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    private void ensureSpillFileOpen() throws IOException
+    {
+        if (spillChannel == null)
+        {
+            spillFile = Files.createTempFile(spillDirectory, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX);
+            spillChannel = FileChannel.open(spillFile,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+    }
+
+    private void deleteStaleSpillFiles()
+    {
+        if (!Files.isDirectory(spillDirectory))
+        {
+            return;
+        }
+
+        try (DirectoryStream<Path> staleFiles = Files.newDirectoryStream(spillDirectory, SPILL_FILE_PREFIX + "*" + SPILL_FILE_SUFFIX))
+        {
+            for (Path staleFile : staleFiles)
+            {
+                Files.deleteIfExists(staleFile);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to delete stale payload segment files", e);
+        }
+    }
+
+    private void truncateSpillFile()
+    {
+        if (spillChannel != null)
+        {
+            try
+            {
+                spillChannel.truncate(0);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Failed to truncate payload segment file", e);
+            }
+        }
+    }
+
+    private void closeSpillFile() throws IOException
+    {
+        if (spillChannel != null)
+        {
+            spillChannel.close();
+            Files.deleteIfExists(spillFile);
+
+            spillChannel = null;
+            spillFile = null;
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            closeSpillFile();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to close payload segment file", e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ package io.zeebe.broker.workflow.map;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.function.Supplier;
 
 import io.zeebe.broker.clustering.base.topology.*;
 import io.zeebe.broker.system.workflow.repository.api.management.FetchWorkflowRequest;
@@ -30,12 +31,23 @@ import io.zeebe.model.bpmn.instance.WorkflowDefinition;
 import io.zeebe.protocol.Protocol;
 import io.zeebe.transport.*;
 import io.zeebe.util.buffer.BufferUtil;
+import io.zeebe.util.metrics.Metric;
 import io.zeebe.util.sched.clock.ActorClock;
 import io.zeebe.util.sched.future.ActorFuture;
 import org.agrona.DirectBuffer;
 import org.agrona.collections.Int2ObjectHashMap;
 import org.agrona.collections.Long2ObjectHashMap;
 
+/**
+ * Workflows which are fetched from the system topic. The fetched workflows
+ * are kept in {@link FetchedWorkflows} which is part of the snapshot, so that
+ * they are not fetched again after a restart.
+ *
+ * <p>Workflows by key or by version are fetched from the followers of the
+ * system partition in turn and only from the leader if the follower can't
+ * serve them (yet). The latest version of a workflow is always fetched from
+ * the leader.
+ */
 public class WorkflowCache implements TopologyPartitionListener
 {
     public static final long LATEST_VERSION_REFRESH_INTERVAL = Duration.ofSeconds(10).toMillis();
@@ -56,15 +68,24 @@ public class WorkflowCache implements TopologyPartitionListener
 
     private final DirectBuffer topicName;
 
+    private final FetchedWorkflows fetchedWorkflows;
+    private final Metric coldFetches;
+
     private volatile RemoteAddress systemTopicLeaderAddress;
+    private volatile List<RemoteAddress> systemTopicFollowerAddresses = Collections.emptyList();
+    private int nextFollower = 0;
 
     public WorkflowCache(ClientTransport clientTransport,
         TopologyManager topologyManager,
-        DirectBuffer topicName)
+        DirectBuffer topicName,
+        FetchedWorkflows fetchedWorkflows,
+        Metric coldFetches)
     {
         this.clientTransport = clientTransport;
         this.topologyManager = topologyManager;
         this.topicName = topicName;
+        this.fetchedWorkflows = fetchedWorkflows;
+        this.coldFetches = coldFetches;
 
         topologyManager.addTopologyPartitionListener(this);
     }
@@ -74,13 +95,40 @@ public class WorkflowCache implements TopologyPartitionListener
         topologyManager.removeTopologyPartitionListener(this);
     }
 
+    /**
+     * Adds the workflows which are recovered from the snapshot.
+     */
+    public void loadFetchedWorkflows()
+    {
+        fetchedWorkflows.pollRecoveredWorkflows();
+
+        fetchedWorkflows.forEach(workflow ->
+        {
+            if (!workflowsByKey.containsKey(workflow.getKey()))
+            {
+                // the latest version is refreshed on first access
+                addWorkflow(workflow.getKey(), workflow.getVersion(), workflow.getBpmnProcessId(), workflow.getBpmnXml(), 0L);
+            }
+        });
+    }
+
+    private void loadRecoveredWorkflows()
+    {
+        if (fetchedWorkflows.pollRecoveredWorkflows())
+        {
+            loadFetchedWorkflows();
+        }
+    }
+
     public ActorFuture<ClientResponse> fetchWorkflowByKey(long key)
     {
+        coldFetches.incrementOrdered();
+
         fetchRequest.reset()
             .topicName(topicName)
             .workflowKey(key);
 
-        return clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
+        return clientTransport.getOutput().sendRequestWithRetry(new FollowerFirstTarget(nextSystemTopicFollower()),
             this::checkResponse,
             fetchRequest,
             FETCH_WORKFLOW_TIMEOUT);
@@ -101,12 +149,14 @@ public class WorkflowCache implements TopologyPartitionListener
 
     public ActorFuture<ClientResponse> fetchWorkflowByBpmnProcessIdAndVersion(DirectBuffer bpmnProcessId, int version)
     {
+        coldFetches.incrementOrdered();
+
         fetchRequest.reset()
             .topicName(topicName)
             .version(version)
             .bpmnProcessId(bpmnProcessId);
 
-        return clientTransport.getOutput().sendRequestWithRetry(this::systemTopicLeader,
+        return clientTransport.getOutput().sendRequestWithRetry(new FollowerFirstTarget(nextSystemTopicFollower()),
             this::checkResponse,
             fetchRequest,
             FETCH_WORKFLOW_TIMEOUT);
@@ -141,34 +191,43 @@ public class WorkflowCache implements TopologyPartitionListener
                 final DirectBuffer bpmnXml = fetchRespose.getBpmnXml();
                 final int version = fetchRespose.getVersion();
 
-                final WorkflowDefinition workflowDefinition = bpmn.readFromXmlBuffer(bpmnXml);
-                final Collection<Workflow> workflows = workflowDefinition.getWorkflows();
+                deployedWorkflow = addWorkflow(key, version, bpmnProcessId, bpmnXml, now);
 
-                final Workflow workflow = workflows.stream()
-                    .filter((w) -> BufferUtil.equals(bpmnProcessId, w.getBpmnProcessId()))
-                    .findFirst()
-                    .get();
+                fetchedWorkflows.add(key, version, bpmnProcessId, bpmnXml);
+            }
+        }
 
-                deployedWorkflow = new DeployedWorkflow(workflow, key, version, now);
+        return deployedWorkflow;
+    }
 
-                workflowsByKey.put(key, deployedWorkflow);
+    private DeployedWorkflow addWorkflow(long key, int version, DirectBuffer bpmnProcessId, DirectBuffer bpmnXml, long fetched)
+    {
+        final WorkflowDefinition workflowDefinition = bpmn.readFromXmlBuffer(bpmnXml);
+        final Collection<Workflow> workflows = workflowDefinition.getWorkflows();
 
-                Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(bpmnProcessId);
+        final Workflow workflow = workflows.stream()
+            .filter((w) -> BufferUtil.equals(bpmnProcessId, w.getBpmnProcessId()))
+            .findFirst()
+            .get();
 
-                if (versionMap == null)
-                {
-                    versionMap = new Int2ObjectHashMap<>();
-                    workflowsByProcessIdAndVersion.put(bpmnProcessId, versionMap);
-                }
+        final DeployedWorkflow deployedWorkflow = new DeployedWorkflow(workflow, key, version, fetched);
 
-                versionMap.put(version, deployedWorkflow);
+        workflowsByKey.put(key, deployedWorkflow);
 
-                final DeployedWorkflow latestVersion = latestWorkflowsByProcessId.get(bpmnProcessId);
-                if (latestVersion == null || latestVersion.getVersion() < version)
-                {
-                    latestWorkflowsByProcessId.put(bpmnProcessId, deployedWorkflow);
-                }
-            }
+        Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(bpmnProcessId);
+
+        if (versionMap == null)
+        {
+            versionMap = new Int2ObjectHashMap<>();
+            workflowsByProcessIdAndVersion.put(bpmnProcessId, versionMap);
+        }
+
+        versionMap.put(version, deployedWorkflow);
+
+        final DeployedWorkflow latestVersion = latestWorkflowsByProcessId.get(bpmnProcessId);
+        if (latestVersion == null || latestVersion.getVersion() < version)
+        {
+            latestWorkflowsByProcessId.put(bpmnProcessId, deployedWorkflow);
         }
 
         return deployedWorkflow;
@@ -179,8 +238,25 @@ public class WorkflowCache implements TopologyPartitionListener
         return systemTopicLeaderAddress;
     }
 
+    private RemoteAddress nextSystemTopicFollower()
+    {
+        final List<RemoteAddress> followers = systemTopicFollowerAddresses;
+
+        if (!followers.isEmpty())
+        {
+            nextFollower = (nextFollower + 1) % followers.size();
+            return followers.get(nextFollower);
+        }
+        else
+        {
+            return null;
+        }
+    }
+
     public DeployedWorkflow getLatestWorkflowVersionByProcessId(DirectBuffer processId)
     {
+        loadRecoveredWorkflows();
+
         final DeployedWorkflow latest = latestWorkflowsByProcessId.get(processId);
 
         if (latest != null)
@@ -199,6 +275,8 @@ public class WorkflowCache implements TopologyPartitionListener
 
     public DeployedWorkflow getWorkflowByProcessIdAndVersion(DirectBuffer processId, int version)
     {
+        loadRecoveredWorkflows();
+
         final Int2ObjectHashMap<DeployedWorkflow> versionMap = workflowsByProcessIdAndVersion.get(processId);
 
         if (versionMap != null)
@@ -213,6 +291,8 @@ public class WorkflowCache implements TopologyPartitionListener
 
     public DeployedWorkflow getWorkflowByKey(long key)
     {
+        loadRecoveredWorkflows();
+
         return workflowsByKey.get(key);
     }
 
@@ -223,6 +303,8 @@ public class WorkflowCache implements TopologyPartitionListener
 
         if (partitionInfo.getPartitionId() == Protocol.SYSTEM_PARTITION)
         {
+            updateSystemTopicFollowers(member, member.getFollowers().contains(partitionInfo));
+
             if (member.getLeaders().contains(partitionInfo))
             {
                 final SocketAddress managementApiAddress = member.getManagementApiAddress();
@@ -233,4 +315,56 @@ public class WorkflowCache implements TopologyPartitionListener
             }
         }
     }
+
+    private void updateSystemTopicFollowers(NodeInfo member, boolean isFollower)
+    {
+        final SocketAddress managementApiAddress = member.getManagementApiAddress();
+        final List<RemoteAddress> currentFollowers = systemTopicFollowerAddresses;
+
+        final List<RemoteAddress> followers = new ArrayList<>(currentFollowers.size() + 1);
+        for (RemoteAddress follower : currentFollowers)
+        {
+            if (!follower.getAddress().equals(managementApiAddress))
+            {
+                followers.add(follower);
+            }
+        }
+
+        if (isFollower)
+        {
+            followers.add(clientTransport.registerRemoteAddress(managementApiAddress));
+        }
+
+        systemTopicFollowerAddresses = followers;
+    }
+
+    /**
+     * Sends the first attempt of a request to the given follower and the
+     * retries to the leader, e.g. if the follower doesn't know the workflow yet.
+     */
+    private class FollowerFirstTarget implements Supplier<RemoteAddress>
+    {
+        private RemoteAddress follower;
+
+        FollowerFirstTarget(RemoteAddress follower)
+        {
+            this.follower = follower;
+        }
+
+        @Override
+        public RemoteAddress get()
+        {
+            final RemoteAddress target = follower;
+
+            if (target != null)
+            {
+                follower = null;
+                return target;
+            }
+            else
+            {
+                return systemTopicLeader();
+            }
+        }
+    }
 }
@@ -0,0 +1,179 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import java.util.Arrays;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.broker.workflow.map.ExecutionPlan;
+import io.zeebe.msgpack.el.CompiledJsonCondition;
+import io.zeebe.msgpack.el.JsonConditionException;
+import io.zeebe.msgpack.el.JsonConditionInterpreter;
+import io.zeebe.msgpack.spec.MsgPackReader;
+import io.zeebe.msgpack.spec.MsgPackWriter;
+
+/**
+ * Selects the outgoing sequence flow of an exclusive gateway.
+ *
+ * <p>
+ * Every condition is evaluated against the payload, which means that the
+ * payload is traversed once per condition. To keep this cheap for gateways
+ * with many outgoing flows, the payload is traversed once upfront and the
+ * top-level properties which are used by any of the conditions are copied
+ * into a small document. The conditions are then evaluated against this
+ * document. If a condition may access other parts of the payload (e.g.
+ * <code>$..foo</code>) then the whole payload is used.
+ */
+public class ExclusiveGatewayEvaluator
+{
+    private final JsonConditionInterpreter conditionInterpreter = new JsonConditionInterpreter();
+
+    private final MsgPackReader reader = new MsgPackReader();
+    private final MsgPackWriter writer = new MsgPackWriter();
+
+    private final ExpandableArrayBuffer conditionPayload = new ExpandableArrayBuffer();
+    private final UnsafeBuffer conditionPayloadView = new UnsafeBuffer(0, 0);
+
+    // start and end offset of the copied properties
+    private int[] propertyOffsets = new int[16];
+
+    /**
+     * @return the first outgoing sequence flow whose condition is fulfilled,
+     *         otherwise the default flow of the gateway or
+     *         {@link ExecutionPlan#NO_ELEMENT} if it has none
+     *
+     * @throws JsonConditionException if a condition can't be evaluated
+     */
+    public int evaluate(ExecutionPlan plan, int exclusiveGateway, DirectBuffer payload)
+    {
+        final int[] sequenceFlows = plan.getConditionalFlows(exclusiveGateway);
+
+        DirectBuffer document = payload;
+        if (sequenceFlows.length > 1)
+        {
+            document = extractConditionProperties(plan.getConditionProperties(exclusiveGateway), payload);
+        }
+
+        for (int s = 0; s < sequenceFlows.length; s++)
+        {
+            final int sequenceFlow = sequenceFlows[s];
+
+            final CompiledJsonCondition compiledCondition = plan.getCondition(sequenceFlow);
+            final boolean isFulFilled = conditionInterpreter.eval(compiledCondition.getCondition(), document);
+
+            if (isFulFilled)
+            {
+                return sequenceFlow;
+            }
+        }
+        return plan.getDefaultFlow(exclusiveGateway);
+    }
+
+    private DirectBuffer extractConditionProperties(DirectBuffer[] properties, DirectBuffer payload)
+    {
+        if (properties == null)
+        {
+            return payload;
+        }
+
+        int propertyCount = 0;
+
+        try
+        {
+            reader.wrap(payload, 0, payload.capacity());
+
+            final int size = reader.readMapHeader();
+            for (int i = 0; i < size; i++)
+            {
+                final int propertyOffset = reader.getOffset();
+
+                final int keyLength = reader.readStringLength();
+                final int keyOffset = reader.getOffset();
+                reader.skipBytes(keyLength);
+                reader.skipValue();
+
+                if (isConditionProperty(properties, payload, keyOffset, keyLength))
+                {
+                    ensurePropertyCapacity(propertyCount + 1);
+
+                    propertyOffsets[2 * propertyCount] = propertyOffset;
+                    propertyOffsets[2 * propertyCount + 1] = reader.getOffset();
+                    propertyCount++;
+                }
+            }
+        }
+        catch (RuntimeException e)
+        {
+            // not a document with string keys - the interpreter reports the failure
+            return payload;
+        }
+
+        writer.wrap(conditionPayload, 0);
+        writer.writeMapHeader(propertyCount);
+
+        int offset = writer.getOffset();
+        for (int i = 0; i < propertyCount; i++)
+        {
+            final int start = propertyOffsets[2 * i];
+            final int length = propertyOffsets[2 * i + 1] - start;
+
+            conditionPayload.putBytes(offset, payload, start, length);
+            offset += length;
+        }
+
+        conditionPayloadView.wrap(conditionPayload, 0, offset);
+        return conditionPayloadView;
+    }
+
+    private static boolean isConditionProperty(DirectBuffer[] properties, DirectBuffer payload, int keyOffset, int keyLength)
+    {
+        for (int p = 0; p < properties.length; p++)
+        {
+            final DirectBuffer property = properties[p];
+
+            if (property.capacity() == keyLength && equals(property, payload, keyOffset, keyLength))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equals(DirectBuffer property, DirectBuffer payload, int offset, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            if (property.getByte(i) != payload.getByte(offset + i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensurePropertyCapacity(int count)
+    {
+        if (2 * count > propertyOffsets.length)
+        {
+            propertyOffsets = Arrays.copyOf(propertyOffsets, 4 * count);
+        }
+    }
+}
@@ -19,10 +19,9 @@ package io.zeebe.broker.workflow.processor;
 
 import static io.zeebe.broker.util.PayloadUtil.isNilPayload;
 import static io.zeebe.broker.util.PayloadUtil.isValidPayload;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
 
-import java.util.EnumMap;
-import java.util.List;
-import java.util.Map;
+import java.nio.file.Path;
 import java.util.function.Consumer;
 
 import org.agrona.DirectBuffer;
@@ -46,6 +45,8 @@ import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.workflow.data.WorkflowInstanceRecord;
 import io.zeebe.broker.workflow.map.ActivityInstanceMap;
 import io.zeebe.broker.workflow.map.DeployedWorkflow;
+import io.zeebe.broker.workflow.map.ExecutionPlan;
+import io.zeebe.broker.workflow.map.FetchedWorkflows;
 import io.zeebe.broker.workflow.map.PayloadCache;
 import io.zeebe.broker.workflow.map.WorkflowCache;
 import io.zeebe.broker.workflow.map.WorkflowInstanceIndex;
@@ -54,18 +55,9 @@ import io.zeebe.logstreams.log.LogStream;
 import io.zeebe.logstreams.processor.EventLifecycleContext;
 import io.zeebe.logstreams.processor.StreamProcessorContext;
 import io.zeebe.model.bpmn.BpmnAspect;
-import io.zeebe.model.bpmn.instance.EndEvent;
-import io.zeebe.model.bpmn.instance.ExclusiveGateway;
-import io.zeebe.model.bpmn.instance.FlowElement;
-import io.zeebe.model.bpmn.instance.FlowNode;
-import io.zeebe.model.bpmn.instance.SequenceFlow;
 import io.zeebe.model.bpmn.instance.ServiceTask;
-import io.zeebe.model.bpmn.instance.StartEvent;
 import io.zeebe.model.bpmn.instance.TaskDefinition;
-import io.zeebe.model.bpmn.instance.Workflow;
-import io.zeebe.msgpack.el.CompiledJsonCondition;
 import io.zeebe.msgpack.el.JsonConditionException;
-import io.zeebe.msgpack.el.JsonConditionInterpreter;
 import io.zeebe.msgpack.mapping.Mapping;
 import io.zeebe.msgpack.mapping.MappingException;
 import io.zeebe.msgpack.mapping.MappingProcessor;
@@ -90,13 +82,15 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
     private Metric workflowInstanceEventCreate;
     private Metric workflowInstanceEventCanceled;
     private Metric workflowInstanceEventCompleted;
+    private Metric workflowColdFetches;
 
     private final WorkflowInstanceIndex workflowInstanceIndex = new WorkflowInstanceIndex();
     private final ActivityInstanceMap activityInstanceMap = new ActivityInstanceMap();
     private final PayloadCache payloadCache;
+    private final FetchedWorkflows fetchedWorkflows = new FetchedWorkflows();
 
     private final MappingProcessor payloadMappingProcessor = new MappingProcessor(4096);
-    private final JsonConditionInterpreter conditionInterpreter = new JsonConditionInterpreter();
+    private final ExclusiveGatewayEvaluator gatewayEvaluator = new ExclusiveGatewayEvaluator();
 
     private ClientTransport managementApiClient;
     private TopologyManager topologyManager;
@@ -107,10 +101,12 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
     public WorkflowInstanceStreamProcessor(
         ClientTransport managementApiClient,
         TopologyManager topologyManager,
-        int payloadCacheSize)
+        int payloadCacheMemorySize,
+        long payloadCacheMaxSpillSize,
+        Path payloadCacheSpillDirectory)
     {
         this.managementApiClient = managementApiClient;
-        this.payloadCache = new PayloadCache(payloadCacheSize);
+        this.payloadCache = new PayloadCache(payloadCacheMemorySize, payloadCacheMaxSpillSize, payloadCacheSpillDirectory);
         this.topologyManager = topologyManager;
     }
 
@@ -141,6 +137,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
             .withStateResource(workflowInstanceIndex.getMap())
             .withStateResource(activityInstanceMap.getMap())
             .withStateResource(payloadCache.getMap())
+            .withStateResource(fetchedWorkflows)
 
             .withListener(payloadCache)
             .withListener(this)
@@ -153,15 +150,26 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
 
         this.actor = streamProcessor.getActor();
         final LogStream logStream = streamProcessor.getEnvironment().getStream();
-        this.workflowCache = new WorkflowCache(managementApiClient,
-            topologyManager,
-            logStream.getTopicName());
 
         final StreamProcessorContext context = streamProcessor.getStreamProcessorContext();
         final MetricsManager metricsManager = context.getActorScheduler().getMetricsManager();
         final String topicName = logStream.getTopicName().getStringWithoutLengthUtf8(0, logStream.getTopicName().capacity());
         final String partitionId = Integer.toString(logStream.getPartitionId());
 
+        workflowColdFetches = metricsManager.newMetric("workflow_cache_fetch_count")
+            .type("counter")
+            .label("topic", topicName)
+            .label("partition", partitionId)
+            .label("type", "cold")
+            .create();
+
+        this.workflowCache = new WorkflowCache(managementApiClient,
+            topologyManager,
+            logStream.getTopicName(),
+            fetchedWorkflows,
+            workflowColdFetches);
+        workflowCache.loadFetchedWorkflows();
+
         workflowInstanceEventCreate = metricsManager.newMetric("workflow_instance_events_count")
             .type("counter")
             .label("topic", topicName)
@@ -191,6 +199,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         workflowInstanceEventCreate.close();
         workflowInstanceEventCanceled.close();
         workflowInstanceEventCompleted.close();
+        workflowColdFetches.close();
     }
 
     private boolean isActive(long workflowInstanceKey)
@@ -352,9 +361,8 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
 
         private void addStartEventOccured(TypedBatchWriter batchWriter, WorkflowInstanceRecord createCommand)
         {
-            final Workflow workflow = workflowCache.getWorkflowByKey(createCommand.getWorkflowKey()).getWorkflow();
-            final StartEvent startEvent = workflow.getInitialStartEvent();
-            final DirectBuffer activityId = startEvent.getIdAsBuffer();
+            final ExecutionPlan plan = workflowCache.getWorkflowByKey(createCommand.getWorkflowKey()).getExecutionPlan();
+            final DirectBuffer activityId = plan.getId(plan.getStartEvent());
 
             startEventRecord.setActivityId(activityId)
                 .setBpmnProcessId(createCommand.getBpmnProcessId())
@@ -396,15 +404,15 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class TakeSequenceFlowAspectHandler extends FlowElementEventProcessor<FlowNode>
+    private final class TakeSequenceFlowAspectHandler extends FlowElementEventProcessor
     {
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, FlowNode currentFlowNode)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int flowNode)
         {
             // the activity has exactly one outgoing sequence flow
-            final SequenceFlow sequenceFlow = currentFlowNode.getOutgoingSequenceFlows().get(0);
+            final int sequenceFlow = plan.getOutgoingFlow(flowNode);
 
-            event.getValue().setActivityId(sequenceFlow.getIdAsBuffer());
+            event.getValue().setActivityId(plan.getId(sequenceFlow));
         }
 
         @Override
@@ -414,25 +422,25 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class ExclusiveSplitAspectHandler extends FlowElementEventProcessor<ExclusiveGateway>
+    private final class ExclusiveSplitAspectHandler extends FlowElementEventProcessor
     {
         private boolean createsIncident;
         private boolean isResolvingIncident;
         private final IncidentRecord incidentCommand = new IncidentRecord();
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExclusiveGateway exclusiveGateway)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int exclusiveGateway)
         {
             try
             {
                 isResolvingIncident = event.getMetadata().hasIncidentKey();
 
                 final WorkflowInstanceRecord value = event.getValue();
-                final SequenceFlow sequenceFlow = getSequenceFlowWithFulfilledCondition(exclusiveGateway, value.getPayload());
+                final int sequenceFlow = gatewayEvaluator.evaluate(plan, exclusiveGateway, value.getPayload());
 
-                if (sequenceFlow != null)
+                if (sequenceFlow != ExecutionPlan.NO_ELEMENT)
                 {
-                    value.setActivityId(sequenceFlow.getIdAsBuffer());
+                    value.setActivityId(plan.getId(sequenceFlow));
 
                     createsIncident = false;
                 }
@@ -460,24 +468,6 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
             }
         }
 
-        private SequenceFlow getSequenceFlowWithFulfilledCondition(ExclusiveGateway exclusiveGateway, DirectBuffer payload)
-        {
-            final List<SequenceFlow> sequenceFlows = exclusiveGateway.getOutgoingSequenceFlowsWithConditions();
-            for (int s = 0; s < sequenceFlows.size(); s++)
-            {
-                final SequenceFlow sequenceFlow = sequenceFlows.get(s);
-
-                final CompiledJsonCondition compiledCondition = sequenceFlow.getCondition();
-                final boolean isFulFilled = conditionInterpreter.eval(compiledCondition.getCondition(), payload);
-
-                if (isFulFilled)
-                {
-                    return sequenceFlow;
-                }
-            }
-            return exclusiveGateway.getDefaultFlow();
-        }
-
         @Override
         public long writeRecord(TypedRecord<WorkflowInstanceRecord> record, TypedStreamWriter writer)
         {
@@ -499,14 +489,14 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class ConsumeTokenAspectHandler extends FlowElementEventProcessor<FlowElement>
+    private final class ConsumeTokenAspectHandler extends FlowElementEventProcessor
     {
         private boolean isCompleted;
         private int activeTokenCount;
 
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, FlowElement currentFlowNode)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int flowElement)
         {
             final WorkflowInstanceRecord workflowInstanceEvent = event.getValue();
 
@@ -546,33 +536,23 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class SequenceFlowTakenEventProcessor extends FlowElementEventProcessor<SequenceFlow>
+    private final class SequenceFlowTakenEventProcessor extends FlowElementEventProcessor
     {
         private Intent nextState;
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, SequenceFlow sequenceFlow)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int sequenceFlow)
         {
-            final FlowNode targetNode = sequenceFlow.getTargetNode();
+            final int targetNode = plan.getTarget(sequenceFlow);
 
             final WorkflowInstanceRecord value = event.getValue();
-            value.setActivityId(targetNode.getIdAsBuffer());
+            value.setActivityId(plan.getId(targetNode));
 
-            if (targetNode instanceof EndEvent)
-            {
-                nextState = WorkflowInstanceIntent.END_EVENT_OCCURRED;
-            }
-            else if (targetNode instanceof ServiceTask)
-            {
-                nextState = WorkflowInstanceIntent.ACTIVITY_READY;
-            }
-            else if (targetNode instanceof ExclusiveGateway)
-            {
-                nextState = WorkflowInstanceIntent.GATEWAY_ACTIVATED;
-            }
-            else
+            nextState = plan.getTargetIntent(sequenceFlow);
+
+            if (nextState == null)
             {
-                throw new RuntimeException(String.format("Flow node of type '%s' is not supported.", targetNode));
+                throw new RuntimeException(String.format("Flow node of type '%s' is not supported.", plan.getElement(targetNode)));
             }
         }
 
@@ -583,7 +563,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class ActivityReadyEventProcessor extends FlowElementEventProcessor<ServiceTask>
+    private final class ActivityReadyEventProcessor extends FlowElementEventProcessor
     {
         private final IncidentRecord incidentCommand = new IncidentRecord();
 
@@ -592,7 +572,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         private UnsafeBuffer wfInstancePayload = new UnsafeBuffer(0, 0);
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ServiceTask serviceTask)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int serviceTask)
         {
             createsIncident = false;
             isResolvingIncident = event.getMetadata().hasIncidentKey();
@@ -600,7 +580,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
             final WorkflowInstanceRecord activityEvent = event.getValue();
             wfInstancePayload.wrap(activityEvent.getPayload());
 
-            final Mapping[] inputMappings = serviceTask.getInputOutputMapping().getInputMappings();
+            final Mapping[] inputMappings = plan.getInputMappings(serviceTask);
 
             // only if we have no default mapping we have to use the mapping processor
             if (inputMappings.length > 0)
@@ -671,14 +651,15 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class ActivityActivatedEventProcessor extends FlowElementEventProcessor<ServiceTask>
+    private final class ActivityActivatedEventProcessor extends FlowElementEventProcessor
     {
         private final JobRecord jobCommand = new JobRecord();
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ServiceTask serviceTask)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int serviceTask)
         {
-            final TaskDefinition taskDefinition = serviceTask.getTaskDefinition();
+            final ServiceTask task = plan.getElement(serviceTask);
+            final TaskDefinition taskDefinition = task.getTaskDefinition();
 
             final WorkflowInstanceRecord value = event.getValue();
 
@@ -693,10 +674,10 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
                     .setWorkflowDefinitionVersion(value.getVersion())
                     .setWorkflowKey(value.getWorkflowKey())
                     .setWorkflowInstanceKey(value.getWorkflowInstanceKey())
-                    .setActivityId(serviceTask.getIdAsBuffer())
+                    .setActivityId(plan.getId(serviceTask))
                     .setActivityInstanceKey(event.getKey());
 
-            final io.zeebe.model.bpmn.instance.TaskHeaders customHeaders = serviceTask.getTaskHeaders();
+            final io.zeebe.model.bpmn.instance.TaskHeaders customHeaders = task.getTaskHeaders();
 
             if (!customHeaders.isEmpty())
             {
@@ -804,21 +785,21 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         }
     }
 
-    private final class ActivityCompletingEventProcessor extends FlowElementEventProcessor<ServiceTask>
+    private final class ActivityCompletingEventProcessor extends FlowElementEventProcessor
     {
         private final IncidentRecord incidentCommand = new IncidentRecord();
         private boolean hasIncident;
         private boolean isResolvingIncident;
 
         @Override
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ServiceTask serviceTask)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int serviceTask)
         {
             hasIncident = false;
             isResolvingIncident = event.getMetadata().hasIncidentKey();
 
             final WorkflowInstanceRecord activityEvent = event.getValue();
 
-            final Mapping[] outputMappings = serviceTask.getInputOutputMapping().getOutputMappings();
+            final Mapping[] outputMappings = plan.getOutputMappings(serviceTask);
 
             final DirectBuffer workflowInstancePayload = payloadCache.getPayload(activityEvent.getWorkflowInstanceKey());
             final DirectBuffer taskPayload = activityEvent.getPayload();
@@ -1095,7 +1076,7 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
         });
     }
 
-    private abstract class FlowElementEventProcessor<T extends FlowElement> implements TypedRecordProcessor<WorkflowInstanceRecord>
+    private abstract class FlowElementEventProcessor implements TypedRecordProcessor<WorkflowInstanceRecord>
     {
         private TypedRecord<WorkflowInstanceRecord> event;
 
@@ -1116,45 +1097,47 @@ public class WorkflowInstanceStreamProcessor implements StreamProcessorLifecycle
             }
         }
 
-        @SuppressWarnings("unchecked")
         private void resolveCurrentFlowNode(DeployedWorkflow deployedWorkflow)
         {
             final DirectBuffer currentActivityId = event.getValue().getActivityId();
 
-            final Workflow workflow = deployedWorkflow.getWorkflow();
-            final FlowElement flowElement = workflow.findFlowElementById(currentActivityId);
+            final ExecutionPlan plan = deployedWorkflow.getExecutionPlan();
+            final int flowElement = plan.indexOf(currentActivityId);
+
+            if (flowElement == ExecutionPlan.NO_ELEMENT)
+            {
+                throw new RuntimeException(String.format("Flow element with id '%s' is not part of the workflow.", bufferAsString(currentActivityId)));
+            }
 
-            processFlowElementEvent(event, (T) flowElement);
+            processFlowElementEvent(event, plan, flowElement);
         }
 
-        abstract void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, T currentFlowNode);
+        abstract void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int flowElement);
     }
 
-    @SuppressWarnings("rawtypes")
-    private final class BpmnAspectEventProcessor extends FlowElementEventProcessor<FlowElement>
+    private final class BpmnAspectEventProcessor extends FlowElementEventProcessor
     {
         private FlowElementEventProcessor delegate;
 
-        protected final Map<BpmnAspect, FlowElementEventProcessor> aspectHandlers;
+        protected final FlowElementEventProcessor[] aspectHandlers;
 
         private BpmnAspectEventProcessor()
         {
-            aspectHandlers = new EnumMap<>(BpmnAspect.class);
+            aspectHandlers = new FlowElementEventProcessor[BpmnAspect.values().length];
 
-            aspectHandlers.put(BpmnAspect.TAKE_SEQUENCE_FLOW, new TakeSequenceFlowAspectHandler());
-            aspectHandlers.put(BpmnAspect.CONSUME_TOKEN, new ConsumeTokenAspectHandler());
-            aspectHandlers.put(BpmnAspect.EXCLUSIVE_SPLIT, new ExclusiveSplitAspectHandler());
+            aspectHandlers[BpmnAspect.TAKE_SEQUENCE_FLOW.ordinal()] = new TakeSequenceFlowAspectHandler();
+            aspectHandlers[BpmnAspect.CONSUME_TOKEN.ordinal()] = new ConsumeTokenAspectHandler();
+            aspectHandlers[BpmnAspect.EXCLUSIVE_SPLIT.ordinal()] = new ExclusiveSplitAspectHandler();
         }
 
         @Override
-        @SuppressWarnings("unchecked")
-        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, FlowElement currentFlowNode)
+        void processFlowElementEvent(TypedRecord<WorkflowInstanceRecord> event, ExecutionPlan plan, int flowElement)
         {
-            final BpmnAspect bpmnAspect = currentFlowNode.getBpmnAspect();
+            final BpmnAspect bpmnAspect = plan.getAspect(flowElement);
 
-            delegate = aspectHandlers.get(bpmnAspect);
+            delegate = aspectHandlers[bpmnAspect.ordinal()];
 
-            delegate.processFlowElementEvent(event, currentFlowNode);
+            delegate.processFlowElementEvent(event, plan, flowElement);
         }
 
         @Override
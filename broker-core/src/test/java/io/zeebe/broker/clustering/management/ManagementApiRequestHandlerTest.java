@@ -382,7 +382,7 @@ public class ManagementApiRequestHandlerTest
     private Partition createAndTrackPartition(final int id, final SnapshotStorage storage)
     {
         final PartitionInfo info = new PartitionInfo(BufferUtil.wrapString("test"), id, 1);
-        final Partition partition = new Partition(info, RaftState.LEADER)
+        final Partition partition = new Partition(info, RaftState.LEADER, tempFolder.getRoot(), tempFolder.getRoot())
         {
             @Override
             public SnapshotStorage getSnapshotStorage()
@@ -0,0 +1,142 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.clustering.orchestration;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.zeebe.broker.clustering.base.topology.NodeInfo;
+import io.zeebe.broker.clustering.base.topology.NodeLoadVector;
+import io.zeebe.broker.clustering.base.topology.PartitionInfo;
+import io.zeebe.transport.SocketAddress;
+import org.junit.Test;
+
+public class NodeSelectorTest
+{
+    private int nextPort = 51015;
+
+    @Test
+    public void shouldPreferNodeWithLessPartitions()
+    {
+        // given
+        final NodeLoad node1 = newNode(partitions(1, 2), load(100, 100, 100));
+        final NodeLoad node2 = newNode(partitions(3), load(100, 1000));
+
+        // when
+        final List<NodeLoad> ranking = rank(node1, node2);
+
+        // then
+        assertThat(ranking).containsExactly(node2, node1);
+    }
+
+    @Test
+    public void shouldPreferNodeWithIdlePartitions()
+    {
+        // given
+        final NodeLoad hotNode = newNode(partitions(1, 2), load(100, 5_000, 5_000));
+        final NodeLoad idleNode = newNode(partitions(3, 4), load(100, 10, 0));
+
+        // when
+        final List<NodeLoad> ranking = rank(hotNode, idleNode);
+
+        // then
+        assertThat(ranking).containsExactly(idleNode, hotNode);
+    }
+
+    @Test
+    public void shouldRankSaturatedNodesLast()
+    {
+        // given
+        final NodeLoad saturatedNode = newNode(partitions(), load(NodeSelector.SATURATED_CPU_UTILIZATION));
+        final NodeLoad node = newNode(partitions(1, 2, 3), load(500, 0, 0, 0));
+
+        // when
+        final List<NodeLoad> ranking = rank(saturatedNode, node);
+
+        // then
+        assertThat(ranking).containsExactly(node, saturatedNode);
+    }
+
+    @Test
+    public void shouldCountPendingPartitions()
+    {
+        // given
+        final NodeLoad node1 = newNode(partitions(1), NodeLoadVector.EMPTY);
+        final NodeLoad node2 = newNode(partitions(2), NodeLoadVector.EMPTY);
+
+        // when
+        node1.addPendingPartiton(partition(3));
+        final List<NodeLoad> ranking = rank(node1, node2);
+
+        // then
+        assertThat(ranking).containsExactly(node2, node1);
+    }
+
+    private NodeLoad newNode(List<PartitionInfo> partitions, NodeLoadVector load)
+    {
+        final int port = nextPort++;
+        final NodeInfo nodeInfo = new NodeInfo(
+            new SocketAddress("localhost", port),
+            new SocketAddress("localhost", port + 1000),
+            new SocketAddress("localhost", port + 2000));
+
+        nodeInfo.setLoad(load);
+
+        final NodeLoad nodeLoad = new NodeLoad(nodeInfo);
+        partitions.forEach(nodeLoad::addPartition);
+
+        return nodeLoad;
+    }
+
+    private static List<PartitionInfo> partitions(int... partitionIds)
+    {
+        final List<PartitionInfo> partitions = new ArrayList<>();
+        for (int partitionId : partitionIds)
+        {
+            partitions.add(partition(partitionId));
+        }
+        return partitions;
+    }
+
+    private static PartitionInfo partition(int partitionId)
+    {
+        return new PartitionInfo(wrapString("test"), partitionId, 1);
+    }
+
+    private static NodeLoadVector load(int cpuUtilization, long... commandRates)
+    {
+        final int[] partitionIds = new int[commandRates.length];
+        for (int i = 0; i < partitionIds.length; i++)
+        {
+            partitionIds[i] = i;
+        }
+
+        return new NodeLoadVector(cpuUtilization, 0, partitionIds, commandRates, commandRates.clone());
+    }
+
+    private static List<NodeLoad> rank(NodeLoad... loads)
+    {
+        final List<NodeLoad> ranking = new ArrayList<>(Arrays.asList(loads));
+        ranking.sort(NodeSelector::loadComparator);
+        return ranking;
+    }
+}
@@ -21,7 +21,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
 
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -187,6 +189,73 @@ public class TopicSubscriptionTest
         assertThat(jobEvent.timestamp()).isEqualTo(fixedClockEpoch);
     }
 
+    @Test
+    public void shouldPushOnlyFilteredRecords() throws InterruptedException
+    {
+        // given
+        createJob("foo");
+        createJob("bar");
+
+        final Map<String, Object> filter = new HashMap<>();
+        filter.put("valueType", (int) ValueType.JOB.value());
+        filter.put("recordType", (int) RecordType.EVENT.value());
+        filter.put("intents", Arrays.asList((int) JobIntent.CREATED.value()));
+        filter.put("jobType", "bar");
+
+        // when
+        apiRule.createCmdRequest()
+            .type(ValueType.SUBSCRIBER, SubscriberIntent.SUBSCRIBE)
+            .command()
+                .put("startPosition", 0)
+                .put("name", "foo")
+                .put("filters", Arrays.asList(filter))
+                .done()
+            .sendAndAwait();
+
+        // then
+        final SubscribedRecord jobEvent = apiRule.subscribedEvents().findFirst().get();
+        assertThat(jobEvent.valueType()).isEqualTo(ValueType.JOB);
+        assertThat(jobEvent.recordType()).isEqualTo(RecordType.EVENT);
+        assertThat(jobEvent.intent()).isEqualTo(JobIntent.CREATED);
+        assertThat(jobEvent.value()).contains(entry("type", "bar"));
+
+        Thread.sleep(500L);
+        assertThat(apiRule.numSubscribedEventsAvailable()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldFilterJobRecordsByBpmnProcessIdOfHeaders() throws InterruptedException
+    {
+        // given
+        createJob("foo", "order-process");
+        createJob("bar", "shipping-process");
+
+        final Map<String, Object> filter = new HashMap<>();
+        filter.put("valueType", (int) ValueType.JOB.value());
+        filter.put("recordType", (int) RecordType.EVENT.value());
+        filter.put("intents", Arrays.asList((int) JobIntent.CREATED.value()));
+        filter.put("bpmnProcessId", "shipping-process");
+
+        // when
+        apiRule.createCmdRequest()
+            .type(ValueType.SUBSCRIBER, SubscriberIntent.SUBSCRIBE)
+            .command()
+                .put("startPosition", 0)
+                .put("name", "foo")
+                .put("filters", Arrays.asList(filter))
+                .done()
+            .sendAndAwait();
+
+        // then
+        final SubscribedRecord jobEvent = apiRule.subscribedEvents().findFirst().get();
+        assertThat(jobEvent.valueType()).isEqualTo(ValueType.JOB);
+        assertThat(jobEvent.intent()).isEqualTo(JobIntent.CREATED);
+        assertThat(jobEvent.value()).contains(entry("type", "bar"));
+
+        Thread.sleep(500L);
+        assertThat(apiRule.numSubscribedEventsAvailable()).isEqualTo(0);
+    }
+
     @Test
     public void shouldReturnStartPositionOnOpen()
     {
@@ -506,6 +575,32 @@ public class TopicSubscriptionTest
         assertThat(firstPushedEvent.getSequenceNumber()).isGreaterThan(subscriptionResponse.getSequenceNumber());
     }
 
+    protected void createJob(String type)
+    {
+        apiRule.createCmdRequest()
+            .type(ValueType.JOB, JobIntent.CREATE)
+            .command()
+                .put("type", type)
+                .put("retries", 1)
+                .done()
+            .sendAndAwait();
+    }
+
+    protected void createJob(String type, String bpmnProcessId)
+    {
+        final Map<String, Object> headers = new HashMap<>();
+        headers.put("bpmnProcessId", bpmnProcessId);
+
+        apiRule.createCmdRequest()
+            .type(ValueType.JOB, JobIntent.CREATE)
+            .command()
+                .put("type", type)
+                .put("retries", 1)
+                .put("headers", headers)
+                .done()
+            .sendAndAwait();
+    }
+
     protected String getStringOfLength(int numCharacters)
     {
         final char[] characters = new char[numCharacters];
@@ -0,0 +1,255 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.map;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.agrona.DirectBuffer;
+import org.junit.Test;
+
+public class ActivatableJobsTest
+{
+    private static final DirectBuffer TYPE_FOO = wrapString("foo");
+    private static final DirectBuffer TYPE_BAR = wrapString("bar");
+
+    private final ActivatableJobs jobs = new ActivatableJobs();
+
+    @Test
+    public void shouldReturnJobsOfTypeInInsertionOrder()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.add(TYPE_BAR, 2, 20);
+        jobs.add(TYPE_FOO, 3, 30);
+
+        // when
+        final long firstKey = jobs.peekKey(TYPE_FOO);
+        jobs.markActivating(TYPE_FOO, firstKey);
+        final long secondKey = jobs.peekKey(TYPE_FOO);
+
+        // then
+        assertThat(firstKey).isEqualTo(1L);
+        assertThat(secondKey).isEqualTo(3L);
+        assertThat(jobs.peekKey(TYPE_BAR)).isEqualTo(2L);
+        assertThat(jobs.getPosition(3)).isEqualTo(30L);
+    }
+
+    @Test
+    public void shouldSkipRemovedJobs()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.add(TYPE_FOO, 2, 20);
+
+        // when
+        jobs.remove(1);
+
+        // then
+        assertThat(jobs.peekKey(TYPE_FOO)).isEqualTo(2L);
+        assertThat(jobs.getPosition(1)).isEqualTo(-1L);
+        assertThat(jobs.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldPeekNextJobsOfType()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.add(TYPE_BAR, 2, 20);
+        jobs.add(TYPE_FOO, 3, 30);
+        jobs.add(TYPE_FOO, 4, 40);
+        jobs.add(TYPE_FOO, 5, 50);
+        jobs.remove(3);
+
+        final long[] keys = new long[2];
+
+        // when
+        final int count = jobs.peekKeys(TYPE_FOO, keys);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(keys).containsExactly(1L, 4L);
+
+        jobs.markActivating(TYPE_FOO, 1);
+        jobs.markActivating(TYPE_FOO, 4);
+        assertThat(jobs.peekKey(TYPE_FOO)).isEqualTo(5L);
+    }
+
+    @Test
+    public void shouldNotHaveJobsOfUnknownType()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+
+        // then
+        assertThat(jobs.hasJobs(TYPE_BAR)).isFalse();
+        assertThat(jobs.peekKey(TYPE_BAR)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void shouldKeepActivatingJobsUntilRemoved()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+
+        // when
+        jobs.markActivating(TYPE_FOO, 1);
+
+        // then
+        assertThat(jobs.hasJobs(TYPE_FOO)).isFalse();
+        assertThat(jobs.size()).isEqualTo(1);
+        assertThat(jobs.activatingCount()).isEqualTo(1);
+
+        // when
+        jobs.remove(1);
+
+        // then
+        assertThat(jobs.size()).isEqualTo(0);
+        assertThat(jobs.activatingCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRemoveActivatingJobOnRejection() throws Exception
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.markActivating(TYPE_FOO, 1);
+
+        // when
+        final boolean removed = jobs.removeActivating(1);
+
+        // then
+        assertThat(removed).isTrue();
+        assertThat(jobs.size()).isEqualTo(0);
+        assertThat(jobs.activatingCount()).isEqualTo(0);
+        assertThat(recover(jobs).size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotRemoveQueuedJobOnRejection()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+
+        // when
+        final boolean removed = jobs.removeActivating(1);
+
+        // then
+        assertThat(removed).isFalse();
+        assertThat(jobs.peekKey(TYPE_FOO)).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldQueueRejectedJobAgain()
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.markActivating(TYPE_FOO, 1);
+        jobs.removeActivating(1);
+
+        // when
+        jobs.add(TYPE_FOO, 1, 20);
+
+        // then
+        assertThat(jobs.peekKey(TYPE_FOO)).isEqualTo(1L);
+        assertThat(jobs.getPosition(1)).isEqualTo(20L);
+    }
+
+    @Test
+    public void shouldQueueJobOnceIfAddedAgain() throws Exception
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.remove(1);
+
+        // when
+        jobs.add(TYPE_FOO, 1, 20);
+        jobs.add(TYPE_FOO, 2, 30);
+
+        // then
+        final long[] keys = new long[4];
+        assertThat(jobs.peekKeys(TYPE_FOO, keys)).isEqualTo(2);
+        assertThat(keys).startsWith(1L, 2L);
+
+        jobs.markActivating(TYPE_FOO, 1);
+        jobs.markActivating(TYPE_FOO, 2);
+        assertThat(jobs.hasJobs(TYPE_FOO)).isFalse();
+
+        final ActivatableJobs recoveredJobs = recover(jobs);
+        assertThat(recoveredJobs.size()).isEqualTo(2);
+        assertThat(recoveredJobs.getPosition(1)).isEqualTo(20L);
+    }
+
+    @Test
+    public void shouldNotSnapshotJobTwiceIfAddedAgain() throws Exception
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.remove(1);
+        jobs.add(TYPE_FOO, 1, 20);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        final long snapshotSize = jobs.writeSnapshot(outputStream);
+
+        // then
+        assertThat(snapshotSize).isEqualTo(outputStream.size());
+        assertThat(snapshotSize).isEqualTo(4 + 4 + TYPE_FOO.capacity() + 4 + 16);
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshot() throws Exception
+    {
+        // given
+        jobs.add(TYPE_FOO, 1, 10);
+        jobs.add(TYPE_FOO, 2, 20);
+        jobs.add(TYPE_BAR, 3, 30);
+        jobs.markActivating(TYPE_FOO, 1);
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long snapshotSize = jobs.writeSnapshot(outputStream);
+
+        // when
+        final ActivatableJobs recoveredJobs = new ActivatableJobs();
+        recoveredJobs.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        assertThat(snapshotSize).isEqualTo(outputStream.size());
+        assertThat(recoveredJobs.size()).isEqualTo(3);
+        assertThat(recoveredJobs.activatingCount()).isEqualTo(0);
+        assertThat(recoveredJobs.peekKey(TYPE_FOO)).isEqualTo(2L);
+        assertThat(recoveredJobs.peekKey(TYPE_BAR)).isEqualTo(3L);
+        assertThat(recoveredJobs.getPosition(1)).isEqualTo(10L);
+    }
+
+    private static ActivatableJobs recover(ActivatableJobs jobs) throws Exception
+    {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        jobs.writeSnapshot(outputStream);
+
+        final ActivatableJobs recoveredJobs = new ActivatableJobs();
+        recoveredJobs.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        return recoveredJobs;
+    }
+}
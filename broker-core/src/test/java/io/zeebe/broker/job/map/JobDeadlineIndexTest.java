@@ -0,0 +1,154 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class JobDeadlineIndexTest
+{
+    private final JobDeadlineIndex index = new JobDeadlineIndex();
+
+    @Test
+    public void shouldReturnJobsInDeadlineOrder()
+    {
+        // given
+        index.put(1, 300);
+        index.put(2, 100);
+        index.put(3, 200);
+        index.put(4, 100);
+
+        // when
+        final List<Long> keys = pollDue(Long.MAX_VALUE);
+
+        // then
+        assertThat(keys).containsExactly(2L, 4L, 3L, 1L);
+    }
+
+    @Test
+    public void shouldOnlyReturnDueJobs()
+    {
+        // given
+        index.put(1, 100);
+        index.put(2, 200);
+        index.put(3, 300);
+
+        // when
+        final List<Long> keys = pollDue(200);
+
+        // then
+        assertThat(keys).containsExactly(1L, 2L);
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.peekKey()).isEqualTo(3L);
+    }
+
+    @Test
+    public void shouldUpdateDeadline()
+    {
+        // given
+        index.put(1, 100);
+        index.put(2, 200);
+
+        // when
+        index.put(1, 300);
+
+        // then
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(pollDue(Long.MAX_VALUE)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void shouldRemoveJob()
+    {
+        // given
+        for (int i = 0; i < 100; i++)
+        {
+            index.put(i, 1000 - i);
+        }
+
+        // when
+        for (int i = 0; i < 100; i += 2)
+        {
+            index.remove(i);
+        }
+
+        // then
+        final List<Long> keys = pollDue(Long.MAX_VALUE);
+        assertThat(keys).hasSize(50);
+        assertThat(keys.get(0)).isEqualTo(99L);
+        assertThat(keys.get(49)).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldRemoveTimingOutJob()
+    {
+        // given
+        index.put(1, 100);
+        index.markTimingOut();
+
+        // when
+        index.remove(1);
+
+        // then
+        assertThat(index.isEmpty()).isTrue();
+        assertThat(index.timingOutCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRecoverTimingOutJobsFromSnapshot() throws Exception
+    {
+        // given
+        index.put(1, 100);
+        index.put(2, 200);
+        index.put(3, 300);
+        index.markTimingOut();
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final long size = index.snapshotSize();
+        index.writeSnapshot(out);
+
+        // when
+        final JobDeadlineIndex recoveredIndex = new JobDeadlineIndex();
+        recoveredIndex.recoverFromSnapshot(new ByteArrayInputStream(out.toByteArray()));
+
+        // then
+        assertThat(out.size()).isEqualTo((int) size);
+        assertThat(recoveredIndex.size()).isEqualTo(3);
+        assertThat(recoveredIndex.timingOutCount()).isEqualTo(0);
+        assertThat(recoveredIndex.peekKey()).isEqualTo(1L);
+    }
+
+    private List<Long> pollDue(long now)
+    {
+        final List<Long> keys = new ArrayList<>();
+
+        while (index.hasDueJob(now))
+        {
+            keys.add(index.peekKey());
+            index.markTimingOut();
+        }
+
+        return keys;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import static io.zeebe.test.util.TestUtil.waitUntil;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.job.map.ActivatableJobs;
+import io.zeebe.broker.logstreams.processor.TypedRecord;
+import io.zeebe.broker.logstreams.processor.TypedStreamEnvironment;
+import io.zeebe.broker.util.StreamProcessorRule;
+import io.zeebe.logstreams.processor.StreamProcessor;
+import io.zeebe.protocol.clientapi.RecordType;
+import io.zeebe.protocol.intent.JobIntent;
+import io.zeebe.util.buffer.BufferUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ActivateJobStreamProcessorTest
+{
+    private static final long SUBSCRIBER_KEY = 123L;
+
+    @Rule
+    public StreamProcessorRule rule = new StreamProcessorRule();
+
+    private ActivateJobStreamProcessor streamProcessor;
+    private ActivatableJobs activatableJobs;
+
+    @Before
+    public void setUp()
+    {
+        streamProcessor = new ActivateJobStreamProcessor();
+        activatableJobs = streamProcessor.getActivatableJobs();
+
+        rule.runStreamProcessor(this::buildStreamProcessor);
+    }
+
+    @Test
+    public void shouldActivateQueuedJobWhenSubscriptionIsAdded()
+    {
+        // given
+        rule.writeEvent(1, JobIntent.CREATED, job());
+        waitUntil(() -> activatableJobs.size() == 1);
+
+        // when
+        streamProcessor.addSubscription(subscription(2)).join();
+
+        // then
+        waitUntil(() -> activateCommands().size() == 1);
+
+        final TypedRecord<JobRecord> activateCommand = activateCommands().get(0);
+        assertThat(activateCommand.getKey()).isEqualTo(1L);
+        assertThat(activateCommand.getMetadata().getSubscriberKey()).isEqualTo(SUBSCRIBER_KEY);
+        assertThat(BufferUtil.bufferAsString(activateCommand.getValue().getWorker())).isEqualTo("bar");
+
+        waitUntil(() -> activatableJobs.activatingCount() == 1);
+    }
+
+    @Test
+    public void shouldRemoveJobIfActivationIsRejected()
+    {
+        // given
+        rule.writeEvent(1, JobIntent.CREATED, job());
+        waitUntil(() -> activatableJobs.size() == 1);
+
+        streamProcessor.addSubscription(subscription(2)).join();
+        waitUntil(() -> activateCommands().size() == 1);
+
+        // when
+        writeRejection(1, JobIntent.ACTIVATE);
+
+        // then
+        waitUntil(() -> activatableJobs.size() == 0);
+        assertThat(activatableJobs.activatingCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldOfferRejectedJobAgain()
+    {
+        // given
+        rule.writeEvent(1, JobIntent.CREATED, job());
+        waitUntil(() -> activatableJobs.size() == 1);
+
+        streamProcessor.addSubscription(subscription(2)).join();
+        waitUntil(() -> activateCommands().size() == 1);
+
+        writeRejection(1, JobIntent.ACTIVATE);
+        waitUntil(() -> activatableJobs.size() == 0);
+
+        // when
+        rule.writeEvent(1, JobIntent.TIMED_OUT, job());
+
+        // then
+        waitUntil(() -> activateCommands().size() == 2);
+
+        assertThat(activateCommands()).extracting(r -> r.getKey()).containsExactly(1L, 1L);
+    }
+
+    @Test
+    public void shouldNotActivateJobTwiceIfAddedAgain()
+    {
+        // given
+        rule.writeEvent(1, JobIntent.CREATED, job());
+        rule.writeEvent(1, JobIntent.CANCELED, job());
+        rule.writeEvent(1, JobIntent.FAILED, job());
+        rule.writeEvent(2, JobIntent.CREATED, job());
+        waitUntil(() -> activatableJobs.size() == 2);
+
+        // when
+        streamProcessor.addSubscription(subscription(3)).join();
+
+        // then
+        waitUntil(() -> activateCommands().size() == 2);
+
+        assertThat(activateCommands()).extracting(r -> r.getKey()).containsExactly(1L, 2L);
+        assertThat(activatableJobs.hasJobs(BufferUtil.wrapString("foo"))).isFalse();
+    }
+
+    private List<TypedRecord<JobRecord>> activateCommands()
+    {
+        return rule.events()
+            .onlyJobRecords()
+            .onlyCommands()
+            .withIntent(JobIntent.ACTIVATE)
+            .collect(Collectors.toList());
+    }
+
+    private void writeRejection(long key, JobIntent intent)
+    {
+        rule.newRecord()
+            .recordType(RecordType.COMMAND_REJECTION)
+            .key(key)
+            .intent(intent)
+            .event(job())
+            .write();
+    }
+
+    private JobSubscription subscription(int credits)
+    {
+        final JobSubscription subscription = new JobSubscription(0, BufferUtil.wrapString("foo"), 1000, BufferUtil.wrapString("bar"), 1);
+        subscription.setSubscriberKey(SUBSCRIBER_KEY);
+        subscription.setCredits(credits);
+
+        return subscription;
+    }
+
+    private JobRecord job()
+    {
+        final JobRecord event = new JobRecord();
+
+        event.setType(BufferUtil.wrapString("foo"));
+        event.setRetries(3);
+
+        return event;
+    }
+
+    private StreamProcessor buildStreamProcessor(TypedStreamEnvironment env)
+    {
+        return streamProcessor.createStreamProcessor(env);
+    }
+}
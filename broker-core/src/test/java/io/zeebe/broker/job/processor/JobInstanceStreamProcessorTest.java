@@ -132,6 +132,57 @@ public class JobInstanceStreamProcessorTest
                     tuple(RecordType.COMMAND_REJECTION, JobIntent.ACTIVATE));
     }
 
+    @Test
+    public void shouldPushActivatedJobsOneByOneIfNotActivatedInBatch()
+    {
+        // when
+        activateTwoJobsInARow(false);
+
+        // then
+        waitUntil(() -> rule.getOutput().getSentMessageCount() == 2);
+    }
+
+    @Test
+    public void shouldPushActivatedJobsOfBatchTogether()
+    {
+        // when
+        activateTwoJobsInARow(true);
+
+        // then
+        waitUntil(() -> rule.getOutput().getSentMessageCount() > 0);
+        assertThat(rule.getOutput().getSentMessageCount()).isEqualTo(1);
+    }
+
+    private void activateTwoJobsInARow(boolean isBatch)
+    {
+        rule.getClock().pinCurrentTime();
+
+        final StreamProcessorControl control = rule.runStreamProcessor(this::buildStreamProcessor);
+        control.blockAfterJobEvent(e -> e.getMetadata().getIntent() == JobIntent.CREATED && e.getKey() == 2);
+
+        rule.writeCommand(1, JobIntent.CREATE, job());
+        rule.writeCommand(2, JobIntent.CREATE, job());
+        waitUntil(() -> rule.events().onlyJobRecords().onlyEvents().withIntent(JobIntent.CREATED).count() == 2);
+
+        rule.newRecord()
+            .recordType(RecordType.COMMAND)
+            .key(1)
+            .intent(JobIntent.ACTIVATE)
+            .event(activatedJob(nowPlus(Duration.ofSeconds(30))))
+            .metadata(m ->
+            {
+                if (isBatch)
+                {
+                    m.requestId(ActivateJobStreamProcessor.FOLLOWED_BY_ACTIVATION);
+                }
+            })
+            .write();
+        rule.writeCommand(2, JobIntent.ACTIVATE, activatedJob(nowPlus(Duration.ofSeconds(30))));
+        control.unblock();
+
+        waitUntil(() -> rule.events().onlyJobRecords().onlyEvents().withIntent(JobIntent.ACTIVATED).count() == 2);
+    }
+
     @Test
     public void shouldRejectActivationIfJobNotFound()
     {
@@ -0,0 +1,186 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.job.processor;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class JobSubscriptionsTest
+{
+    private final JobSubscriptions subscriptions = new JobSubscriptions(2);
+
+    @Test
+    public void shouldDistributeRoundRobin()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.ROUND_ROBIN);
+        subscriptions.addSubscription(subscription(1, 0, 2));
+        subscriptions.addSubscription(subscription(2, 0, 2));
+
+        // when
+        final List<Long> receivers = distributeJobs(5);
+
+        // then
+        assertThat(receivers).containsExactly(1L, 2L, 1L, 2L);
+    }
+
+    @Test
+    public void shouldSkipSubscriptionsWithoutCredits()
+    {
+        // given
+        subscriptions.addSubscription(subscription(1, 0, 0));
+        subscriptions.addSubscription(subscription(2, 0, 1));
+        subscriptions.addSubscription(subscription(3, 0, 0));
+
+        // when
+        final List<Long> receivers = distributeJobs(3);
+
+        // then
+        assertThat(receivers).containsExactly(2L);
+    }
+
+    @Test
+    public void shouldDistributeToSubscriptionWhenCreditsAreAdded()
+    {
+        // given
+        subscriptions.addSubscription(subscription(1, 0, 1));
+        distributeJobs(1);
+
+        // when
+        subscriptions.addCredits(1, 2);
+
+        // then
+        assertThat(distributeJobs(3)).containsExactly(1L, 1L);
+    }
+
+    @Test
+    public void shouldDistributeWeightedRoundRobin()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.WEIGHTED_ROUND_ROBIN);
+        subscriptions.addSubscription(weightedSubscription(1, 5, 3));
+        subscriptions.addSubscription(weightedSubscription(2, 5, 1));
+
+        // when
+        final List<Long> receivers = distributeJobs(4);
+
+        // then
+        assertThat(receivers).containsExactly(1L, 1L, 1L, 2L);
+    }
+
+    @Test
+    public void shouldNotWeightByCredits()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.WEIGHTED_ROUND_ROBIN);
+        subscriptions.addSubscription(subscription(1, 0, 3));
+        subscriptions.addSubscription(subscription(2, 0, 1));
+
+        // when
+        final List<Long> receivers = distributeJobs(4);
+
+        // then
+        assertThat(receivers).containsExactly(1L, 2L, 1L, 1L);
+    }
+
+    @Test
+    public void shouldDistributeToMostCredits()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.MOST_CREDITS);
+        subscriptions.addSubscription(subscription(1, 0, 1));
+        subscriptions.addSubscription(subscription(2, 0, 3));
+        subscriptions.addSubscription(subscription(3, 0, 2));
+
+        // when
+        final List<Long> receivers = distributeJobs(3);
+
+        // then
+        assertThat(receivers).containsExactly(2L, 2L, 3L);
+    }
+
+    @Test
+    public void shouldPreferSubscriptionsOfSameStream()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.LOCALITY);
+        subscriptions.addSubscription(subscription(1, 1, 2));
+        subscriptions.addSubscription(subscription(2, 2, 2));
+        subscriptions.addSubscription(subscription(3, 1, 2));
+
+        // when
+        final List<Long> receivers = distributeJobs(6);
+
+        // then
+        assertThat(receivers).containsExactly(1L, 3L, 1L, 3L, 2L, 2L);
+    }
+
+    @Test
+    public void shouldNotDistributeToRemovedSubscription()
+    {
+        // given
+        subscriptions.setDistribution(JobDistribution.LOCALITY);
+        subscriptions.addSubscription(subscription(1, 1, 2));
+        subscriptions.addSubscription(subscription(2, 2, 2));
+
+        // when
+        subscriptions.removeSubscription(1);
+
+        // then
+        assertThat(distributeJobs(3)).containsExactly(2L, 2L);
+    }
+
+    private List<Long> distributeJobs(int jobs)
+    {
+        final List<Long> receivers = new ArrayList<>();
+
+        for (int i = 0; i < jobs; i++)
+        {
+            final JobSubscription subscription = subscriptions.nextAvailableSubscription();
+            if (subscription != null)
+            {
+                receivers.add(subscription.getSubscriberKey());
+                subscriptions.addCredits(subscription.getSubscriberKey(), -1);
+            }
+        }
+
+        return receivers;
+    }
+
+    private static JobSubscription subscription(long subscriberKey, int streamId, int credits)
+    {
+        final JobSubscription subscription = new JobSubscription(0, wrapString("foo"), 1000, wrapString("bar"), streamId);
+        subscription.setSubscriberKey(subscriberKey);
+        subscription.setCredits(credits);
+
+        return subscription;
+    }
+
+    private static JobSubscription weightedSubscription(long subscriberKey, int credits, int weight)
+    {
+        final JobSubscription subscription = subscription(subscriberKey, 0, credits);
+        subscription.setWeight(weight);
+
+        return subscription;
+    }
+}
@@ -19,26 +19,72 @@ package io.zeebe.broker.job.processor;
 
 import static io.zeebe.test.util.TestUtil.doRepeatedly;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 
 import io.zeebe.broker.job.JobQueueManagerService;
 import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.logstreams.processor.TypedBatchWriter;
 import io.zeebe.broker.logstreams.processor.TypedRecord;
+import io.zeebe.broker.logstreams.processor.TypedStreamReader;
+import io.zeebe.broker.logstreams.processor.TypedStreamWriter;
 import io.zeebe.broker.util.StreamProcessorRule;
 import io.zeebe.protocol.intent.JobIntent;
 import io.zeebe.util.buffer.BufferUtil;
 
 public class JobTimeOutStreamProcessorTest
 {
+    private static final long DEADLINE = 1000;
+
     @Rule
     public StreamProcessorRule rule = new StreamProcessorRule();
 
+    private final JobTimeOutStreamProcessor processor = new JobTimeOutStreamProcessor();
+
+    private final TypedStreamWriter writer = mock(TypedStreamWriter.class);
+    private final TypedBatchWriter batchWriter = mock(TypedBatchWriter.class);
+    private final TypedStreamReader reader = mock(TypedStreamReader.class);
+
+    // the number of commands of each written batch
+    private final List<Integer> batches = new ArrayList<>();
+    private final List<Long> timedOutKeys = new ArrayList<>();
+
+    @Before
+    public void setUp()
+    {
+        doAnswer(i ->
+        {
+            batches.add(0);
+            return batchWriter;
+        }).when(writer).newBatch();
+
+        doAnswer(i ->
+        {
+            batches.set(batches.size() - 1, batches.get(batches.size() - 1) + 1);
+            timedOutKeys.add(i.getArgument(0));
+            return batchWriter;
+        }).when(batchWriter).addFollowUpCommand(anyLong(), eq(JobIntent.TIME_OUT), any());
+
+        when(batchWriter.write()).thenReturn(1L);
+
+        processor.open(writer, reader);
+    }
+
     private JobRecord job()
     {
         final JobRecord event = new JobRecord();
@@ -73,4 +119,158 @@ public class JobTimeOutStreamProcessorTest
 
         assertThat(expirationEvents).extracting("key").containsExactlyInAnyOrder(1L, 2L);
     }
+
+    @Test
+    public void shouldTimeOutDueJobsInBatches()
+    {
+        // given
+        final int jobCount = JobTimeOutStreamProcessor.MAX_BATCH_SIZE + 8;
+        for (int i = 0; i < jobCount; i++)
+        {
+            processor.registerJob(i, i, job().setDeadline(DEADLINE + i));
+        }
+
+        processor.registerJob(jobCount, jobCount, job().setDeadline(DEADLINE + 10_000));
+
+        // when
+        processor.timeOutJobs(DEADLINE + jobCount);
+
+        // then
+        assertThat(batches).containsExactly(JobTimeOutStreamProcessor.MAX_BATCH_SIZE, 8);
+        assertThat(timedOutKeys).hasSize(jobCount).doesNotContain((long) jobCount);
+
+        assertThat(processor.deadlineIndex.size()).isEqualTo(1);
+        assertThat(processor.deadlineIndex.timingOutCount()).isEqualTo(jobCount);
+
+        // small records are timed out without reading the log
+        verify(reader, never()).readValue(anyLong(), any());
+    }
+
+    @Test
+    public void shouldLimitBatchByLength()
+    {
+        // given
+        final JobRecord largeJob = job().setDeadline(DEADLINE);
+        largeJob.setType(BufferUtil.wrapString(new String(new char[2048]).replace('\0', 'x')));
+
+        final int jobLength = largeJob.getLength();
+        assertThat(jobLength).isGreaterThan(JobTimeOutStreamProcessor.INLINE_RECORD_MAX_LENGTH);
+
+        @SuppressWarnings("unchecked")
+        final TypedRecord<JobRecord> largeJobEvent = mock(TypedRecord.class);
+        when(largeJobEvent.getValue()).thenReturn(largeJob);
+        when(reader.readValue(anyLong(), eq(JobRecord.class))).thenReturn(largeJobEvent);
+
+        final int jobCount = JobTimeOutStreamProcessor.MAX_BATCH_SIZE;
+        for (int i = 0; i < jobCount; i++)
+        {
+            processor.registerJob(i, i, largeJob);
+        }
+
+        // when
+        processor.timeOutJobs(DEADLINE);
+
+        // then
+        final int jobsPerBatch = (JobTimeOutStreamProcessor.MAX_BATCH_LENGTH + jobLength - 1) / jobLength;
+
+        assertThat(batches).hasSize((jobCount + jobsPerBatch - 1) / jobsPerBatch);
+        assertThat(batches).allMatch(size -> size <= jobsPerBatch);
+        assertThat(batches.get(0)).isEqualTo(jobsPerBatch);
+        assertThat(timedOutKeys).hasSize(jobCount);
+    }
+
+    @Test
+    public void shouldRequeueJobsOfBatchOnBackpressure()
+    {
+        // given
+        for (int i = 0; i < 3; i++)
+        {
+            processor.registerJob(i, i, job().setDeadline(DEADLINE));
+        }
+
+        when(batchWriter.write()).thenReturn(-1L, 1L);
+
+        // when
+        processor.timeOutJobs(DEADLINE);
+
+        // then
+        assertThat(batches).containsExactly(3);
+        assertThat(processor.deadlineIndex.size()).isEqualTo(3);
+        assertThat(processor.deadlineIndex.timingOutCount()).isEqualTo(0);
+        assertThat(processor.deadlineIndex.peekDeadline()).isEqualTo(DEADLINE);
+
+        // when
+        processor.timeOutJobs(DEADLINE);
+
+        // then
+        assertThat(batches).containsExactly(3, 3);
+        assertThat(processor.deadlineIndex.size()).isEqualTo(0);
+        assertThat(processor.deadlineIndex.timingOutCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldNotTimeOutUnregisteredJob()
+    {
+        // given
+        processor.registerJob(1, 1, job().setDeadline(DEADLINE));
+        processor.registerJob(2, 2, job().setDeadline(DEADLINE));
+
+        processor.unregisterJob(1);
+
+        // when
+        processor.timeOutJobs(DEADLINE);
+
+        // then
+        assertThat(timedOutKeys).containsExactly(2L);
+        assertThat(processor.inlineRecords.containsKey(1)).isFalse();
+    }
+
+    @Test
+    public void shouldReadJobsFromLogIfInlineRecordsAreFull()
+    {
+        // given
+        final JobRecord job = job().setDeadline(DEADLINE);
+        final int jobLength = job.getLength();
+
+        final JobTimeOutStreamProcessor processor = new JobTimeOutStreamProcessor(2 * jobLength);
+        processor.open(writer, reader);
+
+        @SuppressWarnings("unchecked")
+        final TypedRecord<JobRecord> jobEvent = mock(TypedRecord.class);
+        when(jobEvent.getValue()).thenReturn(job);
+        when(reader.readValue(anyLong(), eq(JobRecord.class))).thenReturn(jobEvent);
+
+        for (int i = 0; i < 3; i++)
+        {
+            processor.registerJob(i, i, job);
+        }
+
+        // when
+        processor.timeOutJobs(DEADLINE);
+
+        // then
+        assertThat(timedOutKeys).containsExactlyInAnyOrder(0L, 1L, 2L);
+        assertThat(processor.inlineRecords).hasSize(2);
+        assertThat(processor.getInlineRecordsBytes()).isEqualTo(2 * jobLength);
+
+        verify(reader).readValue(2L, JobRecord.class);
+    }
+
+    @Test
+    public void shouldReleaseInlineRecordOnUnregister()
+    {
+        // given
+        final JobRecord job = job().setDeadline(DEADLINE);
+        final JobTimeOutStreamProcessor processor = new JobTimeOutStreamProcessor(job.getLength());
+
+        processor.registerJob(1, 1, job);
+        processor.unregisterJob(1);
+
+        // when
+        processor.registerJob(2, 2, job);
+
+        // then
+        assertThat(processor.inlineRecords.containsKey(2)).isTrue();
+        assertThat(processor.getInlineRecordsBytes()).isEqualTo(job.getLength());
+    }
 }
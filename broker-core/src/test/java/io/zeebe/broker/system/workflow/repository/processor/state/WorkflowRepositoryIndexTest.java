@@ -0,0 +1,190 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.workflow.repository.processor.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex.WorkflowMetadata;
+import org.junit.Test;
+
+public class WorkflowRepositoryIndexTest
+{
+    private final WorkflowRepositoryIndex index = new WorkflowRepositoryIndex();
+
+    @Test
+    public void shouldReturnWorkflowsInVersionOrder()
+    {
+        // given
+        index.addTopic("topic");
+
+        deploy("topic", "foo");
+        deploy("topic", "bar");
+        deploy("topic", "foo");
+
+        // when
+        final WorkflowMetadata latest = index.getLatestWorkflowByBpmnProcessId("topic", "foo");
+
+        // then
+        assertThat(latest.getKey()).isEqualTo(3L);
+        assertThat(latest.getVersion()).isEqualTo(2);
+        assertThat(index.getWorkflowByBpmnProcessIdAndVersion("topic", "foo", 1).getKey()).isEqualTo(1L);
+        assertThat(index.getWorkflowsByTopicAndBpmnProcessId("topic", "foo"))
+            .extracting(WorkflowMetadata::getVersion)
+            .containsExactly(1, 2);
+        assertThat(index.getWorkflowsByTopic("topic")).hasSize(3);
+    }
+
+    @Test
+    public void shouldNotFindWorkflowsOfUnknownTopic()
+    {
+        // given
+        index.addTopic("topic");
+        deploy("topic", "foo");
+
+        // then
+        assertThat(index.checkTopicExists("other")).isFalse();
+        assertThat(index.getLatestWorkflowByBpmnProcessId("other", "foo")).isNull();
+        assertThat(index.getWorkflowByBpmnProcessIdAndVersion("topic", "foo", 2)).isNull();
+        assertThat(index.getWorkflowsByTopic("other")).isEmpty();
+        assertThat(index.getWorkflowByKey(99)).isNull();
+    }
+
+    @Test
+    public void shouldRecoverFromSnapshot() throws Exception
+    {
+        // given
+        index.addTopic("topic");
+        index.addTopic("other");
+
+        deploy("topic", "foo");
+        deploy("other", "foo");
+        deploy("topic", "foo");
+
+        // a version which was generated but not added yet
+        index.getNextVersion("topic", "bar");
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long snapshotSize = index.writeSnapshot(outputStream);
+
+        // when
+        final WorkflowRepositoryIndex recoveredIndex = new WorkflowRepositoryIndex();
+        recoveredIndex.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        assertThat(snapshotSize).isEqualTo(outputStream.size());
+        assertThat(recoveredIndex.checkTopicExists("other")).isTrue();
+
+        final WorkflowMetadata workflow = recoveredIndex.getWorkflowByKey(2);
+        assertThat(workflow.getTopicName()).isEqualTo("other");
+        assertThat(workflow.getBpmnProcessId()).isEqualTo("foo");
+        assertThat(workflow.getVersion()).isEqualTo(1);
+        assertThat(workflow.getEventPosition()).isEqualTo(2L);
+
+        assertThat(recoveredIndex.getLatestWorkflowByBpmnProcessId("topic", "foo").getKey()).isEqualTo(3L);
+        assertThat(recoveredIndex.getNextKey()).isEqualTo(4L);
+        assertThat(recoveredIndex.getNextVersion("topic", "bar")).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRecoverFromLegacyJsonSnapshot() throws Exception
+    {
+        // given
+        final String snapshot = "{\n" +
+            "  \"lastGeneratedKey\" : 2,\n" +
+            "  \"workflows\" : {\n" +
+            "    \"1\" : { \"key\" : 1, \"version\" : 1, \"bpmnProcessId\" : \"foo\", \"topicName\" : \"topic\", \"eventPosition\" : 10 },\n" +
+            "    \"2\" : { \"key\" : 2, \"version\" : 2, \"bpmnProcessId\" : \"foo\", \"topicName\" : \"topic\", \"eventPosition\" : 20 }\n" +
+            "  },\n" +
+            "  \"topics\" : {\n" +
+            "    \"topic\" : { \"bpmnProcessIds\" : { \"foo\" : { \"lastGeneratedVersion\" : 3, \"versions\" : { \"1\" : 1, \"2\" : 2 } } } },\n" +
+            "    \"other\" : { \"bpmnProcessIds\" : { } }\n" +
+            "  }\n" +
+            "}";
+
+        // when
+        index.recoverFromSnapshot(new ByteArrayInputStream(snapshot.getBytes(StandardCharsets.UTF_8)));
+
+        // then
+        assertThat(index.checkTopicExists("other")).isTrue();
+
+        final WorkflowMetadata workflow = index.getWorkflowByKey(1);
+        assertThat(workflow.getTopicName()).isEqualTo("topic");
+        assertThat(workflow.getBpmnProcessId()).isEqualTo("foo");
+        assertThat(workflow.getVersion()).isEqualTo(1);
+        assertThat(workflow.getEventPosition()).isEqualTo(10L);
+
+        assertThat(index.getLatestWorkflowByBpmnProcessId("topic", "foo").getKey()).isEqualTo(2L);
+        assertThat(index.getNextKey()).isEqualTo(3L);
+        assertThat(index.getNextVersion("topic", "foo")).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldWriteBinarySnapshotAfterRecoveringFromLegacyJsonSnapshot() throws Exception
+    {
+        // given
+        final String snapshot = "{ \"lastGeneratedKey\" : 1, " +
+            "\"workflows\" : { \"1\" : { \"key\" : 1, \"version\" : 1, \"bpmnProcessId\" : \"foo\", \"topicName\" : \"topic\", \"eventPosition\" : 10 } }, " +
+            "\"topics\" : { \"topic\" : { \"bpmnProcessIds\" : { \"foo\" : { \"lastGeneratedVersion\" : 1, \"versions\" : { \"1\" : 1 } } } } } }";
+
+        index.recoverFromSnapshot(new ByteArrayInputStream(snapshot.getBytes(StandardCharsets.UTF_8)));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        index.writeSnapshot(outputStream);
+
+        // when
+        final WorkflowRepositoryIndex recoveredIndex = new WorkflowRepositoryIndex();
+        recoveredIndex.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        assertThat(outputStream.toByteArray()[0]).isNotEqualTo((byte) '{');
+        assertThat(recoveredIndex.getWorkflowByKey(1).getEventPosition()).isEqualTo(10L);
+        assertThat(recoveredIndex.getNextKey()).isEqualTo(2L);
+    }
+
+    @Test
+    public void shouldCacheWorkflowMetadata()
+    {
+        // given
+        index.addTopic("topic");
+        deploy("topic", "foo");
+
+        // when
+        final WorkflowMetadata workflow = index.getWorkflowByKey(1);
+
+        // then
+        assertThat(index.getWorkflowByKey(1)).isSameAs(workflow);
+        assertThat(index.getLatestWorkflowByBpmnProcessId("topic", "foo")).isSameAs(workflow);
+    }
+
+    private void deploy(String topic, String bpmnProcessId)
+    {
+        final int version = index.getNextVersion(topic, bpmnProcessId);
+        final long key = index.getNextKey();
+
+        index.add(new WorkflowMetadata()
+            .setKey(key)
+            .setVersion(version)
+            .setTopicName(topic)
+            .setBpmnProcessId(bpmnProcessId)
+            .setEventPosition(key));
+    }
+}
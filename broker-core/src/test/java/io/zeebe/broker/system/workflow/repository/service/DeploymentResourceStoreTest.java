@@ -0,0 +1,147 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.system.workflow.repository.service;
+
+import static io.zeebe.broker.system.workflow.repository.service.DeploymentResourceStore.ENTRY_OVERHEAD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class DeploymentResourceStoreTest
+{
+    private static final int RESOURCE_LENGTH = 1024;
+    private static final long CAPACITY = 3 * (ENTRY_OVERHEAD + RESOURCE_LENGTH);
+
+    @Test
+    public void shouldGetResource()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, false);
+        store.put(1L, resource(RESOURCE_LENGTH, 1));
+
+        // when
+        final DirectBuffer resource = store.get(1L);
+
+        // then
+        assertThat(resource).isEqualTo(resource(RESOURCE_LENGTH, 1));
+        assertThat(store.residentBytes()).isEqualTo(ENTRY_OVERHEAD + RESOURCE_LENGTH);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResource()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, false);
+        store.put(1L, resource(RESOURCE_LENGTH, 1));
+        store.put(2L, resource(RESOURCE_LENGTH, 2));
+        store.put(3L, resource(RESOURCE_LENGTH, 3));
+
+        store.get(1L);
+
+        // when
+        store.put(4L, resource(RESOURCE_LENGTH, 4));
+
+        // then
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(store.residentBytes()).isLessThanOrEqualTo(CAPACITY);
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.get(1L)).isEqualTo(resource(RESOURCE_LENGTH, 1));
+        assertThat(store.get(3L)).isEqualTo(resource(RESOURCE_LENGTH, 3));
+        assertThat(store.get(4L)).isEqualTo(resource(RESOURCE_LENGTH, 4));
+    }
+
+    @Test
+    public void shouldReleaseResourcesOnClose()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, true);
+        store.put(1L, resource(RESOURCE_LENGTH, 1));
+
+        // when
+        store.close();
+
+        // then
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.residentBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotStoreResourceLargerThanCapacity()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, false);
+        store.put(1L, resource(RESOURCE_LENGTH, 1));
+
+        // when
+        store.put(2L, resource((int) CAPACITY, 2));
+
+        // then
+        assertThat(store.get(2L)).isNull();
+        assertThat(store.get(1L)).isNotNull();
+    }
+
+    @Test
+    public void shouldKeepReturnedResourceAfterEviction()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, false);
+        store.put(1L, resource(RESOURCE_LENGTH, 1));
+
+        final DirectBuffer resource = store.get(1L);
+
+        // when
+        store.remove(1L);
+        store.put(1L, resource(RESOURCE_LENGTH, 2));
+
+        // then
+        assertThat(resource).isEqualTo(resource(RESOURCE_LENGTH, 1));
+        assertThat(store.residentBytes()).isEqualTo(ENTRY_OVERHEAD + RESOURCE_LENGTH);
+    }
+
+    @Test
+    public void shouldStoreCompressedResource()
+    {
+        // given
+        final DeploymentResourceStore store = new DeploymentResourceStore(CAPACITY, true);
+
+        // when
+        for (int i = 1; i <= 10; i++)
+        {
+            store.put(i, resource(RESOURCE_LENGTH, i));
+        }
+
+        // then
+        assertThat(store.size()).isEqualTo(10);
+        assertThat(store.residentBytes()).isLessThanOrEqualTo(CAPACITY);
+        assertThat(store.get(5L)).isEqualTo(resource(RESOURCE_LENGTH, 5));
+    }
+
+    private static DirectBuffer resource(int length, int seed)
+    {
+        final byte[] bytes = new byte[length];
+
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = (byte) ((seed + i) % 8);
+        }
+
+        return new UnsafeBuffer(bytes);
+    }
+}
@@ -20,6 +20,7 @@ package io.zeebe.broker.transport.clientapi;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.zeebe.protocol.clientapi.ControlMessageResponseDecoder;
 import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
@@ -45,14 +46,21 @@ public class BufferingServerOutput implements ServerOutput
     protected final MsgPackHelper msgPackDecoder = new MsgPackHelper();
 
     protected List<DirectBuffer> sentResponses = new CopyOnWriteArrayList<>();
+    protected final AtomicInteger sentMessageCount = new AtomicInteger();
 
     @Override
     public boolean sendMessage(TransportMessage transportMessage)
     {
-        // ignore; not yet implemented
+        // only counted; the content is not yet buffered
+        sentMessageCount.incrementAndGet();
         return true;
     }
 
+    public int getSentMessageCount()
+    {
+        return sentMessageCount.get();
+    }
+
     @Override
     public boolean sendResponse(ServerResponse response)
     {
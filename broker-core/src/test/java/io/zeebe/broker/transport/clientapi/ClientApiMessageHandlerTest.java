@@ -59,6 +59,9 @@ import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
 import io.zeebe.protocol.clientapi.ExecuteCommandRequestEncoder;
 import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
 import io.zeebe.protocol.clientapi.ValueType;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchRequestEncoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseDecoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseDecoder.CommandsDecoder;
 import io.zeebe.protocol.impl.RecordMetadata;
 import io.zeebe.protocol.intent.DeploymentIntent;
 import io.zeebe.protocol.intent.Intent;
@@ -97,6 +100,7 @@ public class ClientApiMessageHandlerTest
 
     protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
     protected final ExecuteCommandRequestEncoder commandRequestEncoder = new ExecuteCommandRequestEncoder();
+    protected final ExecuteCommandBatchRequestEncoder commandBatchRequestEncoder = new ExecuteCommandBatchRequestEncoder();
     protected final ControlMessageRequestEncoder controlRequestEncoder = new ControlMessageRequestEncoder();
     protected final ControlMessageRequestDecoder controlRequestDecoder = new ControlMessageRequestDecoder();
     protected final ControlMessageRequestHeaderDescriptor controlMessageRequestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
@@ -141,7 +145,7 @@ public class ClientApiMessageHandlerTest
 
         messageHandler = new ClientApiMessageHandler(mockControlMessageDispatcher);
 
-        final Partition partition = new Partition(new PartitionInfo(LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, 1), RaftState.LEADER)
+        final Partition partition = new Partition(new PartitionInfo(LOG_STREAM_TOPIC_NAME, LOG_STREAM_PARTITION_ID, 1), RaftState.LEADER, tempFolder.getRoot(), tempFolder.getRoot())
         {
             @Override
             public LogStream getLogStream()
@@ -380,6 +384,101 @@ public class ClientApiMessageHandlerTest
         assertThat(errorDecoder.errorData()).isEqualTo("Cannot execute command. Invalid event type 'NULL_VAL'.");
     }
 
+    @Test
+    public void shouldWriteCommandBatchWithOneAppend()
+    {
+        // given
+        final int writtenLength = writeCommandBatchRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, 3, JOB_EVENT);
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        final BufferedLogStreamReader logStreamReader = new BufferedLogStreamReader(logStream, true);
+
+        final RecordMetadata eventMetadata = new RecordMetadata();
+        final long[] writtenKeys = new long[3];
+        long lastPosition = -1;
+
+        for (int i = 0; i < 3; i++)
+        {
+            waitForAvailableEvent(logStreamReader);
+
+            final LoggedEvent loggedEvent = logStreamReader.next();
+            loggedEvent.readMetadata(eventMetadata);
+
+            assertThat(eventMetadata.getValueType()).isEqualTo(ValueType.JOB);
+            assertThat(eventMetadata.getIntent()).isEqualTo(JobIntent.CREATE);
+            assertThat(eventMetadata.hasRequestMetadata()).isFalse();
+            assertThat(loggedEvent.getKey()).isEqualTo(loggedEvent.getPosition());
+
+            writtenKeys[i] = loggedEvent.getKey();
+            lastPosition = loggedEvent.getPosition();
+        }
+
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ExecuteCommandBatchResponseDecoder responseDecoder = serverOutput.getAs(0, new ExecuteCommandBatchResponseDecoder());
+        assertThat(responseDecoder.partitionId()).isEqualTo(LOG_STREAM_PARTITION_ID);
+        assertThat(responseDecoder.position()).isEqualTo(lastPosition);
+
+        final CommandsDecoder commandsDecoder = responseDecoder.commands();
+        assertThat(commandsDecoder.count()).isEqualTo(3);
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertThat(commandsDecoder.next().key()).isEqualTo(writtenKeys[i]);
+        }
+    }
+
+    @Test
+    public void shouldRejectCommandBatchWithInvalidCommand()
+    {
+        // given
+        final int writtenLength = writeCommandBatchRequestToBuffer(buffer, LOG_STREAM_PARTITION_ID, 2, new byte[] { 1, 2, 3 });
+
+        // when
+        final boolean isHandled = messageHandler.onRequest(serverOutput, DEFAULT_ADDRESS, buffer, 0, writtenLength, REQUEST_ID);
+
+        // then
+        assertThat(isHandled).isTrue();
+
+        assertThat(serverOutput.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorDecoder = serverOutput.getAsErrorResponse(0);
+
+        assertThat(errorDecoder.errorCode()).isEqualTo(ErrorCode.INVALID_MESSAGE);
+        assertThat(errorDecoder.errorData()).startsWith("Cannot execute command batch. Command 0 is invalid");
+    }
+
+    protected int writeCommandBatchRequestToBuffer(UnsafeBuffer buffer, int partitionId, int commandCount, byte[] value)
+    {
+        headerEncoder.wrap(buffer, 0)
+            .blockLength(commandBatchRequestEncoder.sbeBlockLength())
+            .schemaId(commandBatchRequestEncoder.sbeSchemaId())
+            .templateId(commandBatchRequestEncoder.sbeTemplateId())
+            .version(commandBatchRequestEncoder.sbeSchemaVersion());
+
+        commandBatchRequestEncoder.wrap(buffer, headerEncoder.encodedLength())
+            .partitionId(partitionId);
+
+        final ExecuteCommandBatchRequestEncoder.CommandsEncoder commandsEncoder = commandBatchRequestEncoder.commandsCount(commandCount);
+
+        for (int i = 0; i < commandCount; i++)
+        {
+            commandsEncoder.next()
+                .key(ExecuteCommandBatchRequestEncoder.CommandsEncoder.keyNullValue())
+                .valueType(ValueType.JOB.value())
+                .intent(JobIntent.CREATE.value())
+                .putValue(value, 0, value.length);
+        }
+
+        return headerEncoder.encodedLength() +
+                commandBatchRequestEncoder.encodedLength();
+    }
+
     protected int writeCommandRequestToBuffer(UnsafeBuffer buffer, int partitionId, Short protocolVersion, ValueType type, Intent intent)
     {
         int offset = 0;
@@ -0,0 +1,213 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import static io.zeebe.broker.transport.clientapi.CommandAdmissionController.INITIAL_LIMIT;
+import static io.zeebe.broker.transport.clientapi.CommandAdmissionController.MIN_LIMIT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class CommandAdmissionControllerTest
+{
+    private static final long LATENCY_TARGET = 100;
+
+    private long commitPosition = -1;
+
+    private final CommandAdmissionController controller = new CommandAdmissionController(() -> commitPosition, LATENCY_TARGET);
+
+    @Test
+    public void shouldRejectIfLimitIsReached()
+    {
+        // given
+        for (int i = 0; i < INITIAL_LIMIT; i++)
+        {
+            assertThat(controller.tryAdmit(0)).isTrue();
+            controller.onWritten(i, 0);
+        }
+
+        // when
+        final boolean isAdmitted = controller.tryAdmit(0);
+
+        // then
+        assertThat(isAdmitted).isFalse();
+        assertThat(controller.getInFlight()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    public void shouldAdmitWhenCommandsAreCommitted()
+    {
+        // given
+        for (int i = 0; i < INITIAL_LIMIT; i++)
+        {
+            controller.onWritten(i, 0);
+        }
+
+        // when
+        commitPosition = 9;
+        final boolean isAdmitted = controller.tryAdmit(10);
+
+        // then
+        assertThat(isAdmitted).isTrue();
+        assertThat(controller.getInFlight()).isEqualTo(INITIAL_LIMIT - 10);
+        assertThat(controller.getLimit()).isEqualTo(INITIAL_LIMIT);
+    }
+
+    @Test
+    public void shouldDecreaseLimitIfLatencyTargetIsMissed()
+    {
+        // given
+        controller.onWritten(1, 0);
+        controller.onWritten(2, 0);
+
+        // not committed after the latency target
+        controller.tryAdmit(LATENCY_TARGET + 1);
+
+        final int limit = INITIAL_LIMIT - INITIAL_LIMIT / 4;
+        assertThat(controller.getLimit()).isEqualTo(limit);
+
+        // when
+        commitPosition = 2;
+        controller.tryAdmit(3 * LATENCY_TARGET);
+
+        // then
+        assertThat(controller.getLimit()).isEqualTo(limit - limit / 4);
+        assertThat(controller.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotDecreaseLimitIfCommitIsObservedLate()
+    {
+        // given
+        controller.tryAdmit(0);
+        controller.onWritten(1, 0);
+
+        // when
+        commitPosition = 1;
+        controller.tryAdmit(3 * LATENCY_TARGET);
+
+        // then
+        assertThat(controller.getLimit()).isEqualTo(INITIAL_LIMIT);
+        assertThat(controller.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldNotDecreaseLimitOnIdleGapsBetweenRequests()
+    {
+        // given
+        long now = 0;
+
+        for (int i = 1; i <= 100; i++)
+        {
+            // when
+            assertThat(controller.tryAdmit(now)).isTrue();
+            controller.onWritten(i, now);
+
+            // committed shortly after, but only observed with the next request
+            commitPosition = i;
+            now += 3 * LATENCY_TARGET;
+        }
+
+        controller.tryAdmit(now);
+
+        // then
+        assertThat(controller.getLimit()).isEqualTo(INITIAL_LIMIT);
+        assertThat(controller.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldDecreaseLimitIfOldestCommandIsNotCommitted()
+    {
+        // given
+        controller.onWritten(1, 0);
+
+        int limit = INITIAL_LIMIT;
+
+        // when
+        for (int i = 1; i <= 100; i++)
+        {
+            controller.tryAdmit(i * (LATENCY_TARGET + 1));
+
+            limit = Math.max(MIN_LIMIT, limit - (limit >> 2));
+            assertThat(controller.getLimit()).isEqualTo(limit);
+        }
+
+        // then
+        assertThat(controller.getLimit()).isEqualTo(MIN_LIMIT);
+    }
+
+    @Test
+    public void shouldIncreaseLimitAfterWindowWithinLatencyTarget()
+    {
+        // given
+        for (int i = 0; i < INITIAL_LIMIT; i++)
+        {
+            controller.onWritten(i, 0);
+        }
+
+        // when
+        commitPosition = INITIAL_LIMIT;
+        controller.tryAdmit(LATENCY_TARGET);
+
+        // then
+        assertThat(controller.getLimit()).isEqualTo(INITIAL_LIMIT + 1);
+        assertThat(controller.getInFlight()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldCountCommandsOfBatch()
+    {
+        // given
+        controller.onWritten(1, INITIAL_LIMIT - 10, 0);
+
+        // when
+        final boolean isBatchAdmitted = controller.tryAdmit(0, 11);
+        final boolean isCommandAdmitted = controller.tryAdmit(0);
+
+        // then
+        assertThat(isBatchAdmitted).isFalse();
+        assertThat(isCommandAdmitted).isTrue();
+        assertThat(controller.getInFlight()).isEqualTo(INITIAL_LIMIT - 10);
+    }
+
+    @Test
+    public void shouldAdmitBatchLargerThanLimitIfNothingIsInFlight()
+    {
+        // when
+        final boolean isAdmitted = controller.tryAdmit(0, INITIAL_LIMIT + 1);
+
+        // then
+        assertThat(isAdmitted).isTrue();
+    }
+
+    @Test
+    public void shouldCompleteAllCommandsOfBatch()
+    {
+        // given
+        controller.onWritten(1, 10, 0);
+        controller.onWritten(2, INITIAL_LIMIT - 10, 0);
+
+        // when
+        commitPosition = 2;
+        controller.tryAdmit(LATENCY_TARGET);
+
+        // then
+        assertThat(controller.getInFlight()).isEqualTo(0);
+        assertThat(controller.getLimit()).isEqualTo(INITIAL_LIMIT + 1);
+    }
+}
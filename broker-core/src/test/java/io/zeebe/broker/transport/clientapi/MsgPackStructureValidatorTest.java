@@ -0,0 +1,302 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import static io.zeebe.broker.test.MsgPackUtil.MSGPACK_PAYLOAD;
+import static io.zeebe.broker.test.MsgPackUtil.encodeMsgPack;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.io.DirectBufferInputStream;
+import org.junit.Test;
+
+import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.workflow.data.WorkflowInstanceRecord;
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.test.broker.protocol.MsgPackHelper;
+
+public class MsgPackStructureValidatorTest
+{
+    private final MsgPackStructureValidator jobValidator = ClientApiMessageHandler.newJobValidator();
+
+    @Test
+    public void shouldAcceptJobRecord()
+    {
+        // given
+        final JobRecord jobRecord = new JobRecord()
+            .setType(wrapString("test"))
+            .setRetries(3)
+            .setWorker(wrapString("worker"))
+            .setDeadline(123L)
+            .setPayload(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        jobRecord.headers()
+            .setBpmnProcessId(wrapString("process"))
+            .setWorkflowDefinitionVersion(1)
+            .setWorkflowKey(2L)
+            .setWorkflowInstanceKey(3L)
+            .setActivityId(wrapString("task"))
+            .setActivityInstanceKey(4L);
+
+        jobRecord.setCustomHeaders(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        final DirectBuffer buffer = write(jobRecord);
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isTrue();
+        assertThat(jobValidator.getErrorMessage()).isNull();
+    }
+
+    @Test
+    public void shouldAcceptWorkflowInstanceRecord()
+    {
+        // given
+        final MsgPackStructureValidator validator = ClientApiMessageHandler.newWorkflowInstanceValidator();
+
+        final WorkflowInstanceRecord workflowInstanceRecord = new WorkflowInstanceRecord()
+            .setBpmnProcessId(wrapString("process"))
+            .setVersion(1)
+            .setWorkflowKey(2L)
+            .setWorkflowInstanceKey(3L)
+            .setActivityId("task")
+            .setPayload(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        final DirectBuffer buffer = write(workflowInstanceRecord);
+
+        // when
+        final boolean isValid = validator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isTrue();
+    }
+
+    @Test
+    public void shouldRejectTruncatedDocument()
+    {
+        // given
+        final DirectBuffer buffer = write(new JobRecord().setType(wrapString("test")));
+
+        for (int length = 0; length < buffer.capacity(); length++)
+        {
+            // when
+            final boolean isValid = jobValidator.validate(buffer, 0, length);
+
+            // then
+            assertThat(isValid).isFalse();
+        }
+    }
+
+    @Test
+    public void shouldRejectMissingRequiredProperty()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(1);
+            w.writeString(wrapString("retries"));
+            w.writeInteger(3);
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isFalse();
+        assertThat(jobValidator.getErrorMessage()).isEqualTo("Property 'type' has no valid value");
+    }
+
+    @Test
+    public void shouldRejectPropertyWithInvalidType()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(wrapString("type"));
+            w.writeString(wrapString("test"));
+            w.writeString(wrapString("retries"));
+            w.writeString(wrapString("3"));
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isFalse();
+        assertThat(jobValidator.getErrorMessage()).isEqualTo("Property 'retries' has an invalid type");
+    }
+
+    @Test
+    public void shouldRejectNestedPropertyWithInvalidType()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(wrapString("type"));
+            w.writeString(wrapString("test"));
+            w.writeString(wrapString("headers"));
+            w.writeMapHeader(1);
+            w.writeString(wrapString("workflowKey"));
+            w.writeString(wrapString("foo"));
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isFalse();
+        assertThat(jobValidator.getErrorMessage()).isEqualTo("Property 'workflowKey' has an invalid type");
+    }
+
+    @Test
+    public void shouldRejectIntegerOutOfRange()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(wrapString("type"));
+            w.writeString(wrapString("test"));
+            w.writeString(wrapString("retries"));
+            w.writeInteger(Long.MAX_VALUE);
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isFalse();
+        assertThat(jobValidator.getErrorMessage()).isEqualTo("Property 'retries' is out of the integer range");
+    }
+
+    @Test
+    public void shouldRejectDocumentWhichIsNotAMap()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeArrayHeader(1);
+            w.writeInteger(1);
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isFalse();
+        assertThat(jobValidator.getErrorMessage()).isEqualTo("Expected a message pack map");
+    }
+
+    @Test
+    public void shouldSkipUndeclaredProperties()
+    {
+        // given
+        final DirectBuffer buffer = encodeMsgPack(w ->
+        {
+            w.writeMapHeader(2);
+            w.writeString(wrapString("foo"));
+            w.writeArrayHeader(2);
+            w.writeMapHeader(1);
+            w.writeString(wrapString("bar"));
+            w.writeNil();
+            w.writeInteger(-1);
+            w.writeString(wrapString("type"));
+            w.writeString(wrapString("test"));
+        });
+
+        // when
+        final boolean isValid = jobValidator.validate(buffer, 0, buffer.capacity());
+
+        // then
+        assertThat(isValid).isTrue();
+    }
+
+    @Test
+    public void shouldDeclareAllPropertiesOfJobRecord()
+    {
+        // given
+        final JobRecord jobRecord = new JobRecord()
+            .setType(wrapString("test"))
+            .setRetries(3)
+            .setWorker(wrapString("worker"))
+            .setDeadline(123L)
+            .setPayload(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        jobRecord.headers()
+            .setBpmnProcessId(wrapString("process"))
+            .setWorkflowDefinitionVersion(1)
+            .setWorkflowKey(2L)
+            .setWorkflowInstanceKey(3L)
+            .setActivityId(wrapString("task"))
+            .setActivityInstanceKey(4L);
+
+        jobRecord.setCustomHeaders(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        // when
+        final Map<String, Object> properties = readProperties(jobRecord);
+
+        // then
+        assertThat(jobValidator.getPropertyNames()).containsExactlyInAnyOrderElementsOf(properties.keySet());
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> headers = (Map<String, Object>) properties.get("headers");
+        assertThat(jobValidator.getObjectValidator("headers").getPropertyNames()).containsExactlyInAnyOrderElementsOf(headers.keySet());
+    }
+
+    @Test
+    public void shouldDeclareAllPropertiesOfWorkflowInstanceRecord()
+    {
+        // given
+        final MsgPackStructureValidator validator = ClientApiMessageHandler.newWorkflowInstanceValidator();
+
+        final WorkflowInstanceRecord workflowInstanceRecord = new WorkflowInstanceRecord()
+            .setBpmnProcessId(wrapString("process"))
+            .setVersion(1)
+            .setWorkflowKey(2L)
+            .setWorkflowInstanceKey(3L)
+            .setActivityId("task")
+            .setPayload(new UnsafeBuffer(MSGPACK_PAYLOAD));
+
+        // when
+        final Map<String, Object> properties = readProperties(workflowInstanceRecord);
+
+        // then
+        assertThat(validator.getPropertyNames()).containsExactlyInAnyOrderElementsOf(properties.keySet());
+    }
+
+    private static Map<String, Object> readProperties(UnpackedObject record)
+    {
+        final DirectBuffer buffer = write(record);
+        return new MsgPackHelper().readMsgPack(new DirectBufferInputStream(buffer));
+    }
+
+    private static DirectBuffer write(UnpackedObject record)
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[record.getEncodedLength()]);
+        record.write(buffer, 0);
+        return buffer;
+    }
+}
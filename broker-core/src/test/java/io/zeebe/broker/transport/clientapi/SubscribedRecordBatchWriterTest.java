@@ -0,0 +1,125 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.clientapi;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.protocol.clientapi.RecordType;
+import io.zeebe.protocol.clientapi.SubscribedRecordDecoder;
+import io.zeebe.protocol.clientapi.SubscriptionType;
+import io.zeebe.protocol.clientapi.ValueType;
+import io.zeebe.protocol.intent.JobIntent;
+
+public class SubscribedRecordBatchWriterTest
+{
+    protected static final DirectBuffer BUFFER = wrapString("foo");
+
+    protected MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+    protected SubscribedRecordDecoder bodyDecoder = new SubscribedRecordDecoder();
+
+    protected final SubscribedRecordWriter recordWriter = new SubscribedRecordWriter(null);
+    protected final SubscribedRecordBatchWriter batchWriter = new SubscribedRecordBatchWriter(null);
+
+    @Test
+    public void shouldWriteRecordsOneAfterAnother()
+    {
+        // given
+        batchWriter.add(record(1L), 2, 4L);
+        batchWriter.add(record(2L), 2, 4L);
+
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[batchWriter.getLength() + 2]);
+
+        // when
+        batchWriter.write(buffer, 2);
+
+        // then
+        assertThat(batchWriter.getRecordCount()).isEqualTo(2);
+
+        int offset = 2;
+        for (long expectedKey = 1L; expectedKey <= 2L; expectedKey++)
+        {
+            headerDecoder.wrap(buffer, offset);
+            assertThat(headerDecoder.templateId()).isEqualTo(SubscribedRecordDecoder.TEMPLATE_ID);
+
+            bodyDecoder.wrap(buffer, offset + headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+            assertThat(bodyDecoder.key()).isEqualTo(expectedKey);
+            assertThat(bodyDecoder.subscriberKey()).isEqualTo(4L);
+            assertThat(bodyDecoder.intent()).isEqualTo(JobIntent.ACTIVATED.value());
+
+            final byte[] value = new byte[bodyDecoder.valueLength()];
+            bodyDecoder.getValue(value, 0, value.length);
+            assertThat(value).isEqualTo("foo".getBytes());
+
+            offset = bodyDecoder.limit();
+        }
+
+        assertThat(offset).isEqualTo(buffer.capacity());
+    }
+
+    @Test
+    public void shouldNotAddRecordOfOtherSubscriber()
+    {
+        // given
+        batchWriter.add(record(1L), 2, 4L);
+
+        // then
+        assertThat(batchWriter.canAdd(2, 4L)).isTrue();
+        assertThat(batchWriter.canAdd(3, 4L)).isFalse();
+        assertThat(batchWriter.canAdd(2, 5L)).isFalse();
+
+        assertThatThrownBy(() -> batchWriter.add(record(2L), 2, 5L))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldReset()
+    {
+        // given
+        batchWriter.add(record(1L), 2, 4L);
+
+        // when
+        batchWriter.reset();
+
+        // then
+        assertThat(batchWriter.isEmpty()).isTrue();
+        assertThat(batchWriter.getLength()).isEqualTo(0);
+        assertThat(batchWriter.canAdd(3, 5L)).isTrue();
+    }
+
+    protected SubscribedRecordWriter record(long key)
+    {
+        return recordWriter
+            .value(BUFFER, 0, BUFFER.capacity())
+            .recordType(RecordType.EVENT)
+            .valueType(ValueType.JOB)
+            .intent(JobIntent.ACTIVATED)
+            .key(key)
+            .timestamp(456L)
+            .position(546L)
+            .partitionId(876)
+            .subscriberKey(4L)
+            .subscriptionType(SubscriptionType.JOB_SUBSCRIPTION);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.transport.controlmessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.zeebe.broker.job.JobSubscriptionManager;
+import io.zeebe.broker.job.processor.JobSubscriptionRequest;
+import io.zeebe.broker.transport.clientapi.BufferingServerOutput;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
+import io.zeebe.dispatcher.Dispatcher;
+import io.zeebe.msgpack.UnpackedObject;
+import io.zeebe.protocol.clientapi.ControlMessageRequestEncoder;
+import io.zeebe.protocol.clientapi.ControlMessageType;
+import io.zeebe.protocol.clientapi.ErrorResponseDecoder;
+import io.zeebe.protocol.clientapi.MessageHeaderEncoder;
+import io.zeebe.protocol.impl.RecordMetadata;
+import io.zeebe.util.sched.ActorControl;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+import io.zeebe.util.sched.testing.ControlledActorSchedulerRule;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ControlMessageHandlerManagerTest
+{
+    private static final int REQUEST_STREAM_ID = 3;
+
+    @Rule
+    public ControlledActorSchedulerRule actorSchedulerRule = new ControlledActorSchedulerRule();
+
+    private final UnsafeBuffer fragmentBuffer = new UnsafeBuffer(new byte[1024]);
+    private final ControlMessageRequestHeaderDescriptor requestHeaderDescriptor = new ControlMessageRequestHeaderDescriptor();
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    private final ControlMessageRequestEncoder requestEncoder = new ControlMessageRequestEncoder();
+
+    private final List<CompletableActorFuture<Void>> removeFutures = new ArrayList<>();
+
+    private BufferingServerOutput output;
+    private JobSubscriptionManager subscriptionManager;
+    private ControlMessageHandlerManager manager;
+
+    private long nextRequestId = 0;
+
+    @Before
+    public void setUp()
+    {
+        output = new BufferingServerOutput();
+
+        subscriptionManager = mock(JobSubscriptionManager.class);
+        when(subscriptionManager.increaseSubscriptionCreditsAsync(any())).thenReturn(true);
+        when(subscriptionManager.removeSubscription(anyLong())).thenAnswer(invocation ->
+        {
+            final CompletableActorFuture<Void> future = new CompletableActorFuture<>();
+            removeFutures.add(future);
+            return future;
+        });
+    }
+
+    @After
+    public void tearDown()
+    {
+        if (manager != null)
+        {
+            manager.closeAsync();
+            actorSchedulerRule.workUntilDone();
+        }
+    }
+
+    @Test
+    public void shouldRespondToInterleavedMessagesOfDifferentTypes()
+    {
+        // given
+        startManager(1,
+            new RemoveJobSubscriptionHandler(output, subscriptionManager),
+            new IncreaseJobSubscriptionCreditsHandler(output, subscriptionManager));
+
+        // when
+        pollMessage(ControlMessageType.REMOVE_JOB_SUBSCRIPTION, new JobSubscriptionRequest().setSubscriberKey(1L));
+        pollMessage(ControlMessageType.INCREASE_JOB_SUBSCRIPTION_CREDITS, new JobSubscriptionRequest().setSubscriberKey(2L).setCredits(3));
+        pollMessage(ControlMessageType.REMOVE_JOB_SUBSCRIPTION, new JobSubscriptionRequest().setSubscriberKey(4L));
+        pollMessage(ControlMessageType.INCREASE_JOB_SUBSCRIPTION_CREDITS, new JobSubscriptionRequest().setSubscriberKey(5L).setCredits(6));
+        actorSchedulerRule.workUntilDone();
+
+        removeFutures.forEach(future -> future.complete(null));
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(output.getSentResponses()).hasSize(4);
+
+        // the credits are increased synchronously, the subscriptions are removed asynchronously
+        assertThat(getResponseProperty(0, "subscriberKey")).isEqualTo(2L);
+        assertThat(getResponseProperty(0, "credits")).isEqualTo(3L);
+        assertThat(getResponseProperty(1, "subscriberKey")).isEqualTo(5L);
+        assertThat(getResponseProperty(1, "credits")).isEqualTo(6L);
+        assertThat(getResponseProperty(2, "subscriberKey")).isEqualTo(1L);
+        assertThat(getResponseProperty(3, "subscriberKey")).isEqualTo(4L);
+    }
+
+    @Test
+    public void shouldUpdateQueueDepthAndLatency()
+    {
+        // given
+        final ControlMessageType messageType = ControlMessageType.REQUEST_TOPOLOGY;
+        startManager(2, new SleepingHandler(messageType, 10));
+
+        final ControlMessageTypeMetrics metrics = manager.getMetrics(messageType);
+
+        // when
+        pollMessage(messageType, new JobSubscriptionRequest());
+        pollMessage(messageType, new JobSubscriptionRequest());
+
+        // then
+        assertThat(metrics.getQueueDepth()).isEqualTo(2);
+        assertThat(metrics.getAverageLatencyMicros()).isEqualTo(0);
+
+        // when
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(metrics.getQueueDepth()).isEqualTo(0);
+        assertThat(metrics.getAverageLatencyMicros()).isGreaterThanOrEqualTo(10_000 >> 3);
+        assertThat(manager.getMetrics(ControlMessageType.REMOVE_JOB_SUBSCRIPTION).getQueueDepth()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldRejectMessageForSaturatedWorkerAndHandleOtherTypes()
+    {
+        // given
+        startManager(2,
+            new SleepingHandler(ControlMessageType.REQUEST_TOPOLOGY, 0),
+            new IncreaseJobSubscriptionCreditsHandler(output, subscriptionManager));
+
+        for (int i = 0; i < ControlMessageWorker.QUEUE_CAPACITY; i++)
+        {
+            pollMessage(ControlMessageType.REQUEST_TOPOLOGY, new JobSubscriptionRequest());
+        }
+
+        // when
+        pollMessage(ControlMessageType.REQUEST_TOPOLOGY, new JobSubscriptionRequest());
+        pollMessage(ControlMessageType.INCREASE_JOB_SUBSCRIPTION_CREDITS, new JobSubscriptionRequest().setSubscriberKey(2L).setCredits(3));
+
+        // then
+        assertThat(output.getSentResponses()).hasSize(1);
+
+        final ErrorResponseDecoder errorResponse = output.getAsErrorResponse(0);
+        assertThat(errorResponse.errorCode()).isEqualTo(ClientApiMessageHandler.BACKPRESSURE_ERROR_CODE);
+
+        // when
+        actorSchedulerRule.workUntilDone();
+
+        // then
+        assertThat(output.getSentResponses()).hasSize(2);
+        assertThat(getResponseProperty(1, "subscriberKey")).isEqualTo(2L);
+        assertThat(getResponseProperty(1, "credits")).isEqualTo(3L);
+        assertThat(manager.getMetrics(ControlMessageType.REQUEST_TOPOLOGY).getQueueDepth()).isEqualTo(0);
+    }
+
+    private long getResponseProperty(int index, String property)
+    {
+        return ((Number) output.getAsControlMessageData(index).get(property)).longValue();
+    }
+
+    private void startManager(int workerCount, ControlMessageHandler... handlers)
+    {
+        final Dispatcher dispatcher = mock(Dispatcher.class);
+        // the test hands the messages to the manager itself
+        when(dispatcher.openSubscriptionAsync(anyString())).thenReturn(new CompletableActorFuture<>());
+
+        manager = new ControlMessageHandlerManager(output, dispatcher, actorSchedulerRule.get(), Arrays.asList(handlers), workerCount);
+        manager.openAsync();
+        actorSchedulerRule.workUntilDone();
+    }
+
+    private void pollMessage(ControlMessageType messageType, UnpackedObject data)
+    {
+        final UnsafeBuffer dataBuffer = new UnsafeBuffer(new byte[data.getLength()]);
+        data.write(dataBuffer, 0);
+
+        requestHeaderDescriptor.wrap(fragmentBuffer, 0)
+            .streamId(REQUEST_STREAM_ID)
+            .requestId(nextRequestId++);
+
+        int offset = ControlMessageRequestHeaderDescriptor.headerLength();
+
+        headerEncoder.wrap(fragmentBuffer, offset)
+            .blockLength(requestEncoder.sbeBlockLength())
+            .schemaId(requestEncoder.sbeSchemaId())
+            .templateId(requestEncoder.sbeTemplateId())
+            .version(requestEncoder.sbeSchemaVersion());
+
+        offset += headerEncoder.encodedLength();
+
+        requestEncoder.wrap(fragmentBuffer, offset)
+            .messageType(messageType)
+            .partitionId(1)
+            .putData(dataBuffer, 0, dataBuffer.capacity());
+
+        final int length = offset + requestEncoder.encodedLength();
+
+        manager.onFragment(fragmentBuffer, 0, length, 0, false);
+    }
+
+    private static class SleepingHandler implements ControlMessageHandler
+    {
+        private final ControlMessageType messageType;
+        private final long sleepMillis;
+
+        SleepingHandler(ControlMessageType messageType, long sleepMillis)
+        {
+            this.messageType = messageType;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public ControlMessageType getMessageType()
+        {
+            return messageType;
+        }
+
+        @Override
+        public void handle(ActorControl actor, int partitionId, DirectBuffer buffer, RecordMetadata metadata)
+        {
+            try
+            {
+                Thread.sleep(sleepMillis);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -163,7 +163,9 @@ public class CreateDeploymentTest
         // given
         final WorkflowDefinition invalidDefinition = Bpmn.createExecutableWorkflow("process").done();
 
-        final List<Map<String, Object>> resources = Arrays.asList(deploymentResource(bpmnXml(invalidDefinition), "process2.bpmn"));
+        final List<Map<String, Object>> resources = Arrays.asList(
+            deploymentResource(bpmnXml(WORKFLOW), "process1.bpmn"),
+            deploymentResource(bpmnXml(invalidDefinition), "process2.bpmn"));
 
         // when
         final ExecuteCommandResponse resp = apiRule.createCmdRequest()
@@ -181,7 +183,69 @@ public class CreateDeploymentTest
         assertThat(resp.intent()).isEqualTo(DeploymentIntent.CREATE);
         assertThat((String) resp.getValue().get("errorMessage"))
             .contains("Resource 'process2.bpmn':")
-            .contains("The process must contain at least one none start event.");
+            .contains("The process must contain at least one none start event.")
+            .doesNotContain("process1.bpmn");
+    }
+
+    @Test
+    public void shouldCreateDeploymentWithMultipleResources()
+    {
+        // given
+        final WorkflowDefinition otherWorkflow = Bpmn.createExecutableWorkflow("other-process")
+            .startEvent()
+            .endEvent()
+            .done();
+
+        final List<Map<String, Object>> resources = Arrays.asList(
+            deploymentResource(bpmnXml(WORKFLOW), "process.bpmn"),
+            deploymentResource(bpmnXml(otherWorkflow), "other-process.bpmn"));
+
+        // when
+        final ExecuteCommandResponse resp = apiRule.createCmdRequest()
+                .partitionId(Protocol.SYSTEM_PARTITION)
+                .type(ValueType.DEPLOYMENT, DeploymentIntent.CREATE)
+                .command()
+                    .put("topicName", ClientApiRule.DEFAULT_TOPIC_NAME)
+                    .put("resources", resources)
+                .done()
+                .sendAndAwait();
+
+        // then
+        assertThat(resp.recordType()).isEqualTo(RecordType.EVENT);
+        assertThat(resp.intent()).isEqualTo(DeploymentIntent.CREATED);
+
+        final Map<String, Object> workflow1 = getDeployedWorkflow(resp, 0);
+        assertThat(workflow1)
+            .containsEntry(WorkflowInstanceRecord.PROP_WORKFLOW_BPMN_PROCESS_ID, "process")
+            .containsEntry("resourceName", "process.bpmn");
+
+        final Map<String, Object> workflow2 = getDeployedWorkflow(resp, 1);
+        assertThat(workflow2)
+            .containsEntry(WorkflowInstanceRecord.PROP_WORKFLOW_BPMN_PROCESS_ID, "other-process")
+            .containsEntry("resourceName", "other-process.bpmn");
+    }
+
+    @Test
+    public void shouldRejectDeploymentIfResourcesContainSameProcessId()
+    {
+        // given
+        final List<Map<String, Object>> resources = Arrays.asList(
+            deploymentResource(bpmnXml(WORKFLOW), "process1.bpmn"),
+            deploymentResource(bpmnXml(WORKFLOW), "process2.bpmn"));
+
+        // when
+        final ExecuteCommandResponse resp = apiRule.createCmdRequest()
+                .partitionId(Protocol.SYSTEM_PARTITION)
+                .type(ValueType.DEPLOYMENT, DeploymentIntent.CREATE)
+                .command()
+                    .put("topicName", ClientApiRule.DEFAULT_TOPIC_NAME)
+                    .put("resources", resources)
+                .done()
+                .sendAndAwait();
+
+        // then
+        assertThat(resp.recordType()).isEqualTo(RecordType.COMMAND_REJECTION);
+        assertThat((String) resp.getValue().get("errorMessage")).contains("Duplicated process id 'process' in resources.");
     }
 
     @Test
@@ -0,0 +1,154 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+import io.zeebe.protocol.intent.WorkflowInstanceIntent;
+
+public class ExecutionPlanTest
+{
+
+    @Test
+    public void shouldIndexStartEventFirst()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("process")
+            .startEvent("start")
+            .endEvent("end")
+            .done();
+
+        // when
+        final ExecutionPlan plan = compile(workflowDefinition);
+
+        // then
+        assertThat(plan.getStartEvent()).isEqualTo(plan.indexOf(wrapString("start")));
+        assertThat(bufferAsString(plan.getId(plan.getStartEvent()))).isEqualTo("start");
+    }
+
+    @Test
+    public void shouldLinkSequenceFlowsToTargets()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("process")
+            .startEvent("start")
+            .serviceTask("task", t -> t.taskType("test"))
+            .endEvent("end")
+            .done();
+
+        // when
+        final ExecutionPlan plan = compile(workflowDefinition);
+
+        // then
+        final int startEvent = plan.indexOf(wrapString("start"));
+        final int task = plan.indexOf(wrapString("task"));
+        final int endEvent = plan.indexOf(wrapString("end"));
+
+        final int startFlow = plan.getOutgoingFlow(startEvent);
+        assertThat(plan.getTarget(startFlow)).isEqualTo(task);
+        assertThat(plan.getTargetIntent(startFlow)).isEqualTo(WorkflowInstanceIntent.ACTIVITY_READY);
+
+        final int taskFlow = plan.getOutgoingFlow(task);
+        assertThat(plan.getTarget(taskFlow)).isEqualTo(endEvent);
+        assertThat(plan.getTargetIntent(taskFlow)).isEqualTo(WorkflowInstanceIntent.END_EVENT_OCCURRED);
+
+        assertThat(plan.getOutgoingFlow(endEvent)).isEqualTo(ExecutionPlan.NO_ELEMENT);
+        assertThat(plan.size()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldCompileExclusiveGateway()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                .endEvent("a")
+            .sequenceFlow("s2", s -> s.condition("$.foo >= 5"))
+                .endEvent("b")
+            .sequenceFlow("s3", s -> s.defaultFlow())
+                .endEvent("c")
+            .done();
+
+        // when
+        final ExecutionPlan plan = compile(workflowDefinition);
+
+        // then
+        final int gateway = plan.indexOf(wrapString("xor"));
+        final int s1 = plan.indexOf(wrapString("s1"));
+        final int s2 = plan.indexOf(wrapString("s2"));
+        final int s3 = plan.indexOf(wrapString("s3"));
+
+        assertThat(plan.getConditionalFlows(gateway)).containsExactly(s1, s2);
+        assertThat(plan.getDefaultFlow(gateway)).isEqualTo(s3);
+
+        assertThat(plan.getCondition(s1)).isNotNull();
+        assertThat(plan.getCondition(s2)).isNotNull();
+        assertThat(plan.getTarget(s3)).isEqualTo(plan.indexOf(wrapString("c")));
+    }
+
+    @Test
+    public void shouldCompileMappingsOfServiceTask()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .serviceTask("task", t -> t.taskType("test")
+                         .input("$.foo", "$.bar")
+                         .output("$.bar", "$.baz"))
+            .endEvent()
+            .done();
+
+        // when
+        final ExecutionPlan plan = compile(workflowDefinition);
+
+        // then
+        final int task = plan.indexOf(wrapString("task"));
+
+        assertThat(plan.getInputMappings(task)).hasSize(1);
+        assertThat(plan.getOutputMappings(task)).hasSize(1);
+    }
+
+    @Test
+    public void shouldNotFindUnknownElement()
+    {
+        // given
+        final WorkflowDefinition workflowDefinition = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .endEvent()
+            .done();
+
+        // when
+        final ExecutionPlan plan = compile(workflowDefinition);
+
+        // then
+        assertThat(plan.indexOf(wrapString("foo"))).isEqualTo(ExecutionPlan.NO_ELEMENT);
+    }
+
+    private static ExecutionPlan compile(WorkflowDefinition workflowDefinition)
+    {
+        return ExecutionPlan.compile(workflowDefinition.getWorkflows().iterator().next());
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+
+import io.zeebe.broker.workflow.map.FetchedWorkflows.FetchedWorkflow;
+
+public class FetchedWorkflowsTest
+{
+    private final FetchedWorkflows workflows = new FetchedWorkflows();
+
+    @Test
+    public void shouldRecoverFromSnapshot() throws Exception
+    {
+        // given
+        workflows.add(1L, 1, wrapString("foo"), wrapString("<xml1/>"));
+        workflows.add(2L, 2, wrapString("foo"), wrapString("<xml2/>"));
+        workflows.add(3L, 1, wrapString("bar"), wrapString("<xml3/>"));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long snapshotSize = workflows.writeSnapshot(outputStream);
+
+        // when
+        final FetchedWorkflows recovered = new FetchedWorkflows();
+        recovered.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        assertThat(snapshotSize).isEqualTo(outputStream.size());
+        assertThat(recovered.size()).isEqualTo(3);
+
+        final FetchedWorkflow workflow = recovered.get(2L);
+        assertThat(workflow.getKey()).isEqualTo(2L);
+        assertThat(workflow.getVersion()).isEqualTo(2);
+        assertThat(bufferAsString(workflow.getBpmnProcessId())).isEqualTo("foo");
+        assertThat(bufferAsString(workflow.getBpmnXml())).isEqualTo("<xml2/>");
+    }
+
+    @Test
+    public void shouldSignalRecoveredWorkflowsOnce() throws Exception
+    {
+        // given
+        workflows.add(1L, 1, wrapString("foo"), wrapString("<xml/>"));
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        workflows.writeSnapshot(outputStream);
+
+        final FetchedWorkflows recovered = new FetchedWorkflows();
+
+        // when
+        recovered.recoverFromSnapshot(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // then
+        assertThat(workflows.pollRecoveredWorkflows()).isFalse();
+        assertThat(recovered.pollRecoveredWorkflows()).isTrue();
+        assertThat(recovered.pollRecoveredWorkflows()).isFalse();
+    }
+
+    @Test
+    public void shouldKeepFirstFetchedWorkflow()
+    {
+        // when
+        workflows.add(1L, 1, wrapString("foo"), wrapString("<xml1/>"));
+        workflows.add(1L, 1, wrapString("foo"), wrapString("<xml2/>"));
+
+        // then
+        assertThat(workflows.size()).isEqualTo(1);
+        assertThat(bufferAsString(workflows.get(1L).getBpmnXml())).isEqualTo("<xml1/>");
+    }
+
+    @Test
+    public void shouldReset()
+    {
+        // given
+        workflows.add(1L, 1, wrapString("foo"), wrapString("<xml/>"));
+
+        // when
+        workflows.reset();
+
+        // then
+        assertThat(workflows.size()).isEqualTo(0);
+        assertThat(workflows.get(1L)).isNull();
+    }
+}
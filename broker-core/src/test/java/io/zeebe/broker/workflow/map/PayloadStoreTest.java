@@ -0,0 +1,205 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PayloadStoreTest
+{
+    private static final int MEMORY_CAPACITY = 1024;
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private PayloadStore store;
+
+    @Before
+    public void setUp()
+    {
+        store = new PayloadStore(MEMORY_CAPACITY, 16 * 1024, tempFolder.getRoot().toPath());
+    }
+
+    @After
+    public void close()
+    {
+        store.close();
+    }
+
+    @Test
+    public void shouldGetPayload()
+    {
+        // given
+        store.put(1L, payload(32, 1));
+
+        // when
+        final DirectBuffer payload = store.get(1L);
+
+        // then
+        assertThat(store.isInMemory(1L)).isTrue();
+        assertThat(payload).isEqualTo(payload(32, 1));
+    }
+
+    @Test
+    public void shouldReplacePayload()
+    {
+        // given
+        store.put(1L, payload(32, 1));
+
+        // when
+        store.put(1L, payload(16, 2));
+
+        // then
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.get(1L)).isEqualTo(payload(16, 2));
+    }
+
+    @Test
+    public void shouldNotGetRemovedPayload()
+    {
+        // given
+        store.put(1L, payload(32, 1));
+
+        // when
+        store.remove(1L);
+
+        // then
+        assertThat(store.get(1L)).isNull();
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void shouldSpillLargePayload()
+    {
+        // when
+        store.put(1L, payload(MEMORY_CAPACITY, 1));
+
+        // then
+        assertThat(store.isInMemory(1L)).isFalse();
+        assertThat(store.isSpilled(1L)).isTrue();
+        assertThat(store.get(1L)).isEqualTo(payload(MEMORY_CAPACITY, 1));
+    }
+
+    @Test
+    public void shouldSpillLeastRecentlyUsedPayloads()
+    {
+        // when
+        for (int i = 0; i < 20; i++)
+        {
+            store.put(i, payload(100, i));
+        }
+
+        // then
+        assertThat(store.size()).isEqualTo(20);
+        assertThat(store.isSpilled(0L)).isTrue();
+        assertThat(store.isInMemory(19L)).isTrue();
+        assertThat(store.getSpillSize()).isGreaterThan(0);
+
+        for (int i = 0; i < 20; i++)
+        {
+            assertThat(store.get(i)).isEqualTo(payload(100, i));
+        }
+    }
+
+    @Test
+    public void shouldMoveSpilledPayloadBackToMemory()
+    {
+        // given
+        for (int i = 0; i < 20; i++)
+        {
+            store.put(i, payload(100, i));
+        }
+
+        // when
+        store.get(0L);
+
+        // then
+        assertThat(store.isInMemory(0L)).isTrue();
+        assertThat(store.isSpilled(0L)).isFalse();
+    }
+
+    @Test
+    public void shouldClear()
+    {
+        // given
+        for (int i = 0; i < 20; i++)
+        {
+            store.put(i, payload(100, i));
+        }
+
+        // when
+        store.clear();
+
+        // then
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.getSpillSize()).isEqualTo(0);
+        assertThat(store.get(19L)).isNull();
+    }
+
+    @Test
+    public void shouldSpillToFileInDirectory()
+    {
+        // when
+        store.put(1L, payload(MEMORY_CAPACITY, 1));
+
+        // then
+        assertThat(tempFolder.getRoot().list()).hasSize(1);
+        assertThat(tempFolder.getRoot().list()[0]).startsWith("payloads-").endsWith(".segment");
+
+        // when
+        store.close();
+
+        // then
+        assertThat(tempFolder.getRoot().list()).isEmpty();
+    }
+
+    @Test
+    public void shouldDeleteStaleSpillFiles() throws IOException
+    {
+        // given
+        final File staleFile = tempFolder.newFile("payloads-123.segment");
+        final File otherFile = tempFolder.newFile("partition.json");
+
+        // when
+        new PayloadStore(MEMORY_CAPACITY, 16 * 1024, tempFolder.getRoot().toPath()).close();
+
+        // then
+        assertThat(staleFile).doesNotExist();
+        assertThat(otherFile).exists();
+    }
+
+    private static DirectBuffer payload(int length, int seed)
+    {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            bytes[i] = (byte) (seed + i);
+        }
+        return new UnsafeBuffer(bytes);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.workflow.processor;
+
+import static io.zeebe.broker.test.MsgPackUtil.JSON_MAPPER;
+import static io.zeebe.broker.test.MsgPackUtil.MSGPACK_MAPPER;
+import static io.zeebe.util.buffer.BufferUtil.bufferAsString;
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import io.zeebe.broker.workflow.map.ExecutionPlan;
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.instance.WorkflowDefinition;
+
+public class ExclusiveGatewayEvaluatorTest
+{
+    private final ExclusiveGatewayEvaluator evaluator = new ExclusiveGatewayEvaluator();
+
+    @Test
+    public void shouldSelectFlowWithFulfilledCondition() throws Exception
+    {
+        // given
+        final ExecutionPlan plan = compile(Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                .endEvent()
+            .sequenceFlow("s2", s -> s.condition("$.foo >= 5 && $.bar.baz == \"x\""))
+                .endEvent()
+            .sequenceFlow("s3", s -> s.defaultFlow())
+                .endEvent()
+            .done());
+
+        final DirectBuffer payload = msgPack("{'a':1, 'foo':7, 'b':[1,2,3], 'bar':{'baz':'x'}}");
+
+        // when
+        final int sequenceFlow = evaluator.evaluate(plan, plan.indexOf(wrapString("xor")), payload);
+
+        // then
+        assertThat(bufferAsString(plan.getId(sequenceFlow))).isEqualTo("s2");
+    }
+
+    @Test
+    public void shouldSelectDefaultFlow() throws Exception
+    {
+        // given
+        final ExecutionPlan plan = compile(Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                .endEvent()
+            .sequenceFlow("s2", s -> s.condition("$.foo > 10"))
+                .endEvent()
+            .sequenceFlow("s3", s -> s.defaultFlow())
+                .endEvent()
+            .done());
+
+        final DirectBuffer payload = msgPack("{'foo':7}");
+
+        // when
+        final int sequenceFlow = evaluator.evaluate(plan, plan.indexOf(wrapString("xor")), payload);
+
+        // then
+        assertThat(bufferAsString(plan.getId(sequenceFlow))).isEqualTo("s3");
+    }
+
+    @Test
+    public void shouldReturnNoElementIfNoConditionIsFulfilled() throws Exception
+    {
+        // given
+        final ExecutionPlan plan = compile(Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.foo < 5"))
+                .endEvent()
+            .sequenceFlow("s2", s -> s.condition("$.foo > 10"))
+                .endEvent()
+            .done());
+
+        final DirectBuffer payload = msgPack("{'foo':7}");
+
+        // when
+        final int sequenceFlow = evaluator.evaluate(plan, plan.indexOf(wrapString("xor")), payload);
+
+        // then
+        assertThat(sequenceFlow).isEqualTo(ExecutionPlan.NO_ELEMENT);
+    }
+
+    @Test
+    public void shouldCollectPropertiesOfConditions()
+    {
+        // when
+        final ExecutionPlan plan = compile(Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor")
+            .sequenceFlow("s1", s -> s.condition("$.foo < 5 || $.bar == \"$.baz\""))
+                .endEvent()
+            .sequenceFlow("s2", s -> s.condition("$.foo.x[0] >= 5"))
+                .endEvent()
+            .done());
+
+        // then
+        final DirectBuffer[] properties = plan.getConditionProperties(plan.indexOf(wrapString("xor")));
+
+        assertThat(properties).extracting(p -> bufferAsString(p)).containsExactly("foo", "bar");
+    }
+
+    private static ExecutionPlan compile(WorkflowDefinition workflowDefinition)
+    {
+        return ExecutionPlan.compile(workflowDefinition.getWorkflows().iterator().next());
+    }
+
+    private static DirectBuffer msgPack(String json) throws Exception
+    {
+        return new UnsafeBuffer(MSGPACK_MAPPER.writeValueAsBytes(JSON_MAPPER.readTree(json)));
+    }
+}
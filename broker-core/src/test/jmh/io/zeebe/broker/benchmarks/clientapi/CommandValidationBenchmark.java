@@ -0,0 +1,83 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.clientapi;
+
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.broker.job.data.JobRecord;
+import io.zeebe.broker.transport.clientapi.ClientApiMessageHandler;
+import io.zeebe.broker.transport.clientapi.CommandValidator;
+import io.zeebe.broker.transport.clientapi.RecordCommandValidator;
+import io.zeebe.util.buffer.BufferUtil;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares validating a job command by reading it into a {@link JobRecord}
+ * with walking its message pack structure.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+public class CommandValidationBenchmark
+{
+    @State(Scope.Thread)
+    public static class ValidationContext
+    {
+        final CommandValidator recordValidator = new RecordCommandValidator(new JobRecord());
+        final CommandValidator structureValidator = ClientApiMessageHandler.newJobValidator();
+
+        final UnsafeBuffer command = new UnsafeBuffer(0, 0);
+
+        @Setup
+        public void setUp()
+        {
+            final JobRecord jobRecord = new JobRecord()
+                .setType(BufferUtil.wrapString("someTaskType"))
+                .setRetries(3)
+                .setDeadline(System.currentTimeMillis())
+                .setWorker(BufferUtil.wrapString("someWorker"));
+
+            jobRecord.headers()
+                .setBpmnProcessId(BufferUtil.wrapString("someProcess"))
+                .setWorkflowDefinitionVersion(1)
+                .setWorkflowKey(1L)
+                .setWorkflowInstanceKey(2L)
+                .setActivityId(BufferUtil.wrapString("someTask"))
+                .setActivityInstanceKey(3L);
+
+            command.wrap(new byte[jobRecord.getEncodedLength()]);
+            jobRecord.write(command, 0);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean validateByReadingRecord(ValidationContext ctx)
+    {
+        return ctx.recordValidator.validate(ctx.command, 0, ctx.command.capacity());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean validateByStructure(ValidationContext ctx)
+    {
+        return ctx.structureValidator.validate(ctx.command, 0, ctx.command.capacity());
+    }
+}
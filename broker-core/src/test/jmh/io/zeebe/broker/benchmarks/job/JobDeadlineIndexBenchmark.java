@@ -0,0 +1,91 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.job;
+
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.broker.job.map.JobDeadlineIndex;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures the cost of one time out tick with the given number of activated
+ * jobs, of which only a few are due.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class JobDeadlineIndexBenchmark
+{
+    private static final int DUE_JOBS_PER_TICK = 100;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int activeJobs;
+
+    private JobDeadlineIndex index;
+
+    private long nextKey;
+    private long now;
+
+    @Setup
+    public void setUp()
+    {
+        index = new JobDeadlineIndex();
+
+        for (nextKey = 0; nextKey < activeJobs; nextKey++)
+        {
+            index.put(nextKey, nextKey);
+        }
+
+        now = 0;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int timeOutTick()
+    {
+        now += DUE_JOBS_PER_TICK;
+
+        int count = 0;
+        while (index.hasDueJob(now))
+        {
+            final long key = index.peekKey();
+            index.markTimingOut();
+            index.remove(key);
+            count++;
+        }
+
+        // re-activate the timed out jobs to keep the number of active jobs stable
+        for (int i = 0; i < count; i++)
+        {
+            index.put(nextKey, nextKey);
+            nextKey++;
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean idleTick()
+    {
+        return index.hasDueJob(-1);
+    }
+}
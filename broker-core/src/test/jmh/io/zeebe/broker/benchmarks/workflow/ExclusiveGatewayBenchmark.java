@@ -0,0 +1,132 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import io.zeebe.broker.workflow.map.ExecutionPlan;
+import io.zeebe.broker.workflow.processor.ExclusiveGatewayEvaluator;
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.builder.BpmnBuilder;
+import io.zeebe.msgpack.el.JsonConditionInterpreter;
+import io.zeebe.msgpack.spec.MsgPackWriter;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures selecting the outgoing flow of an exclusive gateway, where only
+ * the condition of the last flow is fulfilled. Compares evaluating every
+ * condition against the whole payload with the gateway evaluator.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ExclusiveGatewayBenchmark
+{
+    private static final int PROPERTY_VALUE_LENGTH = 100;
+
+    @Param({"2", "10", "20"})
+    public int outgoingFlows;
+
+    @Param({"10", "100", "1000"})
+    public int payloadProperties;
+
+    private ExecutionPlan plan;
+    private int gateway;
+    private DirectBuffer payload;
+
+    private final JsonConditionInterpreter conditionInterpreter = new JsonConditionInterpreter();
+    private final ExclusiveGatewayEvaluator evaluator = new ExclusiveGatewayEvaluator();
+
+    @Setup
+    public void setUp()
+    {
+        BpmnBuilder builder = Bpmn.createExecutableWorkflow("process")
+            .startEvent()
+            .exclusiveGateway("xor");
+
+        for (int i = 0; i < outgoingFlows; i++)
+        {
+            final String condition = "$.foo == " + i;
+
+            builder = builder
+                .sequenceFlow("flow-" + i, s -> s.condition(condition))
+                .endEvent("end-" + i);
+        }
+
+        plan = ExecutionPlan.compile(builder.done().getWorkflows().iterator().next());
+        gateway = plan.indexOf(wrapString("xor"));
+
+        payload = createPayload();
+    }
+
+    private DirectBuffer createPayload()
+    {
+        final ExpandableArrayBuffer buffer = new ExpandableArrayBuffer();
+        final MsgPackWriter writer = new MsgPackWriter();
+        writer.wrap(buffer, 0);
+
+        final DirectBuffer value = new UnsafeBuffer(new byte[PROPERTY_VALUE_LENGTH]);
+
+        writer.writeMapHeader(payloadProperties + 1);
+
+        // the property of the conditions is the last one, so that the whole payload is traversed
+        for (int i = 0; i < payloadProperties; i++)
+        {
+            writer.writeString(wrapString("property-" + i));
+            writer.writeString(value);
+        }
+
+        writer.writeString(wrapString("foo"));
+        writer.writeInteger(outgoingFlows - 1);
+
+        return new UnsafeBuffer(buffer, 0, writer.getOffset());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int evaluateEachConditionOnPayload()
+    {
+        final int[] sequenceFlows = plan.getConditionalFlows(gateway);
+        for (int s = 0; s < sequenceFlows.length; s++)
+        {
+            final int sequenceFlow = sequenceFlows[s];
+
+            if (conditionInterpreter.eval(plan.getCondition(sequenceFlow).getCondition(), payload))
+            {
+                return sequenceFlow;
+            }
+        }
+        return plan.getDefaultFlow(gateway);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int evaluateWithGatewayEvaluator()
+    {
+        return evaluator.evaluate(plan, gateway, payload);
+    }
+}
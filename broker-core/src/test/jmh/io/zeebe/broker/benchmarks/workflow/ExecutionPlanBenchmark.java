@@ -0,0 +1,134 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import static io.zeebe.util.buffer.BufferUtil.wrapString;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.DirectBuffer;
+
+import io.zeebe.broker.workflow.map.ExecutionPlan;
+import io.zeebe.model.bpmn.Bpmn;
+import io.zeebe.model.bpmn.builder.BpmnBuilder;
+import io.zeebe.model.bpmn.instance.EndEvent;
+import io.zeebe.model.bpmn.instance.ExclusiveGateway;
+import io.zeebe.model.bpmn.instance.FlowNode;
+import io.zeebe.model.bpmn.instance.SequenceFlow;
+import io.zeebe.model.bpmn.instance.ServiceTask;
+import io.zeebe.model.bpmn.instance.Workflow;
+import io.zeebe.protocol.intent.WorkflowInstanceIntent;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures resolving the next element of a workflow instance on a sequence
+ * flow taken event, once by looking up the workflow model and once by using
+ * the compiled execution plan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class ExecutionPlanBenchmark
+{
+    private static final int FLOW_NODES = 50;
+
+    private Workflow workflow;
+    private ExecutionPlan plan;
+
+    private DirectBuffer[] sequenceFlowIds;
+    private int nextFlow;
+
+    @Setup
+    public void setUp()
+    {
+        BpmnBuilder builder = Bpmn.createExecutableWorkflow("process")
+            .startEvent("start");
+
+        // start event, service tasks and end event
+        for (int i = 0; i < FLOW_NODES - 2; i++)
+        {
+            builder = builder
+                .sequenceFlow("flow-" + i)
+                .serviceTask("task-" + i, t -> t.taskType("test"));
+        }
+
+        workflow = builder
+            .sequenceFlow("flow-" + (FLOW_NODES - 2))
+            .endEvent("end")
+            .done()
+            .getWorkflows()
+            .iterator()
+            .next();
+
+        plan = ExecutionPlan.compile(workflow);
+
+        sequenceFlowIds = new DirectBuffer[FLOW_NODES - 1];
+        for (int i = 0; i < sequenceFlowIds.length; i++)
+        {
+            sequenceFlowIds[i] = wrapString("flow-" + i);
+        }
+    }
+
+    private DirectBuffer nextSequenceFlowId()
+    {
+        nextFlow = (nextFlow + 1) % sequenceFlowIds.length;
+        return sequenceFlowIds[nextFlow];
+    }
+
+    @Benchmark
+    @Threads(1)
+    public WorkflowInstanceIntent resolveWithModel()
+    {
+        final SequenceFlow sequenceFlow = workflow.findFlowElementById(nextSequenceFlowId());
+        final FlowNode targetNode = sequenceFlow.getTargetNode();
+
+        targetNode.getIdAsBuffer();
+
+        if (targetNode instanceof EndEvent)
+        {
+            return WorkflowInstanceIntent.END_EVENT_OCCURRED;
+        }
+        else if (targetNode instanceof ServiceTask)
+        {
+            return WorkflowInstanceIntent.ACTIVITY_READY;
+        }
+        else if (targetNode instanceof ExclusiveGateway)
+        {
+            return WorkflowInstanceIntent.GATEWAY_ACTIVATED;
+        }
+        else
+        {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public WorkflowInstanceIntent resolveWithExecutionPlan()
+    {
+        final int sequenceFlow = plan.indexOf(nextSequenceFlowId());
+        final int targetNode = plan.getTarget(sequenceFlow);
+
+        plan.getId(targetNode);
+
+        return plan.getTargetIntent(sequenceFlow);
+    }
+}
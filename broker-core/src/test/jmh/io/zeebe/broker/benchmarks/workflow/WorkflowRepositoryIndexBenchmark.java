@@ -0,0 +1,99 @@
+/*
+ * Zeebe Broker Core
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package io.zeebe.broker.benchmarks.workflow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex;
+import io.zeebe.broker.system.workflow.repository.processor.state.WorkflowRepositoryIndex.WorkflowMetadata;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures writing and recovering the snapshot of the workflow repository
+ * with the given number of deployed workflows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class WorkflowRepositoryIndexBenchmark
+{
+    private static final int TOPICS = 4;
+    private static final int PROCESSES_PER_TOPIC = 1_000;
+
+    @Param({"100000"})
+    public int workflows;
+
+    private WorkflowRepositoryIndex index;
+    private WorkflowRepositoryIndex recoveredIndex;
+
+    private ByteArrayOutputStream outputStream;
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        index = new WorkflowRepositoryIndex();
+        recoveredIndex = new WorkflowRepositoryIndex();
+
+        for (int i = 0; i < TOPICS; i++)
+        {
+            index.addTopic("topic-" + i);
+        }
+
+        for (int i = 0; i < workflows; i++)
+        {
+            final String topic = "topic-" + (i % TOPICS);
+            final String bpmnProcessId = "process-" + (i / TOPICS % PROCESSES_PER_TOPIC);
+
+            final int version = index.getNextVersion(topic, bpmnProcessId);
+            final long key = index.getNextKey();
+
+            index.add(new WorkflowMetadata()
+                .setKey(key)
+                .setVersion(version)
+                .setTopicName(topic)
+                .setBpmnProcessId(bpmnProcessId)
+                .setEventPosition(key));
+        }
+
+        outputStream = new ByteArrayOutputStream((int) index.snapshotSize());
+        index.writeSnapshot(outputStream);
+        snapshot = outputStream.toByteArray();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long writeSnapshot() throws Exception
+    {
+        outputStream.reset();
+        return index.writeSnapshot(outputStream);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public WorkflowRepositoryIndex recoverFromSnapshot() throws Exception
+    {
+        recoveredIndex.recoverFromSnapshot(new ByteArrayInputStream(snapshot));
+        return recoveredIndex;
+    }
+}
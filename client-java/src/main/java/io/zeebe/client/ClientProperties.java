@@ -27,6 +27,16 @@ public class ClientProperties
      */
     public static final String REQUEST_BLOCKTIME_MILLIS = "zeebe.client.requestBlockTime";
 
+    /**
+     * @see ZeebeClientBuilder#maxRequestsInFlight(int)
+     */
+    public static final String MAX_REQUESTS_IN_FLIGHT = "zeebe.client.requests.maxInFlight";
+
+    /**
+     * @see ZeebeClientBuilder#requestQueueCapacity(int)
+     */
+    public static final String REQUEST_QUEUE_CAPACITY = "zeebe.client.requests.queueCapacity";
+
     /**
      * @see ZeebeClientBuilder#sendBufferSize(int)
      */
@@ -52,6 +62,11 @@ public class ClientProperties
      */
     public static final String JOB_SUBSCRIPTION_BUFFER_SIZE = "zeebe.client.worker.buffersize";
 
+    /**
+     * @see ZeebeClientBuilder#recordPooling(boolean)
+     */
+    public static final String RECORD_POOLING = "zeebe.client.subscription.recordPooling";
+
     /**
      * @see ZeebeClientBuilder#tcpChannelKeepAlivePeriod(java.time.Duration)
      */
@@ -41,12 +41,26 @@ public interface ZeebeClientBuilder
     ZeebeClientBuilder requestTimeout(Duration requestTimeout);
 
     /**
-     * @param requestBlockTime The time to block when the user submits a request and the client
-     * has no buffer (pooling) capacity to send the request. After this time, an exception is thrown.
+     * @param requestBlockTime The time a request waits when the client has no buffer (pooling) capacity
+     * to send it. After this time, the request fails. The thread which submits the request is not blocked.
      * Default value is 15 seconds.
      */
     ZeebeClientBuilder requestBlocktime(Duration requestBlockTime);
 
+    /**
+     * @param maxRequestsInFlight The maximum number of requests which are sent to the brokers
+     * and not answered yet. Further requests are queued until one of them is answered.
+     * Default value is 1024.
+     */
+    ZeebeClientBuilder maxRequestsInFlight(int maxRequestsInFlight);
+
+    /**
+     * @param requestQueueCapacity The maximum number of requests which wait to be sent when
+     * {@link #maxRequestsInFlight(int)} is reached. A request which exceeds this limit fails right away.
+     * Default value is 131072.
+     */
+    ZeebeClientBuilder requestQueueCapacity(int requestQueueCapacity);
+
     /**
      * @param sendBufferSize the size of the client's send buffer in MB. Default value is 16.
      */
@@ -86,6 +100,13 @@ public interface ZeebeClientBuilder
      */
     ZeebeClientBuilder defaultJobSubscriptionBufferSize(int numberOfJobs);
 
+    /**
+     * @param enabled If true, the records which are pushed to job workers and topic subscriptions
+     * are copied into reused buffers instead of newly allocated ones. This reduces the garbage at a high
+     * throughput. The records which are passed to the handlers are not affected. Default value is true.
+     */
+    ZeebeClientBuilder recordPooling(boolean enabled);
+
     /**
      * The period of time in milliseconds for sending keep alive messages on tcp channels.
      * Setting this appropriately can avoid overhead by reopening channels after idle time.
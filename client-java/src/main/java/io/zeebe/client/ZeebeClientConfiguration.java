@@ -34,6 +34,16 @@ public interface ZeebeClientConfiguration
      */
     Duration getRequestBlocktime();
 
+    /**
+     * @see ZeebeClientBuilder#maxRequestsInFlight(int)
+     */
+    int getMaxRequestsInFlight();
+
+    /**
+     * @see ZeebeClientBuilder#requestQueueCapacity(int)
+     */
+    int getRequestQueueCapacity();
+
     /**
      * @see ZeebeClientBuilder#sendBufferSize(int)
      */
@@ -59,6 +69,11 @@ public interface ZeebeClientConfiguration
      */
     int getDefaultJobSubscriptionBufferSize();
 
+    /**
+     * @see ZeebeClientBuilder#recordPooling(boolean)
+     */
+    boolean isRecordPoolingEnabled();
+
     /**
      * @see ZeebeClientBuilder#tcpChannelKeepAlivePeriod(Duration)
      */
@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.api.clients;
 
+import io.zeebe.client.api.commands.CommandBatchResult;
+import io.zeebe.client.api.commands.CommandBatchStep1;
 import io.zeebe.client.api.subscription.TopicSubscriptionBuilderStep1;
 
 /**
@@ -77,4 +79,29 @@ public interface TopicClient
      */
     TopicSubscriptionBuilderStep1 newSubscription();
 
+    /**
+     * Send multiple commands of this topic in one request. The commands are
+     * written to one partition with one append, which is much cheaper than
+     * sending them one by one.
+     *
+     * <p>Unlike a single command, the batch is acknowledged when it is
+     * written, not when its commands are processed. Therefore, the result
+     * contains the keys of the commands (including the keys of created
+     * records) but not their events or rejections, see
+     * {@link CommandBatchResult}.
+     *
+     * <pre>
+     * CommandBatchResult result = zeebeClient
+     *  .topicClient()
+     *  .newCommandBatch()
+     *  .add(jobClient.newCompleteCommand(job1))
+     *  .add(jobClient.newCompleteCommand(job2))
+     *  .send()
+     *  .join();
+     * </pre>
+     *
+     * @return a builder for the batch
+     */
+    CommandBatchStep1 newCommandBatch();
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.api.commands;
+
+import java.util.List;
+
+/**
+ * Acknowledges that the commands of a batch are written to the log of the
+ * partition. The commands are not processed yet, so the result contains the
+ * key of each command but not the resulting events. A command which is
+ * rejected later (e.g. the completion of a job which has timed out) is written
+ * to the log as rejection with the key of the command. Use a topic
+ * subscription to follow the outcome of the commands by their keys.
+ */
+public interface CommandBatchResult
+{
+    /**
+     * @return the partition the commands are written to
+     */
+    int getPartitionId();
+
+    /**
+     * @return the position of the last command of the batch
+     */
+    long getPosition();
+
+    /**
+     * @return the keys of the commands in the order they were added to the
+     *         batch. The key of a create command is the key of the created
+     *         record (e.g. the key of the job).
+     */
+    List<Long> getKeys();
+}
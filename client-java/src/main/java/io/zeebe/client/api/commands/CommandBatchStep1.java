@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.api.commands;
+
+public interface CommandBatchStep1 extends FinalCommandStep<CommandBatchResult>
+{
+    /**
+     * Add a command to the batch. The command is not sent on its own.
+     * <p>
+     * All commands of a batch are written to the same partition with one
+     * append. Commands which address a specific partition (e.g. complete a
+     * job) must address the same one. Commands which only address the topic
+     * (e.g. create a workflow instance) are written to the partition of the
+     * batch.
+     * <p>
+     * The broker acknowledges the batch when it is written. It does not wait
+     * until the commands are processed, so a rejected command is not reported
+     * in the response.
+     *
+     * <pre>
+     * CommandBatchResult result = topicClient.newCommandBatch()
+     *   .add(workflowClient.newCreateInstanceCommand().bpmnProcessId("order-process").latestVersion())
+     *   .add(workflowClient.newCreateInstanceCommand().bpmnProcessId("order-process").latestVersion())
+     *   .send()
+     *   .join();
+     * </pre>
+     *
+     * @param command
+     *            the command to add
+     * @return the builder for this batch
+     * @throws IllegalArgumentException
+     *             if the command can't be part of this batch
+     */
+    CommandBatchStep1 add(FinalCommandStep<?> command);
+}
@@ -44,6 +44,17 @@ public interface CompleteJobCommandStep1 extends FinalCommandStep<JobEvent>
      */
     CompleteJobCommandStep1 payload(String payload);
 
+    /**
+     * Set the payload to complete the job with.
+     *
+     * @param payload
+     *            the payload as object which is serialized directly to MessagePack
+     *
+     * @return the builder for this command. Call {@link #send()} to
+     *         complete the command and send it to the broker.
+     */
+    CompleteJobCommandStep1 payload(Object payload);
+
     /**
      * Complete the job without payload.
      *
@@ -94,5 +94,16 @@ public interface CreateJobCommandStep1
          *         complete the command and send it to the broker.
          */
         CreateJobCommandStep2 payload(String payload);
+
+        /**
+         * Set the initial payload of this job.
+         *
+         * @param payload
+         *            the payload as object which is serialized directly to MessagePack
+         *
+         * @return the builder for this command. Call {@link #send()} to
+         *         complete the command and send it to the broker.
+         */
+        CreateJobCommandStep2 payload(Object payload);
     }
 }
@@ -112,6 +112,17 @@ public interface CreateWorkflowInstanceCommandStep1
          *         complete the command and send it to the broker.
          */
         CreateWorkflowInstanceCommandStep3 payload(String payload);
+
+        /**
+         * Set the initial payload of the workflow instance.
+         *
+         * @param payload
+         *            the payload as object which is serialized directly to MessagePack
+         *
+         * @return the builder for this command. Call {@link #send()} to
+         *         complete the command and send it to the broker.
+         */
+        CreateWorkflowInstanceCommandStep3 payload(Object payload);
     }
 
 }
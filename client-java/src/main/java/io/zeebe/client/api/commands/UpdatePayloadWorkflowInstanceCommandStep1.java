@@ -43,6 +43,17 @@ public interface UpdatePayloadWorkflowInstanceCommandStep1
      */
     UpdatePayloadWorkflowInstanceCommandStep2 payload(String payload);
 
+    /**
+     * Set the new payload of the workflow instance.
+     *
+     * @param payload
+     *            the payload as object which is serialized directly to MessagePack
+     *
+     * @return the builder for this command. Call {@link #send()} to
+     *         complete the command and send it to the broker.
+     */
+    UpdatePayloadWorkflowInstanceCommandStep2 payload(Object payload);
+
     interface UpdatePayloadWorkflowInstanceCommandStep2 extends FinalCommandStep<WorkflowInstanceEvent>
     {
         // the place for new optional parameters
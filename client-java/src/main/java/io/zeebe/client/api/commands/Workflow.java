@@ -32,4 +32,9 @@ public interface Workflow
      */
     long getWorkflowKey();
 
+    /**
+     * @return the name of the deployment resource which contains the workflow
+     */
+    String getResourceName();
+
 }
@@ -60,4 +60,12 @@ public interface JobRecord extends Record
      * @return JSON-formatted payload
      */
     String getPayload();
+
+    /**
+     * @param payloadType
+     *            the class to bind the payload to
+     *
+     * @return the payload bound to the given type, without converting it to JSON first
+     */
+    <T> T getPayloadAsType(Class<T> payloadType);
 }
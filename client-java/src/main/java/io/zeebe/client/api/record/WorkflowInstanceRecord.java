@@ -47,4 +47,13 @@ public interface WorkflowInstanceRecord extends Record
      * @return the payload of the workflow instance as JSON-formatted string.
      */
     String getPayload();
+
+    /**
+     * @param payloadType
+     *            the class to bind the payload to
+     *
+     * @return the payload of the workflow instance bound to the given type,
+     *         without converting it to JSON first
+     */
+    <T> T getPayloadAsType(Class<T> payloadType);
 }
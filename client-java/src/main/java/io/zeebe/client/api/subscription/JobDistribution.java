@@ -0,0 +1,48 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.api.subscription;
+
+/**
+ * The way the broker distributes the jobs of one type between the workers
+ * that are subscribed to it on a partition.
+ * <p>
+ * The distribution is chosen by the first worker that subscribes to the job
+ * type. Workers that request a different distribution afterwards are rejected.
+ */
+public enum JobDistribution
+{
+    /**
+     * Jobs are assigned in turn to all workers with free capacity.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * A worker gets as many jobs in a row as its weight, so that workers get
+     * jobs in proportion to their weights.
+     */
+    WEIGHTED_ROUND_ROBIN,
+
+    /**
+     * The next job is assigned to the worker with the most free capacity.
+     */
+    MOST_CREDITS,
+
+    /**
+     * Jobs are assigned to the workers of one client connection as long as they
+     * have free capacity, before moving on to the next connection.
+     */
+    LOCALITY
+}
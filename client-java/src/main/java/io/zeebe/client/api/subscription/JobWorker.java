@@ -32,6 +32,16 @@ public interface JobWorker
      */
     boolean isClosed();
 
+    /**
+     * The broker assigns at most this number of jobs to the worker at the
+     * same time. It is adapted to the arrival rate and the handling latency
+     * of the jobs and is limited by the worker's buffer size.
+     *
+     * @return the current number of jobs which can be assigned to this worker,
+     *         summed up over all partitions
+     */
+    int getCreditWindow();
+
     /**
      * Closes this registration and stops receiving new work items.
      * Blocks until all previously received items have been
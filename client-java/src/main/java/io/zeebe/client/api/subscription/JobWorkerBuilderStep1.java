@@ -16,6 +16,7 @@
 package io.zeebe.client.api.subscription;
 
 import java.time.Duration;
+import java.util.concurrent.Executor;
 
 import io.zeebe.client.ZeebeClientConfiguration;
 
@@ -147,6 +148,73 @@ public interface JobWorkerBuilderStep1
          */
         JobWorkerBuilderStep3 bufferSize(int numberOfJobs);
 
+        /**
+         * Set the way the broker distributes the jobs between the workers of
+         * this job type.
+         * <p>
+         * All workers of a job type must use the same distribution. If no
+         * distribution is set then {@link JobDistribution#ROUND_ROBIN} is used.
+         *
+         * @param distribution
+         *            the job distribution
+         *
+         * @return the builder for this subscription
+         */
+        JobWorkerBuilderStep3 distribution(JobDistribution distribution);
+
+        /**
+         * Set the weight of this worker. It is only used by the distribution
+         * {@link JobDistribution#WEIGHTED_ROUND_ROBIN} which hands out as many
+         * jobs in a row to a worker as its weight. If no weight is set then
+         * it is 1.
+         *
+         * @param weight
+         *            the weight of the worker (greater than 0)
+         *
+         * @return the builder for this subscription
+         */
+        JobWorkerBuilderStep3 weight(int weight);
+
+        /**
+         * Set the maximum number of jobs which the broker activates for this
+         * subscription at once. The jobs of a batch are written to the log
+         * with one append and pushed to the client with one message.
+         * <p>
+         * A greater value reduces the overhead per job for short, high-volume
+         * jobs. The batch is limited by the available buffer size, so it
+         * should be smaller than the {@link #bufferSize(int)}. If no batch
+         * size is set then the jobs are activated one by one.
+         *
+         * @param numberOfJobs
+         *            the max number of jobs per activation batch (1 - 64)
+         *
+         * @return the builder for this subscription
+         */
+        JobWorkerBuilderStep3 activationBatchSize(int numberOfJobs);
+
+        /**
+         * Set the executor to run the job handler on. By default, the handler
+         * runs on the client's subscription execution threads which are shared
+         * by all subscriptions, so that a slow handler delays the other ones.
+         * <p>
+         * With an executor, the jobs of this worker are handled concurrently.
+         * The number of jobs in progress is limited by the {@link #bufferSize(int)}
+         * since the broker assigns new jobs only when handled jobs are completed
+         * (or marked as failed). The executor can use a bounded pool of platform
+         * threads or one (virtual) thread per job, for example
+         * <code>Executors.newVirtualThreadPerTaskExecutor()</code>.
+         * <p>
+         * The executor is not shut down when the worker is closed. The handler
+         * should not wait on the result of the complete or fail command, so
+         * that the commands are sent while the next jobs are handled.
+         *
+         * @param executor
+         *            the executor to handle the jobs
+         *
+         * @return the builder for this subscription
+         */
+        JobWorkerBuilderStep3 executor(Executor executor);
+
         /**
          * Open the subscription and start to work on available tasks.
          *
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.api.subscription;
+
+import io.zeebe.client.api.record.RecordType;
+import io.zeebe.client.api.record.ValueType;
+import io.zeebe.client.impl.subscription.topic.RecordFilterImpl;
+
+/**
+ * Selects the records which the broker pushes to a topic subscription. The
+ * records are filtered before they are sent to the client. A filter matches
+ * the records which match all of its conditions.
+ * <p>
+ * Example: receive only the completed workflow instances of the process "order"
+ *
+ * <pre>
+ * RecordFilter.valueType(ValueType.WORKFLOW_INSTANCE)
+ *     .recordType(RecordType.EVENT)
+ *     .intents("COMPLETED")
+ *     .bpmnProcessId("order");
+ * </pre>
+ */
+public interface RecordFilter
+{
+    /**
+     * @param valueType
+     *            the type of the records to receive
+     *
+     * @return a new filter which matches all records of the given type
+     */
+    static RecordFilter valueType(ValueType valueType)
+    {
+        return new RecordFilterImpl(valueType);
+    }
+
+    /**
+     * Receive only events, commands or command rejections.
+     *
+     * @param recordType
+     *            the type of the records
+     *
+     * @return this filter
+     */
+    RecordFilter recordType(RecordType recordType);
+
+    /**
+     * Receive only the records with one of the given intents, e.g.
+     * <code>"COMPLETED"</code> for workflow instances.
+     *
+     * @param intents
+     *            the names of the intents of the record's value type
+     *
+     * @return this filter
+     */
+    RecordFilter intents(String... intents);
+
+    /**
+     * Receive only the records of the given workflow. Applies to the record
+     * types which have a bpmn process id, i.e. workflow instances, incidents
+     * and the jobs of workflow instances (by their headers).
+     * <p>
+     * This condition is evaluated on the record's value, so it is more
+     * expensive for the broker than the other conditions.
+     *
+     * @param bpmnProcessId
+     *            the bpmn process id of the workflow
+     *
+     * @return this filter
+     */
+    RecordFilter bpmnProcessId(String bpmnProcessId);
+
+    /**
+     * Receive only the job records of the given type.
+     * <p>
+     * This condition is evaluated on the record's value, so it is more
+     * expensive for the broker than the other conditions.
+     *
+     * @param jobType
+     *            the type of the jobs
+     *
+     * @return this filter
+     */
+    RecordFilter jobType(String jobType);
+}
@@ -212,6 +212,21 @@ public interface TopicSubscriptionBuilderStep1
          */
         TopicSubscriptionBuilderStep3 bufferSize(int numberOfRecords);
 
+        /**
+         * Receive only the records which match the given filter. Can be called
+         * multiple times: a record is received if it matches any of the filters.
+         * If no filter is set then all records of the topic are received.
+         * <p>
+         * The records are filtered by the broker, so that the records which
+         * are not handled are not sent to the client.
+         *
+         * @param filter
+         *            the filter, created by {@link RecordFilter#valueType(io.zeebe.client.api.record.ValueType)}
+         *
+         * @return the builder for this subscription
+         */
+        TopicSubscriptionBuilderStep3 filter(RecordFilter filter);
+
         /**
          * Open the subscription and start to process available events/commands.
          *
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.client.api.ZeebeFuture;
+import io.zeebe.client.api.commands.CommandBatchResult;
+import io.zeebe.client.api.commands.CommandBatchStep1;
+import io.zeebe.client.api.commands.FinalCommandStep;
+import io.zeebe.client.impl.record.RecordImpl;
+import io.zeebe.util.EnsureUtil;
+
+public class CommandBatchImpl implements CommandBatchStep1
+{
+    /**
+     * Must not be greater than the limit of the broker.
+     */
+    public static final int MAX_BATCH_SIZE = 1024;
+
+    private final RequestManager client;
+    private final String topic;
+
+    private final List<RecordImpl> commands = new ArrayList<>();
+    private int partitionId = -1;
+
+    public CommandBatchImpl(RequestManager client, String topic)
+    {
+        this.client = client;
+        this.topic = topic;
+    }
+
+    @Override
+    public CommandBatchStep1 add(FinalCommandStep<?> command)
+    {
+        EnsureUtil.ensureNotNull("command", command);
+
+        if (!(command instanceof CommandImpl))
+        {
+            throw new IllegalArgumentException("Command can't be part of a batch: " + command);
+        }
+
+        if (commands.size() >= MAX_BATCH_SIZE)
+        {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " commands");
+        }
+
+        final RecordImpl record = ((CommandImpl<?>) command).getCommand();
+        final String commandTopic = record.getMetadata().getTopicName();
+
+        if (!topic.equals(commandTopic))
+        {
+            throw new IllegalArgumentException("Command must address the topic '" + topic + "' of the batch but addresses '" + commandTopic + "'");
+        }
+
+        if (record.hasValidPartitionId())
+        {
+            final int commandPartitionId = record.getMetadata().getPartitionId();
+
+            if (partitionId < 0)
+            {
+                partitionId = commandPartitionId;
+            }
+            else if (partitionId != commandPartitionId)
+            {
+                throw new IllegalArgumentException("Command must address the partition " + partitionId + " of the batch but addresses " + commandPartitionId);
+            }
+        }
+
+        commands.add(record);
+
+        return this;
+    }
+
+    @Override
+    public ZeebeFuture<CommandBatchResult> send()
+    {
+        if (commands.isEmpty())
+        {
+            throw new IllegalStateException("Batch must contain at least one command");
+        }
+
+        return client.send(this);
+    }
+
+    public String getTopic()
+    {
+        return topic;
+    }
+
+    /**
+     * @return the partition which is addressed by the commands or -1 if they only address the topic
+     */
+    public int getPartitionId()
+    {
+        return partitionId;
+    }
+
+    public List<RecordImpl> getCommands()
+    {
+        return commands;
+    }
+}
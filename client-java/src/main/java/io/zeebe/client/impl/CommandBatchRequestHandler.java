@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
+import io.zeebe.client.impl.record.RecordImpl;
+import io.zeebe.client.impl.record.RecordMetadataImpl;
+import io.zeebe.protocol.clientapi.MessageHeaderDecoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchRequestEncoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchRequestEncoder.CommandsEncoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseDecoder;
+import io.zeebe.protocol.clientapi.batch.ExecuteCommandBatchResponseDecoder.CommandsDecoder;
+import io.zeebe.protocol.clientapi.batch.MessageHeaderEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.ExpandableArrayBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.io.ExpandableDirectBufferOutputStream;
+
+public class CommandBatchRequestHandler implements RequestResponseHandler
+{
+    protected final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+    protected final ExecuteCommandBatchRequestEncoder encoder = new ExecuteCommandBatchRequestEncoder();
+    protected final ExecuteCommandBatchResponseDecoder decoder = new ExecuteCommandBatchResponseDecoder();
+
+    protected final ZeebeObjectMapperImpl objectMapper;
+    protected final String topic;
+    protected final List<RecordImpl> commands;
+    protected int partitionId;
+
+    protected final ExpandableArrayBuffer serializedBatch = new ExpandableArrayBuffer();
+    protected int serializedBatchLength = 0;
+
+    public CommandBatchRequestHandler(ZeebeObjectMapperImpl objectMapper, CommandBatchImpl batch)
+    {
+        this.objectMapper = objectMapper;
+        this.topic = batch.getTopic();
+        this.commands = new ArrayList<>(batch.getCommands());
+        this.partitionId = batch.getPartitionId();
+
+        serialize();
+    }
+
+    protected void serialize()
+    {
+        headerEncoder.wrap(serializedBatch, 0)
+            .blockLength(encoder.sbeBlockLength())
+            .schemaId(encoder.sbeSchemaId())
+            .templateId(encoder.sbeTemplateId())
+            .version(encoder.sbeSchemaVersion());
+
+        encoder.wrap(serializedBatch, headerEncoder.encodedLength())
+            .partitionId(Math.max(partitionId, 0));
+
+        final CommandsEncoder commandsEncoder = encoder.commandsCount(commands.size());
+
+        for (RecordImpl command : commands)
+        {
+            final RecordMetadataImpl metadata = command.getMetadata();
+
+            commandsEncoder.next()
+                .key(metadata.getKey() < 0 ? CommandsEncoder.keyNullValue() : metadata.getKey())
+                .valueType(metadata.getProtocolValueType().value())
+                .intent(metadata.getProtocolIntent().value());
+
+            final int valueHeaderOffset = encoder.limit();
+            final int valueOffset = valueHeaderOffset + CommandsEncoder.valueHeaderLength();
+
+            final ExpandableDirectBufferOutputStream out = new ExpandableDirectBufferOutputStream(serializedBatch, valueOffset);
+            objectMapper.toMsgpack(out, command);
+
+            // can only write the header after we have written the command, as we don't know the length beforehand
+            final short valueLength = (short) out.position();
+            serializedBatch.putShort(valueHeaderOffset, valueLength, java.nio.ByteOrder.LITTLE_ENDIAN);
+
+            encoder.limit(valueOffset + out.position());
+        }
+
+        serializedBatchLength = encoder.limit();
+    }
+
+    @Override
+    public int getLength()
+    {
+        return serializedBatchLength;
+    }
+
+    @Override
+    public void write(MutableDirectBuffer buffer, int offset)
+    {
+        buffer.putBytes(offset, serializedBatch, 0, serializedBatchLength);
+    }
+
+    @Override
+    public boolean handlesResponse(MessageHeaderDecoder responseHeader)
+    {
+        return responseHeader.schemaId() == ExecuteCommandBatchResponseDecoder.SCHEMA_ID && responseHeader.templateId() == ExecuteCommandBatchResponseDecoder.TEMPLATE_ID;
+    }
+
+    @Override
+    public CommandBatchResultImpl getResult(DirectBuffer buffer, int offset, int blockLength, int version)
+    {
+        decoder.wrap(buffer, offset, blockLength, version);
+
+        final int partitionId = decoder.partitionId();
+        final long position = decoder.position();
+
+        final CommandsDecoder commandsDecoder = decoder.commands();
+        final List<Long> keys = new ArrayList<>(commandsDecoder.count());
+
+        for (CommandsDecoder command : commandsDecoder)
+        {
+            final long key = command.key();
+            keys.add(key != CommandsDecoder.keyNullValue() ? key : -1L);
+        }
+
+        return new CommandBatchResultImpl(partitionId, position, keys);
+    }
+
+    @Override
+    public String getTargetTopic()
+    {
+        return topic;
+    }
+
+    @Override
+    public int getTargetPartition()
+    {
+        return partitionId;
+    }
+
+    @Override
+    public void onSelectedPartition(int partitionId)
+    {
+        this.partitionId = partitionId;
+        encoder.partitionId(partitionId);
+
+        for (RecordImpl command : commands)
+        {
+            command.setPartitionId(partitionId);
+        }
+    }
+
+    @Override
+    public String describeRequest()
+    {
+        return "[ topic = " + topic +
+                ", partition = " + (partitionId >= 0 ? partitionId : "any") +
+                ", commands = " + commands.size() + " ]";
+    }
+}
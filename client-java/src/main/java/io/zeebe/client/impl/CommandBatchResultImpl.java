@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl;
+
+import java.util.List;
+
+import io.zeebe.client.api.commands.CommandBatchResult;
+
+public class CommandBatchResultImpl implements CommandBatchResult
+{
+    private final int partitionId;
+    private final long position;
+    private final List<Long> keys;
+
+    public CommandBatchResultImpl(int partitionId, long position, List<Long> keys)
+    {
+        this.partitionId = partitionId;
+        this.position = position;
+        this.keys = keys;
+    }
+
+    @Override
+    public int getPartitionId()
+    {
+        return partitionId;
+    }
+
+    @Override
+    public long getPosition()
+    {
+        return position;
+    }
+
+    @Override
+    public List<Long> getKeys()
+    {
+        return keys;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "CommandBatchResult [partitionId=" + partitionId + ", position=" + position + ", keys=" + keys + "]";
+    }
+}
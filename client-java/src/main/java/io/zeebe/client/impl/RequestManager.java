@@ -16,11 +16,14 @@
 package io.zeebe.client.impl;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import io.zeebe.client.api.ZeebeFuture;
+import io.zeebe.client.api.commands.CommandBatchResult;
 import io.zeebe.client.api.record.Record;
 import io.zeebe.client.cmd.*;
 import io.zeebe.client.impl.clustering.*;
@@ -38,25 +41,45 @@ import org.agrona.DirectBuffer;
 
 public class RequestManager extends Actor
 {
+    protected static final long MIN_BACKOFF_MILLIS = 10;
+    protected static final long MAX_BACKOFF_MILLIS = 1000;
+
     protected final ClientOutput output;
     protected final ClientTopologyManager topologyManager;
     protected final ZeebeObjectMapperImpl objectMapper;
     protected final Duration requestTimeout;
     protected final RequestDispatchStrategy dispatchStrategy;
     protected final long blockTimeMillis;
+    protected final int maxRequestsInFlight;
+    protected final int maxPendingRequests;
+
+    /**
+     * Requests which are queued or in flight, may be accessed by any thread
+     */
+    protected final AtomicInteger pendingRequests = new AtomicInteger();
+
+    // accessed by the actor only
+    protected final ArrayDeque<PendingRequest> queuedRequests = new ArrayDeque<>();
+    protected int requestsInFlight = 0;
+    protected boolean isAwaitingMemory = false;
+    protected boolean isDispatching = false;
 
     public RequestManager(
             ClientOutput output,
             ClientTopologyManager topologyManager,
             ZeebeObjectMapperImpl objectMapper,
             Duration requestTimeout,
-            long blockTimeMillis)
+            long blockTimeMillis,
+            int maxRequestsInFlight,
+            int requestQueueCapacity)
     {
         this.output = output;
         this.topologyManager = topologyManager;
         this.objectMapper = objectMapper;
         this.requestTimeout = requestTimeout;
         this.blockTimeMillis = blockTimeMillis;
+        this.maxRequestsInFlight = maxRequestsInFlight;
+        this.maxPendingRequests = maxRequestsInFlight + requestQueueCapacity;
         this.dispatchStrategy = new RoundRobinDispatchStrategy(topologyManager);
     }
 
@@ -75,125 +98,316 @@ public class RequestManager extends Actor
         return waitAndResolve(send(controlMessage));
     }
 
+    /**
+     * Never blocks the calling thread. The request is handed over to the actor
+     * which resolves the target partition, sends it as soon as less than the
+     * maximum number of requests are in flight and retries it on backpressure.
+     * If too many requests are pending already, the returned future is failed
+     * right away.
+     */
     private <R> ResponseFuture<R> executeAsync(final RequestResponseHandler requestHandler)
     {
-        final Supplier<RemoteAddress> remoteProvider = determineRemoteProvider(requestHandler);
+        final CompletableActorFuture<ClientResponse> responseFuture = new CompletableActorFuture<>();
+
+        if (pendingRequests.incrementAndGet() <= maxPendingRequests)
+        {
+            actor.call(() ->
+            {
+                final long deadline = ActorClock.currentTimeMillis() + requestTimeout.toMillis();
+
+                queuedRequests.add(new PendingRequest(requestHandler, responseFuture, deadline));
+                dispatchQueuedRequests();
+            });
+        }
+        else
+        {
+            pendingRequests.decrementAndGet();
+
+            responseFuture.completeExceptionally(new ClientException("Cannot make request: the client has reached the limit of " +
+                maxPendingRequests + " pending requests. Request was: " + requestHandler.describeRequest()));
+        }
+
+        return new ResponseFuture<>(responseFuture, requestHandler, requestTimeout);
+    }
+
+    private void dispatchQueuedRequests()
+    {
+        if (isDispatching)
+        {
+            // requests which complete while dispatching must not recurse
+            return;
+        }
+
+        isDispatching = true;
+
+        while (!isAwaitingMemory && requestsInFlight < maxRequestsInFlight && !queuedRequests.isEmpty())
+        {
+            final PendingRequest request = queuedRequests.poll();
+            requestsInFlight++;
+
+            if (ActorClock.currentTimeMillis() >= request.deadline)
+            {
+                completeRequest(request, null, new ClientException("Request timed out (" + requestTimeout + "). Request was: " +
+                    request.handler.describeRequest()));
+            }
+            else if (request.remoteProvider != null)
+            {
+                // was already sent once but the send buffer was exhausted
+                sendRequest(request);
+            }
+            else
+            {
+                resolveRemoteAndSend(request);
+            }
+        }
+
+        isDispatching = false;
+    }
+
+    private void resolveRemoteAndSend(PendingRequest request)
+    {
+        final RequestResponseHandler requestHandler = request.handler;
+
+        if (!requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
+        {
+            request.remoteProvider = new BrokerProvider((topology) -> topology.getRandomBroker());
+            sendRequest(request);
+        }
+        else if (requestHandler.addressesSpecificPartition())
+        {
+            request.remoteProvider = newLeaderProvider(requestHandler.getTargetPartition());
+            sendRequest(request);
+        }
+        else
+        {
+            final int proposedPartition = dispatchStrategy.determinePartition(requestHandler.getTargetTopic());
+
+            if (proposedPartition >= 0)
+            {
+                sendToPartition(request, proposedPartition);
+            }
+            else
+            {
+                final CompletableActorFuture<Integer> partitionFuture = new CompletableActorFuture<>();
+                updateTopologyAndDeterminePartition(requestHandler.getTargetTopic(), partitionFuture, request.deadline);
+
+                actor.runOnCompletion(partitionFuture, (partition, failure) ->
+                {
+                    if (failure == null)
+                    {
+                        sendToPartition(request, partition);
+                    }
+                    else
+                    {
+                        completeRequest(request, null, new ClientException("Cannot determine target partition for request. " +
+                            "Request was: " + requestHandler.describeRequest()));
+                    }
+                });
+            }
+        }
+    }
+
+    private void sendToPartition(PendingRequest request, int partition)
+    {
+        request.handler.onSelectedPartition(partition);
+        request.remoteProvider = newLeaderProvider(partition);
 
-        final ActorFuture<ClientResponse> responseFuture =
-                output.sendRequestWithRetry(remoteProvider, RequestManager::shouldRetryRequest, requestHandler, requestTimeout);
+        sendRequest(request);
+    }
+
+    private void sendRequest(PendingRequest request)
+    {
+        final long remaining = request.deadline - ActorClock.currentTimeMillis();
+        final ActorFuture<ClientResponse> responseFuture = remaining > 0 ?
+                sendRequest(request.remoteProvider, request.handler, Duration.ofMillis(remaining)) : null;
 
         if (responseFuture != null)
         {
-            return new ResponseFuture<>(responseFuture, requestHandler, requestTimeout);
+            request.awaitingMemorySince = -1;
+            retryOnBackpressure(responseFuture, request.remoteProvider, request.handler, 0, request.deadline, request);
+        }
+        else if (remaining <= 0)
+        {
+            completeRequest(request, null, new ClientException("Request timed out (" + requestTimeout + "). Request was: " +
+                request.handler.describeRequest()));
         }
         else
         {
-            throw new ClientOutOfMemoryException("Zeebe client is out of buffer memory and cannot make " +
-                "new requests until memory is reclaimed.");
+            awaitMemory(request);
         }
     }
 
-    private static boolean shouldRetryRequest(DirectBuffer responseContent)
+    /**
+     * The send buffer is exhausted. The request is sent again when another
+     * request completes and releases its buffer memory, unless it is waiting
+     * longer than the block time already.
+     */
+    private void awaitMemory(PendingRequest request)
     {
-        final ErrorResponseHandler errorHandler = new ErrorResponseHandler();
-        final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
-        headerDecoder.wrap(responseContent, 0);
+        final long now = ActorClock.currentTimeMillis();
 
-        if (errorHandler.handlesResponse(headerDecoder))
+        if (request.awaitingMemorySince < 0)
         {
-            errorHandler.wrap(responseContent, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+            request.awaitingMemorySince = now;
+        }
 
-            final ErrorCode errorCode = errorHandler.getErrorCode();
-            return errorCode == ErrorCode.PARTITION_NOT_FOUND || errorCode == ErrorCode.REQUEST_TIMEOUT;
+        if (requestsInFlight <= 1 || now - request.awaitingMemorySince > blockTimeMillis)
+        {
+            completeRequest(request, null, newOutOfMemoryException());
         }
         else
         {
-            return false;
+            requestsInFlight--;
+            isAwaitingMemory = true;
+            queuedRequests.addFirst(request);
         }
     }
 
-    private ActorFuture<Integer> updateTopologyAndDeterminePartition(String topic)
+    private void completeRequest(PendingRequest request, ClientResponse response, Throwable failure)
     {
-        final CompletableActorFuture<Integer> future = new CompletableActorFuture<>();
-
-        actor.call(() ->
+        if (failure == null)
         {
-            final long timeout = ActorClock.currentTimeMillis() + requestTimeout.toMillis();
-            updateTopologyAndDeterminePartition(topic, future, timeout);
-        });
-        return future;
+            request.responseFuture.complete(response);
+        }
+        else
+        {
+            request.responseFuture.completeExceptionally(failure);
+        }
+
+        requestsInFlight--;
+        pendingRequests.decrementAndGet();
+        isAwaitingMemory = false;
+
+        dispatchQueuedRequests();
     }
 
-    private void updateTopologyAndDeterminePartition(String topic, CompletableActorFuture<Integer> future, long timeout)
+    private ActorFuture<ClientResponse> sendRequest(Supplier<RemoteAddress> remoteProvider, RequestResponseHandler requestHandler, Duration timeout)
     {
-        final ActorFuture<ClusterState> topologyFuture = topologyManager.requestTopology();
-        actor.runOnCompletion(topologyFuture, (topology, throwable) ->
+        return output.sendRequestWithRetry(remoteProvider, RequestManager::shouldRetryRequest, requestHandler, timeout);
+    }
+
+    /**
+     * A broker rejects a command with {@link ErrorCode#REQUEST_TIMEOUT} if
+     * the partition is overloaded. The command is sent again after a jittered,
+     * exponentially growing delay until the request timeout is reached, so that
+     * the clients do not retry in lockstep.
+     */
+    private void retryOnBackpressure(
+            ActorFuture<ClientResponse> responseFuture,
+            Supplier<RemoteAddress> remoteProvider,
+            RequestResponseHandler requestHandler,
+            int attempt,
+            long deadline,
+            PendingRequest request)
+    {
+        actor.runOnCompletion(responseFuture, (response, failure) ->
         {
-            final int partition = dispatchStrategy.determinePartition(topic);
-            if (partition >= 0)
+            if (failure != null)
             {
-                future.complete(partition);
+                completeRequest(request, null, failure);
+                return;
             }
-            else if (ActorClock.currentTimeMillis() > timeout)
+
+            final long backoff = backoffMillis(attempt);
+            final long remaining = deadline - ActorClock.currentTimeMillis() - backoff;
+
+            if (remaining > 0 && isBackpressured(response.getResponseBuffer()))
             {
-                future.completeExceptionally(new ClientException("Could not determine target partition in time " + requestTimeout));
+                actor.runDelayed(Duration.ofMillis(backoff), () ->
+                {
+                    final ActorFuture<ClientResponse> retryFuture = sendRequest(remoteProvider, requestHandler, Duration.ofMillis(remaining));
+
+                    if (retryFuture != null)
+                    {
+                        retryOnBackpressure(retryFuture, remoteProvider, requestHandler, attempt + 1, deadline, request);
+                    }
+                    else
+                    {
+                        awaitMemory(request);
+                    }
+                });
             }
             else
             {
-                updateTopologyAndDeterminePartition(topic, future, timeout);
+                completeRequest(request, response, null);
             }
         });
     }
 
-    private Supplier<RemoteAddress> determineRemoteProvider(RequestResponseHandler requestHandler)
+    /**
+     * @return a random delay between half and the full exponential backoff of the attempt ("equal jitter")
+     */
+    private static long backoffMillis(int attempt)
     {
-        if (!requestHandler.addressesSpecificTopic() && !requestHandler.addressesSpecificPartition())
+        final long backoff = Math.min(MAX_BACKOFF_MILLIS, MIN_BACKOFF_MILLIS << Math.min(attempt, 16));
+        final long half = backoff >> 1;
+
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private static ClientOutOfMemoryException newOutOfMemoryException()
+    {
+        return new ClientOutOfMemoryException("Zeebe client is out of buffer memory and cannot make " +
+            "new requests until memory is reclaimed.");
+    }
+
+    private static boolean isBackpressured(DirectBuffer responseContent)
+    {
+        return getErrorCode(responseContent) == ErrorCode.REQUEST_TIMEOUT;
+    }
+
+    private static boolean shouldRetryRequest(DirectBuffer responseContent)
+    {
+        final ErrorCode errorCode = getErrorCode(responseContent);
+        // REQUEST_TIMEOUT is retried with a backoff, see retryOnBackpressure
+        return errorCode == ErrorCode.PARTITION_NOT_FOUND;
+    }
+
+    /**
+     * @return the error code of the response or {@code null} if it is not an error response
+     */
+    private static ErrorCode getErrorCode(DirectBuffer responseContent)
+    {
+        final ErrorResponseHandler errorHandler = new ErrorResponseHandler();
+        final MessageHeaderDecoder headerDecoder = new MessageHeaderDecoder();
+        headerDecoder.wrap(responseContent, 0);
+
+        if (errorHandler.handlesResponse(headerDecoder))
         {
-            return new BrokerProvider((topology) -> topology.getRandomBroker());
+            errorHandler.wrap(responseContent, headerDecoder.encodedLength(), headerDecoder.blockLength(), headerDecoder.version());
+
+            return errorHandler.getErrorCode();
         }
         else
         {
-            final int targetPartition;
-            if (!requestHandler.addressesSpecificPartition())
-            {
-                int proposedPartition = dispatchStrategy.determinePartition(requestHandler.getTargetTopic());
-
-                if (proposedPartition >= 0)
-                {
-                    targetPartition = proposedPartition;
-                }
-                else
-                {
-                    final ActorFuture<Integer> partitionFuture =
-                            updateTopologyAndDeterminePartition(requestHandler.getTargetTopic());
-
-                    try
-                    {
-                        proposedPartition = partitionFuture.get(requestTimeout.toMillis(), TimeUnit.MILLISECONDS);
-                    }
-                    catch (InterruptedException | ExecutionException | TimeoutException e)
-                    {
-                        proposedPartition = -1;
-                    }
+            return null;
+        }
+    }
 
-                    targetPartition = proposedPartition;
-                }
-                if (targetPartition < 0)
-                {
-                    throw new ClientException("Cannot determine target partition for request. Request was: " + requestHandler.describeRequest());
-                }
-                else
-                {
-                    requestHandler.onSelectedPartition(targetPartition);
-                }
+    private void updateTopologyAndDeterminePartition(String topic, CompletableActorFuture<Integer> future, long deadline)
+    {
+        final ActorFuture<ClusterState> topologyFuture = topologyManager.requestTopology();
+        actor.runOnCompletion(topologyFuture, (topology, throwable) ->
+        {
+            final int partition = dispatchStrategy.determinePartition(topic);
+            if (partition >= 0)
+            {
+                future.complete(partition);
+            }
+            else if (ActorClock.currentTimeMillis() > deadline)
+            {
+                future.completeExceptionally(new ClientException("Could not determine target partition in time " + requestTimeout));
             }
             else
             {
-                targetPartition = requestHandler.getTargetPartition();
+                updateTopologyAndDeterminePartition(topic, future, deadline);
             }
+        });
+    }
 
-            return new BrokerProvider((topology) -> topology.getLeaderForPartition(targetPartition));
-        }
+    private Supplier<RemoteAddress> newLeaderProvider(int partition)
+    {
+        return new BrokerProvider((topology) -> topology.getLeaderForPartition(partition));
     }
 
     public <E> ResponseFuture<E> send(final ControlMessageRequest<E> controlMessage)
@@ -208,6 +422,12 @@ public class RequestManager extends Actor
         return executeAsync(requestHandler);
     }
 
+    public ResponseFuture<CommandBatchResult> send(final CommandBatchImpl batch)
+    {
+        final CommandBatchRequestHandler requestHandler = new CommandBatchRequestHandler(objectMapper, batch);
+        return executeAsync(requestHandler);
+    }
+
     private <E> E waitAndResolve(Future<E> future)
     {
         try
@@ -232,6 +452,23 @@ public class RequestManager extends Actor
         }
     }
 
+    protected static class PendingRequest
+    {
+        private final RequestResponseHandler handler;
+        private final CompletableActorFuture<ClientResponse> responseFuture;
+        private final long deadline;
+
+        private Supplier<RemoteAddress> remoteProvider;
+        private long awaitingMemorySince = -1;
+
+        PendingRequest(RequestResponseHandler handler, CompletableActorFuture<ClientResponse> responseFuture, long deadline)
+        {
+            this.handler = handler;
+            this.responseFuture = responseFuture;
+            this.deadline = deadline;
+        }
+    }
+
     private class BrokerProvider implements Supplier<RemoteAddress>
     {
         private int attempt = 0;
@@ -328,7 +565,12 @@ public class RequestManager extends Actor
             }
             catch (ExecutionException e)
             {
-                if (e.getCause() != null && e.getCause() instanceof RequestTimeoutException)
+                if (e.getCause() instanceof ClientException)
+                {
+                    // the request could not be sent, the exception already describes the request
+                    failWith((ClientException) e.getCause());
+                }
+                else if (e.getCause() != null && e.getCause() instanceof RequestTimeoutException)
                 {
                     failWith("Request timed out (" + requestTimeout + ")", e);
                 }
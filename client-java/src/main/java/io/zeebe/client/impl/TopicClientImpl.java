@@ -17,6 +17,7 @@ package io.zeebe.client.impl;
 
 import io.zeebe.client.ZeebeClientConfiguration;
 import io.zeebe.client.api.clients.*;
+import io.zeebe.client.api.commands.CommandBatchStep1;
 import io.zeebe.client.api.subscription.TopicSubscriptionBuilderStep1;
 import io.zeebe.client.impl.data.MsgPackConverter;
 import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
@@ -55,6 +56,12 @@ public class TopicClientImpl implements TopicClient
         return new TopicSubscriptionBuilderImpl(this);
     }
 
+    @Override
+    public CommandBatchStep1 newCommandBatch()
+    {
+        return new CommandBatchImpl(getCommandManager(), topic);
+    }
+
     public String getTopic()
     {
         return topic;
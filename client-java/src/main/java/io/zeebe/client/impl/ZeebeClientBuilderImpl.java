@@ -28,11 +28,14 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
     private String brokerContactPoint = "127.0.0.1:51015";
     private Duration requestTimeout = Duration.ofSeconds(15);
     private Duration requestBlocktime = Duration.ofSeconds(15);
+    private int maxRequestsInFlight = 1024;
+    private int requestQueueCapacity = 128 * 1024;
     private int sendBufferSize = 16;
     private int numManagementThreads = 1;
     private int numSubscriptionExecutionThreads = 1;
     private int topicSubscriptionBufferSize = 1024;
     private int jobSubscriptionBufferSize = 32;
+    private boolean recordPooling = true;
     private Duration tcpChannelKeepAlivePeriod;
     private ActorClock actorClock;
     private String defaultJobWorkerName = "default";
@@ -78,6 +81,32 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         return this;
     }
 
+    @Override
+    public int getMaxRequestsInFlight()
+    {
+        return maxRequestsInFlight;
+    }
+
+    @Override
+    public ZeebeClientBuilder maxRequestsInFlight(int maxRequestsInFlight)
+    {
+        this.maxRequestsInFlight = maxRequestsInFlight;
+        return this;
+    }
+
+    @Override
+    public int getRequestQueueCapacity()
+    {
+        return requestQueueCapacity;
+    }
+
+    @Override
+    public ZeebeClientBuilder requestQueueCapacity(int requestQueueCapacity)
+    {
+        this.requestQueueCapacity = requestQueueCapacity;
+        return this;
+    }
+
     @Override
     public int getSendBufferSize()
     {
@@ -143,6 +172,19 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         return this;
     }
 
+    @Override
+    public boolean isRecordPoolingEnabled()
+    {
+        return recordPooling;
+    }
+
+    @Override
+    public ZeebeClientBuilder recordPooling(boolean enabled)
+    {
+        this.recordPooling = enabled;
+        return this;
+    }
+
     @Override
     public Duration getTcpChannelKeepAlivePeriod()
     {
@@ -226,6 +268,14 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         {
             requestBlocktime(Duration.ofMillis(Integer.parseInt(properties.getProperty(REQUEST_BLOCKTIME_MILLIS))));
         }
+        if (properties.containsKey(MAX_REQUESTS_IN_FLIGHT))
+        {
+            maxRequestsInFlight(Integer.parseInt(properties.getProperty(MAX_REQUESTS_IN_FLIGHT)));
+        }
+        if (properties.containsKey(REQUEST_QUEUE_CAPACITY))
+        {
+            requestQueueCapacity(Integer.parseInt(properties.getProperty(REQUEST_QUEUE_CAPACITY)));
+        }
         if (properties.containsKey(SENDBUFFER_SIZE))
         {
             sendBufferSize(Integer.parseInt(properties.getProperty(SENDBUFFER_SIZE)));
@@ -250,6 +300,10 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         {
             defaultJobSubscriptionBufferSize(Integer.parseInt(properties.getProperty(ClientProperties.JOB_SUBSCRIPTION_BUFFER_SIZE)));
         }
+        if (properties.containsKey(RECORD_POOLING))
+        {
+            recordPooling(Boolean.parseBoolean(properties.getProperty(RECORD_POOLING)));
+        }
         if (properties.containsKey(DEFAULT_JOB_WORKER_NAME))
         {
             defaultJobWorkerName(properties.getProperty(DEFAULT_JOB_WORKER_NAME));
@@ -274,11 +328,14 @@ public class ZeebeClientBuilderImpl implements ZeebeClientBuilder, ZeebeClientCo
         appendProperty(sb, "brokerContactPoint", brokerContactPoint);
         appendProperty(sb, "requestTimeout", requestTimeout);
         appendProperty(sb, "requestBlocktime", requestBlocktime);
+        appendProperty(sb, "maxRequestsInFlight", maxRequestsInFlight);
+        appendProperty(sb, "requestQueueCapacity", requestQueueCapacity);
         appendProperty(sb, "sendBufferSize", sendBufferSize);
         appendProperty(sb, "numManagementThreads", numManagementThreads);
         appendProperty(sb, "numSubscriptionExecutionThreads", numSubscriptionExecutionThreads);
         appendProperty(sb, "topicSubscriptionBufferSize", topicSubscriptionBufferSize);
         appendProperty(sb, "jobSubscriptionBufferSize", jobSubscriptionBufferSize);
+        appendProperty(sb, "recordPooling", recordPooling);
         appendProperty(sb, "tcpChannelKeepAlivePeriod", tcpChannelKeepAlivePeriod);
         appendProperty(sb, "defaultJobWorkerName", defaultJobWorkerName);
         appendProperty(sb, "defaultJobTimeout", defaultJobTimeout);
@@ -32,7 +32,7 @@ import io.zeebe.client.impl.topic.TopicsRequestImpl;
 import io.zeebe.dispatcher.Dispatcher;
 import io.zeebe.dispatcher.Dispatchers;
 import io.zeebe.transport.*;
-import io.zeebe.transport.impl.memory.BlockingMemoryPool;
+import io.zeebe.transport.impl.memory.NonBlockingMemoryPool;
 import io.zeebe.transport.impl.memory.UnboundedMemoryPool;
 import io.zeebe.util.ByteValue;
 import io.zeebe.util.sched.ActorScheduler;
@@ -104,7 +104,7 @@ public class ZeebeClientImpl implements ZeebeClient
             .messageMaxLength(1024 * 1024)
             .messageReceiveBuffer(dataFrameReceiveBuffer)
             .messageMemoryPool(new UnboundedMemoryPool()) // Client is not sending any heavy messages
-            .requestMemoryPool(new BlockingMemoryPool(sendBufferSize, requestBlockTimeMs))
+            .requestMemoryPool(new NonBlockingMemoryPool(sendBufferSize))
             .scheduler(scheduler);
 
         // internal transport is used for topology request
@@ -136,7 +136,9 @@ public class ZeebeClientImpl implements ZeebeClient
             topologyManager,
             objectMapper,
             configuration.getRequestTimeout(),
-            requestBlockTimeMs);
+            requestBlockTimeMs,
+            configuration.getMaxRequestsInFlight(),
+            configuration.getRequestQueueCapacity());
         this.scheduler.submitActor(apiCommandManager);
 
         this.subscriptionManager = new SubscriptionManager(this);
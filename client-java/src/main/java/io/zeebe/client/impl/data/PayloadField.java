@@ -17,6 +17,10 @@ package io.zeebe.client.impl.data;
 
 import java.io.InputStream;
 
+/**
+ * Holds the payload as MessagePack. The JSON representation is only created
+ * when it is requested.
+ */
 public class PayloadField
 {
     private final MsgPackConverter msgPackConverter;
@@ -38,6 +42,11 @@ public class PayloadField
 
     public String getAsJsonString()
     {
+        if (json == null && msgPack != null)
+        {
+            json = msgPackConverter.convertToJson(msgPack);
+        }
+
         return json;
     }
 
@@ -69,14 +78,7 @@ public class PayloadField
     public void setMsgPack(byte[] msgPack)
     {
         this.msgPack = msgPack;
-        if (msgPack != null)
-        {
-            this.json = this.msgPackConverter.convertToJson(msgPack);
-        }
-        else
-        {
-            this.json = null;
-        }
+        this.json = null;
     }
 
     public byte[] getMsgPack()
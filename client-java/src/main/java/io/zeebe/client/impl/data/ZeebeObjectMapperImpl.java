@@ -37,6 +37,7 @@ public class ZeebeObjectMapperImpl implements ZeebeObjectMapper
 {
     private final ObjectMapper msgpackObjectMapper;
     private final ObjectMapper defaultObjectMapper;
+    private final ObjectMapper payloadObjectMapper;
 
     private static final Map<Class<?>, Class<?>> RECORD_IMPL_CLASS_MAPPING;
 
@@ -62,6 +63,7 @@ public class ZeebeObjectMapperImpl implements ZeebeObjectMapper
 
         msgpackObjectMapper = createMsgpackObjectMapper(msgPackConverter, injectableValues);
         defaultObjectMapper = createDefaultObjectMapper(msgPackConverter, injectableValues);
+        payloadObjectMapper = createPayloadObjectMapper();
     }
 
     private ObjectMapper createDefaultObjectMapper(MsgPackConverter msgPackConverter, InjectableValues injectableValues)
@@ -96,6 +98,22 @@ public class ZeebeObjectMapperImpl implements ZeebeObjectMapper
         return objectMapper;
     }
 
+    /**
+     * Binds payloads directly from and to MessagePack. A payload is a user
+     * type which doesn't contain nested MessagePack documents, so the parser
+     * and generator resources can be reused (per thread).
+     */
+    private ObjectMapper createPayloadObjectMapper()
+    {
+        final MessagePackFactory msgpackFactory = new MessagePackFactory().setReuseResourceInGenerator(true).setReuseResourceInParser(true);
+        final ObjectMapper objectMapper = new ObjectMapper(msgpackFactory);
+
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.registerModule(new JavaTimeModule());
+
+        return objectMapper;
+    }
+
     @Override
     public String toJson(Record record)
     {
@@ -145,7 +163,7 @@ public class ZeebeObjectMapperImpl implements ZeebeObjectMapper
     {
         try
         {
-            return msgpackObjectMapper.readValue(record.getAsMsgPack(), recordClass);
+            return msgpackObjectMapper.readValue(record.getValueArray(), 0, record.getValueLength(), recordClass);
         }
         catch (IOException e)
         {
@@ -177,6 +195,30 @@ public class ZeebeObjectMapperImpl implements ZeebeObjectMapper
         }
     }
 
+    public <T> T fromMsgpackPayload(byte[] msgPack, Class<T> payloadType)
+    {
+        try
+        {
+            return payloadObjectMapper.readValue(msgPack, payloadType);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(String.format("Failed to deserialize payload to object of type '%s'", payloadType.getName()), e);
+        }
+    }
+
+    public byte[] toMsgpackPayload(Object payload)
+    {
+        try
+        {
+            return payloadObjectMapper.writeValueAsBytes(payload);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(String.format("Failed to serialize object '%s' to payload", payload), e);
+        }
+    }
+
     abstract class MsgpackRecordMixin
     {
         // records from broker does't have metadata inside (instead it's part of SBE layer)
@@ -54,6 +54,13 @@ public class CompleteJobCommandImpl extends CommandImpl<JobEvent> implements Com
         return this;
     }
 
+    @Override
+    public CompleteJobCommandStep1 payload(Object payload)
+    {
+        command.setPayloadObject(payload);
+        return this;
+    }
+
     @Override
     public CompleteJobCommandStep1 withoutPayload()
     {
@@ -78,6 +78,13 @@ public class CreateJobCommandImpl extends CommandImpl<JobEvent> implements Creat
         return this;
     }
 
+    @Override
+    public CreateJobCommandStep2 payload(Object payload)
+    {
+        command.setPayloadObject(payload);
+        return this;
+    }
+
     @Override
     public CreateJobCommandStep2 jobType(String type)
     {
@@ -20,6 +20,7 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.zeebe.client.api.record.JobRecord;
 import io.zeebe.client.impl.data.*;
@@ -166,6 +167,29 @@ public abstract class JobRecordImpl extends RecordImpl implements JobRecord
         this.payload.setJson(jsonStream);
     }
 
+    @JsonIgnore
+    public void setPayloadObject(Object payload)
+    {
+        if (this.payload == null)
+        {
+            this.payload = new PayloadField(msgPackConverter);
+        }
+        this.payload.setMsgPack(objectMapper.toMsgpackPayload(payload));
+    }
+
+    @Override
+    public <T> T getPayloadAsType(Class<T> payloadType)
+    {
+        if (payload == null)
+        {
+            return null;
+        }
+        else
+        {
+            return objectMapper.fromMsgpackPayload(payload.getMsgPack(), payloadType);
+        }
+    }
+
     public void clearPayload()
     {
         // set field to null so that it is not serialized to Msgpack
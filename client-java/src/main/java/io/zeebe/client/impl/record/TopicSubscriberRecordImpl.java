@@ -15,8 +15,12 @@
  */
 package io.zeebe.client.impl.record;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
 import io.zeebe.client.impl.event.TopicSubscriberEventImpl;
+import io.zeebe.client.impl.subscription.topic.RecordFilterImpl;
 import io.zeebe.protocol.clientapi.RecordType;
 import io.zeebe.protocol.clientapi.ValueType;
 
@@ -26,6 +30,7 @@ public abstract class TopicSubscriberRecordImpl extends RecordImpl
     private long startPosition = -1L;
     private int bufferSize = -1;
     private boolean forceStart;
+    private List<RecordFilterImpl> filters = new ArrayList<>();
 
     public TopicSubscriberRecordImpl(ZeebeObjectMapperImpl objectMapper, RecordType recordType)
     {
@@ -72,6 +77,16 @@ public abstract class TopicSubscriberRecordImpl extends RecordImpl
         this.forceStart = forceStart;
     }
 
+    public List<RecordFilterImpl> getFilters()
+    {
+        return filters;
+    }
+
+    public void setFilters(List<RecordFilterImpl> filters)
+    {
+        this.filters = filters;
+    }
+
     @Override
     public Class<? extends RecordImpl> getEventClass()
     {
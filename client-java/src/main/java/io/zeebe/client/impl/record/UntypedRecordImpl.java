@@ -16,30 +16,131 @@
 package io.zeebe.client.impl.record;
 
 import io.zeebe.client.api.record.Record;
-import io.zeebe.client.impl.data.*;
+import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
 import io.zeebe.protocol.clientapi.RecordType;
 import io.zeebe.protocol.clientapi.ValueType;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
 
+/**
+ * A record as it is pushed to a subscription. The value is kept as msgpack
+ * and is only deserialized on {@link #asRecordType(Class)}.
+ *
+ * <p>The value is either owned by the record or only a view on a buffer
+ * which is not owned by the record (see {@link #wrapValue(DirectBuffer, int, int)}).
+ * A view is only valid as long as the underlying buffer is not reused.
+ * Records can be reused with {@link #copyFrom(UntypedRecordImpl)} which
+ * reuses the owned value storage if it is large enough.
+ */
 public class UntypedRecordImpl extends RecordImpl
 {
-    private final PayloadField content;
+    private static final byte[] EMPTY_VALUE = new byte[0];
+
+    private final UnsafeBuffer value = new UnsafeBuffer(0, 0);
+
+    private byte[] valueStorage = EMPTY_VALUE;
+    private boolean isValueView = false;
 
     public UntypedRecordImpl(
             final ZeebeObjectMapperImpl objectMapper,
-            final MsgPackConverter converter,
             final RecordType recordType,
             final ValueType valueType,
             final byte[] rawContent)
     {
         super(objectMapper, recordType, valueType);
 
-        this.content = new PayloadField(converter);
-        this.content.setMsgPack(rawContent);
+        this.valueStorage = rawContent;
+        this.value.wrap(rawContent);
+    }
+
+    /**
+     * Creates an empty record which is filled by {@link #copyFrom(UntypedRecordImpl)}
+     * or {@link #wrapValue(DirectBuffer, int, int)}.
+     */
+    public UntypedRecordImpl(final ZeebeObjectMapperImpl objectMapper)
+    {
+        super(objectMapper, null, null);
+
+        this.value.wrap(EMPTY_VALUE);
+    }
+
+    /**
+     * Sets the value as a view on the given buffer without copying it.
+     */
+    public void wrapValue(DirectBuffer buffer, int offset, int length)
+    {
+        value.wrap(buffer, offset, length);
+        isValueView = true;
+    }
+
+    /**
+     * Copies the metadata and the value of the other record, so that it is
+     * independent of the buffer of the other record.
+     */
+    public void copyFrom(UntypedRecordImpl other)
+    {
+        updateMetadata(other.getMetadata());
+        copyValue(other.value);
     }
 
+    private void copyValue(DirectBuffer source)
+    {
+        final int length = source.capacity();
+
+        if (valueStorage.length < length)
+        {
+            valueStorage = new byte[length];
+        }
+
+        source.getBytes(0, valueStorage, 0, length);
+
+        value.wrap(valueStorage, 0, length);
+        isValueView = false;
+    }
+
+    /**
+     * @return a new record with a copy of the metadata and the value
+     */
+    public UntypedRecordImpl detach()
+    {
+        final UntypedRecordImpl copy = new UntypedRecordImpl(objectMapper);
+        copy.copyFrom(this);
+
+        return copy;
+    }
+
+    public DirectBuffer getValue()
+    {
+        return value;
+    }
+
+    /**
+     * @return the byte array which holds the value, may be larger than the value
+     */
+    public byte[] getValueArray()
+    {
+        if (isValueView)
+        {
+            copyValue(value);
+        }
+
+        return valueStorage;
+    }
+
+    public int getValueLength()
+    {
+        return value.capacity();
+    }
+
+    /**
+     * @return a copy of the value
+     */
     public byte[] getAsMsgPack()
     {
-        return content.getMsgPack();
+        final byte[] msgPack = new byte[value.capacity()];
+        value.getBytes(0, msgPack);
+
+        return msgPack;
     }
 
     public <T extends Record> T asRecordType(Class<T> recordClass)
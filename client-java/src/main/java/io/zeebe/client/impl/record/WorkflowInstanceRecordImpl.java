@@ -17,6 +17,7 @@ package io.zeebe.client.impl.record;
 
 import java.io.InputStream;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.zeebe.client.api.record.WorkflowInstanceRecord;
 import io.zeebe.client.impl.data.*;
@@ -147,6 +148,29 @@ public abstract class WorkflowInstanceRecordImpl extends RecordImpl implements W
         this.payload.setJson(jsonStream);
     }
 
+    @JsonIgnore
+    public void setPayloadObject(Object payload)
+    {
+        if (this.payload == null)
+        {
+            this.payload = new PayloadField(msgPackConverter);
+        }
+        this.payload.setMsgPack(objectMapper.toMsgpackPayload(payload));
+    }
+
+    @Override
+    public <T> T getPayloadAsType(Class<T> payloadType)
+    {
+        if (payload == null)
+        {
+            return null;
+        }
+        else
+        {
+            return objectMapper.fromMsgpackPayload(payload.getMsgPack(), payloadType);
+        }
+    }
+
     public void clearPayload()
     {
         // set field to null so that it is not serialized to Msgpack
@@ -22,6 +22,8 @@ public interface SubscribedEventHandler
 {
 
     /**
+     * The event is only valid during the invocation. It must be copied if it is kept.
+     *
      * @return true if event could be successfully handled; false, if it should be retried later
      */
     boolean onEvent(SubscriptionType type, long subscriberKey, UntypedRecordImpl event);
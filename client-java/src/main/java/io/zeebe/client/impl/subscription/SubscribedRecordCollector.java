@@ -15,10 +15,8 @@
  */
 package io.zeebe.client.impl.subscription;
 
-import static io.zeebe.util.VarDataUtil.readBytes;
-
-import io.zeebe.client.impl.data.MsgPackConverter;
 import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
+import io.zeebe.client.impl.record.RecordMetadataImpl;
 import io.zeebe.client.impl.record.UntypedRecordImpl;
 import io.zeebe.protocol.clientapi.*;
 import io.zeebe.protocol.intent.Intent;
@@ -31,71 +29,103 @@ public class SubscribedRecordCollector implements ClientMessageHandler
     private final SubscribedRecordDecoder subscribedRecordDecoder = new SubscribedRecordDecoder();
 
     private final SubscribedEventHandler eventHandler;
-    private final MsgPackConverter converter;
-    private final ZeebeObjectMapperImpl objectMapper;
+
+    /**
+     * Is reused for all records. Its value is a view on the message, so the
+     * handler must copy the record if it keeps it.
+     */
+    private final UntypedRecordImpl record;
+
+    /**
+     * A message can contain multiple subscribed records (e.g. a batch of
+     * activated jobs). If the handler rejects a record, the message is
+     * delivered again and the records which are already handled are skipped.
+     */
+    private int handledRecordsOfMessage = 0;
 
     public SubscribedRecordCollector(
             SubscribedEventHandler eventHandler,
-            MsgPackConverter converter,
             ZeebeObjectMapperImpl objectMapper)
     {
         this.eventHandler = eventHandler;
-        this.converter = converter;
-        this.objectMapper = objectMapper;
+        this.record = new UntypedRecordImpl(objectMapper);
     }
 
     @Override
     public boolean onMessage(ClientOutput output, RemoteAddress remoteAddress, DirectBuffer buffer, int offset,
             int length)
     {
-        messageHeaderDecoder.wrap(buffer, offset);
+        final int messageEnd = offset + length;
+        int recordIndex = 0;
 
-        offset += MessageHeaderDecoder.ENCODED_LENGTH;
+        while (offset < messageEnd)
+        {
+            messageHeaderDecoder.wrap(buffer, offset);
 
-        final int templateId = messageHeaderDecoder.templateId();
+            offset += MessageHeaderDecoder.ENCODED_LENGTH;
 
-        final boolean messageHandled;
+            final int templateId = messageHeaderDecoder.templateId();
 
-        if (templateId == SubscribedRecordDecoder.TEMPLATE_ID)
-        {
+            if (templateId != SubscribedRecordDecoder.TEMPLATE_ID)
+            {
+                // ignoring
+                break;
+            }
 
             subscribedRecordDecoder.wrap(buffer, offset, messageHeaderDecoder.blockLength(), messageHeaderDecoder.version());
 
-            final int partitionId = subscribedRecordDecoder.partitionId();
-            final long position = subscribedRecordDecoder.position();
-            final long key = subscribedRecordDecoder.key();
-            final long subscriberKey = subscribedRecordDecoder.subscriberKey();
-            final RecordType recordType = subscribedRecordDecoder.recordType();
-            final SubscriptionType subscriptionType = subscribedRecordDecoder.subscriptionType();
-            final ValueType valueType = subscribedRecordDecoder.valueType();
-            final Intent intent = Intent.fromProtocolValue(valueType, subscribedRecordDecoder.intent());
-            final long timestamp = subscribedRecordDecoder.timestamp();
-
-            final byte[] valueBuffer = readBytes(subscribedRecordDecoder::getValue, subscribedRecordDecoder::valueLength);
-
-            final UntypedRecordImpl event = new UntypedRecordImpl(
-                    objectMapper,
-                    converter,
-                    recordType,
-                    valueType,
-                    valueBuffer);
-
-            event.setPartitionId(partitionId);
-            event.setPosition(position);
-            event.setKey(key);
-            event.setIntent(intent);
-            event.setTimestamp(timestamp);
-
-            messageHandled = eventHandler.onEvent(subscriptionType, subscriberKey, event);
-        }
-        else
-        {
-            // ignoring
-            messageHandled = true;
+            final int recordEnd = subscribedRecordDecoder.limit() +
+                    SubscribedRecordDecoder.valueHeaderLength() +
+                    subscribedRecordDecoder.valueLength();
+
+            if (recordIndex >= handledRecordsOfMessage)
+            {
+                final boolean recordHandled = handleRecord(buffer);
+                if (!recordHandled)
+                {
+                    return false;
+                }
+
+                handledRecordsOfMessage++;
+            }
+
+            offset = recordEnd;
+            recordIndex++;
         }
 
+        handledRecordsOfMessage = 0;
 
-        return messageHandled;
+        return true;
+    }
+
+    private boolean handleRecord(DirectBuffer buffer)
+    {
+        final int partitionId = subscribedRecordDecoder.partitionId();
+        final long position = subscribedRecordDecoder.position();
+        final long key = subscribedRecordDecoder.key();
+        final long subscriberKey = subscribedRecordDecoder.subscriberKey();
+        final RecordType recordType = subscribedRecordDecoder.recordType();
+        final SubscriptionType subscriptionType = subscribedRecordDecoder.subscriptionType();
+        final ValueType valueType = subscribedRecordDecoder.valueType();
+        final Intent intent = Intent.fromProtocolValue(valueType, subscribedRecordDecoder.intent());
+        final long timestamp = subscribedRecordDecoder.timestamp();
+
+        final int valueOffset = subscribedRecordDecoder.limit() + SubscribedRecordDecoder.valueHeaderLength();
+        final int valueLength = subscribedRecordDecoder.valueLength();
+
+        final RecordMetadataImpl metadata = record.getMetadata();
+        metadata.setRecordType(recordType);
+        metadata.setValueType(valueType);
+        metadata.setTopicName(null);
+
+        record.setPartitionId(partitionId);
+        record.setPosition(position);
+        record.setKey(key);
+        record.setIntent(intent);
+        record.setTimestamp(timestamp);
+        record.wrapValue(buffer, valueOffset, valueLength);
+
+        return eventHandler.onEvent(subscriptionType, subscriberKey, record);
     }
 
 }
@@ -32,11 +32,17 @@ public abstract class Subscriber
     protected static final Logger LOGGER = Loggers.SUBSCRIPTION_LOGGER;
     protected static final String LOG_MESSAGE_PREFIX = "Subscriber {}: ";
 
-    // TODO: could become configurable in the future
+    // job subscribers start with this threshold and adapt it, see JobCreditController
     public static final double REPLENISHMENT_THRESHOLD = 0.3d;
 
     protected final long subscriberKey;
     protected final ManyToManyConcurrentArrayQueue<UntypedRecordImpl> pendingEvents;
+
+    /**
+     * Records which are reused for the pending events once they are handled,
+     * or null if the records are not pooled
+     */
+    protected final ManyToManyConcurrentArrayQueue<UntypedRecordImpl> recordPool;
     protected final int capacity;
     protected final SubscriptionManager acquisition;
     protected final SubscriberGroup<?> group;
@@ -66,6 +72,7 @@ public abstract class Subscriber
         this.subscriberKey = subscriberKey;
         this.eventSource = eventSource;
         this.pendingEvents = new ManyToManyConcurrentArrayQueue<>(capacity);
+        this.recordPool = acquisition.isRecordPoolingEnabled() ? new ManyToManyConcurrentArrayQueue<>(capacity) : null;
         this.capacity = capacity;
         this.group = group;
         this.acquisition = acquisition;
@@ -89,7 +96,7 @@ public abstract class Subscriber
         return pendingEvents.size();
     }
 
-    private boolean shouldReplenishEventSource()
+    protected boolean shouldReplenishEventSource()
     {
         final int eventsProcessed = eventsProcessedSinceLastReplenishment.get();
         final int remainingCapacity = capacity - eventsProcessed;
@@ -114,6 +121,13 @@ public abstract class Subscriber
 
     }
 
+    /**
+     * Invoked on the subscription actor when the event source acknowledged a replenishment.
+     */
+    protected void onEventSourceReplenished()
+    {
+    }
+
     public long getSubscriberKey()
     {
         return subscriberKey;
@@ -121,12 +135,18 @@ public abstract class Subscriber
 
     protected abstract ActorFuture<?> requestEventSourceReplenishment(int eventsProcessed);
 
+    /**
+     * Copies the event, so that it can be handled after the given event is reused.
+     */
     public boolean addEvent(UntypedRecordImpl event)
     {
-        final boolean added = this.pendingEvents.offer(event);
+        final UntypedRecordImpl record = copyOf(event);
+        final boolean added = this.pendingEvents.offer(record);
 
         if (!added)
         {
+            recycle(record);
+
             LOGGER.warn(LOG_MESSAGE_PREFIX + "Cannot add any more events. Event queue saturated. Postponing event {}.",
                     this, event);
         }
@@ -134,6 +154,39 @@ public abstract class Subscriber
         return added;
     }
 
+    private UntypedRecordImpl copyOf(UntypedRecordImpl event)
+    {
+        UntypedRecordImpl record = null;
+
+        if (recordPool != null)
+        {
+            record = recordPool.poll();
+
+            if (record == null)
+            {
+                // the pool is filled with the records which are handled
+                record = new UntypedRecordImpl(acquisition.getObjectMapper());
+            }
+
+            record.copyFrom(event);
+        }
+        else
+        {
+            record = event.detach();
+        }
+
+        return record;
+    }
+
+    private void recycle(UntypedRecordImpl record)
+    {
+        if (recordPool != null)
+        {
+            // drops the record if the pool is full
+            recordPool.offer(record);
+        }
+    }
+
     protected void resetProcessingState()
     {
         pendingEvents.clear();
@@ -155,6 +208,22 @@ public abstract class Subscriber
     }
 
     protected int pollEvents(CheckedConsumer<UntypedRecordImpl> pollHandler)
+    {
+        return pollEvents(pollHandler, false);
+    }
+
+    /**
+     * Like {@link #pollEvents(CheckedConsumer)}, but the handler only hands the event
+     * over to be processed asynchronously. The event is in processing until
+     * {@link #onEventHandled()} is invoked, so that the source is not replenished before.
+     * The polled record is recycled when the handler returns and must not be passed on.
+     */
+    protected int pollEventsAsync(CheckedConsumer<UntypedRecordImpl> dispatchHandler)
+    {
+        return pollEvents(dispatchHandler, true);
+    }
+
+    private int pollEvents(CheckedConsumer<UntypedRecordImpl> pollHandler, boolean isAsync)
     {
         final int currentlyAvailableEvents = size();
         int handledEvents = 0;
@@ -172,6 +241,7 @@ public abstract class Subscriber
             }
 
             eventsInProcessing.incrementAndGet();
+            boolean isHandedOver = false;
             try
             {
                 // Must first increment eventsInProcessing and only then check if the subscription
@@ -189,6 +259,7 @@ public abstract class Subscriber
                 try
                 {
                     pollHandler.accept(event);
+                    isHandedOver = isAsync;
                 }
                 catch (Exception e)
                 {
@@ -197,12 +268,11 @@ public abstract class Subscriber
             }
             finally
             {
-                eventsInProcessing.decrementAndGet();
-                eventsProcessedSinceLastReplenishment.incrementAndGet();
+                recycle(event);
 
-                if (shouldReplenishEventSource())
+                if (!isHandedOver)
                 {
-                    replenishmentTrigger.signal();
+                    onEventHandled();
                 }
             }
         }
@@ -210,6 +280,20 @@ public abstract class Subscriber
         return handledEvents;
     }
 
+    /**
+     * Marks an event as processed. May be invoked from any thread.
+     */
+    protected void onEventHandled()
+    {
+        eventsInProcessing.decrementAndGet();
+        eventsProcessedSinceLastReplenishment.incrementAndGet();
+
+        if (shouldReplenishEventSource())
+        {
+            replenishmentTrigger.signal();
+        }
+    }
+
 
     protected void logHandling(UntypedRecordImpl event)
     {
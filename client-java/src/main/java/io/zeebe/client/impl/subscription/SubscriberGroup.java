@@ -319,6 +319,10 @@ public abstract class SubscriberGroup<T extends Subscriber>
                 {
                     initClose("Could not replenish event source (submit ack or credits)", t);
                 }
+                else
+                {
+                    subscriber.onEventSourceReplenished();
+                }
             });
         });
     }
@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 
 import io.zeebe.client.impl.Loggers;
 import io.zeebe.client.impl.ZeebeClientImpl;
+import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
 import io.zeebe.client.impl.record.UntypedRecordImpl;
 import io.zeebe.client.impl.record.RecordMetadataImpl;
 import io.zeebe.client.impl.subscription.job.JobSubscriberGroup;
@@ -57,12 +58,21 @@ public class SubscriptionManager extends Actor implements SubscribedEventHandler
         this.client = client;
     }
 
+    public boolean isRecordPoolingEnabled()
+    {
+        return client.getConfiguration().isRecordPoolingEnabled();
+    }
+
+    public ZeebeObjectMapperImpl getObjectMapper()
+    {
+        return client.getObjectMapper();
+    }
+
     @Override
     protected void onActorStarting()
     {
         final SubscribedRecordCollector taskCollector = new SubscribedRecordCollector(
                 this,
-                client.getMsgPackConverter(),
                 client.getObjectMapper());
 
         actor.runOnCompletion(
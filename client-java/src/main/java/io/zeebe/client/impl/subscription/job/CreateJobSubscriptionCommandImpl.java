@@ -15,6 +15,7 @@
  */
 package io.zeebe.client.impl.subscription.job;
 
+import io.zeebe.client.api.subscription.JobDistribution;
 import io.zeebe.client.impl.ControlMessageRequest;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.protocol.clientapi.ControlMessageType;
@@ -55,6 +56,24 @@ public class CreateJobSubscriptionCommandImpl extends ControlMessageRequest<JobS
         return this;
     }
 
+    public CreateJobSubscriptionCommandImpl distribution(final JobDistribution distribution)
+    {
+        this.subscription.setDistribution(distribution);
+        return this;
+    }
+
+    public CreateJobSubscriptionCommandImpl activationBatchSize(final int activationBatchSize)
+    {
+        this.subscription.setActivationBatchSize(activationBatchSize);
+        return this;
+    }
+
+    public CreateJobSubscriptionCommandImpl weight(final int weight)
+    {
+        this.subscription.setWeight(weight);
+        return this;
+    }
+
     public CreateJobSubscriptionCommandImpl jobType(final String jobType)
     {
         this.subscription.setJobType(jobType);
@@ -0,0 +1,233 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl.subscription.job;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import io.zeebe.client.impl.subscription.Subscriber;
+
+/**
+ * Sizes the credits of a job subscriber, similar to a TCP congestion window.
+ * <p>
+ * The <b>window</b> is the number of jobs which are assigned to the subscriber,
+ * i.e. the credits of the broker plus the jobs which are buffered or in
+ * progress in the client. It is never larger than the subscriber's capacity.
+ * <ul>
+ * <li>If all credits are used up before new ones are granted, then the
+ * window grows: it doubles until it was decreased once, then it grows by one
+ * job (slow start and additive increase).
+ * <li>If a job which is assigned now would likely not be completed within half
+ * of the job timeout, then the window is halved (multiplicative decrease).
+ * Credits are withheld until the assigned jobs fit into the window.
+ * </ul>
+ * Credits are granted when the unused credits fall below the number of jobs
+ * which arrive during one replenishment round trip. The grant covers at least
+ * half of the window, so that bursts don't flood the broker with requests.
+ * <p>
+ * Jobs are reported from the job handling threads, while credits are granted
+ * on the subscription actor.
+ */
+public class JobCreditController
+{
+    /**
+     * the part of the job timeout which a job may spend in the client before the window is decreased
+     */
+    public static final double TIMEOUT_FRACTION = 0.5d;
+
+    /**
+     * the weight of a new sample in the moving averages
+     */
+    private static final double SMOOTHING_FACTOR = 0.2d;
+
+    private final int capacity;
+    private final long timeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicInteger outstandingCredits = new AtomicInteger();
+    private final AtomicInteger receivedJobs = new AtomicInteger();
+    private final LongAdder handlingTimeNanos = new LongAdder();
+    private final AtomicInteger handledJobs = new AtomicInteger();
+
+    private volatile int window;
+    private volatile int lowWatermark;
+    private volatile boolean isStarved;
+
+    // only accessed on the subscription actor
+    private int slowStartThreshold;
+    private long lastGrantNanos;
+    private double arrivalRate = Double.NaN;
+    private double handlingLatency = Double.NaN;
+    private double replenishmentRoundTrip = Double.NaN;
+
+    public JobCreditController(int capacity, long timeoutMillis)
+    {
+        this(capacity, timeoutMillis, System::nanoTime);
+    }
+
+    public JobCreditController(int capacity, long timeoutMillis, LongSupplier nanoClock)
+    {
+        this.capacity = capacity;
+        this.timeoutNanos = timeoutMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+
+        reset();
+    }
+
+    /**
+     * Starts over with a window of the full capacity, which are the initial
+     * credits of a new subscription.
+     */
+    public void reset()
+    {
+        window = capacity;
+        lowWatermark = (int) (capacity * Subscriber.REPLENISHMENT_THRESHOLD);
+        slowStartThreshold = capacity;
+        isStarved = false;
+
+        outstandingCredits.set(capacity);
+        receivedJobs.set(0);
+        handledJobs.set(0);
+        handlingTimeNanos.reset();
+
+        lastGrantNanos = nanoClock.getAsLong();
+    }
+
+    public void onJobReceived()
+    {
+        receivedJobs.incrementAndGet();
+    }
+
+    public void onJobHandled(long handlingNanos)
+    {
+        handlingTimeNanos.add(handlingNanos);
+        handledJobs.incrementAndGet();
+
+        if (outstandingCredits.decrementAndGet() <= 0)
+        {
+            isStarved = true;
+        }
+    }
+
+    public boolean shouldGrantCredits()
+    {
+        return outstandingCredits.get() <= lowWatermark;
+    }
+
+    /**
+     * Adapts the window to the jobs which were handled since the last grant.
+     *
+     * @param queuedJobs the jobs which are buffered in the client
+     * @param jobsInProgress the jobs which are currently handled
+     *
+     * @return the credits to grant, may be zero
+     */
+    public int grantCredits(int queuedJobs, int jobsInProgress)
+    {
+        final long now = nanoClock.getAsLong();
+        final long elapsedNanos = Math.max(1L, now - lastGrantNanos);
+        lastGrantNanos = now;
+
+        arrivalRate = smooth(arrivalRate, (double) receivedJobs.getAndSet(0) / elapsedNanos);
+
+        final int handled = handledJobs.getAndSet(0);
+        final long handlingTime = handlingTimeNanos.sumThenReset();
+        if (handled > 0)
+        {
+            handlingLatency = smooth(handlingLatency, (double) handlingTime / handled);
+        }
+
+        adaptWindow(queuedJobs, jobsInProgress);
+
+        final int credits = Math.max(0, window - outstandingCredits.get());
+        outstandingCredits.addAndGet(credits);
+        isStarved = false;
+
+        return credits;
+    }
+
+    private void adaptWindow(int queuedJobs, int jobsInProgress)
+    {
+        int newWindow = window;
+
+        if (!Double.isNaN(handlingLatency))
+        {
+            // a job which is assigned now waits for the queued jobs to be handled by the jobs in progress
+            final double expectedTimeInClient = handlingLatency * (1 + (double) queuedJobs / Math.max(1, jobsInProgress));
+
+            if (expectedTimeInClient > timeoutNanos * TIMEOUT_FRACTION)
+            {
+                newWindow = Math.max(1, window / 2);
+                slowStartThreshold = newWindow;
+            }
+            else if (isStarved)
+            {
+                newWindow = window < slowStartThreshold ? window * 2 : window + 1;
+            }
+        }
+
+        window = Math.min(capacity, newWindow);
+
+        if (!Double.isNaN(replenishmentRoundTrip) && !Double.isNaN(arrivalRate))
+        {
+            final int jobsDuringRoundTrip = (int) Math.ceil(arrivalRate * replenishmentRoundTrip);
+            lowWatermark = Math.min(jobsDuringRoundTrip, window / 2);
+        }
+        else
+        {
+            lowWatermark = Math.min(lowWatermark, window / 2);
+        }
+    }
+
+    /**
+     * Records the time until the broker acknowledged the credits of the last grant.
+     */
+    public void onCreditsGranted(long roundTripNanos)
+    {
+        replenishmentRoundTrip = smooth(replenishmentRoundTrip, roundTripNanos);
+    }
+
+    private static double smooth(double average, double sample)
+    {
+        if (Double.isNaN(average))
+        {
+            return sample;
+        }
+        else
+        {
+            return average + SMOOTHING_FACTOR * (sample - average);
+        }
+    }
+
+    /**
+     * @return the current number of jobs which can be assigned to the subscriber
+     */
+    public int getWindow()
+    {
+        return window;
+    }
+
+    public int getLowWatermark()
+    {
+        return lowWatermark;
+    }
+
+    public long nanoTime()
+    {
+        return nanoClock.getAsLong();
+    }
+}
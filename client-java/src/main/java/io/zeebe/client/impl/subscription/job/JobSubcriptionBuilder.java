@@ -17,6 +17,7 @@ package io.zeebe.client.impl.subscription.job;
 
 import java.time.Duration;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 
 import io.zeebe.client.ZeebeClientConfiguration;
@@ -38,7 +39,10 @@ public class JobSubcriptionBuilder implements JobWorkerBuilderStep1, JobWorkerBu
     private String worker;
     private JobHandler jobHandler;
     private int bufferSize;
-
+    private JobDistribution distribution = JobDistribution.ROUND_ROBIN;
+    private int activationBatchSize = 1;
+    private int weight = 1;
+    private Executor executor;
 
     public JobSubcriptionBuilder(TopicClientImpl client)
     {
@@ -87,6 +91,35 @@ public class JobSubcriptionBuilder implements JobWorkerBuilderStep1, JobWorkerBu
         return this;
     }
 
+    @Override
+    public JobWorkerBuilderStep3 distribution(JobDistribution distribution)
+    {
+        this.distribution = distribution;
+        return this;
+    }
+
+    @Override
+    public JobWorkerBuilderStep3 weight(int weight)
+    {
+        this.weight = weight;
+        return this;
+    }
+
+    @Override
+    public JobWorkerBuilderStep3 activationBatchSize(int activationBatchSize)
+    {
+        this.activationBatchSize = activationBatchSize;
+        return this;
+    }
+
+    @Override
+    public JobWorkerBuilderStep3 executor(Executor executor)
+    {
+        EnsureUtil.ensureNotNull("executor", executor);
+        this.executor = executor;
+        return this;
+    }
+
     @Override
     public JobWorkerBuilderStep3 handler(JobHandler handler)
     {
@@ -102,9 +135,12 @@ public class JobSubcriptionBuilder implements JobWorkerBuilderStep1, JobWorkerBu
         EnsureUtil.ensureGreaterThan("timeout", timeout, 0L);
         EnsureUtil.ensureNotNullOrEmpty("worker", worker);
         EnsureUtil.ensureGreaterThan("jobFetchSize", bufferSize, 0);
+        EnsureUtil.ensureNotNull("distribution", distribution);
+        EnsureUtil.ensureGreaterThan("activationBatchSize", activationBatchSize, 0);
+        EnsureUtil.ensureGreaterThan("weight", weight, 0);
 
         final JobSubscriptionSpec subscription =
-                new JobSubscriptionSpec(topic, jobHandler, jobType, timeout, worker, bufferSize);
+                new JobSubscriptionSpec(topic, jobHandler, jobType, timeout, worker, bufferSize, distribution, activationBatchSize, weight, executor);
 
         final Future<JobSubscriberGroup> group = subscriptionManager.openJobSubscription(subscription);
 
@@ -15,14 +15,18 @@
  */
 package io.zeebe.client.impl.subscription.job;
 
+import java.util.concurrent.Executor;
+
 import io.zeebe.client.api.clients.JobClient;
 import io.zeebe.client.api.subscription.JobHandler;
 import io.zeebe.client.impl.Loggers;
 import io.zeebe.client.impl.ZeebeClientImpl;
 import io.zeebe.client.impl.event.JobEventImpl;
+import io.zeebe.client.impl.record.UntypedRecordImpl;
 import io.zeebe.client.impl.subscription.*;
 import io.zeebe.transport.RemoteAddress;
 import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
 import org.slf4j.Logger;
 
 public class JobSubscriber extends Subscriber
@@ -32,6 +36,9 @@ public class JobSubscriber extends Subscriber
     private final ZeebeClientImpl client;
     private final JobClient jobClient;
     private final JobSubscriptionSpec subscription;
+    private final JobCreditController creditController;
+
+    private long replenishmentStartNanos = -1L;
 
     public JobSubscriber(
             ZeebeClientImpl client,
@@ -46,47 +53,136 @@ public class JobSubscriber extends Subscriber
         this.client = client;
         this.jobClient = client.topicClient(subscription.getTopic()).jobClient();
         this.subscription = subscription;
+        this.creditController = new JobCreditController(subscription.getCapacity(), subscription.getTimeout());
+    }
+
+    @Override
+    public boolean addEvent(UntypedRecordImpl event)
+    {
+        final boolean added = super.addEvent(event);
+
+        if (added)
+        {
+            creditController.onJobReceived();
+        }
+
+        return added;
     }
 
     public int pollEvents(JobHandler jobHandler)
     {
-        final int polledEvents = pollEvents((e) ->
+        final Executor executor = subscription.getExecutor();
+
+        if (executor == null)
         {
-            final JobEventImpl jobEvent = e.asRecordType(JobEventImpl.class);
-            jobEvent.updateMetadata(e.getMetadata());
+            return pollEvents((e) -> handleJob(jobHandler, toJobEvent(e)));
+        }
+        else
+        {
+            // the handler runs on the worker's executor; the number of jobs which
+            // are handled concurrently is limited by the subscription's credits
+            return pollEventsAsync((e) ->
+            {
+                final JobEventImpl jobEvent = toJobEvent(e);
+
+                executor.execute(() ->
+                {
+                    try
+                    {
+                        if (isOpen())
+                        {
+                            handleJob(jobHandler, jobEvent);
+                        }
+                    }
+                    finally
+                    {
+                        onEventHandled();
+                    }
+                });
+            });
+        }
+    }
 
+    private JobEventImpl toJobEvent(UntypedRecordImpl record)
+    {
+        final JobEventImpl jobEvent = record.asRecordType(JobEventImpl.class);
+        jobEvent.updateMetadata(record.getMetadata());
+        return jobEvent;
+    }
+
+    private void handleJob(JobHandler jobHandler, JobEventImpl jobEvent)
+    {
+        final long startNanos = creditController.nanoTime();
+        try
+        {
+            jobHandler.handle(jobClient, jobEvent);
+        }
+        catch (Exception handlingException)
+        {
+            LOGGER.info("An error occurred when handling job " + jobEvent.getMetadata().getKey() +
+                    ". Reporting failure to broker.", handlingException);
             try
             {
-                jobHandler.handle(jobClient, jobEvent);
+                // not awaited; the failure is sent while the next job is handled
+                jobClient.newFailCommand(jobEvent)
+                    .retries(jobEvent.getRetries() - 1)
+                    .send();
             }
-            catch (Exception handlingException)
+            catch (Exception failureException)
             {
-                LOGGER.info("An error occurred when handling job " + jobEvent.getMetadata().getKey() +
-                        ". Reporting failure to broker.", handlingException);
-                try
-                {
-                    jobClient.newFailCommand(jobEvent)
-                        .retries(jobEvent.getRetries() - 1)
-                        .send();
-                }
-                catch (Exception failureException)
-                {
-                    LOGGER.info("Could not report failure of job " + jobEvent.getMetadata().getKey() +
-                        " to broker. Continuing with next job", failureException);
-                }
+                LOGGER.info("Could not report failure of job " + jobEvent.getMetadata().getKey() +
+                    " to broker. Continuing with next job", failureException);
             }
-        });
+        }
+        finally
+        {
+            creditController.onJobHandled(creditController.nanoTime() - startNanos);
+        }
+    }
 
-        return polledEvents;
+    @Override
+    protected boolean shouldReplenishEventSource()
+    {
+        return creditController.shouldGrantCredits();
     }
 
     @Override
     protected ActorFuture<?> requestEventSourceReplenishment(int eventsProcessed)
     {
-        return new IncreaseJobSubscriptionCreditsCmdImpl(client.getCommandManager(), partitionId)
-            .subscriberKey(subscriberKey)
-            .credits(eventsProcessed)
-            .send();
+        final int credits = creditController.grantCredits(size(), eventsInProcessing.get());
+
+        if (credits > 0)
+        {
+            replenishmentStartNanos = creditController.nanoTime();
+
+            return new IncreaseJobSubscriptionCreditsCmdImpl(client.getCommandManager(), partitionId)
+                .subscriberKey(subscriberKey)
+                .credits(credits)
+                .send();
+        }
+        else
+        {
+            // the window was decreased, the credits are withheld
+            replenishmentStartNanos = -1L;
+            return CompletableActorFuture.completed(null);
+        }
+    }
+
+    @Override
+    protected void onEventSourceReplenished()
+    {
+        if (replenishmentStartNanos >= 0)
+        {
+            creditController.onCreditsGranted(creditController.nanoTime() - replenishmentStartNanos);
+        }
+    }
+
+    /**
+     * @return the number of jobs which can currently be assigned to this subscriber
+     */
+    public int getCreditWindow()
+    {
+        return creditController.getWindow();
     }
 
     @Override
@@ -53,6 +53,18 @@ public class JobSubscriberGroup extends SubscriberGroup<JobSubscriber> implement
         return workCount;
     }
 
+    @Override
+    public int getCreditWindow()
+    {
+        int window = 0;
+        for (JobSubscriber subscriber : subscribersList)
+        {
+            window += subscriber.getCreditWindow();
+        }
+
+        return window;
+    }
+
     @Override
     protected ActorFuture<? extends EventSubscriptionCreationResult> requestNewSubscriber(int partitionId)
     {
@@ -61,6 +73,9 @@ public class JobSubscriberGroup extends SubscriberGroup<JobSubscriber> implement
                 .timeout(subscription.getTimeout())
                 .worker(subscription.getWorker())
                 .initialCredits(subscription.getCapacity())
+                .distribution(subscription.getDistribution())
+                .activationBatchSize(subscription.getActivationBatchSize())
+                .weight(subscription.getWeight())
                 .send();
     }
 
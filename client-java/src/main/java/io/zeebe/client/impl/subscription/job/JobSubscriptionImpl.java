@@ -16,6 +16,7 @@
 package io.zeebe.client.impl.subscription.job;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.zeebe.client.api.subscription.JobDistribution;
 import io.zeebe.client.impl.ReceiverAwareResponseResult;
 import io.zeebe.client.impl.subscription.EventSubscriptionCreationResult;
 import io.zeebe.transport.RemoteAddress;
@@ -29,6 +30,9 @@ public class JobSubscriptionImpl implements EventSubscriptionCreationResult, Rec
     private long timeout;
     private String worker;
     private int credits;
+    private JobDistribution distribution = JobDistribution.ROUND_ROBIN;
+    private int activationBatchSize = 1;
+    private int weight = 1;
 
     protected RemoteAddress receiver;
     protected int partitionId;
@@ -74,6 +78,36 @@ public class JobSubscriptionImpl implements EventSubscriptionCreationResult, Rec
         this.credits = credits;
     }
 
+    public JobDistribution getDistribution()
+    {
+        return distribution;
+    }
+
+    public void setDistribution(final JobDistribution distribution)
+    {
+        this.distribution = distribution;
+    }
+
+    public int getActivationBatchSize()
+    {
+        return activationBatchSize;
+    }
+
+    public void setActivationBatchSize(final int activationBatchSize)
+    {
+        this.activationBatchSize = activationBatchSize;
+    }
+
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    public void setWeight(final int weight)
+    {
+        this.weight = weight;
+    }
+
     public String getWorker()
     {
         return worker;
@@ -15,6 +15,9 @@
  */
 package io.zeebe.client.impl.subscription.job;
 
+import java.util.concurrent.Executor;
+
+import io.zeebe.client.api.subscription.JobDistribution;
 import io.zeebe.client.api.subscription.JobHandler;
 
 public class JobSubscriptionSpec
@@ -26,6 +29,10 @@ public class JobSubscriptionSpec
     protected final long timeout;
     protected final String worker;
     protected final int capacity;
+    protected final JobDistribution distribution;
+    protected final int activationBatchSize;
+    protected final int weight;
+    protected final Executor executor;
 
     public JobSubscriptionSpec(
             String topic,
@@ -33,7 +40,11 @@ public class JobSubscriptionSpec
             String taskType,
             long timeout,
             String worker,
-            int capacity)
+            int capacity,
+            JobDistribution distribution,
+            int activationBatchSize,
+            int weight,
+            Executor executor)
     {
         this.topic = topic;
         this.jobHandler = jobHandler;
@@ -41,6 +52,10 @@ public class JobSubscriptionSpec
         this.timeout = timeout;
         this.worker = worker;
         this.capacity = capacity;
+        this.distribution = distribution;
+        this.activationBatchSize = activationBatchSize;
+        this.weight = weight;
+        this.executor = executor;
     }
 
     public String getTopic()
@@ -73,6 +88,30 @@ public class JobSubscriptionSpec
         return capacity;
     }
 
+    public JobDistribution getDistribution()
+    {
+        return distribution;
+    }
+
+    public int getActivationBatchSize()
+    {
+        return activationBatchSize;
+    }
+
+    public int getWeight()
+    {
+        return weight;
+    }
+
+    /**
+     * @return the executor to handle the jobs on, or <code>null</code> if the
+     *         jobs are handled by the client's subscription execution threads
+     */
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
     @Override
     public String toString()
     {
@@ -89,6 +128,14 @@ public class JobSubscriptionSpec
         builder.append(worker);
         builder.append(", capacity=");
         builder.append(capacity);
+        builder.append(", distribution=");
+        builder.append(distribution);
+        builder.append(", activationBatchSize=");
+        builder.append(activationBatchSize);
+        builder.append(", weight=");
+        builder.append(weight);
+        builder.append(", executor=");
+        builder.append(executor);
         builder.append("]");
         return builder.toString();
     }
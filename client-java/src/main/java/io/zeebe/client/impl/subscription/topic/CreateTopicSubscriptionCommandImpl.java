@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.impl.subscription.topic;
 
+import java.util.List;
+
 import io.zeebe.client.impl.CommandImpl;
 import io.zeebe.client.impl.RequestManager;
 import io.zeebe.client.impl.command.TopicSubscriberCommandImpl;
@@ -58,6 +60,12 @@ public class CreateTopicSubscriptionCommandImpl extends CommandImpl<TopicSubscri
         return this;
     }
 
+    public CreateTopicSubscriptionCommandImpl filters(List<RecordFilterImpl> filters)
+    {
+        this.command.setFilters(filters);
+        return this;
+    }
+
     @Override
     public RecordImpl getCommand()
     {
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl.subscription.topic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.client.api.record.RecordType;
+import io.zeebe.client.api.record.ValueType;
+import io.zeebe.client.api.subscription.RecordFilter;
+import io.zeebe.protocol.intent.Intent;
+import io.zeebe.util.EnsureUtil;
+
+/**
+ * Is serialized as part of the subscribe command, so that the protocol values
+ * of the types and intents are sent.
+ */
+public class RecordFilterImpl implements RecordFilter
+{
+    private static final int ANY = -1;
+
+    private int valueType = ANY;
+    private int recordType = ANY;
+    private List<Integer> intents = new ArrayList<>();
+    private String bpmnProcessId = "";
+    private String jobType = "";
+
+    private io.zeebe.protocol.clientapi.ValueType protocolValueType;
+
+    public RecordFilterImpl()
+    {
+        // for deserialization
+    }
+
+    public RecordFilterImpl(ValueType valueType)
+    {
+        EnsureUtil.ensureNotNull("valueType", valueType);
+
+        this.protocolValueType = io.zeebe.protocol.clientapi.ValueType.valueOf(valueType.name());
+        this.valueType = protocolValueType.value();
+    }
+
+    @Override
+    public RecordFilter recordType(RecordType recordType)
+    {
+        EnsureUtil.ensureNotNull("recordType", recordType);
+
+        this.recordType = io.zeebe.protocol.clientapi.RecordType.valueOf(recordType.name()).value();
+        return this;
+    }
+
+    @Override
+    public RecordFilter intents(String... intents)
+    {
+        for (String intent : intents)
+        {
+            EnsureUtil.ensureNotNullOrEmpty("intent", intent);
+
+            this.intents.add((int) Intent.fromProtocolValue(protocolValueType, intent).value());
+        }
+        return this;
+    }
+
+    @Override
+    public RecordFilter bpmnProcessId(String bpmnProcessId)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("bpmnProcessId", bpmnProcessId);
+
+        this.bpmnProcessId = bpmnProcessId;
+        return this;
+    }
+
+    @Override
+    public RecordFilter jobType(String jobType)
+    {
+        EnsureUtil.ensureNotNullOrEmpty("jobType", jobType);
+
+        this.jobType = jobType;
+        return this;
+    }
+
+    public int getValueType()
+    {
+        return valueType;
+    }
+
+    public void setValueType(int valueType)
+    {
+        this.valueType = valueType;
+    }
+
+    public int getRecordType()
+    {
+        return recordType;
+    }
+
+    public void setRecordType(int recordType)
+    {
+        this.recordType = recordType;
+    }
+
+    public List<Integer> getIntents()
+    {
+        return intents;
+    }
+
+    public void setIntents(List<Integer> intents)
+    {
+        this.intents = intents;
+    }
+
+    public String getBpmnProcessId()
+    {
+        return bpmnProcessId;
+    }
+
+    public void setBpmnProcessId(String bpmnProcessId)
+    {
+        this.bpmnProcessId = bpmnProcessId;
+    }
+
+    public String getJobType()
+    {
+        return jobType;
+    }
+
+    public void setJobType(String jobType)
+    {
+        this.jobType = jobType;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RecordFilter [valueType=" + valueType + ", recordType=" + recordType + ", intents=" + intents +
+                ", bpmnProcessId=" + bpmnProcessId + ", jobType=" + jobType + "]";
+    }
+}
@@ -84,6 +84,7 @@ public class TopicSubscriberGroup extends SubscriberGroup<TopicSubscriber> imple
             .bufferSize(subscription.getBufferSize())
             .name(subscription.getName())
             .forceStart(subscription.isForceStart())
+            .filters(subscription.getFilters())
             .send();
     }
 
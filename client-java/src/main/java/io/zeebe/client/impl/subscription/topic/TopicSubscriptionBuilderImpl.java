@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.impl.subscription.topic;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 
@@ -34,6 +36,7 @@ import io.zeebe.client.api.subscription.IncidentEventHandler;
 import io.zeebe.client.api.subscription.JobCommandHandler;
 import io.zeebe.client.api.subscription.JobEventHandler;
 import io.zeebe.client.api.subscription.RaftEventHandler;
+import io.zeebe.client.api.subscription.RecordFilter;
 import io.zeebe.client.api.subscription.RecordHandler;
 import io.zeebe.client.api.subscription.TopicSubscription;
 import io.zeebe.client.api.subscription.TopicSubscriptionBuilderStep1;
@@ -98,6 +101,7 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilderSte
     private boolean forceStart;
     private long defaultStartPosition;
     private final Long2LongHashMap startPositions = new Long2LongHashMap(-1);
+    private final List<RecordFilterImpl> filters = new ArrayList<>();
 
     public TopicSubscriptionBuilderImpl(TopicClientImpl client)
     {
@@ -222,6 +226,14 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilderSte
         return this;
     }
 
+    @Override
+    public TopicSubscriptionBuilderStep3 filter(RecordFilter filter)
+    {
+        EnsureUtil.ensureNotNull("filter", filter);
+        this.filters.add((RecordFilterImpl) filter);
+        return this;
+    }
+
     @Override
     public TopicSubscription open()
     {
@@ -246,7 +258,8 @@ public class TopicSubscriptionBuilderImpl implements TopicSubscriptionBuilderSte
                 startPositions,
                 forceStart,
                 name,
-                bufferSize);
+                bufferSize,
+                filters);
 
         return subscriptionManager.openTopicSubscription(subscription);
     }
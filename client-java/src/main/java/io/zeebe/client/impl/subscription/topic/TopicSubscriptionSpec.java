@@ -15,6 +15,8 @@
  */
 package io.zeebe.client.impl.subscription.topic;
 
+import java.util.List;
+
 import org.agrona.collections.Long2LongHashMap;
 import io.zeebe.client.impl.record.UntypedRecordImpl;
 import io.zeebe.util.CheckedConsumer;
@@ -29,6 +31,7 @@ public class TopicSubscriptionSpec
     protected final int bufferSize;
     protected final long defaultStartPosition;
     protected final Long2LongHashMap startPositions;
+    protected final List<RecordFilterImpl> filters;
 
     public TopicSubscriptionSpec(
             String topic,
@@ -37,7 +40,8 @@ public class TopicSubscriptionSpec
             Long2LongHashMap startPositions,
             boolean forceStart,
             String name,
-            int bufferSize)
+            int bufferSize,
+            List<RecordFilterImpl> filters)
     {
         this.topic = topic;
         this.handler = handler;
@@ -46,6 +50,7 @@ public class TopicSubscriptionSpec
         this.forceStart = forceStart;
         this.name = name;
         this.bufferSize = bufferSize;
+        this.filters = filters;
     }
 
     public String getTopic()
@@ -83,6 +88,11 @@ public class TopicSubscriptionSpec
         return bufferSize;
     }
 
+    public List<RecordFilterImpl> getFilters()
+    {
+        return filters;
+    }
+
     @Override
     public String toString()
     {
@@ -101,6 +111,8 @@ public class TopicSubscriptionSpec
         builder.append(name);
         builder.append(", bufferSize=");
         builder.append(bufferSize);
+        builder.append(", filters=");
+        builder.append(filters);
         builder.append("]");
         return builder.toString();
     }
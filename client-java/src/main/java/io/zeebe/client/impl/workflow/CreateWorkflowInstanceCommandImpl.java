@@ -55,6 +55,13 @@ public class CreateWorkflowInstanceCommandImpl extends CommandImpl<WorkflowInsta
         return this;
     }
 
+    @Override
+    public CreateWorkflowInstanceCommandStep3 payload(final Object payload)
+    {
+        this.command.setPayloadObject(payload);
+        return this;
+    }
+
     @Override
     public CreateWorkflowInstanceCommandStep2 bpmnProcessId(final String id)
     {
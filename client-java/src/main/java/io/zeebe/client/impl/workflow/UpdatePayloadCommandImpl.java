@@ -56,6 +56,13 @@ public class UpdatePayloadCommandImpl extends CommandImpl<WorkflowInstanceEvent>
         return this;
     }
 
+    @Override
+    public UpdatePayloadWorkflowInstanceCommandStep2 payload(Object payload)
+    {
+        command.setPayloadObject(payload);
+        return this;
+    }
+
     @Override
     public RecordImpl getCommand()
     {
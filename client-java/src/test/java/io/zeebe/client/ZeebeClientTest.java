@@ -257,6 +257,61 @@ public class ZeebeClientTest
         }
     }
 
+    @Test
+    public void shouldQueueRequestsExceedingMaxRequestsInFlight()
+    {
+        // given
+        final ZeebeClient client = ZeebeClient.newClientBuilder()
+                .maxRequestsInFlight(1)
+                .build();
+        closeables.manage(client);
+
+        stubJobResponse();
+
+        final List<ZeebeFuture<JobEvent>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 10; i++)
+        {
+            futures.add(client.topicClient()
+                    .jobClient()
+                    .newCreateCommand()
+                    .jobType("foo")
+                    .send());
+        }
+
+        // then
+        futures.forEach(future -> assertThat(future.join()).isNotNull());
+        assertThat(broker.getReceivedCommandRequests()).hasSize(10);
+    }
+
+    @Test
+    public void shouldFailRequestsExceedingRequestQueueCapacity()
+    {
+        // given
+        final ZeebeClient client = ZeebeClient.newClientBuilder()
+                .requestTimeout(Duration.ofSeconds(3))
+                .maxRequestsInFlight(1)
+                .requestQueueCapacity(1)
+                .build();
+        closeables.manage(client);
+
+        broker.onExecuteCommandRequest(ValueType.JOB, JobIntent.CREATE)
+            .doNotRespond();
+
+        client.topicClient().jobClient().newCreateCommand().jobType("foo").send();
+        client.topicClient().jobClient().newCreateCommand().jobType("foo").send();
+
+        // when
+        final ZeebeFuture<JobEvent> future = client.topicClient().jobClient().newCreateCommand().jobType("foo").send();
+
+        // then
+        assertThat(future.isDone()).isTrue();
+        assertThatThrownBy(() -> future.join())
+            .isInstanceOf(ClientException.class)
+            .hasMessageContaining("the client has reached the limit of 2 pending requests");
+    }
+
     @Test
     public void shouldDistributeNewEntitiesRoundRobin()
     {
@@ -457,6 +512,8 @@ public class ZeebeClientTest
         final int numSubscriptionThreads = 3;
         final Duration requestBlockTime = Duration.ofSeconds(4);
         final Duration requestTimeout = Duration.ofSeconds(5);
+        final int maxRequestsInFlight = 10;
+        final int requestQueueCapacity = 11;
         final int sendBufferSize = 6;
         final Duration tcpChannelKeepAlivePeriod = Duration.ofSeconds(7);
         final int topicSubscriptionBufferSize = 8;
@@ -469,7 +526,10 @@ public class ZeebeClientTest
                 .numSubscriptionExecutionThreads(numSubscriptionThreads)
                 .requestBlocktime(requestBlockTime)
                 .requestTimeout(requestTimeout)
+                .maxRequestsInFlight(maxRequestsInFlight)
+                .requestQueueCapacity(requestQueueCapacity)
                 .sendBufferSize(sendBufferSize)
+                .recordPooling(false)
                 .tcpChannelKeepAlivePeriod(tcpChannelKeepAlivePeriod)
                 .defaultTopicSubscriptionBufferSize(topicSubscriptionBufferSize)
                 .defaultJobSubscriptionBufferSize(jobSubscriptionBufferSize)
@@ -483,7 +543,10 @@ public class ZeebeClientTest
         assertThat(configuration.getNumSubscriptionExecutionThreads()).isEqualTo(numSubscriptionThreads);
         assertThat(configuration.getRequestBlocktime()).isEqualTo(requestBlockTime);
         assertThat(configuration.getRequestTimeout()).isEqualTo(requestTimeout);
+        assertThat(configuration.getMaxRequestsInFlight()).isEqualTo(maxRequestsInFlight);
+        assertThat(configuration.getRequestQueueCapacity()).isEqualTo(requestQueueCapacity);
         assertThat(configuration.getSendBufferSize()).isEqualTo(sendBufferSize);
+        assertThat(configuration.isRecordPoolingEnabled()).isFalse();
         assertThat(configuration.getTcpChannelKeepAlivePeriod()).isEqualTo(tcpChannelKeepAlivePeriod);
         assertThat(configuration.getDefaultTopicSubscriptionBufferSize()).isEqualTo(topicSubscriptionBufferSize);
         assertThat(configuration.getDefaultJobSubscriptionBufferSize()).isEqualTo(jobSubscriptionBufferSize);
@@ -196,6 +196,30 @@ public class ClientCommandManagerTest
                 .join();
     }
 
+    @Test
+    public void testBackpressureResponse()
+    {
+        // given
+        broker.onExecuteCommandRequest(ValueType.JOB, JobIntent.CREATE)
+            .respondWithError()
+                .errorCode(ErrorCode.REQUEST_TIMEOUT)
+                .errorData("overloaded")
+            .register();
+
+        // when
+        final ZeebeFuture<JobEvent> future = client.topicClient().jobClient()
+                .newCreateCommand()
+                .jobType("foo")
+                .send();
+
+        // then the command is retried until the request times out
+        assertThatThrownBy(() -> future.join())
+            .isInstanceOf(ClientException.class)
+            .hasMessageContaining("Request exception (REQUEST_TIMEOUT): overloaded");
+
+        assertThat(broker.getReceivedCommandRequests().size()).isGreaterThan(1);
+    }
+
     protected void assertTopologyRefreshRequests(final int count)
     {
         final List<ControlMessageRequest> receivedControlMessageRequests = broker.getReceivedControlMessageRequests();
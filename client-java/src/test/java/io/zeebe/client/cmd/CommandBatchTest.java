@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.cmd;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.zeebe.client.api.commands.CommandBatchStep1;
+import io.zeebe.client.impl.event.JobEventImpl;
+import io.zeebe.client.util.ClientRule;
+import io.zeebe.client.util.Events;
+import io.zeebe.test.broker.protocol.brokerapi.StubBrokerRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CommandBatchTest
+{
+    public ClientRule clientRule = new ClientRule();
+    public StubBrokerRule broker = new StubBrokerRule();
+
+    @Rule
+    public RuleChain ruleChain = RuleChain.outerRule(broker).around(clientRule);
+
+    @Test
+    public void shouldRejectCommandOfOtherTopic()
+    {
+        // given
+        broker.addTopic("other-topic", 1);
+
+        final CommandBatchStep1 batch = clientRule.topicClient().newCommandBatch();
+
+        // then
+        assertThatThrownBy(() -> batch.add(clientRule.getClient().topicClient("other-topic").jobClient()
+                .newCreateCommand()
+                .jobType("foo")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Command must address the topic");
+    }
+
+    @Test
+    public void shouldRejectCommandsOfDifferentPartitions()
+    {
+        // given
+        final JobEventImpl job = Events.exampleJob();
+        job.setPartitionId(1);
+
+        final JobEventImpl otherJob = Events.exampleJob();
+        otherJob.setPartitionId(2);
+
+        final CommandBatchStep1 batch = clientRule.topicClient().newCommandBatch()
+            .add(clientRule.jobClient().newCompleteCommand(job));
+
+        // then
+        assertThatThrownBy(() -> batch.add(clientRule.jobClient().newCompleteCommand(otherJob)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Command must address the partition 1");
+    }
+
+    @Test
+    public void shouldRejectEmptyBatch()
+    {
+        // given
+        final CommandBatchStep1 batch = clientRule.topicClient().newCommandBatch();
+
+        // then
+        assertThatThrownBy(() -> batch.send())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("Batch must contain at least one command");
+    }
+}
@@ -20,7 +20,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -53,6 +55,7 @@ import io.zeebe.client.api.subscription.IncidentEventHandler;
 import io.zeebe.client.api.subscription.JobCommandHandler;
 import io.zeebe.client.api.subscription.JobEventHandler;
 import io.zeebe.client.api.subscription.RaftEventHandler;
+import io.zeebe.client.api.subscription.RecordFilter;
 import io.zeebe.client.api.subscription.RecordHandler;
 import io.zeebe.client.api.subscription.TopicSubscription;
 import io.zeebe.client.api.subscription.WorkflowInstanceCommandHandler;
@@ -140,6 +143,48 @@ public class TopicSubscriptionTest
             .doesNotContainEntry("forceStart", true);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldOpenSubscriptionWithFilters()
+    {
+        // given
+        broker.stubTopicSubscriptionApi(123L);
+
+        // when
+        clientRule.topicClient()
+            .newSubscription()
+            .name(SUBSCRIPTION_NAME)
+            .recordHandler(DO_NOTHING)
+            .filter(RecordFilter.valueType(io.zeebe.client.api.record.ValueType.WORKFLOW_INSTANCE)
+                        .recordType(io.zeebe.client.api.record.RecordType.EVENT)
+                        .intents("COMPLETED")
+                        .bpmnProcessId("order"))
+            .filter(RecordFilter.valueType(io.zeebe.client.api.record.ValueType.INCIDENT))
+            .open();
+
+        // then
+        final ExecuteCommandRequest subscribeRequest = broker.getReceivedCommandRequests()
+            .stream()
+            .filter((e) -> e.valueType() == ValueType.SUBSCRIBER)
+            .findFirst()
+            .get();
+
+        final List<Map<String, Object>> filters = (List<Map<String, Object>>) subscribeRequest.getCommand().get("filters");
+        assertThat(filters).hasSize(2);
+
+        assertThat(filters.get(0))
+            .containsEntry("valueType", (int) ValueType.WORKFLOW_INSTANCE.value())
+            .containsEntry("recordType", (int) RecordType.EVENT.value())
+            .containsEntry("intents", Collections.singletonList((int) WorkflowInstanceIntent.COMPLETED.value()))
+            .containsEntry("bpmnProcessId", "order")
+            .containsEntry("jobType", "");
+
+        assertThat(filters.get(1))
+            .containsEntry("valueType", (int) ValueType.INCIDENT.value())
+            .containsEntry("recordType", -1)
+            .containsEntry("intents", Collections.emptyList());
+    }
+
     @Test
     public void shouldOpenSubscriptionAndForceStart()
     {
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.impl.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.zeebe.client.impl.record.UntypedRecordImpl;
+import io.zeebe.util.CheckedConsumer;
+import io.zeebe.util.sched.ActorCondition;
+import io.zeebe.util.sched.future.ActorFuture;
+import io.zeebe.util.sched.future.CompletableActorFuture;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+public class SubscriberTest
+{
+    private static final int CAPACITY = 2;
+
+    // like the collector, the pushed records are views on a reused buffer
+    private final UnsafeBuffer receiveBuffer = new UnsafeBuffer(new byte[64]);
+    private final UnsafeBuffer pushedValue = new UnsafeBuffer(0, 0);
+    private UntypedRecordImpl pushedRecord;
+
+    private final List<UntypedRecordImpl> handledRecords = new ArrayList<>();
+    private final List<Long> handledKeys = new ArrayList<>();
+    private final List<String> handledValues = new ArrayList<>();
+
+    @Test
+    public void shouldNotLeakRecycledRecordIntoQueuedRecords()
+    {
+        // given
+        final TestSubscriber subscriber = newSubscriber(true);
+
+        subscriber.addEvent(push(1L, "first"));
+        subscriber.addEvent(push(2L, "second"));
+
+        subscriber.pollEvents(this::handle, 1);
+
+        // when the handled record is reused for the next pushed record
+        subscriber.addEvent(push(3L, "third"));
+        subscriber.pollEvents(this::handle, 2);
+
+        // then
+        assertThat(handledValues).containsExactly("first", "second", "third");
+        assertThat(handledKeys).containsExactly(1L, 2L, 3L);
+        assertThat(handledRecords.get(2)).isSameAs(handledRecords.get(0));
+    }
+
+    @Test
+    public void shouldCopyRecordsWhenQueueIsSaturated()
+    {
+        // given
+        final TestSubscriber subscriber = newSubscriber(true);
+
+        assertThat(subscriber.addEvent(push(1L, "a"))).isTrue();
+        assertThat(subscriber.addEvent(push(2L, "longer value"))).isTrue();
+
+        // when
+        final boolean isAdded = subscriber.addEvent(push(3L, "rejected"));
+
+        // then
+        assertThat(isAdded).isFalse();
+
+        // when the rejected record is pushed again after the queue is drained
+        subscriber.pollEvents(this::handle, 2);
+        assertThat(subscriber.addEvent(push(3L, "rejected"))).isTrue();
+        subscriber.pollEvents(this::handle, 1);
+
+        // then
+        assertThat(handledValues).containsExactly("a", "longer value", "rejected");
+        assertThat(handledKeys).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void shouldDetachRecordsIfPoolingIsDisabled()
+    {
+        // given
+        final TestSubscriber subscriber = newSubscriber(false);
+
+        final UntypedRecordImpl pushedRecord = push(1L, "first");
+        subscriber.addEvent(pushedRecord);
+
+        // when the receive buffer is reused
+        subscriber.addEvent(push(2L, "second"));
+        subscriber.pollEvents(this::handle, 2);
+
+        // then
+        assertThat(subscriber.recordPool).isNull();
+        assertThat(handledValues).containsExactly("first", "second");
+        assertThat(handledRecords).doesNotContain(pushedRecord);
+        assertThat(handledRecords.get(0)).isNotSameAs(handledRecords.get(1));
+    }
+
+    private UntypedRecordImpl push(long key, String value)
+    {
+        if (pushedRecord == null)
+        {
+            pushedRecord = new UntypedRecordImpl(null);
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        receiveBuffer.setMemory(0, receiveBuffer.capacity(), (byte) 0);
+        receiveBuffer.putBytes(0, bytes);
+        pushedValue.wrap(receiveBuffer, 0, bytes.length);
+
+        pushedRecord.setKey(key);
+        pushedRecord.wrapValue(pushedValue, 0, bytes.length);
+
+        return pushedRecord;
+    }
+
+    private void handle(UntypedRecordImpl record)
+    {
+        // the records are recycled after the handler returns
+        handledRecords.add(record);
+        handledKeys.add(record.getKey());
+        handledValues.add(new String(record.getValueArray(), 0, record.getValueLength(), StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private TestSubscriber newSubscriber(boolean isRecordPoolingEnabled)
+    {
+        final SubscriptionManager subscriptionManager = mock(SubscriptionManager.class);
+        when(subscriptionManager.isRecordPoolingEnabled()).thenReturn(isRecordPoolingEnabled);
+
+        final SubscriberGroup group = mock(SubscriberGroup.class);
+        when(group.buildReplenishmentTrigger(any())).thenReturn(mock(ActorCondition.class));
+
+        return new TestSubscriber(group, subscriptionManager);
+    }
+
+    private static class TestSubscriber extends Subscriber
+    {
+        @SuppressWarnings("rawtypes")
+        TestSubscriber(SubscriberGroup group, SubscriptionManager subscriptionManager)
+        {
+            super(1L, 0, CAPACITY, null, group, subscriptionManager);
+        }
+
+        void pollEvents(CheckedConsumer<UntypedRecordImpl> handler, int expectedEvents)
+        {
+            assertThat(pollEvents(handler)).isEqualTo(expectedEvents);
+        }
+
+        @Override
+        protected ActorFuture<?> requestEventSourceReplenishment(int eventsProcessed)
+        {
+            return CompletableActorFuture.completed(null);
+        }
+
+        @Override
+        public String getTopicName()
+        {
+            return "test-topic";
+        }
+
+        @Override
+        protected ActorFuture<Void> requestSubscriptionClose()
+        {
+            return CompletableActorFuture.completed(null);
+        }
+    }
+}
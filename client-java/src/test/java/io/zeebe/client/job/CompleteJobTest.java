@@ -96,6 +96,29 @@ public class CompleteJobTest
         assertThat(jobEvent.getPayload()).isEqualTo(updatedPayload);
     }
 
+    @Test
+    public void shouldCompleteJobWithPayloadObject()
+    {
+        // given
+        final JobEventImpl baseEvent = Events.exampleJob();
+
+        brokerRule.jobs().registerCompleteCommand();
+
+        // when
+        final JobEvent jobEvent = clientRule.jobClient()
+            .newCompleteCommand(baseEvent)
+            .payload(new Fruit("cherry"))
+            .send()
+            .join();
+
+        // then
+        final ExecuteCommandRequest request = brokerRule.getReceivedCommandRequests().get(0);
+        assertThat(request.getCommand()).contains(entry("payload", converter.convertToMsgPack("{\"fruit\":\"cherry\"}")));
+
+        assertThat(jobEvent.getPayloadAsType(Fruit.class).getFruit()).isEqualTo("cherry");
+        assertThat(jobEvent.getPayload()).isEqualTo("{\"fruit\":\"cherry\"}");
+    }
+
     @Test
     public void shouldClearPayload()
     {
@@ -183,4 +206,27 @@ public class CompleteJobTest
                 entry("payload", converter.convertToMsgPack(updatedPayload)));
     }
 
+    public static class Fruit
+    {
+        private String fruit;
+
+        public Fruit()
+        {
+        }
+
+        public Fruit(String fruit)
+        {
+            this.fruit = fruit;
+        }
+
+        public String getFruit()
+        {
+            return fruit;
+        }
+
+        public void setFruit(String fruit)
+        {
+            this.fruit = fruit;
+        }
+    }
 }
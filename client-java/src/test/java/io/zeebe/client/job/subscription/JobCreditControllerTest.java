@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.job.subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.client.impl.subscription.job.JobCreditController;
+import org.junit.Test;
+
+public class JobCreditControllerTest
+{
+    private static final int CAPACITY = 16;
+    private static final long TIMEOUT_MILLIS = 1_000L;
+
+    private long nanoTime = 0L;
+
+    private final JobCreditController controller = new JobCreditController(CAPACITY, TIMEOUT_MILLIS, () -> nanoTime);
+
+    @Test
+    public void shouldGrantCreditsWhenThresholdIsReached()
+    {
+        // given
+        handleJobs(11, 1L);
+
+        assertThat(controller.shouldGrantCredits()).isFalse();
+
+        // when
+        handleJobs(1, 1L);
+
+        // then
+        assertThat(controller.shouldGrantCredits()).isTrue();
+        assertThat(controller.grantCredits(0, 0)).isEqualTo(12);
+        assertThat(controller.getWindow()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    public void shouldDecreaseWindowIfJobsWouldTimeOut()
+    {
+        // given
+        handleJobs(12, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // when
+        final int credits = controller.grantCredits(8, 1);
+
+        // then a new job would wait for 100ms * (1 + 8) > timeout / 2
+        assertThat(controller.getWindow()).isEqualTo(CAPACITY / 2);
+        assertThat(credits).isEqualTo(CAPACITY / 2 - 4);
+    }
+
+    @Test
+    public void shouldWithholdCreditsUntilJobsFitIntoWindow()
+    {
+        // given
+        handleJobs(4, TimeUnit.MILLISECONDS.toNanos(100));
+
+        // when
+        final int credits = controller.grantCredits(8, 1);
+
+        // then
+        assertThat(controller.getWindow()).isEqualTo(CAPACITY / 2);
+        assertThat(credits).isEqualTo(0);
+        assertThat(controller.shouldGrantCredits()).isFalse();
+    }
+
+    @Test
+    public void shouldIncreaseWindowIfCreditsAreUsedUp()
+    {
+        // given the window was decreased once
+        handleJobs(12, TimeUnit.MILLISECONDS.toNanos(100));
+        controller.grantCredits(8, 1);
+
+        // when all credits are used up before new ones are granted
+        handleJobs(CAPACITY / 2, 1L);
+        final int credits = controller.grantCredits(0, 0);
+
+        // then
+        assertThat(controller.getWindow()).isEqualTo(CAPACITY / 2 + 1);
+        assertThat(credits).isEqualTo(CAPACITY / 2 + 1);
+    }
+
+    @Test
+    public void shouldNotExceedCapacity()
+    {
+        // given
+        handleJobs(CAPACITY, 1L);
+
+        // when
+        final int credits = controller.grantCredits(0, 0);
+
+        // then
+        assertThat(controller.getWindow()).isEqualTo(CAPACITY);
+        assertThat(credits).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    public void shouldGrantCreditsBeforeJobsOfRoundTripArrive()
+    {
+        // given one job per millisecond and a round trip of 2.5 milliseconds
+        receiveAndHandleJobs(4, TimeUnit.MILLISECONDS.toNanos(1));
+        controller.grantCredits(0, 0);
+        controller.onCreditsGranted(TimeUnit.MICROSECONDS.toNanos(2_500));
+
+        // when
+        receiveAndHandleJobs(4, TimeUnit.MILLISECONDS.toNanos(1));
+        controller.grantCredits(0, 0);
+
+        // then
+        assertThat(controller.getLowWatermark()).isEqualTo(3);
+    }
+
+    private void handleJobs(int count, long handlingNanos)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            nanoTime += handlingNanos;
+            controller.onJobHandled(handlingNanos);
+        }
+    }
+
+    private void receiveAndHandleJobs(int count, long intervalNanos)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            controller.onJobReceived();
+            nanoTime += intervalNanos;
+            controller.onJobHandled(1L);
+        }
+    }
+}
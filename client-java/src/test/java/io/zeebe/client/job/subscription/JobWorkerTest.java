@@ -23,6 +23,8 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
@@ -35,6 +37,7 @@ import io.zeebe.client.ZeebeClient;
 import io.zeebe.client.ZeebeClientConfiguration;
 import io.zeebe.client.api.clients.JobClient;
 import io.zeebe.client.api.events.JobEvent;
+import io.zeebe.client.api.subscription.JobDistribution;
 import io.zeebe.client.api.subscription.JobHandler;
 import io.zeebe.client.api.subscription.JobWorker;
 import io.zeebe.client.impl.ZeebeClientImpl;
@@ -122,6 +125,29 @@ public class JobWorkerTest
                 entry("credits", 456));
     }
 
+    @Test
+    public void shouldOpenSubscriptionWithWeight()
+    {
+        // given
+        broker.stubJobSubscriptionApi(123L);
+
+        // when
+        clientRule.jobClient()
+            .newWorker()
+            .jobType("bar")
+            .handler(DO_NOTHING)
+            .distribution(JobDistribution.WEIGHTED_ROUND_ROBIN)
+            .weight(3)
+            .open();
+
+        // then
+        final ControlMessageRequest subscriptionRequest = getSubscribeRequests().findFirst().get();
+
+        assertThat(subscriptionRequest.getData()).contains(
+                entry("distribution", "WEIGHTED_ROUND_ROBIN"),
+                entry("weight", 3));
+    }
+
     @Test
     public void shouldCloseSubscription()
     {
@@ -643,6 +669,48 @@ public class JobWorkerTest
         TestUtil.waitUntil(() -> handler.numHandledEvents.get() == jobCapacity + numExecutionThreads + 1);
     }
 
+    @Test
+    public void shouldHandleJobsConcurrentlyOnWorkerExecutor()
+    {
+        // given
+        broker.stubJobSubscriptionApi(123L);
+
+        final int numJobs = NUM_EXECUTION_THREADS + 2;
+        final ExecutorService executor = Executors.newFixedThreadPool(numJobs);
+        closeables.manage(executor::shutdownNow);
+
+        final WaitingJobHandler handler = new WaitingJobHandler();
+
+        clientRule.jobClient()
+            .newWorker()
+            .jobType("foo")
+            .handler(handler)
+            .name("owner")
+            .timeout(10000L)
+            .bufferSize(numJobs)
+            .executor(executor)
+            .open();
+
+        final RemoteAddress clientAddress = getSubscribeRequests().findFirst().get().getSource();
+
+        // when
+        for (int i = 0; i < numJobs; i++)
+        {
+            broker.pushActivatedJob(clientAddress, 123L, i, i, "owner", "foo");
+        }
+
+        // then the jobs are not limited by the subscription execution threads
+        waitUntil(() -> handler.numWaitingThreads.get() == numJobs);
+        assertThat(getCreditRequests().count()).isEqualTo(0);
+
+        // and the credits are replenished when the jobs are handled
+        handler.shouldWait = false;
+        continueJobHandlingThreads();
+
+        waitUntil(() -> handler.numHandledEvents.get() == numJobs);
+        waitUntil(() -> getCreditRequests().count() >= 1);
+    }
+
     /**
      * i.e. if signalling job failure itself fails
      */
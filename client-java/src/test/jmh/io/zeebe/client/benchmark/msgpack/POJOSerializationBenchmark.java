@@ -35,4 +35,38 @@ public class POJOSerializationBenchmark
         final POJOFactory pojoFactory = ctx.getPojoFactory();
         serializer.serialize(pojoFactory.build(), ctx.getTargetBuffer(), 0);
     }
+
+    /**
+     * Converts the payload to JSON and binds the JSON, as the client did before
+     * the payload could be bound directly
+     */
+    @Benchmark
+    @Threads(1)
+    public Object deserializePayloadViaJson(PayloadSerializationContext ctx) throws Exception
+    {
+        final String json = ctx.converter.convertToJson(ctx.msgPack);
+        return ctx.jsonObjectMapper.readValue(json, PayloadSerializationContext.Order.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object deserializePayload(PayloadSerializationContext ctx)
+    {
+        return ctx.objectMapper.fromMsgpackPayload(ctx.msgPack, PayloadSerializationContext.Order.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] serializePayloadViaJson(PayloadSerializationContext ctx) throws Exception
+    {
+        final String json = ctx.jsonObjectMapper.writeValueAsString(ctx.order);
+        return ctx.converter.convertToMsgPack(json);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public byte[] serializePayload(PayloadSerializationContext ctx)
+    {
+        return ctx.objectMapper.toMsgpackPayload(ctx.order);
+    }
 }
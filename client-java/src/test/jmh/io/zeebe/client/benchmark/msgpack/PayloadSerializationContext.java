@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.benchmark.msgpack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class PayloadSerializationContext
+{
+    @Param(value = {
+            "1024",
+            "10240",
+            "102400"
+        })
+    protected int payloadSize;
+
+    protected final MsgPackConverter converter = new MsgPackConverter();
+    protected final ZeebeObjectMapperImpl objectMapper = new ZeebeObjectMapperImpl(converter);
+    protected final ObjectMapper jsonObjectMapper = new ObjectMapper();
+
+    protected Order order;
+    protected byte[] msgPack;
+
+    @Setup
+    public void setUp() throws Exception
+    {
+        order = new Order();
+        order.setOrderId("order-123");
+
+        int i = 0;
+        do
+        {
+            order.getItems().add(new OrderItem("item-" + i, i, i * 1.5));
+            msgPack = converter.convertToMsgPack(jsonObjectMapper.writeValueAsString(order));
+            i++;
+        }
+        while (msgPack.length < payloadSize);
+    }
+
+    public static class Order
+    {
+        private String orderId;
+        private List<OrderItem> items = new ArrayList<>();
+
+        public String getOrderId()
+        {
+            return orderId;
+        }
+
+        public void setOrderId(String orderId)
+        {
+            this.orderId = orderId;
+        }
+
+        public List<OrderItem> getItems()
+        {
+            return items;
+        }
+
+        public void setItems(List<OrderItem> items)
+        {
+            this.items = items;
+        }
+    }
+
+    public static class OrderItem
+    {
+        private String name;
+        private long quantity;
+        private double price;
+
+        public OrderItem()
+        {
+        }
+
+        public OrderItem(String name, long quantity, double price)
+        {
+            this.name = name;
+            this.quantity = quantity;
+            this.price = price;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public void setName(String name)
+        {
+            this.name = name;
+        }
+
+        public long getQuantity()
+        {
+            return quantity;
+        }
+
+        public void setQuantity(long quantity)
+        {
+            this.quantity = quantity;
+        }
+
+        public double getPrice()
+        {
+            return price;
+        }
+
+        public void setPrice(double price)
+        {
+            this.price = price;
+        }
+    }
+}
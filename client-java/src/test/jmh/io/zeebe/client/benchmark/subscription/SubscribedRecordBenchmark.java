@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.benchmark.subscription;
+
+import java.util.concurrent.TimeUnit;
+
+import io.zeebe.client.impl.event.JobEventImpl;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Run with the gc profiler (<code>-prof gc</code>) to see the allocation rate per record (<code>gc.alloc.rate.norm</code>).
+ */
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+public class SubscribedRecordBenchmark
+{
+
+    @Benchmark
+    @Threads(1)
+    public boolean collect(SubscribedRecordContext ctx)
+    {
+        final boolean handled = ctx.collector.onMessage(null, null, ctx.message, 0, ctx.messageLength);
+        ctx.recycle();
+
+        return handled;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public JobEventImpl collectAndDeserialize(SubscribedRecordContext ctx)
+    {
+        ctx.collector.onMessage(null, null, ctx.message, 0, ctx.messageLength);
+        final JobEventImpl job = ctx.lastRecord.asRecordType(JobEventImpl.class);
+        ctx.recycle();
+
+        return job;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2017 camunda services GmbH (info@camunda.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.zeebe.client.benchmark.subscription;
+
+import java.time.Instant;
+
+import io.zeebe.client.impl.data.MsgPackConverter;
+import io.zeebe.client.impl.data.ZeebeObjectMapperImpl;
+import io.zeebe.client.impl.record.UntypedRecordImpl;
+import io.zeebe.client.impl.subscription.SubscribedRecordCollector;
+import io.zeebe.protocol.clientapi.*;
+import io.zeebe.protocol.intent.JobIntent;
+import org.agrona.concurrent.ManyToManyConcurrentArrayQueue;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Thread)
+public class SubscribedRecordContext
+{
+    private static final String JOB = "{\"type\": \"foo\", \"retries\": 3, \"worker\": \"bar\", " +
+            "\"headers\": {\"bpmnProcessId\": \"process\", \"workflowKey\": 1, \"activityId\": \"task\"}, " +
+            "\"customHeaders\": {\"a\": \"b\", \"c\": \"d\"}, \"payload\": {\"orderId\": 123, \"price\": 45.67}}";
+
+    @Param(value = {
+            "true",
+            "false"
+        })
+    protected boolean recordPooling;
+
+    protected final UnsafeBuffer message = new UnsafeBuffer(new byte[4 * 1024]);
+    protected int messageLength;
+
+    protected final ManyToManyConcurrentArrayQueue<UntypedRecordImpl> recordPool = new ManyToManyConcurrentArrayQueue<>(32);
+
+    protected ZeebeObjectMapperImpl objectMapper;
+    protected SubscribedRecordCollector collector;
+
+    protected UntypedRecordImpl lastRecord;
+
+    @Setup
+    public void setUp()
+    {
+        final MsgPackConverter converter = new MsgPackConverter();
+        objectMapper = new ZeebeObjectMapperImpl(converter);
+
+        final byte[] value = converter.convertToMsgPack(JOB);
+        writeMessage(value);
+
+        // does the same as a subscriber which takes the record and hands it over to the executor
+        collector = new SubscribedRecordCollector((type, subscriberKey, event) ->
+        {
+            final UntypedRecordImpl record;
+
+            if (recordPooling)
+            {
+                final UntypedRecordImpl pooledRecord = recordPool.poll();
+                record = pooledRecord != null ? pooledRecord : new UntypedRecordImpl(objectMapper);
+                record.copyFrom(event);
+            }
+            else
+            {
+                record = event.detach();
+            }
+
+            lastRecord = record;
+
+            return true;
+        }, objectMapper);
+    }
+
+    private void writeMessage(byte[] value)
+    {
+        final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+        final SubscribedRecordEncoder encoder = new SubscribedRecordEncoder();
+
+        headerEncoder.wrap(message, 0)
+            .blockLength(encoder.sbeBlockLength())
+            .schemaId(encoder.sbeSchemaId())
+            .templateId(encoder.sbeTemplateId())
+            .version(encoder.sbeSchemaVersion());
+
+        encoder.wrap(message, headerEncoder.encodedLength())
+            .recordType(RecordType.EVENT)
+            .valueType(ValueType.JOB)
+            .intent(JobIntent.ACTIVATED.value())
+            .key(1)
+            .position(2)
+            .subscriberKey(3)
+            .subscriptionType(SubscriptionType.JOB_SUBSCRIPTION)
+            .partitionId(1)
+            .timestamp(Instant.now().toEpochMilli())
+            .putValue(value, 0, value.length);
+
+        messageLength = headerEncoder.encodedLength() + encoder.encodedLength();
+    }
+
+    /**
+     * Returns the record of the last message to the pool, as the subscriber does after the record is handled
+     */
+    public void recycle()
+    {
+        if (recordPooling)
+        {
+            recordPool.offer(lastRecord);
+        }
+    }
+}
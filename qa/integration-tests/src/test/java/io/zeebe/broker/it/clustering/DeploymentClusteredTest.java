@@ -118,6 +118,41 @@ public class DeploymentClusteredTest
         }
     }
 
+    @Test
+    public void shouldCreateInstancesByWorkflowKey()
+    {
+        // given
+        final Topic topic = clusteringRule.createTopic("test", PARTITION_COUNT);
+
+        final DeploymentEvent deploymentEvent = client.topicClient("test")
+            .workflowClient()
+            .newDeployCommand()
+            .addWorkflowModel(WORKFLOW, "workflow.bpmn")
+            .send()
+            .join();
+
+        final long workflowKey = deploymentEvent.getDeployedWorkflows().get(0).getWorkflowKey();
+
+        // when the partitions fetch the workflow from the followers of the system partition
+        topic.getPartitions().stream()
+             .mapToInt(Partition::getId)
+             .forEach(partitionId ->
+             {
+                 final CreateWorkflowInstanceCommandImpl command = (CreateWorkflowInstanceCommandImpl) client.topicClient("test")
+                     .workflowClient()
+                     .newCreateInstanceCommand()
+                     .workflowKey(workflowKey);
+
+                 command.getCommand().setPartitionId(partitionId);
+
+                 final WorkflowInstanceEvent workflowInstanceEvent = command.send().join();
+
+                 // then
+                 assertThat(workflowInstanceEvent.getState()).isEqualTo(WorkflowInstanceState.CREATED);
+                 assertThat(workflowInstanceEvent.getWorkflowKey()).isEqualTo(workflowKey);
+             });
+    }
+
     @Test
     @Ignore("https://github.com/zeebe-io/zeebe/issues/844")
     public void shouldDeployOnRemainingBrokers()